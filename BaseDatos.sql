@@ -30,6 +30,7 @@ CREATE TABLE IF NOT EXISTS cuenta (
     numero_cuenta VARCHAR(30) NOT NULL,
     tipo_cuenta VARCHAR(30) NOT NULL,
     saldo_inicial DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    saldo_actual DECIMAL(15,2) NOT NULL DEFAULT 0.00,
     estado VARCHAR(20),
     cliente_id BIGINT NOT NULL,
     UNIQUE KEY uk_cuenta_numero (numero_cuenta),
@@ -44,5 +45,63 @@ CREATE TABLE IF NOT EXISTS movimiento (
     valor DECIMAL(15,2) NOT NULL,
     saldo DECIMAL(15,2) NOT NULL,
     cuenta_id BIGINT NOT NULL,
+    KEY idx_movimiento_cuenta_fecha (cuenta_id, fecha, movimiento_id),
+    KEY idx_movimiento_fecha (fecha, movimiento_id),
     FOREIGN KEY (cuenta_id) REFERENCES cuenta(cuenta_id)
-);
\ No newline at end of file
+);
+
+-- tabla movimiento_archivo (movimientos anteriores al horizonte de archivo, con su mismo identificador)
+CREATE TABLE IF NOT EXISTS movimiento_archivo (
+    movimiento_id BIGINT PRIMARY KEY,
+    fecha DATETIME NOT NULL,
+    tipo_movimiento VARCHAR(30) NOT NULL,
+    valor DECIMAL(15,2) NOT NULL,
+    saldo DECIMAL(15,2) NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    KEY idx_movimiento_archivo_cuenta_fecha (cuenta_id, fecha, movimiento_id),
+    KEY idx_movimiento_archivo_fecha (fecha, movimiento_id),
+    FOREIGN KEY (cuenta_id) REFERENCES cuenta(cuenta_id)
+);
+
+-- secuencia de movimiento (MySQL no soporta secuencias: Hibernate la emula con esta tabla)
+CREATE TABLE IF NOT EXISTS movimiento_seq (
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO movimiento_seq (next_val)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM movimiento_seq);
+
+-- tabla idempotencia (respuestas de movimientos por Idempotency-Key)
+CREATE TABLE IF NOT EXISTS idempotencia (
+    clave VARCHAR(100) PRIMARY KEY,
+    numero_cuenta VARCHAR(30) NOT NULL,
+    valor DECIMAL(15,2) NOT NULL,
+    respuesta VARCHAR(2000) NOT NULL,
+    fecha_creacion DATETIME NOT NULL,
+    KEY idx_idempotencia_fecha (fecha_creacion)
+);
+
+-- tabla saldo_mensual (resumen de saldos y totales por cuenta y mes)
+CREATE TABLE IF NOT EXISTS saldo_mensual (
+    saldo_mensual_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cuenta_id BIGINT NOT NULL,
+    periodo DATE NOT NULL,
+    saldo_apertura DECIMAL(15,2) NOT NULL,
+    saldo_cierre DECIMAL(15,2) NOT NULL,
+    total_debitos DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    total_creditos DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    cantidad_movimientos BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_saldo_mensual_cuenta_periodo (cuenta_id, periodo),
+    FOREIGN KEY (cuenta_id) REFERENCES cuenta(cuenta_id)
+);
+
+-- directorio de shards (ver migraciones/007_directorio_shards.sql)
+CREATE TABLE IF NOT EXISTS directorio_cliente (
+    identificacion VARCHAR(255) PRIMARY KEY,
+    shard INT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS directorio_cuenta (
+    numero_cuenta VARCHAR(30) PRIMARY KEY,
+    shard INT NOT NULL
+);
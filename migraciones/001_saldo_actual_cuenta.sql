@@ -0,0 +1,16 @@
+-- MIGRACION 001: saldo actual materializado en la tabla cuenta
+-- Aplicar sobre bases creadas con una versión anterior de BaseDatos.sql
+use db_banco;
+
+ALTER TABLE cuenta
+    ADD COLUMN saldo_actual DECIMAL(15,2) NOT NULL DEFAULT 0.00 AFTER saldo_inicial;
+
+-- Backfill: el saldo actual de cada cuenta es el saldo de su último movimiento
+UPDATE cuenta c
+SET c.saldo_actual = COALESCE((
+    SELECT m.saldo
+    FROM movimiento m
+    WHERE m.cuenta_id = c.cuenta_id
+    ORDER BY m.fecha DESC, m.movimiento_id DESC
+    LIMIT 1
+), 0.00);
@@ -0,0 +1,11 @@
+-- MIGRACION 002: identificadores de movimiento por secuencia (emulada con tabla en MySQL)
+-- Permite que Hibernate agrupe los INSERT de movimientos en lotes JDBC
+use db_banco;
+
+CREATE TABLE IF NOT EXISTS movimiento_seq (
+    next_val BIGINT NOT NULL
+);
+
+-- Arranca por encima del último id existente con un bloque completo (allocationSize = 50) de margen
+INSERT INTO movimiento_seq (next_val)
+SELECT COALESCE(MAX(movimiento_id), 0) + 51 FROM movimiento;
@@ -0,0 +1,12 @@
+-- MIGRACION 003: deduplicación de movimientos por Idempotency-Key
+use db_banco;
+
+-- tabla idempotencia (respuestas de movimientos por Idempotency-Key)
+CREATE TABLE IF NOT EXISTS idempotencia (
+    clave VARCHAR(100) PRIMARY KEY,
+    numero_cuenta VARCHAR(30) NOT NULL,
+    valor DECIMAL(15,2) NOT NULL,
+    respuesta VARCHAR(2000) NOT NULL,
+    fecha_creacion DATETIME NOT NULL,
+    KEY idx_idempotencia_fecha (fecha_creacion)
+);
@@ -0,0 +1,5 @@
+-- MIGRACION 004: índices para la paginación por clave (fecha, movimiento_id) del historial de movimientos
+use db_banco;
+
+CREATE INDEX idx_movimiento_cuenta_fecha ON movimiento (cuenta_id, fecha, movimiento_id);
+CREATE INDEX idx_movimiento_fecha ON movimiento (fecha, movimiento_id);
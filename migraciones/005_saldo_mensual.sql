@@ -0,0 +1,16 @@
+-- MIGRACION 005: resumen mensual de saldos por cuenta para los estados de cuenta
+-- Después de aplicarla, poblar el histórico con POST /api/admin/saldos-mensuales/reconstruir
+use db_banco;
+
+CREATE TABLE IF NOT EXISTS saldo_mensual (
+    saldo_mensual_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cuenta_id BIGINT NOT NULL,
+    periodo DATE NOT NULL,
+    saldo_apertura DECIMAL(15,2) NOT NULL,
+    saldo_cierre DECIMAL(15,2) NOT NULL,
+    total_debitos DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    total_creditos DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    cantidad_movimientos BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_saldo_mensual_cuenta_periodo (cuenta_id, periodo),
+    FOREIGN KEY (cuenta_id) REFERENCES cuenta(cuenta_id)
+);
@@ -0,0 +1,15 @@
+-- MIGRACION 006: archivo de movimientos anteriores al horizonte (banco.movimientos.archivo.horizonte-meses)
+-- El traslado lo hace POST /api/admin/movimientos/archivar o el cron banco.movimientos.archivo.cron
+use db_banco;
+
+CREATE TABLE IF NOT EXISTS movimiento_archivo (
+    movimiento_id BIGINT PRIMARY KEY,
+    fecha DATETIME NOT NULL,
+    tipo_movimiento VARCHAR(30) NOT NULL,
+    valor DECIMAL(15,2) NOT NULL,
+    saldo DECIMAL(15,2) NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    KEY idx_movimiento_archivo_cuenta_fecha (cuenta_id, fecha, movimiento_id),
+    KEY idx_movimiento_archivo_fecha (fecha, movimiento_id),
+    FOREIGN KEY (cuenta_id) REFERENCES cuenta(cuenta_id)
+);
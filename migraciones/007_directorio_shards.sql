@@ -0,0 +1,20 @@
+-- MIGRACION 007: directorio de clientes y cuentas por shard (banco.shards.adicionales)
+-- Se aplica en la base del shard 0. Los clientes y cuentas existentes quedan registrados en el shard 0; después
+-- de aplicarla se pueden agregar shards sin mover datos
+use db_banco;
+
+CREATE TABLE IF NOT EXISTS directorio_cliente (
+    identificacion VARCHAR(255) PRIMARY KEY,
+    shard INT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS directorio_cuenta (
+    numero_cuenta VARCHAR(30) PRIMARY KEY,
+    shard INT NOT NULL
+);
+
+INSERT IGNORE INTO directorio_cliente (identificacion, shard)
+SELECT p.identificacion, 0 FROM cliente c JOIN persona p ON p.persona_id = c.persona_id;
+
+INSERT IGNORE INTO directorio_cuenta (numero_cuenta, shard)
+SELECT numero_cuenta, 0 FROM cuenta;
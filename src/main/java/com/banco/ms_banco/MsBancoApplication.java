@@ -2,8 +2,10 @@ package com.banco.ms_banco;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MsBancoApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,216 @@
+package com.banco.ms_banco.archive;
+
+import static com.banco.ms_banco.archive.FormatoColumnar.*;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+
+/**
+ * Escribe un archivo {@link FormatoColumnar} a partir de filas ordenadas por (cuentaId, fecha, movimientoId).
+ * Solo el bloque de la cuenta en curso se arma en memoria; el resto va directo al archivo.
+ *
+ * El saldo de apertura de cada bloque lo entrega quien escribe (el resumen del mes en {@code SALDO_MENSUAL} o el
+ * cierre de la cuenta en el archivo del mes anterior) y no se deduce de la primera fila: así un saldo roto en esa
+ * fila queda como residuo distinto de cero en lugar de mover la apertura del índice.
+ */
+public final class EscritorColumnar implements Closeable {
+
+    private final DataOutputStream salida;
+    private final YearMonth periodo;
+    private final Function<Long, Optional<BigDecimal>> saldosApertura;
+    private final List<EntradaIndice> indice = new ArrayList<>();
+    private final Map<String, Integer> tipos = new LinkedHashMap<>();
+    private final Map<String, Integer> numerosCuenta = new LinkedHashMap<>();
+    private long posicion;
+    private long filas;
+
+    private final ByteArrayOutputStream ids = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream fechas = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream tiposFila = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream valores = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream saldos = new ByteArrayOutputStream();
+    private EntradaIndice actual;
+    private long idAnterior;
+    private long fechaAnterior;
+    private long saldoAnterior;
+
+    public EscritorColumnar(Path destino, YearMonth periodo,
+                            Function<Long, Optional<BigDecimal>> saldosApertura) throws IOException {
+        this.salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(destino), 1 << 16));
+        this.periodo = periodo;
+        this.saldosApertura = saldosApertura;
+        salida.writeInt(MAGIA);
+        salida.writeShort(VERSION);
+        salida.writeShort(periodo.getYear());
+        salida.writeByte(periodo.getMonthValue());
+        posicion = BYTES_CABECERA;
+    }
+
+    public void agregar(MovimientoProyeccion movimiento) throws IOException {
+        if (!YearMonth.from(movimiento.fecha()).equals(periodo)) {
+            throw new IllegalArgumentException("El movimiento " + movimiento.movimientoId() + " no pertenece a " + periodo);
+        }
+        long fecha = aMicros(movimiento.fecha());
+        if (actual == null || !actual.cuentaId.equals(movimiento.cuentaId())) {
+            if (actual != null && actual.cuentaId > movimiento.cuentaId()) {
+                throw new IllegalStateException("Las filas deben llegar ordenadas por cuenta");
+            }
+            cerrarBloque();
+            abrirBloque(movimiento, fecha);
+        } else if (fecha < fechaAnterior) {
+            throw new IllegalStateException("Las filas de la cuenta " + movimiento.cuentaId() + " deben llegar ordenadas por fecha");
+        }
+
+        long valor = aCentavos(movimiento.valor());
+        long saldo = aCentavos(movimiento.saldo());
+        boolean retiro = RETIRO.equals(movimiento.tipoMovimiento());
+
+        escribirVarint(ids, zigzag(movimiento.movimientoId() - idAnterior));
+        escribirVarint(fechas, actual.filas == 0 ? fecha : fecha - fechaAnterior);
+        escribirVarint(tiposFila, tipos.computeIfAbsent(movimiento.tipoMovimiento(), tipo -> tipos.size()));
+        escribirVarint(valores, valor);
+        escribirVarint(saldos, zigzag(saldo - (retiro ? saldoAnterior - valor : saldoAnterior + valor)));
+
+        idAnterior = movimiento.movimientoId();
+        fechaAnterior = fecha;
+        saldoAnterior = saldo;
+        actual.filas++;
+        actual.fechaMaxima = fecha;
+        actual.saldoCierre = saldo;
+        if (retiro) {
+            actual.debitos += valor;
+        } else {
+            actual.creditos += valor;
+        }
+        filas++;
+    }
+
+    /**
+     * Escribe índice, diccionarios y pie. El archivo solo es legible después de esta llamada.
+     *
+     * @return bytes escritos
+     */
+    public long terminar() throws IOException {
+        cerrarBloque();
+
+        long offsetIndice = posicion;
+        for (EntradaIndice entrada : indice) {
+            salida.writeLong(entrada.cuentaId);
+            salida.writeInt(entrada.numeroCuenta);
+            salida.writeInt(entrada.filas);
+            salida.writeLong(entrada.offsetBloque);
+            for (int longitud : entrada.longitudes) {
+                salida.writeInt(longitud);
+            }
+            salida.writeInt(entrada.longitudBloque);
+            salida.writeLong(entrada.fechaMinima);
+            salida.writeLong(entrada.fechaMaxima);
+            salida.writeLong(entrada.saldoApertura);
+            salida.writeLong(entrada.saldoCierre);
+            salida.writeLong(entrada.debitos);
+            salida.writeLong(entrada.creditos);
+        }
+        posicion += (long) indice.size() * BYTES_ENTRADA_INDICE;
+
+        long offsetDiccionarios = posicion;
+        ByteArrayOutputStream diccionarios = new ByteArrayOutputStream();
+        escribirDiccionario(diccionarios, tipos);
+        escribirDiccionario(diccionarios, numerosCuenta);
+        diccionarios.writeTo(salida);
+        posicion += diccionarios.size();
+
+        salida.writeLong(offsetIndice);
+        salida.writeLong(offsetDiccionarios);
+        salida.writeInt(indice.size());
+        salida.writeLong(filas);
+        salida.writeInt(MAGIA);
+        posicion += BYTES_PIE;
+        salida.flush();
+        return posicion;
+    }
+
+    public int cuentas() {
+        return indice.size();
+    }
+
+    public long filas() {
+        return filas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        salida.close();
+    }
+
+    private void abrirBloque(MovimientoProyeccion primero, long fecha) {
+        actual = new EntradaIndice(primero.cuentaId());
+        actual.numeroCuenta = numerosCuenta.computeIfAbsent(primero.numeroCuenta(), numero -> numerosCuenta.size());
+        actual.fechaMinima = fecha;
+        actual.saldoApertura = aCentavos(saldosApertura.apply(primero.cuentaId())
+                .orElseThrow(() -> new IllegalStateException("La cuenta " + primero.cuentaId()
+                                                             + " no tiene saldo de apertura para " + periodo)));
+        idAnterior = 0;
+        fechaAnterior = fecha;
+        saldoAnterior = actual.saldoApertura;
+    }
+
+    private void cerrarBloque() throws IOException {
+        if (actual == null) {
+            return;
+        }
+        actual.offsetBloque = posicion;
+        actual.longitudes = new int[] {ids.size(), fechas.size(), tiposFila.size(), valores.size()};
+        actual.longitudBloque = ids.size() + fechas.size() + tiposFila.size() + valores.size() + saldos.size();
+        for (ByteArrayOutputStream columna : List.of(ids, fechas, tiposFila, valores, saldos)) {
+            columna.writeTo(salida);
+            columna.reset();
+        }
+        posicion += actual.longitudBloque;
+        indice.add(actual);
+        actual = null;
+    }
+
+    private static void escribirDiccionario(ByteArrayOutputStream salida, Map<String, Integer> diccionario) {
+        escribirVarint(salida, diccionario.size());
+        for (String valor : diccionario.keySet()) {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            escribirVarint(salida, bytes.length);
+            salida.writeBytes(bytes);
+        }
+    }
+
+    private static final class EntradaIndice {
+        private final Long cuentaId;
+        private int numeroCuenta;
+        private int filas;
+        private long offsetBloque;
+        private int[] longitudes;
+        private int longitudBloque;
+        private long fechaMinima;
+        private long fechaMaxima;
+        private long saldoApertura;
+        private long saldoCierre;
+        private long debitos;
+        private long creditos;
+
+        private EntradaIndice(Long cuentaId) {
+            this.cuentaId = cuentaId;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.banco.ms_banco.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Formato columnar de un mes cerrado de movimientos ({@code movimientos-YYYY-MM.mbca}). Todos los enteros
+ * multibyte son big-endian.
+ * <pre>
+ * cabecera     MAGIA(int) VERSION(short) anio(short) mes(byte)
+ * bloques      uno por cuenta, en orden de cuentaId; filas en orden (fecha, movimientoId), columna tras columna:
+ *                movimientoId  delta zigzag respecto de la fila anterior
+ *                fecha         microsegundos UTC: el primero absoluto, luego deltas (nunca negativos)
+ *                tipo          índice en el diccionario de tipos
+ *                valor         centavos
+ *                saldo         residuo zigzag contra saldo anterior ± valor (0 en una cadena sana; la primera
+ *                              fila se compara con el saldo de apertura del índice)
+ * índice       BYTES_ENTRADA_INDICE bytes por cuenta, ordenado por cuentaId para búsqueda binaria
+ * diccionarios tipos de movimiento y números de cuenta: cantidad y, por cada uno, longitud + UTF-8
+ * pie         offsetIndice(long) offsetDiccionarios(long) cuentas(int) filas(long) MAGIA(int)
+ * </pre>
+ * Todos los enteros de las columnas son varints de 7 bits. Entrada del índice: cuentaId(long)
+ * numeroCuenta(int, índice en el diccionario) filas(int) offsetBloque(long) longitud de las columnas
+ * movimientoId, fecha, tipo y valor (4 x int; el saldo ocupa el resto) longitudBloque(int) fechaMinima(long)
+ * fechaMaxima(long) saldoApertura(long) saldoCierre(long) débitos(long) créditos(long), montos en centavos.
+ */
+final class FormatoColumnar {
+
+    static final int MAGIA = 0x4D424341; // "MBCA"
+    static final short VERSION = 1;
+    static final int BYTES_CABECERA = 9;
+    static final int BYTES_ENTRADA_INDICE = 92;
+    static final int BYTES_PIE = 32;
+
+    static final String RETIRO = "RETIRO";
+
+    private FormatoColumnar() {
+    }
+
+    static void escribirVarint(ByteArrayOutputStream salida, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            salida.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        salida.write((int) valor);
+    }
+
+    static long leerVarint(ByteBuffer entrada) {
+        long valor = 0;
+        int desplazamiento = 0;
+        byte b;
+        do {
+            b = entrada.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+
+    static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    static long deszigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    static long aMicros(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + fecha.getNano() / 1_000;
+    }
+
+    static LocalDateTime deMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                                           (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    static long aCentavos(BigDecimal monto) {
+        return monto.movePointRight(2).longValueExact();
+    }
+
+    static BigDecimal deCentavos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
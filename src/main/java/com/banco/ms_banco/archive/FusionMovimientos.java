@@ -0,0 +1,107 @@
+package com.banco.ms_banco.archive;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+
+/**
+ * Mezcla lecturas de la tabla caliente y del archivo que llegan ya ordenadas con el mismo criterio. Un movimiento
+ * está en una sola de las dos tablas, así que la mezcla no necesita eliminar duplicados.
+ */
+public final class FusionMovimientos {
+
+    public static final Comparator<MovimientoProyeccion> RECIENTES_PRIMERO =
+            Comparator.comparing(MovimientoProyeccion::fecha)
+                      .thenComparing(MovimientoProyeccion::movimientoId)
+                      .reversed();
+
+    public static final Comparator<MovimientoProyeccion> CRONOLOGICO =
+            Comparator.comparing(MovimientoProyeccion::fecha)
+                      .thenComparing(MovimientoProyeccion::movimientoId);
+
+    public static final Comparator<MovimientoProyeccion> POR_CUENTA_RECIENTES_PRIMERO =
+            Comparator.comparing(MovimientoProyeccion::cuentaId).thenComparing(RECIENTES_PRIMERO);
+
+    public static final Comparator<MovimientoProyeccion> POR_CUENTA_CRONOLOGICO =
+            Comparator.comparing(MovimientoProyeccion::cuentaId).thenComparing(CRONOLOGICO);
+
+    private FusionMovimientos() {
+    }
+
+    /**
+     * @return a lo sumo {@code limite} filas de ambas listas, en el orden de {@code orden}
+     */
+    public static List<MovimientoProyeccion> fusionar(List<MovimientoProyeccion> calientes,
+                                                      List<MovimientoProyeccion> archivadas,
+                                                      Comparator<MovimientoProyeccion> orden, int limite) {
+        if (archivadas.isEmpty()) {
+            return calientes.size() <= limite ? calientes : calientes.subList(0, limite);
+        }
+        List<MovimientoProyeccion> resultado = new ArrayList<>(Math.min(limite, calientes.size() + archivadas.size()));
+        Iterator<MovimientoProyeccion> fusion = new IteradorFusion(calientes.iterator(), archivadas.iterator(), orden);
+        while (fusion.hasNext() && resultado.size() < limite) {
+            resultado.add(fusion.next());
+        }
+        return resultado;
+    }
+
+    /**
+     * Mezcla dos cursores sin materializarlos; cerrar el resultado cierra ambos.
+     */
+    public static Stream<MovimientoProyeccion> fusionar(Stream<MovimientoProyeccion> calientes,
+                                                        Stream<MovimientoProyeccion> archivadas,
+                                                        Comparator<MovimientoProyeccion> orden) {
+        Iterator<MovimientoProyeccion> fusion = new IteradorFusion(calientes.iterator(), archivadas.iterator(), orden);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(fusion, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(calientes::close)
+                .onClose(archivadas::close);
+    }
+
+    private static final class IteradorFusion implements Iterator<MovimientoProyeccion> {
+
+        private final Iterator<MovimientoProyeccion> izquierda;
+        private final Iterator<MovimientoProyeccion> derecha;
+        private final Comparator<MovimientoProyeccion> orden;
+        private MovimientoProyeccion siguienteIzquierda;
+        private MovimientoProyeccion siguienteDerecha;
+
+        IteradorFusion(Iterator<MovimientoProyeccion> izquierda, Iterator<MovimientoProyeccion> derecha,
+                       Comparator<MovimientoProyeccion> orden) {
+            this.izquierda = izquierda;
+            this.derecha = derecha;
+            this.orden = orden;
+            this.siguienteIzquierda = izquierda.hasNext() ? izquierda.next() : null;
+            this.siguienteDerecha = derecha.hasNext() ? derecha.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return siguienteIzquierda != null || siguienteDerecha != null;
+        }
+
+        @Override
+        public MovimientoProyeccion next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            MovimientoProyeccion resultado;
+            if (siguienteDerecha == null
+                    || (siguienteIzquierda != null && orden.compare(siguienteIzquierda, siguienteDerecha) <= 0)) {
+                resultado = siguienteIzquierda;
+                siguienteIzquierda = izquierda.hasNext() ? izquierda.next() : null;
+            } else {
+                resultado = siguienteDerecha;
+                siguienteDerecha = derecha.hasNext() ? derecha.next() : null;
+            }
+            return resultado;
+        }
+    }
+}
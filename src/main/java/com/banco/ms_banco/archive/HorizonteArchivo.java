@@ -0,0 +1,76 @@
+package com.banco.ms_banco.archive;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.repository.MovimientoArchivadoRepository;
+
+/**
+ * Decide cuándo una lectura de movimientos tiene que consultar también el archivo.
+ * <p>
+ * La frontera es el primer día del mes que queda {@code banco.movimientos.archivo.horizonte-meses} meses atrás,
+ * o la fecha siguiente al movimiento archivado más reciente si es posterior: así no retrocede aunque se amplíe el
+ * horizonte o otra instancia haya archivado con uno más corto. Solo se archivan movimientos anteriores a la frontera
+ * vigente, así que un rango que empieza en o después de ella no necesita el archivo, sin coordinar con el proceso
+ * que archiva. Un rango que empieza antes de la frontera consulta siempre el archivo, aunque esta instancia todavía
+ no haya visto filas archivadas: otra instancia puede estar moviéndolas en este momento.
+ */
+@Component
+public class HorizonteArchivo {
+
+    @Autowired
+    private MovimientoArchivadoRepository movimientoArchivadoRepository;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Value("${banco.movimientos.archivo.horizonte-meses:24}")
+    private int horizonteMeses;
+
+    // Cota exclusiva de las fechas ya archivadas; null hasta ver filas archivadas o empezar a archivar
+    private final AtomicReference<LocalDateTime> fronteraArchivada = new AtomicReference<>();
+
+    /**
+     * Otra instancia puede haber archivado: se verifica al iniciar y luego periódicamente con la fecha máxima del
+     * archivo de cada shard, que resuelve el índice por fecha. En los shards sin archivo la consulta solo devuelve
+     * vacío.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${banco.movimientos.archivo.verificacion-ms:60000}",
+               initialDelayString = "${banco.movimientos.archivo.verificacion-ms:60000}")
+    public void verificarArchivo() {
+        enrutadorShards.enTodos(shard -> movimientoArchivadoRepository.findMaxFecha())
+            .stream()
+            .flatMap(Optional::stream)
+            .forEach(fecha -> extenderFronteraArchivada(fecha.plusNanos(1)));
+    }
+
+    // El proceso que archiva informa la frontera con la que va a mover filas, antes de confirmar el primer lote
+    public void marcarArchivadoHasta(LocalDateTime frontera) {
+        extenderFronteraArchivada(frontera);
+    }
+
+    public LocalDateTime frontera() {
+        LocalDateTime configurada = LocalDate.now().withDayOfMonth(1).minusMonths(horizonteMeses).atStartOfDay();
+        LocalDateTime archivada = fronteraArchivada.get();
+        return archivada != null && archivada.isAfter(configurada) ? archivada : configurada;
+    }
+
+    public boolean alcanza(LocalDateTime desde) {
+        return desde.isBefore(frontera());
+    }
+
+    private void extenderFronteraArchivada(LocalDateTime hasta) {
+        fronteraArchivada.accumulateAndGet(hasta, (actual, nueva) -> actual == null || nueva.isAfter(actual) ? nueva : actual);
+    }
+}
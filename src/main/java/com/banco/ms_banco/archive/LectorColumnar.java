@@ -0,0 +1,230 @@
+package com.banco.ms_banco.archive;
+
+import static com.banco.ms_banco.archive.FormatoColumnar.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+
+/**
+ * Lee un archivo {@link FormatoColumnar} mapeado en memoria. El índice se busca de forma binaria sin copiarlo y
+ * solo se decodifica el bloque de la cuenta pedida; el resumen de una cuenta sale del índice sin tocar sus filas.
+ * Es seguro entre hilos: cada lectura trabaja sobre un duplicado del buffer.
+ */
+public final class LectorColumnar {
+
+    private final MappedByteBuffer buffer;
+    private final YearMonth periodo;
+    private final long offsetIndice;
+    private final int cuentas;
+    private final long filas;
+    private final String[] tipos;
+    private final String[] numerosCuenta;
+
+    private LectorColumnar(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < BYTES_CABECERA + BYTES_PIE || buffer.getInt(0) != MAGIA
+                || buffer.getInt(buffer.limit() - 4) != MAGIA) {
+            throw new IllegalStateException("El archivo no tiene formato columnar de movimientos");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IllegalStateException("Versión de archivo columnar no soportada: " + buffer.getShort(4));
+        }
+        this.periodo = YearMonth.of(buffer.getShort(6), buffer.get(8));
+
+        int pie = buffer.limit() - BYTES_PIE;
+        this.offsetIndice = buffer.getLong(pie);
+        long offsetDiccionarios = buffer.getLong(pie + 8);
+        this.cuentas = buffer.getInt(pie + 16);
+        this.filas = buffer.getLong(pie + 20);
+
+        ByteBuffer diccionarios = buffer.duplicate().position((int) offsetDiccionarios);
+        this.tipos = leerDiccionario(diccionarios);
+        this.numerosCuenta = leerDiccionario(diccionarios);
+    }
+
+    public static LectorColumnar abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Archivo columnar mayor a 2 GB: " + archivo);
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return new LectorColumnar(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    public YearMonth periodo() {
+        return periodo;
+    }
+
+    public int cuentas() {
+        return cuentas;
+    }
+
+    public long filas() {
+        return filas;
+    }
+
+    public long bytes() {
+        return buffer.limit();
+    }
+
+    public Optional<ResumenCuenta> resumen(Long cuentaId) {
+        int entrada = buscar(cuentaId);
+        return entrada < 0 ? Optional.empty() : Optional.of(resumenEn(entrada));
+    }
+
+    /**
+     * @return los movimientos de la cuenta en el mes, en orden (fecha, movimientoId); vacío si no tuvo
+     */
+    public List<MovimientoProyeccion> movimientos(Long cuentaId) {
+        int entrada = buscar(cuentaId);
+        if (entrada < 0) {
+            return List.of();
+        }
+        List<MovimientoProyeccion> resultado = new ArrayList<>(buffer.getInt(posicionEntrada(entrada) + 12));
+        new DecodificadorBloque(entrada).forEachRemaining(resultado::add);
+        return resultado;
+    }
+
+    /**
+     * Recorre todas las filas del archivo en orden (cuentaId, fecha, movimientoId) decodificando un bloque a la vez.
+     */
+    public Iterator<MovimientoProyeccion> iterador() {
+        return new Iterator<>() {
+            private int entrada;
+            private DecodificadorBloque bloque;
+
+            @Override
+            public boolean hasNext() {
+                while ((bloque == null || !bloque.hasNext()) && entrada < cuentas) {
+                    bloque = new DecodificadorBloque(entrada++);
+                }
+                return bloque != null && bloque.hasNext();
+            }
+
+            @Override
+            public MovimientoProyeccion next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return bloque.next();
+            }
+        };
+    }
+
+    private int buscar(Long cuentaId) {
+        int bajo = 0;
+        int alto = cuentas - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            long actual = buffer.getLong(posicionEntrada(medio));
+            if (actual < cuentaId) {
+                bajo = medio + 1;
+            } else if (actual > cuentaId) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -1;
+    }
+
+    private int posicionEntrada(int entrada) {
+        return (int) (offsetIndice + (long) entrada * BYTES_ENTRADA_INDICE);
+    }
+
+    private ResumenCuenta resumenEn(int entrada) {
+        int p = posicionEntrada(entrada);
+        return new ResumenCuenta(
+            buffer.getLong(p), numerosCuenta[buffer.getInt(p + 8)], buffer.getInt(p + 12),
+            deMicros(buffer.getLong(p + 44)), deMicros(buffer.getLong(p + 52)),
+            deCentavos(buffer.getLong(p + 60)), deCentavos(buffer.getLong(p + 68)),
+            deCentavos(buffer.getLong(p + 76)), deCentavos(buffer.getLong(p + 84)));
+    }
+
+    private static String[] leerDiccionario(ByteBuffer entrada) {
+        String[] valores = new String[(int) leerVarint(entrada)];
+        for (int i = 0; i < valores.length; i++) {
+            byte[] bytes = new byte[(int) leerVarint(entrada)];
+            entrada.get(bytes);
+            valores[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return valores;
+    }
+
+    public record ResumenCuenta(Long cuentaId, String numeroCuenta, int cantidadMovimientos,
+                                LocalDateTime primeraFecha, LocalDateTime ultimaFecha,
+                                BigDecimal saldoApertura, BigDecimal saldoCierre,
+                                BigDecimal totalDebitos, BigDecimal totalCreditos) {}
+
+    // Una posición por columna sobre el mismo bloque: cada fila avanza las cinco
+    private final class DecodificadorBloque implements Iterator<MovimientoProyeccion> {
+
+        private final Long cuentaId;
+        private final String numeroCuenta;
+        private final int filasBloque;
+        private final ByteBuffer ids;
+        private final ByteBuffer fechas;
+        private final ByteBuffer tiposFila;
+        private final ByteBuffer valores;
+        private final ByteBuffer saldos;
+        private int fila;
+        private long id;
+        private long fecha;
+        private long saldo;
+
+        private DecodificadorBloque(int entrada) {
+            int p = posicionEntrada(entrada);
+            this.cuentaId = buffer.getLong(p);
+            this.numeroCuenta = numerosCuenta[buffer.getInt(p + 8)];
+            this.filasBloque = buffer.getInt(p + 12);
+            int inicio = (int) buffer.getLong(p + 16);
+            int longitudIds = buffer.getInt(p + 24);
+            int longitudFechas = buffer.getInt(p + 28);
+            int longitudTipos = buffer.getInt(p + 32);
+            int longitudValores = buffer.getInt(p + 36);
+            this.ids = buffer.duplicate().position(inicio);
+            this.fechas = buffer.duplicate().position(inicio += longitudIds);
+            this.tiposFila = buffer.duplicate().position(inicio += longitudFechas);
+            this.valores = buffer.duplicate().position(inicio += longitudTipos);
+            this.saldos = buffer.duplicate().position(inicio + longitudValores);
+            this.saldo = buffer.getLong(p + 60);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return fila < filasBloque;
+        }
+
+        @Override
+        public MovimientoProyeccion next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            id += deszigzag(leerVarint(ids));
+            fecha = fila == 0 ? leerVarint(fechas) : fecha + leerVarint(fechas);
+            String tipo = tipos[(int) leerVarint(tiposFila)];
+            long valor = leerVarint(valores);
+            long esperado = RETIRO.equals(tipo) ? saldo - valor : saldo + valor;
+            saldo = esperado + deszigzag(leerVarint(saldos));
+            fila++;
+            return new MovimientoProyeccion(id, deMicros(fecha), tipo, deCentavos(valor), deCentavos(saldo),
+                                            cuentaId, numeroCuenta);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.banco.ms_banco.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongFunction;
+
+import com.banco.ms_banco.dto.metricas.CacheMetricasDTO;
+
+/**
+ * Cache en memoria con número máximo de entradas (desalojo LRU) y expiración opcional por TTL.
+ * Las operaciones están sincronizadas: se usa para datos pequeños en rutas calientes, no como almacén.
+ */
+public class CacheAcotada<K, V> {
+
+    private final String nombre;
+    private final int capacidadMaxima;
+    private final long ttlNanos;
+    private final ToLongFunction<V> medidor;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private long bytesEstimados;
+
+    /**
+     * @param medidor estimación en bytes de cada valor para la métrica de memoria; {@code null} si no se mide
+     */
+    public CacheAcotada(String nombre, int capacidadMaxima, Duration ttl, ToLongFunction<V> medidor) {
+        this.nombre = nombre;
+        this.capacidadMaxima = capacidadMaxima;
+        this.ttlNanos = ttl == null ? 0L : ttl.toNanos();
+        this.medidor = medidor;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                if (size() > CacheAcotada.this.capacidadMaxima) {
+                    desalojos++;
+                    bytesEstimados -= eldest.getValue().bytes;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public CacheAcotada(String nombre, int capacidadMaxima, Duration ttl) {
+        this(nombre, capacidadMaxima, ttl, null);
+    }
+
+    public CacheAcotada(String nombre, int capacidadMaxima) {
+        this(nombre, capacidadMaxima, null, null);
+    }
+
+    public synchronized Optional<V> obtener(K clave) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada == null) {
+            fallos++;
+            return Optional.empty();
+        }
+        if (entrada.expirada(System.nanoTime())) {
+            entradas.remove(clave);
+            bytesEstimados -= entrada.bytes;
+            desalojos++;
+            fallos++;
+            return Optional.empty();
+        }
+        aciertos++;
+        return Optional.of(entrada.valor);
+    }
+
+    public synchronized void guardar(K clave, V valor) {
+        long bytes = medidor == null ? 0L : medidor.applyAsLong(valor);
+        Entrada<V> anterior = entradas.put(clave, new Entrada<>(valor, ttlNanos > 0, System.nanoTime() + ttlNanos, bytes));
+        bytesEstimados += bytes - (anterior == null ? 0L : anterior.bytes);
+    }
+
+    /**
+     * Guarda el valor si la clave no tiene entrada vigente, o si {@code reemplazar} acepta sustituir la actual.
+     */
+    public synchronized boolean guardarSi(K clave, V valor, BiPredicate<V, V> reemplazar) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada != null && !entrada.expirada(System.nanoTime()) && !reemplazar.test(entrada.valor, valor)) {
+            return false;
+        }
+        guardar(clave, valor);
+        return true;
+    }
+
+    public synchronized void invalidar(K clave) {
+        Entrada<V> entrada = entradas.remove(clave);
+        if (entrada != null) {
+            bytesEstimados -= entrada.bytes;
+        }
+    }
+
+    public synchronized int invalidarSi(BiPredicate<K, V> condicion) {
+        int invalidadas = 0;
+        Iterator<Map.Entry<K, Entrada<V>>> iterador = entradas.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<K, Entrada<V>> entrada = iterador.next();
+            if (condicion.test(entrada.getKey(), entrada.getValue().valor)) {
+                iterador.remove();
+                bytesEstimados -= entrada.getValue().bytes;
+                invalidadas++;
+            }
+        }
+        return invalidadas;
+    }
+
+    public synchronized void limpiar() {
+        entradas.clear();
+        bytesEstimados = 0L;
+    }
+
+    public synchronized int purgarExpiradas() {
+        long ahora = System.nanoTime();
+        int purgadas = 0;
+        Iterator<Entrada<V>> iterador = entradas.values().iterator();
+        while (iterador.hasNext()) {
+            Entrada<V> entrada = iterador.next();
+            if (entrada.expirada(ahora)) {
+                iterador.remove();
+                bytesEstimados -= entrada.bytes;
+                purgadas++;
+            }
+        }
+        desalojos += purgadas;
+        return purgadas;
+    }
+
+    public synchronized int tamano() {
+        return entradas.size();
+    }
+
+    public synchronized CacheMetricasDTO metricas() {
+        long consultas = aciertos + fallos;
+        return CacheMetricasDTO.builder()
+                .nombre(nombre)
+                .tamano(entradas.size())
+                .capacidadMaxima(capacidadMaxima)
+                .aciertos(aciertos)
+                .fallos(fallos)
+                .desalojos(desalojos)
+                .tasaAciertos(consultas == 0 ? 0.0 : aciertos / (double) consultas)
+                .bytesEstimados(bytesEstimados)
+                .build();
+    }
+
+    private static final class Entrada<V> {
+
+        private final V valor;
+        private final boolean expira;
+        private final long expiraEn;
+        private final long bytes;
+
+        private Entrada(V valor, boolean expira, long expiraEn, long bytes) {
+            this.valor = valor;
+            this.expira = expira;
+            this.expiraEn = expiraEn;
+            this.bytes = bytes;
+        }
+
+        private boolean expirada(long ahora) {
+            return expira && ahora - expiraEn > 0;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.banco.ms_banco.cache;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banco.ms_banco.dto.metricas.CacheMetricasDTO;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.repository.CuentaRepository;
+
+/**
+ * Cache de los datos de cuenta que casi no cambian (id, número, tipo, estado, cliente), indexada por número y por id.
+ * El saldo no se guarda aquí. Las cuentas inexistentes no se cachean.
+ */
+@Component
+public class CuentaCache {
+
+    private final CuentaRepository cuentaRepository;
+
+    private final CacheAcotada<String, DatosCuenta> porNumero;
+
+    private final CacheAcotada<Long, DatosCuenta> porId;
+
+    // Se incrementa en cada invalidación: una carga iniciada antes no puede volver a guardar datos viejos
+    private final AtomicLong generacion = new AtomicLong();
+
+    public CuentaCache(
+            CuentaRepository cuentaRepository,
+            @Value("${banco.cache.cuentas.capacidad:10000}") int capacidad,
+            @Value("${banco.cache.cuentas.ttl:PT10M}") Duration ttl) {
+        this.cuentaRepository = cuentaRepository;
+        this.porNumero = new CacheAcotada<>("cuentas-por-numero", capacidad, ttl);
+        this.porId = new CacheAcotada<>("cuentas-por-id", capacidad, ttl);
+    }
+
+    public Optional<DatosCuenta> buscarPorNumero(String numeroCuenta) {
+        Optional<DatosCuenta> datos = porNumero.obtener(numeroCuenta);
+        if (datos.isPresent()) {
+            return datos;
+        }
+        long generacionLectura = generacion.get();
+        Optional<DatosCuenta> cargados = cuentaRepository.findByNumeroCuenta(numeroCuenta).map(DatosCuenta::desde);
+        cargados.ifPresent(d -> guardar(d, generacionLectura));
+        return cargados;
+    }
+
+    public Optional<DatosCuenta> buscarPorId(Long cuentaId) {
+        Optional<DatosCuenta> datos = porId.obtener(cuentaId);
+        if (datos.isPresent()) {
+            return datos;
+        }
+        long generacionLectura = generacion.get();
+        Optional<DatosCuenta> cargados = cuentaRepository.findById(cuentaId).map(DatosCuenta::desde);
+        cargados.ifPresent(d -> guardar(d, generacionLectura));
+        return cargados;
+    }
+
+    /**
+     * Descarta la cuenta de ambos índices. Si hay una transacción en curso se vuelve a descartar al terminar,
+     * para que ninguna lectura concurrente deje en cache el estado anterior al commit.
+     */
+    public void invalidar(Long cuentaId, String numeroCuenta) {
+        descartar(cuentaId, numeroCuenta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar(cuentaId, numeroCuenta);
+                }
+            });
+        }
+    }
+
+    public List<CacheMetricasDTO> obtenerMetricas() {
+        return List.of(porNumero.metricas(), porId.metricas());
+    }
+
+    // Una carga dentro de una transacción de solo lectura puede venir de la réplica con retraso: no se cachea
+    private synchronized void guardar(DatosCuenta datos, long generacionLectura) {
+        if (generacion.get() == generacionLectura && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            porNumero.guardar(datos.numeroCuenta(), datos);
+            porId.guardar(datos.cuentaId(), datos);
+        }
+    }
+
+    private synchronized void descartar(Long cuentaId, String numeroCuenta) {
+        generacion.incrementAndGet();
+        porNumero.invalidar(numeroCuenta);
+        porId.invalidar(cuentaId);
+    }
+
+    public record DatosCuenta(Long cuentaId, String numeroCuenta, String tipoCuenta,
+                              BigDecimal saldoInicial, String estado, Long clienteId) {
+
+        public static DatosCuenta desde(Cuenta cuenta) {
+            return new DatosCuenta(cuenta.getCuentaId(), cuenta.getNumeroCuenta(), cuenta.getTipoCuenta(),
+                                   cuenta.getSaldoInicial(), cuenta.getEstado(), cuenta.getClienteId());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.banco.ms_banco.cache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.banco.ms_banco.dto.cuentas.CuentaResumenDTO;
+import com.banco.ms_banco.dto.metricas.CacheMetricasDTO;
+import com.banco.ms_banco.dto.reportes.EstadoCuentaReporteDTO;
+import com.banco.ms_banco.event.CuentaModificadaEvent;
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+
+/**
+ * Cache de estados de cuenta ya construidos (JSON) y de sus PDF renderizados, por cliente y rango de fechas.
+ * Un movimiento confirmado descarta las entradas de su cliente cuyo rango incluye la fecha del movimiento; un cambio
+ * de estado de una cuenta o la reconstrucción de sus saldos descarta todas las del cliente.
+ * Es local a cada instancia: con varias instancias escribiendo debe deshabilitarse o usarse un TTL corto.
+ */
+@Component
+public class ReporteCache {
+
+    // Estimación de memoria del DTO: no se serializa para medirlo
+    private static final long BYTES_BASE_REPORTE = 256;
+    private static final long BYTES_POR_CUENTA = 256;
+    private static final long BYTES_POR_MOVIMIENTO = 192;
+
+    private static final int FRANJAS_GENERACION = 256;
+
+    private final boolean habilitada;
+
+    private final CacheAcotada<ClaveReporte, EstadoCuentaReporteDTO> reportes;
+
+    private final CacheAcotada<ClaveReporte, PdfReporte> pdfs;
+
+    // Generación por franja de clientes: una carga iniciada antes de un commit del mismo cliente no se guarda.
+    // Una única generación global impediría cachear cualquier reporte mientras haya movimientos de otros clientes.
+    private final AtomicLongArray generaciones = new AtomicLongArray(FRANJAS_GENERACION);
+
+    public ReporteCache(
+            @Value("${banco.cache.reportes.habilitado:true}") boolean habilitada,
+            @Value("${banco.cache.reportes.capacidad:500}") int capacidad,
+            @Value("${banco.cache.reportes.pdf.capacidad:100}") int capacidadPdf,
+            @Value("${banco.cache.reportes.ttl:PT10M}") Duration ttl) {
+        this.habilitada = habilitada;
+        this.reportes = new CacheAcotada<>("reportes", capacidad, ttl, ReporteCache::estimarBytes);
+        this.pdfs = new CacheAcotada<>("reportes-pdf", capacidadPdf, ttl, pdf -> pdf.contenido().length);
+    }
+
+    public Optional<EstadoCuentaReporteDTO> obtenerReporte(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        return habilitada ? reportes.obtener(new ClaveReporte(clienteId, fechaInicio, fechaFin)) : Optional.empty();
+    }
+
+    public Optional<PdfReporte> obtenerPDF(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        return habilitada ? pdfs.obtener(new ClaveReporte(clienteId, fechaInicio, fechaFin)) : Optional.empty();
+    }
+
+    /**
+     * Generación vigente del cliente; debe leerse antes de cargar los datos y pasarse al guardar.
+     */
+    public long generacion(Long clienteId) {
+        return generaciones.get(franja(clienteId));
+    }
+
+    public synchronized void guardarReporte(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin,
+                                            EstadoCuentaReporteDTO reporte, long generacionLectura) {
+        if (habilitada && generaciones.get(franja(clienteId)) == generacionLectura) {
+            reportes.guardar(new ClaveReporte(clienteId, fechaInicio, fechaFin), reporte);
+        }
+    }
+
+    public synchronized void guardarPDF(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin,
+                                        PdfReporte pdf, long generacionLectura) {
+        if (habilitada && generaciones.get(franja(clienteId)) == generacionLectura) {
+            pdfs.guardar(new ClaveReporte(clienteId, fechaInicio, fechaFin), pdf);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void alRegistrarMovimiento(MovimientoRegistradoEvent evento) {
+        if (!habilitada || evento.clienteId() == null) {
+            return;
+        }
+        generaciones.incrementAndGet(franja(evento.clienteId()));
+        LocalDate fecha = evento.fecha().toLocalDate();
+        reportes.invalidarSi((clave, reporte) -> clave.afectadaPor(evento.clienteId(), fecha));
+        pdfs.invalidarSi((clave, pdf) -> clave.afectadaPor(evento.clienteId(), fecha));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void alModificarCuenta(CuentaModificadaEvent evento) {
+        if (!habilitada || evento.clienteId() == null) {
+            return;
+        }
+        generaciones.incrementAndGet(franja(evento.clienteId()));
+        reportes.invalidarSi((clave, reporte) -> clave.clienteId().equals(evento.clienteId()));
+        pdfs.invalidarSi((clave, pdf) -> clave.clienteId().equals(evento.clienteId()));
+    }
+
+    public List<CacheMetricasDTO> obtenerMetricas() {
+        return List.of(reportes.metricas(), pdfs.metricas());
+    }
+
+    private static int franja(Long clienteId) {
+        return Math.floorMod(clienteId.hashCode(), FRANJAS_GENERACION);
+    }
+
+    private static long estimarBytes(EstadoCuentaReporteDTO reporte) {
+        long bytes = BYTES_BASE_REPORTE;
+        if (reporte.getCuentas() != null) {
+            for (CuentaResumenDTO cuenta : reporte.getCuentas()) {
+                bytes += BYTES_POR_CUENTA;
+                if (cuenta.getMovimientos() != null) {
+                    bytes += BYTES_POR_MOVIMIENTO * cuenta.getMovimientos().size();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    public record PdfReporte(String nombreArchivo, byte[] contenido) {}
+
+    private record ClaveReporte(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+
+        private boolean afectadaPor(Long clienteIdMovimiento, LocalDate fecha) {
+            return clienteId.equals(clienteIdMovimiento) && !fecha.isBefore(fechaInicio) && !fecha.isAfter(fechaFin);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.banco.ms_banco.cache;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banco.ms_banco.dto.metricas.CacheMetricasDTO;
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+
+/**
+ * Cache de saldos por cuentaId. Se llena en la primera lectura y se actualiza con el saldo de cada movimiento
+ * una vez confirmada su transacción: un movimiento revertido nunca llega a la cache.
+ * Es local a cada instancia; con varias instancias escribiendo sobre las mismas cuentas debe deshabilitarse.
+ */
+@Component
+public class SaldoCache {
+
+    // Versión de las entradas cargadas desde base: cualquier movimiento confirmado las reemplaza
+    private static final long VERSION_LECTURA = -1L;
+
+    private final boolean habilitada;
+
+    private final CacheAcotada<Long, SaldoVersionado> saldos;
+
+    public SaldoCache(
+            @Value("${banco.cache.saldos.habilitado:true}") boolean habilitada,
+            @Value("${banco.cache.saldos.capacidad:10000}") int capacidad,
+            @Value("${banco.cache.saldos.ttl:PT5M}") Duration ttl) {
+        this.habilitada = habilitada;
+        this.saldos = new CacheAcotada<>("saldos", capacidad, ttl);
+    }
+
+    public boolean estaHabilitada() {
+        return habilitada;
+    }
+
+    public Optional<BigDecimal> obtener(Long cuentaId) {
+        return saldos.obtener(cuentaId).map(SaldoVersionado::saldo);
+    }
+
+    /**
+     * Guarda un saldo leído de la base solo si no hay entrada: si un commit la escribió entre la lectura
+     * y este punto, el valor del commit es más reciente y se conserva. Las lecturas de una transacción de solo
+     * lectura pueden venir de la réplica, con retraso, y no se guardan.
+     */
+    public void guardarLectura(Long cuentaId, BigDecimal saldo) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        saldos.guardarSi(cuentaId, new SaldoVersionado(saldo, VERSION_LECTURA), (actual, nuevo) -> false);
+    }
+
+    // Los commits de una misma cuenta pueden notificarse fuera de orden; gana el movimiento más reciente
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alRegistrarMovimiento(MovimientoRegistradoEvent evento) {
+        if (!habilitada || evento.movimientoId() == null) {
+            return;
+        }
+        saldos.guardarSi(evento.cuentaId(), new SaldoVersionado(evento.saldo(), evento.movimientoId()),
+                         (actual, nuevo) -> nuevo.version() > actual.version());
+    }
+
+    /**
+     * Descarta el saldo de la cuenta cuando se corrige fuera del flujo de movimientos. Si hay una transacción en
+     * curso se vuelve a descartar al terminar, para que ninguna lectura concurrente deje el saldo anterior.
+     */
+    public void invalidar(Long cuentaId) {
+        saldos.invalidar(cuentaId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    saldos.invalidar(cuentaId);
+                }
+            });
+        }
+    }
+
+    public CacheMetricasDTO obtenerMetricas() {
+        return saldos.metricas();
+    }
+
+    private record SaldoVersionado(BigDecimal saldo, long version) {}
+}
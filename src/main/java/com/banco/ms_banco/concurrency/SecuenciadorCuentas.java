@@ -0,0 +1,155 @@
+package com.banco.ms_banco.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.banco.ms_banco.dto.metricas.ShardMetricasDTO;
+import com.banco.ms_banco.exception.ColaLlenaException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Serializa las escrituras de una misma cuenta: cada número de cuenta se asigna por hash a un shard
+ * con un único hilo (buzón), de modo que dos movimientos de la misma cuenta nunca se intercalan y
+ * cuentas en shards distintos se procesan en paralelo. El buzón de cada shard admite a lo sumo
+ * {@code banco.secuenciador.capacidad-cola} tareas en espera; con el buzón lleno la solicitud se rechaza.
+ */
+@Component
+public class SecuenciadorCuentas {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuenciadorCuentas.class);
+
+    private final Shard[] shards;
+
+    private final int capacidadCola;
+
+    public SecuenciadorCuentas(@Value("${banco.secuenciador.shards:0}") int cantidadShards,
+                               @Value("${banco.secuenciador.capacidad-cola:1000}") int capacidadCola) {
+        int total = cantidadShards > 0 ? cantidadShards : Runtime.getRuntime().availableProcessors();
+        this.capacidadCola = capacidadCola;
+        this.shards = new Shard[total];
+        for (int i = 0; i < total; i++) {
+            shards[i] = new Shard(i, capacidadCola);
+        }
+        logger.info("Secuenciador de cuentas iniciado con {} shards (capacidad de cola {})", total, capacidadCola);
+    }
+
+    public <T> T ejecutar(String numeroCuenta, Supplier<T> tarea) {
+        Shard shard = shards[indiceShard(numeroCuenta)];
+
+        // Una tarea que ya corre en el hilo del shard no puede esperar a su propio buzón
+        if (Thread.currentThread() == shard.hilo) {
+            return tarea.get();
+        }
+
+        long encolado = System.nanoTime();
+        Future<T> resultado;
+        try {
+            resultado = shard.executor.submit(() -> {
+                shard.registrarEspera(System.nanoTime() - encolado);
+                return tarea.get();
+            });
+        } catch (RejectedExecutionException e) {
+            shard.rechazadas.incrementAndGet();
+            logger.warn("Cola del shard {} del secuenciador llena. Se rechaza movimiento para cuenta: {}",
+                        shard.indice, numeroCuenta);
+            throw new ColaLlenaException("del secuenciador de cuentas", capacidadCola);
+        }
+
+        try {
+            return resultado.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Error en el secuenciador de la cuenta " + numeroCuenta, causa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultado.cancel(false);
+            throw new RuntimeException("Interrumpido esperando el secuenciador de la cuenta " + numeroCuenta);
+        }
+    }
+
+    public List<ShardMetricasDTO> obtenerMetricas() {
+        List<ShardMetricasDTO> metricas = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            metricas.add(shard.metricas());
+        }
+        return metricas;
+    }
+
+    public int getCantidadShards() {
+        return shards.length;
+    }
+
+    int indiceShard(String numeroCuenta) {
+        return Math.floorMod(numeroCuenta.hashCode(), shards.length);
+    }
+
+    @PreDestroy
+    public void detener() {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+    }
+
+    private static final class Shard {
+
+        private final int indice;
+        private final ThreadPoolExecutor executor;
+        private final AtomicLong tareas = new AtomicLong();
+        private final AtomicLong rechazadas = new AtomicLong();
+        private final AtomicLong esperaTotalNanos = new AtomicLong();
+        private final AtomicLong esperaMaximaNanos = new AtomicLong();
+        private volatile Thread hilo;
+
+        private Shard(int indice, int capacidadCola) {
+            this.indice = indice;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(capacidadCola),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "secuenciador-cuentas-" + indice);
+                        thread.setDaemon(true);
+                        hilo = thread;
+                        return thread;
+                    });
+        }
+
+        private void registrarEspera(long esperaNanos) {
+            tareas.incrementAndGet();
+            esperaTotalNanos.addAndGet(esperaNanos);
+            esperaMaximaNanos.accumulateAndGet(esperaNanos, Math::max);
+        }
+
+        private ShardMetricasDTO metricas() {
+            long completadas = tareas.get();
+            double esperaPromedioMs = completadas == 0 ? 0.0
+                    : esperaTotalNanos.get() / (double) completadas / 1_000_000.0;
+            return ShardMetricasDTO.builder()
+                    .shard(indice)
+                    .profundidadCola(executor.getQueue().size())
+                    .tareasProcesadas(completadas)
+                    .tareasRechazadas(rechazadas.get())
+                    .esperaPromedioMs(esperaPromedioMs)
+                    .esperaMaximaMs(esperaMaximaNanos.get() / 1_000_000.0)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.banco.ms_banco.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banco.ms_banco.dto.archivo.ExportacionColumnarDTO;
+import com.banco.ms_banco.dto.archivo.HistorialColumnarDTO;
+import com.banco.ms_banco.dto.archivo.ResumenColumnarDTO;
+import com.banco.ms_banco.dto.archivo.VerificacionColumnarDTO;
+import com.banco.ms_banco.service.ArchivoColumnarService;
+
+@RestController
+@RequestMapping("/api/admin/archivo-columnar")
+@CrossOrigin(origins = "*")
+public class ArchivoColumnarController {
+
+    @Autowired
+    private ArchivoColumnarService archivoColumnarService;
+
+    @PostMapping("/{periodo}")
+    public ResponseEntity<ExportacionColumnarDTO> exportarMes(@PathVariable("periodo") String periodo) {
+        return ResponseEntity.ok(archivoColumnarService.exportarMes(periodo));
+    }
+
+    @GetMapping("/{periodo}/verificar")
+    public ResponseEntity<VerificacionColumnarDTO> verificarMes(@PathVariable("periodo") String periodo) {
+        return ResponseEntity.ok(archivoColumnarService.verificarMes(periodo));
+    }
+
+    @GetMapping("/cuentas/{cuentaId}/movimientos")
+    public ResponseEntity<HistorialColumnarDTO> historialCuenta(
+            @PathVariable("cuentaId") Long cuentaId,
+            @RequestParam("desde") String desde,
+            @RequestParam("hasta") String hasta) {
+        return ResponseEntity.ok(archivoColumnarService.historialCuenta(cuentaId, desde, hasta));
+    }
+
+    @GetMapping("/cuentas/{cuentaId}/resumen/{periodo}")
+    public ResponseEntity<ResumenColumnarDTO> resumenCuenta(@PathVariable("cuentaId") Long cuentaId,
+                                                            @PathVariable("periodo") String periodo) {
+        return ResponseEntity.ok(archivoColumnarService.resumenCuenta(cuentaId, periodo));
+    }
+}
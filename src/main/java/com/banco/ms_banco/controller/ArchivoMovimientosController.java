@@ -0,0 +1,22 @@
+package com.banco.ms_banco.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banco.ms_banco.dto.movimientos.ArchivoMovimientosDTO;
+import com.banco.ms_banco.service.ArchivoMovimientosService;
+
+@RestController
+@RequestMapping("/api/admin/movimientos")
+@CrossOrigin(origins = "*")
+public class ArchivoMovimientosController {
+
+    @Autowired
+    private ArchivoMovimientosService archivoMovimientosService;
+
+    @PostMapping("/archivar")
+    public ResponseEntity<ArchivoMovimientosDTO> archivar() {
+        return ResponseEntity.ok(archivoMovimientosService.archivar());
+    }
+}
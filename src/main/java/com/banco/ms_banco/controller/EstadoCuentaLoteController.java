@@ -0,0 +1,35 @@
+package com.banco.ms_banco.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banco.ms_banco.dto.reportes.LoteEstadosCuentaDTO;
+import com.banco.ms_banco.dto.reportes.LoteEstadosCuentaRequestDTO;
+import com.banco.ms_banco.service.EstadoCuentaLoteService;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/admin/estados-cuenta/lote")
+@CrossOrigin(origins = "*")
+public class EstadoCuentaLoteController {
+
+    @Autowired
+    private EstadoCuentaLoteService estadoCuentaLoteService;
+
+    @PostMapping
+    public ResponseEntity<LoteEstadosCuentaDTO> iniciarLote(
+            @Valid @RequestBody(required = false) LoteEstadosCuentaRequestDTO loteRequest) {
+        LoteEstadosCuentaDTO lote = estadoCuentaLoteService.iniciarLote(loteRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/estados-cuenta/lote"))
+                .body(lote);
+    }
+
+    @GetMapping
+    public ResponseEntity<LoteEstadosCuentaDTO> consultarLote() {
+        return ResponseEntity.ok(estadoCuentaLoteService.consultarLote());
+    }
+}
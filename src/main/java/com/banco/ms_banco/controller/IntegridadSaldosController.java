@@ -0,0 +1,33 @@
+package com.banco.ms_banco.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banco.ms_banco.dto.saldos.VerificacionSaldosDTO;
+import com.banco.ms_banco.service.IntegridadSaldosService;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/admin/integridad-saldos")
+@CrossOrigin(origins = "*")
+public class IntegridadSaldosController {
+
+    @Autowired
+    private IntegridadSaldosService integridadSaldosService;
+
+    @PostMapping
+    public ResponseEntity<VerificacionSaldosDTO> iniciarVerificacion(
+            @RequestParam(value = "reparar", defaultValue = "false") boolean reparar) {
+        VerificacionSaldosDTO verificacion = integridadSaldosService.iniciarVerificacion(reparar);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/integridad-saldos"))
+                .body(verificacion);
+    }
+
+    @GetMapping
+    public ResponseEntity<VerificacionSaldosDTO> consultarVerificacion() {
+        return ResponseEntity.ok(integridadSaldosService.consultarVerificacion());
+    }
+}
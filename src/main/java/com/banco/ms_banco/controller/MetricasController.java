@@ -0,0 +1,76 @@
+package com.banco.ms_banco.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banco.ms_banco.cache.CuentaCache;
+import com.banco.ms_banco.cache.ReporteCache;
+import com.banco.ms_banco.cache.SaldoCache;
+import com.banco.ms_banco.concurrency.SecuenciadorCuentas;
+import com.banco.ms_banco.datasource.DataSourceEnrutado;
+import com.banco.ms_banco.dto.metricas.CacheMetricasDTO;
+import com.banco.ms_banco.dto.metricas.ColaMetricasDTO;
+import com.banco.ms_banco.dto.metricas.RutaDatosMetricasDTO;
+import com.banco.ms_banco.dto.metricas.ShardMetricasDTO;
+import com.banco.ms_banco.service.IdempotenciaService;
+import com.banco.ms_banco.service.MovimientoAsincronoService;
+import com.banco.ms_banco.service.ReporteJobService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/metricas")
+@CrossOrigin(origins = "*")
+public class MetricasController {
+
+    @Autowired
+    private SecuenciadorCuentas secuenciadorCuentas;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private CuentaCache cuentaCache;
+
+    @Autowired
+    private SaldoCache saldoCache;
+
+    @Autowired
+    private ReporteCache reporteCache;
+
+    @Autowired
+    private MovimientoAsincronoService movimientoAsincronoService;
+
+    @Autowired
+    private ReporteJobService reporteJobService;
+
+    @Autowired
+    private DataSourceEnrutado dataSourceEnrutado;
+
+    @GetMapping("/secuenciador")
+    public ResponseEntity<List<ShardMetricasDTO>> obtenerMetricasSecuenciador() {
+        return ResponseEntity.ok(secuenciadorCuentas.obtenerMetricas());
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheMetricasDTO>> obtenerMetricasCaches() {
+        List<CacheMetricasDTO> metricas = new ArrayList<>(cuentaCache.obtenerMetricas());
+        metricas.add(saldoCache.obtenerMetricas());
+        metricas.add(idempotenciaService.obtenerMetricasCache());
+        metricas.addAll(reporteCache.obtenerMetricas());
+        return ResponseEntity.ok(metricas);
+    }
+
+    @GetMapping("/colas")
+    public ResponseEntity<List<ColaMetricasDTO>> obtenerMetricasColas() {
+        return ResponseEntity.ok(List.of(movimientoAsincronoService.obtenerMetricas(),
+                                         reporteJobService.obtenerMetricas()));
+    }
+
+    @GetMapping("/datasource")
+    public ResponseEntity<List<RutaDatosMetricasDTO>> obtenerMetricasDataSource() {
+        return ResponseEntity.ok(dataSourceEnrutado.obtenerMetricas());
+    }
+}
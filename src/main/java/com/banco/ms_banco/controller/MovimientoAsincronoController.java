@@ -0,0 +1,39 @@
+package com.banco.ms_banco.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
+import com.banco.ms_banco.dto.movimientos.TicketMovimientoDTO;
+import com.banco.ms_banco.service.MovimientoAsincronoService;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/movimientos/async")
+@CrossOrigin(origins = "*")
+public class MovimientoAsincronoController {
+
+    @Autowired
+    private MovimientoAsincronoService movimientoAsincronoService;
+
+    @PostMapping("/cuenta/{numeroCuenta}")
+    public ResponseEntity<TicketMovimientoDTO> encolarMovimiento(
+            @PathVariable("numeroCuenta") String numeroCuenta,
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+            @Valid @RequestBody MovimientoRequestDTO movimientoRequest) {
+        TicketMovimientoDTO ticket = movimientoAsincronoService.encolarMovimiento(
+            numeroCuenta, movimientoRequest, claveIdempotencia);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/movimientos/async/" + ticket.getTicketId()))
+                .body(ticket);
+    }
+
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<TicketMovimientoDTO> consultarTicket(@PathVariable("ticketId") String ticketId) {
+        TicketMovimientoDTO ticket = movimientoAsincronoService.consultarTicket(ticketId);
+        return ResponseEntity.ok(ticket);
+    }
+}
@@ -5,8 +5,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteRequestDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteResponseDTO;
 import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
 import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.dto.movimientos.PaginaMovimientosDTO;
 import com.banco.ms_banco.service.MovimientoService;
 
 import java.util.List;
@@ -22,22 +25,49 @@ public class MovimientoController {
     @PostMapping("/cuenta/{numeroCuenta}")
     public ResponseEntity<MovimientoResponseDTO> registrarMovimiento(
             @PathVariable("numeroCuenta") String numeroCuenta,
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
             @Valid @RequestBody MovimientoRequestDTO movimientoRequest) {
         try {
-            MovimientoResponseDTO movimiento = movimientoService.registrarMovimiento(numeroCuenta, movimientoRequest);
+            MovimientoResponseDTO movimiento = movimientoService.registrarMovimiento(
+                numeroCuenta, movimientoRequest, claveIdempotencia);
             return ResponseEntity.ok(movimiento);
         } catch (RuntimeException e) {
             throw e;
         }
     }
 
+    @PostMapping("/lote")
+    public ResponseEntity<MovimientoLoteResponseDTO> registrarMovimientosLote(
+            @Valid @RequestBody MovimientoLoteRequestDTO loteRequest) {
+        MovimientoLoteResponseDTO resultado = movimientoService.registrarMovimientosLote(loteRequest);
+        return ResponseEntity.ok(resultado);
+    }
+
     @GetMapping("/cuenta/{cuentaId}")
+    public ResponseEntity<PaginaMovimientosDTO> obtenerPaginaMovimientosPorCuenta(
+            @PathVariable("cuentaId") Long cuentaId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamano", required = false) Integer tamano) {
+        PaginaMovimientosDTO pagina = movimientoService.obtenerPaginaMovimientosPorCuenta(cuentaId, cursor, tamano);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping(value = "/cuenta/{cuentaId}", params = "completo=true")
     public ResponseEntity<List<MovimientoResponseDTO>> obtenerMovimientosPorCuenta(@PathVariable("cuentaId") Long cuentaId) {
         List<MovimientoResponseDTO> movimientos = movimientoService.obtenerMovimientosPorCuenta(cuentaId);
         return ResponseEntity.ok(movimientos);
     }
 
     @GetMapping("/cliente/{clienteId}")
+    public ResponseEntity<PaginaMovimientosDTO> obtenerPaginaMovimientosPorCliente(
+            @PathVariable("clienteId") Long clienteId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamano", required = false) Integer tamano) {
+        PaginaMovimientosDTO pagina = movimientoService.obtenerPaginaMovimientosPorCliente(clienteId, cursor, tamano);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping(value = "/cliente/{clienteId}", params = "completo=true")
     public ResponseEntity<List<MovimientoResponseDTO>> obtenerMovimientosPorCliente(@PathVariable("clienteId") Long clienteId) {
         List<MovimientoResponseDTO> movimientos = movimientoService.obtenerMovimientosPorCliente(clienteId);
         return ResponseEntity.ok(movimientos);
@@ -50,6 +80,14 @@ public class MovimientoController {
     }
 
     @GetMapping
+    public ResponseEntity<PaginaMovimientosDTO> obtenerPaginaMovimientos(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamano", required = false) Integer tamano) {
+        PaginaMovimientosDTO pagina = movimientoService.obtenerPaginaMovimientos(cursor, tamano);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping(params = "completo=true")
     public ResponseEntity<List<MovimientoResponseDTO>> obtenerTodosLosMovimientos() {
         List<MovimientoResponseDTO> movimientos = movimientoService.obtenerTodosLosMovimientos();
         return ResponseEntity.ok(movimientos);
@@ -4,14 +4,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.banco.ms_banco.cache.ReporteCache.PdfReporte;
 import com.banco.ms_banco.dto.FileBase64DTO;
 import com.banco.ms_banco.dto.reportes.EstadoCuentaReporteDTO;
+import com.banco.ms_banco.report.DatosEstadoCuenta;
+import com.banco.ms_banco.report.ExportadorMovimientos.Formato;
 import com.banco.ms_banco.service.ReporteService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/reportes")
@@ -48,4 +57,63 @@ public class ReporteController {
         FileBase64DTO reporte = reporteService.generarReporteEstadoCuentaPDF(clienteId, fechaInicio, fechaFin);
         return ResponseEntity.ok(reporte);
     }
-}
\ No newline at end of file
+
+    /**
+     * Escribe el PDF directamente en la respuesta, sin Content-Length (transferencia por bloques).
+     * La cabecera se carga antes de escribir: los errores de negocio todavía se responden como JSON. Los
+     * movimientos se leen de un cursor por cuenta mientras se escribe, sin cargarlos todos en memoria.
+     * Si el PDF del mismo rango ya está en cache se escribe desde ahí, con su longitud.
+     */
+    @GetMapping("/{clienteId}/pdf/stream")
+    public void descargarReporteEstadoCuentaPdf(
+            @PathVariable("clienteId") Long clienteId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            HttpServletResponse response) throws IOException {
+
+        logger.info("Solicitando PDF en flujo del reporte de estado de cuenta - Cliente: {}, Fechas: {} a {}", 
+                    clienteId, fechaInicio, fechaFin);
+
+        Optional<PdfReporte> cacheado = reporteService.obtenerPDFCacheado(clienteId, fechaInicio, fechaFin);
+        if (cacheado.isPresent()) {
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setContentLength(cacheado.get().contenido().length);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                               "attachment; filename=\"" + cacheado.get().nombreArchivo() + "\"");
+            response.getOutputStream().write(cacheado.get().contenido());
+            return;
+        }
+
+        DatosEstadoCuenta cabecera = reporteService.cargarCabeceraEstadoCuenta(clienteId, fechaInicio, fechaFin);
+
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                           "attachment; filename=\"" + reporteService.nombreArchivoPDF(cabecera) + "\"");
+        // Document.close() cierra el flujo de la respuesta al terminar
+        reporteService.escribirReporteEstadoCuentaPDFEnFlujo(cabecera, response.getOutputStream());
+    }
+
+    /**
+     * Exporta los movimientos del rango en CSV o NDJSON, una línea por movimiento, leídos de un cursor y
+     * escritos a medida que llegan. Fechas y formato se validan antes de escribir la primera línea.
+     */
+    @GetMapping("/{clienteId}/export")
+    public void exportarMovimientos(
+            @PathVariable("clienteId") Long clienteId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+
+        logger.info("Solicitando exportación {} de movimientos - Cliente: {}, Fechas: {} a {}", 
+                    format, clienteId, fechaInicio, fechaFin);
+
+        Formato formato = Formato.desde(format);
+        reporteService.validarFechasRangoLargo(fechaInicio.toString(), fechaFin.toString());
+
+        response.setContentType(formato.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"movimientos_" + clienteId + "_"
+                           + fechaInicio + "_" + fechaFin + "." + formato.extension() + "\"");
+        reporteService.exportarMovimientos(clienteId, fechaInicio, fechaFin, formato, response.getOutputStream());
+    }
+}
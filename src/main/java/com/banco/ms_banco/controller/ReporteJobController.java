@@ -0,0 +1,51 @@
+package com.banco.ms_banco.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banco.ms_banco.dto.reportes.ReporteJobDTO;
+import com.banco.ms_banco.dto.reportes.ReporteJobRequestDTO;
+import com.banco.ms_banco.service.ReporteJobService;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/reportes/jobs")
+@CrossOrigin(origins = "*")
+public class ReporteJobController {
+
+    @Autowired
+    private ReporteJobService reporteJobService;
+
+    @PostMapping
+    public ResponseEntity<ReporteJobDTO> encolarReporte(@Valid @RequestBody ReporteJobRequestDTO jobRequest) {
+        ReporteJobDTO job = reporteJobService.encolarReporte(jobRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/reportes/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReporteJobDTO> consultarJob(@PathVariable("jobId") String jobId) {
+        return ResponseEntity.ok(reporteJobService.consultarJob(jobId));
+    }
+
+    @GetMapping("/{jobId}/descarga")
+    public ResponseEntity<Resource> descargarReporte(@PathVariable("jobId") String jobId) {
+        Path archivo = reporteJobService.obtenerArchivo(jobId);
+        MediaType tipo = archivo.getFileName().toString().endsWith(".pdf")
+                ? MediaType.APPLICATION_PDF
+                : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo.getFileName() + "\"")
+                .body(new FileSystemResource(archivo));
+    }
+}
@@ -0,0 +1,27 @@
+package com.banco.ms_banco.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banco.ms_banco.dto.saldos.ReconstruccionSaldosDTO;
+import com.banco.ms_banco.service.SaldoMensualService;
+
+@RestController
+@RequestMapping("/api/admin/saldos-mensuales")
+@CrossOrigin(origins = "*")
+public class SaldoMensualController {
+
+    @Autowired
+    private SaldoMensualService saldoMensualService;
+
+    @PostMapping("/reconstruir")
+    public ResponseEntity<ReconstruccionSaldosDTO> reconstruirTodas() {
+        return ResponseEntity.ok(saldoMensualService.reconstruirTodas());
+    }
+
+    @PostMapping("/reconstruir/{cuentaId}")
+    public ResponseEntity<ReconstruccionSaldosDTO> reconstruirCuenta(@PathVariable("cuentaId") Long cuentaId) {
+        return ResponseEntity.ok(saldoMensualService.reconstruirCuenta(cuentaId));
+    }
+}
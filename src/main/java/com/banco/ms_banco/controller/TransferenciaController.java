@@ -0,0 +1,26 @@
+package com.banco.ms_banco.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banco.ms_banco.dto.transferencias.TransferenciaRequestDTO;
+import com.banco.ms_banco.dto.transferencias.TransferenciaResponseDTO;
+import com.banco.ms_banco.service.TransferenciaService;
+
+@RestController
+@RequestMapping("/api/transferencias")
+@CrossOrigin(origins = "*")
+public class TransferenciaController {
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @PostMapping
+    public ResponseEntity<TransferenciaResponseDTO> realizarTransferencia(
+            @Valid @RequestBody TransferenciaRequestDTO transferenciaRequest) {
+        TransferenciaResponseDTO transferencia = transferenciaService.realizarTransferencia(transferenciaRequest);
+        return ResponseEntity.ok(transferencia);
+    }
+}
@@ -0,0 +1,113 @@
+package com.banco.ms_banco.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.banco.ms_banco.datasource.DataSourceEnrutado.DestinoShard;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Shard 0 desde {@code spring.datasource.*} con su réplica opcional de {@code banco.datasource.replica.*}; los
+ * shards adicionales desde {@code banco.shards.adicionales}, con la configuración de pool de la primaria y sus
+ * contadores de ids llevados al rango del shard. El datasource que usan JPA y el resto de la aplicación es el
+ * enrutado, envuelto en un proxy de conexión diferida.
+ */
+@Configuration
+@EnableConfigurationProperties(PropiedadesShards.class)
+public class ConfiguracionDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfiguracionDataSource.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties propiedades) {
+        HikariDataSource dataSource = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    @Bean
+    public DataSourceEnrutado dataSourceEnrutado(
+            @Qualifier("primariaDataSource") HikariDataSource primaria,
+            PropiedadesShards propiedadesShards,
+            ConsistenciaLecturas consistenciaLecturas,
+            @Value("${banco.datasource.replica.url:}") String url,
+            @Value("${banco.datasource.replica.username:${spring.datasource.username:}}") String usuario,
+            @Value("${banco.datasource.replica.password:${spring.datasource.password:}}") String clave,
+            @Value("${banco.datasource.replica.maximo-conexiones:10}") int maximoConexiones) {
+        int cantidad = propiedadesShards.cantidad();
+        List<DestinoShard> shards = new ArrayList<>(cantidad);
+        shards.add(new DestinoShard(primaria, crearReplica(primaria, url, usuario, clave, maximoConexiones, "replica")));
+
+        for (int shard = 1; shard < cantidad; shard++) {
+            PropiedadesShards.Shard propiedades = propiedadesShards.getAdicionales().get(shard - 1);
+            HikariDataSource primariaShard = crearPrimaria(primaria, propiedades, shard);
+            NumeracionShards.numerar(primariaShard, shard);
+            shards.add(new DestinoShard(primariaShard, crearReplica(
+                primariaShard, propiedades.getReplicaUrl(), primariaShard.getUsername(), primariaShard.getPassword(),
+                maximoConexiones, "replica-" + shard)));
+        }
+        if (cantidad > 1) {
+            logger.info("Datos repartidos en {} shards por clienteId", cantidad);
+        }
+        return new DataSourceEnrutado(shards, consistenciaLecturas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceEnrutado dataSourceEnrutado) {
+        return new LazyConnectionDataSourceProxy(dataSourceEnrutado);
+    }
+
+    private static HikariDataSource crearPrimaria(HikariDataSource base, PropiedadesShards.Shard propiedades,
+                                                  int shard) {
+        if (propiedades.getUrl() == null || propiedades.getUrl().isBlank()) {
+            throw new IllegalStateException("Falta banco.shards.adicionales[" + (shard - 1) + "].url");
+        }
+        HikariConfig config = new HikariConfig();
+        base.copyStateTo(config);
+        config.setJdbcUrl(propiedades.getUrl());
+        if (propiedades.getUsername() != null && !propiedades.getUsername().isBlank()) {
+            config.setUsername(propiedades.getUsername());
+        }
+        if (propiedades.getPassword() != null && !propiedades.getPassword().isBlank()) {
+            config.setPassword(propiedades.getPassword());
+        }
+        config.setPoolName("primaria-" + shard);
+        return new HikariDataSource(config);
+    }
+
+    // Sin URL la réplica es la misma primaria
+    private static DataSource crearReplica(HikariDataSource primaria, String url, String usuario, String clave,
+                                           int maximoConexiones, String nombre) {
+        if (url == null || url.isBlank()) {
+            return primaria;
+        }
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(usuario)
+                .password(clave)
+                .build();
+        replica.setPoolName(nombre);
+        replica.setMaximumPoolSize(maximoConexiones);
+        replica.setReadOnly(true);
+        return replica;
+    }
+}
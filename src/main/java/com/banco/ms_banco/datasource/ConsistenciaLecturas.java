@@ -0,0 +1,80 @@
+package com.banco.ms_banco.datasource;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.banco.ms_banco.cache.CacheAcotada;
+
+/**
+ * Lectura de las propias escrituras: después de que un cliente de la API escribe, sus transacciones de solo
+ * lectura van a la primaria durante {@code banco.datasource.lectura-propia.ventana-ms}, el tiempo que se le da a
+ * la réplica para alcanzarla. El cliente de la solicitud en curso lo fija {@link FiltroConsistenciaLecturas};
+ * las escrituras sin solicitud (workers, procesos programados) no abren ventana.
+ *
+ * La ventana es por llamador, no por cliente del banco: una lectura cuyo resultado se guarda en una cache compartida
+ * no puede depender de quién la pidió, así que se hace con {@link #enPrimaria}.
+ */
+@Component
+public class ConsistenciaLecturas {
+
+    private static final ThreadLocal<String> CLIENTE = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FORZAR_PRIMARIA = new ThreadLocal<>();
+
+    private final boolean habilitada;
+
+    // La presencia de la entrada es la ventana: expira sola con el TTL
+    private final CacheAcotada<String, Boolean> escriturasRecientes;
+
+    public ConsistenciaLecturas(
+            @Value("${banco.datasource.lectura-propia.ventana-ms:1000}") long ventanaMs,
+            @Value("${banco.datasource.lectura-propia.capacidad:10000}") int capacidad) {
+        this.habilitada = ventanaMs > 0;
+        this.escriturasRecientes = new CacheAcotada<>("lectura-propia", capacidad, Duration.ofMillis(Math.max(ventanaMs, 1)));
+    }
+
+    public void fijarCliente(String cliente) {
+        CLIENTE.set(cliente);
+    }
+
+    public void liberarCliente() {
+        CLIENTE.remove();
+    }
+
+    public String clienteActual() {
+        return CLIENTE.get();
+    }
+
+    public void registrarEscritura() {
+        String cliente = CLIENTE.get();
+        if (habilitada && cliente != null) {
+            escriturasRecientes.guardar(cliente, Boolean.TRUE);
+        }
+    }
+
+    // Las transacciones de solo lectura que se abran dentro de la tarea van a la primaria, escriba quien escriba
+    public <T> T enPrimaria(Supplier<T> tarea) {
+        Boolean anterior = FORZAR_PRIMARIA.get();
+        FORZAR_PRIMARIA.set(Boolean.TRUE);
+        try {
+            return tarea.get();
+        } finally {
+            if (anterior == null) {
+                FORZAR_PRIMARIA.remove();
+            } else {
+                FORZAR_PRIMARIA.set(anterior);
+            }
+        }
+    }
+
+    public boolean primariaForzada() {
+        return FORZAR_PRIMARIA.get() != null;
+    }
+
+    public boolean requierePrimaria() {
+        String cliente = CLIENTE.get();
+        return habilitada && cliente != null && escriturasRecientes.obtener(cliente).isPresent();
+    }
+}
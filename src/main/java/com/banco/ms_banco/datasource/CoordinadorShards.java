@@ -0,0 +1,182 @@
+package com.banco.ms_banco.datasource;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Escrituras que abarcan varios shards. Cada shard que participa abre su transacción en un hilo virtual propio (una
+ * transacción queda ligada a su hilo y a un único shard) y el llamador le encarga los pasos de a uno con
+ * {@link Pasos#en}. Si el trabajo termina bien, cada shard vuelca sus cambios pendientes (los errores de restricciones
+ * aparecen ahí y revierten todo) y después se confirman en orden de shard; si algo lanza una excepción se revierten
+ * todas. No es un commit en dos fases: si un shard falla al confirmar después de que otro ya confirmó, los siguientes
+ * se revierten y el resultado queda parcial, lo que se registra como error.
+ *
+ * Los ids de cada shard son mayores que los del anterior (ver {@link EnrutadorShards}): tomar los bloqueos en orden
+ * de shard, y dentro de cada uno en orden de id, mantiene el orden global de bloqueo y evita interbloqueos entre
+ * bases.
+ */
+@Component
+public class CoordinadorShards {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoordinadorShards.class);
+
+    // Marca de fin de pasos: el participante deja de atender y confirma o revierte
+    private static final FutureTask<Void> FIN = new FutureTask<>(() -> null);
+
+    private final EnrutadorShards enrutadorShards;
+    private final TransactionTemplate escritura;
+
+    public CoordinadorShards(EnrutadorShards enrutadorShards, PlatformTransactionManager transactionManager) {
+        this.enrutadorShards = enrutadorShards;
+        this.escritura = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T ejecutar(Function<Pasos, T> trabajo) {
+        Pasos pasos = new Pasos();
+        boolean confirmar = false;
+        try {
+            T resultado = trabajo.apply(pasos);
+            pasos.volcar();
+            confirmar = true;
+            return resultado;
+        } finally {
+            pasos.terminar(confirmar);
+        }
+    }
+
+    public final class Pasos {
+
+        private final Map<Integer, Participante> participantes = new TreeMap<>();
+
+        private Pasos() {
+        }
+
+        /** Ejecuta el paso en la transacción del shard, que se abre con el primer paso que lo usa. */
+        public <R> R en(int shard, Supplier<R> paso) {
+            return encargar(participantes.computeIfAbsent(shard, Participante::new), paso);
+        }
+
+        private void volcar() {
+            for (Participante participante : participantes.values()) {
+                encargar(participante, () -> {
+                    participante.estado.flush();
+                    return null;
+                });
+            }
+        }
+
+        private <R> R encargar(Participante participante, Supplier<R> paso) {
+            FutureTask<R> tarea = new FutureTask<>(paso::get);
+            participante.ordenes.add(tarea);
+            if (participante.fin.isDone()) {
+                tarea.cancel(false);
+            }
+            return esperar(tarea);
+        }
+
+        private void terminar(boolean confirmar) {
+            boolean confirmando = confirmar;
+            boolean hayConfirmados = false;
+            RuntimeException fallo = null;
+            for (Map.Entry<Integer, Participante> entrada : participantes.entrySet()) {
+                Participante participante = entrada.getValue();
+                participante.confirmar = confirmando;
+                participante.ordenes.add(FIN);
+                try {
+                    esperar(participante.fin);
+                    hayConfirmados |= confirmando;
+                } catch (RuntimeException e) {
+                    if (hayConfirmados) {
+                        logger.error("El shard {} no confirmó después de que confirmaran los anteriores: "
+                                     + "la escritura entre shards quedó parcial", entrada.getKey(), e);
+                    } else {
+                        logger.error("Error al terminar la transacción del shard {}", entrada.getKey(), e);
+                    }
+                    confirmando = false;
+                    fallo = fallo == null ? e : fallo;
+                }
+            }
+            if (fallo != null && confirmar) {
+                throw fallo;
+            }
+        }
+    }
+
+    private final class Participante {
+
+        private final BlockingQueue<FutureTask<?>> ordenes = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Void> fin = new CompletableFuture<>();
+        private volatile boolean confirmar;
+
+        // Solo lo usa el hilo del participante
+        private TransactionStatus estado;
+
+        // El shard y el cliente de lectura propia se toman en el hilo del llamador
+        private Participante(int shard) {
+            Supplier<Void> transaccion = enrutadorShards.propagar(shard, () -> escritura.execute(this::atender));
+            Thread.ofVirtual().name("transaccion-shard-" + shard).start(() -> {
+                try {
+                    transaccion.get();
+                    fin.complete(null);
+                } catch (Throwable e) {
+                    fin.completeExceptionally(e);
+                }
+                // Si la transacción no llegó a abrirse, los pasos encargados no deben quedar esperando
+                FutureTask<?> pendiente;
+                while ((pendiente = ordenes.poll()) != null) {
+                    pendiente.cancel(false);
+                }
+            });
+        }
+
+        private Void atender(TransactionStatus status) {
+            estado = status;
+            try {
+                FutureTask<?> orden;
+                while ((orden = ordenes.take()) != FIN) {
+                    orden.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                confirmar = false;
+            }
+            if (!confirmar) {
+                status.setRollbackOnly();
+            }
+            return null;
+        }
+    }
+
+    private static <R> R esperar(Future<R> futuro) {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Error en la transacción entre shards", causa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido esperando la transacción entre shards");
+        }
+    }
+}
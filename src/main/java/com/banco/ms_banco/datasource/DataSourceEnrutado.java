@@ -0,0 +1,196 @@
+package com.banco.ms_banco.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banco.ms_banco.dto.metricas.RutaDatosMetricasDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Elige el shard fijado en el hilo por {@link EnrutadorShards} y, dentro de él, envía las transacciones de solo
+ * lectura a la réplica y todo lo demás a la primaria. La ruta se decide al pedir la conexión, así que debe usarse
+ * detrás de un {@code LazyConnectionDataSourceProxy}: la conexión física se pide en la primera sentencia, cuando la
+ * transacción ya publicó si es de solo lectura. Un shard sin réplica configurada usa su primaria para ambas rutas y
+ * solo se separan las métricas.
+ */
+public class DataSourceEnrutado extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final List<DestinoShard> shards;
+    private final ConsistenciaLecturas consistenciaLecturas;
+    private final List<Map<RutaDatos, MetricasRuta>> metricas = new ArrayList<>();
+
+    public DataSourceEnrutado(List<DestinoShard> shards, ConsistenciaLecturas consistenciaLecturas) {
+        this.shards = List.copyOf(shards);
+        this.consistenciaLecturas = consistenciaLecturas;
+        Map<Object, Object> destinos = new HashMap<>();
+        for (int shard = 0; shard < this.shards.size(); shard++) {
+            destinos.put(new ClaveRuta(shard, RutaDatos.PRIMARIA), this.shards.get(shard).primaria());
+            destinos.put(new ClaveRuta(shard, RutaDatos.REPLICA), this.shards.get(shard).replica());
+            Map<RutaDatos, MetricasRuta> porRuta = new EnumMap<>(RutaDatos.class);
+            for (RutaDatos ruta : RutaDatos.values()) {
+                porRuta.put(ruta, new MetricasRuta());
+            }
+            metricas.add(porRuta);
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(this.shards.get(0).primaria());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = EnrutadorShards.shardActual();
+        if (shard >= shards.size()) {
+            throw new IllegalStateException("No existe el shard " + shard + "; hay " + shards.size() + " configurados");
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                consistenciaLecturas.registrarEscritura();
+            }
+            return new ClaveRuta(shard, RutaDatos.PRIMARIA);
+        }
+        if (consistenciaLecturas.primariaForzada()) {
+            return new ClaveRuta(shard, RutaDatos.PRIMARIA);
+        }
+        if (consistenciaLecturas.requierePrimaria()) {
+            metricas.get(shard).get(RutaDatos.PRIMARIA).lecturasDesviadas.increment();
+            return new ClaveRuta(shard, RutaDatos.PRIMARIA);
+        }
+        return new ClaveRuta(shard, RutaDatos.REPLICA);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ClaveRuta clave = (ClaveRuta) determineCurrentLookupKey();
+        DestinoShard destino = shards.get(clave.shard());
+        return metricas.get(clave.shard()).get(clave.ruta())
+                .medir(clave.ruta() == RutaDatos.REPLICA ? destino.replica() : destino.primaria());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("El datasource enrutado solo entrega conexiones de sus pools");
+    }
+
+    public List<RutaDatosMetricasDTO> obtenerMetricas() {
+        List<RutaDatosMetricasDTO> resultado = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            DestinoShard destino = shards.get(shard);
+            for (RutaDatos ruta : RutaDatos.values()) {
+                resultado.add(metricas.get(shard).get(ruta).toDTO(shard, ruta, destino));
+            }
+        }
+        return resultado;
+    }
+
+    // La primaria del shard 0 es un bean propio; el resto de los pools los crea la configuración y se cierran aquí
+    @Override
+    public void destroy() {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            DestinoShard destino = shards.get(shard);
+            if (destino.replica() != destino.primaria() && destino.replica() instanceof HikariDataSource pool) {
+                pool.close();
+            }
+            if (shard > 0 && destino.primaria() instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+
+    public record DestinoShard(DataSource primaria, DataSource replica) {}
+
+    private record ClaveRuta(int shard, RutaDatos ruta) {}
+
+    private static final class MetricasRuta {
+        private final LongAdder conexiones = new LongAdder();
+        private final AtomicInteger activas = new AtomicInteger();
+        private final LongAdder esperaTotalNanos = new LongAdder();
+        private final AtomicLong esperaMaximaNanos = new AtomicLong();
+        private final LongAdder usoTotalNanos = new LongAdder();
+        private final AtomicLong usoMaximoNanos = new AtomicLong();
+        private final LongAdder liberadas = new LongAdder();
+        private final LongAdder lecturasDesviadas = new LongAdder();
+
+        private Connection medir(DataSource destino) throws SQLException {
+            long inicio = System.nanoTime();
+            Connection conexion = destino.getConnection();
+            long entregada = System.nanoTime();
+            long espera = entregada - inicio;
+            conexiones.increment();
+            esperaTotalNanos.add(espera);
+            esperaMaximaNanos.accumulateAndGet(espera, Math::max);
+            activas.incrementAndGet();
+            return envolver(conexion, entregada);
+        }
+
+        // Solo se intercepta close(): el tiempo de uso es lo que la transacción retuvo la conexión
+        private Connection envolver(Connection conexion, long entregada) {
+            AtomicInteger cerrada = new AtomicInteger();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    switch (metodo.getName()) {
+                        case "equals":
+                            return proxy == argumentos[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if ("close".equals(metodo.getName()) && cerrada.compareAndSet(0, 1)) {
+                        long uso = System.nanoTime() - entregada;
+                        activas.decrementAndGet();
+                        liberadas.increment();
+                        usoTotalNanos.add(uso);
+                        usoMaximoNanos.accumulateAndGet(uso, Math::max);
+                    }
+                    try {
+                        return metodo.invoke(conexion, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        }
+
+        private RutaDatosMetricasDTO toDTO(int shard, RutaDatos ruta, DestinoShard destinoShard) {
+            DataSource destino = ruta == RutaDatos.REPLICA ? destinoShard.replica() : destinoShard.primaria();
+            long obtenidas = conexiones.sum();
+            long cerradas = liberadas.sum();
+            RutaDatosMetricasDTO.RutaDatosMetricasDTOBuilder dto = RutaDatosMetricasDTO.builder()
+                    .shard(shard)
+                    .ruta(ruta.name())
+                    .compartidaConPrimaria(ruta == RutaDatos.REPLICA && destinoShard.replica() == destinoShard.primaria())
+                    .conexionesObtenidas(obtenidas)
+                    .conexionesActivas(activas.get())
+                    .esperaPromedioMs(obtenidas == 0 ? 0.0 : esperaTotalNanos.sum() / (double) obtenidas / 1_000_000.0)
+                    .esperaMaximaMs(esperaMaximaNanos.get() / 1_000_000.0)
+                    .usoPromedioMs(cerradas == 0 ? 0.0 : usoTotalNanos.sum() / (double) cerradas / 1_000_000.0)
+                    .usoMaximoMs(usoMaximoNanos.get() / 1_000_000.0)
+                    .lecturasPorEscrituraReciente(lecturasDesviadas.sum());
+            if (destino instanceof HikariDataSource pool && pool.getHikariPoolMXBean() != null) {
+                HikariPoolMXBean estado = pool.getHikariPoolMXBean();
+                dto.pool(pool.getPoolName())
+                   .poolActivas(estado.getActiveConnections())
+                   .poolInactivas(estado.getIdleConnections())
+                   .poolEnEspera(estado.getThreadsAwaitingConnection())
+                   .poolMaximo(pool.getMaximumPoolSize());
+            }
+            return dto.build();
+        }
+    }
+}
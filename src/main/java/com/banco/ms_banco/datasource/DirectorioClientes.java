@@ -0,0 +1,43 @@
+package com.banco.ms_banco.datasource;
+
+import java.util.OptionalInt;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ubica un cliente por su identificación con la tabla {@code directorio_cliente} del shard 0 (ver
+ * {@link TablaDirectorio}). El shard de un cliente nuevo se elige una sola vez al crearlo y queda registrado, de modo
+ * que cambiar la cantidad de shards no cambia dónde se lo busca.
+ */
+@Component
+public class DirectorioClientes {
+
+    private final EnrutadorShards enrutadorShards;
+    private final TablaDirectorio tabla;
+
+    public DirectorioClientes(EnrutadorShards enrutadorShards,
+                              @Qualifier("primariaDataSource") DataSource primaria,
+                              @Value("${banco.shards.directorio.capacidad-cache:100000}") int capacidadCache) {
+        this.enrutadorShards = enrutadorShards;
+        this.tabla = new TablaDirectorio(primaria, enrutadorShards, "directorio_cliente", "identificacion", capacidadCache);
+    }
+
+    public int shardDe(String identificacion) {
+        return tabla.shardDe(identificacion);
+    }
+
+    // Vacío si la identificación ya pertenece a un cliente, en cualquier shard
+    public OptionalInt reservar(String identificacion) {
+        int shard = Math.floorMod(identificacion.hashCode(), enrutadorShards.cantidad());
+        return tabla.reservar(identificacion, shard) ? OptionalInt.of(shard) : OptionalInt.empty();
+    }
+
+    // Deshace la reserva de un alta que no llegó a guardarse, para que la identificación pueda volver a usarse
+    public void liberar(String identificacion) {
+        tabla.liberar(identificacion);
+    }
+}
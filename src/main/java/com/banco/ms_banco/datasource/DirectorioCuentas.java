@@ -0,0 +1,41 @@
+package com.banco.ms_banco.datasource;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ubica una cuenta por su número con la tabla {@code directorio_cuenta} del shard 0 (ver {@link TablaDirectorio}).
+ * El número no depende de la cantidad de shards, así que agregar shards no mueve ninguna cuenta, y reservarlo en el
+ * directorio lo hace único entre todos los shards.
+ */
+@Component
+public class DirectorioCuentas {
+
+    private static final long NUMEROS_POSIBLES = 10_000_000_000L;
+
+    private final TablaDirectorio tabla;
+
+    public DirectorioCuentas(EnrutadorShards enrutadorShards,
+                             @Qualifier("primariaDataSource") DataSource primaria,
+                             @Value("${banco.shards.directorio.capacidad-cache:100000}") int capacidadCache) {
+        this.tabla = new TablaDirectorio(primaria, enrutadorShards, "directorio_cuenta", "numero_cuenta", capacidadCache);
+    }
+
+    public int shardDe(String numeroCuenta) {
+        return tabla.shardDe(numeroCuenta == null ? null : numeroCuenta.trim());
+    }
+
+    // Falso si el número ya está asignado a otra cuenta, en cualquier shard
+    public boolean reservar(String numeroCuenta, int shard) {
+        return tabla.reservar(numeroCuenta, shard);
+    }
+
+    public String nuevoNumero() {
+        return String.format("%010d", ThreadLocalRandom.current().nextLong(NUMEROS_POSIBLES));
+    }
+}
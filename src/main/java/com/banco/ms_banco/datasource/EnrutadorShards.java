@@ -0,0 +1,190 @@
+package com.banco.ms_banco.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reparte los datos por cliente entre los shards: el cliente, sus cuentas y los movimientos de esas cuentas viven en
+ * el mismo shard. Cada shard k asigna sus ids de clientes, cuentas y movimientos en un rango propio
+ * {@code (k * RANGO_IDS, (k + 1) * RANGO_IDS]} (ver {@link NumeracionShards}), así que un id dice dónde está su fila
+ * sin consultar nada y agregar shards no mueve los existentes: los datos anteriores al reparto quedan en el shard 0.
+ * Las búsquedas por identificación y por número de cuenta pasan por {@link DirectorioClientes} y
+ * {@link DirectorioCuentas}.
+ * El shard se fija por hilo con {@link #enShard} antes de la primera sentencia: el datasource enrutado elige el pool
+ * al pedir la conexión física y una transacción no cambia de shard. Sin shard fijado se usa el shard 0.
+ */
+@Component
+public class EnrutadorShards {
+
+    public static final long RANGO_IDS = 1_000_000_000_000L;
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private final int cantidad;
+    private final PlatformTransactionManager transactionManager;
+    private final ConsistenciaLecturas consistenciaLecturas;
+
+    private TransactionTemplate lectura;
+    private ExecutorService executor;
+
+    public EnrutadorShards(PropiedadesShards propiedades, PlatformTransactionManager transactionManager,
+                           ConsistenciaLecturas consistenciaLecturas) {
+        this.cantidad = propiedades.cantidad();
+        this.transactionManager = transactionManager;
+        this.consistenciaLecturas = consistenciaLecturas;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        if (cantidad > 1) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    static int shardActual() {
+        Integer shard = SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    public static long primerId(int shard) {
+        return shard * RANGO_IDS + 1;
+    }
+
+    public static long ultimoId(int shard) {
+        return (shard + 1) * RANGO_IDS;
+    }
+
+    public int shardDeCliente(Long clienteId) {
+        return shardDeId(clienteId);
+    }
+
+    public int shardDeCuenta(Long cuentaId) {
+        return shardDeId(cuentaId);
+    }
+
+    public int shardDeMovimiento(Long movimientoId) {
+        return shardDeId(movimientoId);
+    }
+
+    // Un id fuera de los rangos configurados no existe en ningún shard: se busca en el 0 y se informa como no encontrado
+    private int shardDeId(Long id) {
+        if (id == null || id < 1) {
+            return 0;
+        }
+        long shard = (id - 1) / RANGO_IDS;
+        return shard < cantidad ? (int) shard : 0;
+    }
+
+    public <T> T enShard(int shard, Supplier<T> tarea) {
+        Integer anterior = SHARD.get();
+        if (anterior != null && anterior != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(
+                "La transacción en curso pertenece al shard " + anterior + " y no puede pasar al shard " + shard);
+        }
+        SHARD.set(shard);
+        try {
+            return tarea.get();
+        } finally {
+            if (anterior == null) {
+                SHARD.remove();
+            } else {
+                SHARD.set(anterior);
+            }
+        }
+    }
+
+    public void enShard(int shard, Runnable tarea) {
+        enShard(shard, () -> {
+            tarea.run();
+            return null;
+        });
+    }
+
+    /**
+     * Envuelve la tarea para correr en otro hilo con el shard indicado y el cliente de lectura propia de este hilo,
+     * de modo que sus escrituras abran la ventana del cliente como si corrieran en la solicitud.
+     */
+    public <T> Supplier<T> propagar(int shard, Supplier<T> tarea) {
+        String cliente = consistenciaLecturas.clienteActual();
+        return () -> {
+            String anterior = consistenciaLecturas.clienteActual();
+            consistenciaLecturas.fijarCliente(cliente);
+            try {
+                return enShard(shard, tarea);
+            } finally {
+                if (anterior == null) {
+                    consistenciaLecturas.liberarCliente();
+                } else {
+                    consistenciaLecturas.fijarCliente(anterior);
+                }
+            }
+        };
+    }
+
+    /**
+     * Ejecuta la consulta en cada shard y devuelve los resultados en orden de shard. Con un solo shard corre en este
+     * hilo, dentro de la transacción del llamador si la hay; con varios, los shards se consultan en paralelo, cada
+     * uno en su hilo y en su propia transacción de solo lectura.
+     */
+    public <T> List<T> enTodos(IntFunction<T> consulta) {
+        List<T> resultados = new ArrayList<>(cantidad);
+        if (cantidad == 1) {
+            resultados.add(enShard(0, () -> consulta.apply(0)));
+            return resultados;
+        }
+
+        List<Future<T>> pendientes = new ArrayList<>(cantidad);
+        for (int shard = 0; shard < cantidad; shard++) {
+            int indice = shard;
+            Supplier<T> tarea = propagar(indice, () -> lectura.execute(status -> consulta.apply(indice)));
+            pendientes.add(executor.submit(tarea::get));
+        }
+        try {
+            for (Future<T> pendiente : pendientes) {
+                resultados.add(pendiente.get());
+            }
+            return resultados;
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Error al consultar los shards", causa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido esperando la consulta a los shards");
+        } finally {
+            pendientes.forEach(pendiente -> pendiente.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.banco.ms_banco.datasource;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Identifica al cliente de la API en cada solicitud con la cabecera {@code banco.datasource.lectura-propia.cabecera}
+ * o, si no viene, con su dirección remota.
+ */
+@Component
+public class FiltroConsistenciaLecturas extends OncePerRequestFilter {
+
+    @Autowired
+    private ConsistenciaLecturas consistenciaLecturas;
+
+    @Value("${banco.datasource.lectura-propia.cabecera:X-Cliente-Id}")
+    private String cabecera;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String cliente = request.getHeader(cabecera);
+        consistenciaLecturas.fijarCliente(cliente == null || cliente.isBlank() ? request.getRemoteAddr() : cliente);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            consistenciaLecturas.liberarCliente();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.banco.ms_banco.datasource;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lleva los contadores de un shard al inicio de su rango de ids (ver {@link EnrutadorShards#primerId}): los
+ * AUTO_INCREMENT de clientes y cuentas y la secuencia de movimientos. Solo avanza contadores que todavía están por
+ * debajo del rango, así que repetirlo en cada arranque no cambia nada. Las tablas se buscan en los metadatos sin
+ * distinguir mayúsculas, para servir al esquema de MySQL y al de H2 de las pruebas.
+ */
+final class NumeracionShards {
+
+    private static final Logger logger = LoggerFactory.getLogger(NumeracionShards.class);
+
+    // allocationSize de la secuencia de Movimiento: el optimizador pooled entrega ids desde next_val - 49
+    private static final int ASIGNACION_SECUENCIA = 50;
+
+    private NumeracionShards() {
+    }
+
+    static void numerar(DataSource dataSource, int shard) {
+        long primerId = EnrutadorShards.primerId(shard);
+        long ultimoId = EnrutadorShards.ultimoId(shard);
+        try (Connection conexion = dataSource.getConnection()) {
+            DatabaseMetaData metadatos = conexion.getMetaData();
+            String motor = metadatos.getDatabaseProductName();
+            boolean mysql = "MySQL".equalsIgnoreCase(motor);
+            if (!mysql && !"H2".equalsIgnoreCase(motor)) {
+                logger.warn("El shard {} usa {}: sus contadores de ids no se ajustan a su rango", shard, motor);
+                return;
+            }
+
+            for (String nombre : new String[] {"cliente", "cuenta"}) {
+                String tabla = buscarTabla(conexion, metadatos, nombre);
+                String columna = clavePrimaria(conexion, metadatos, tabla);
+                long maximo = maximo(conexion, tabla, columna);
+                if (maximo > ultimoId) {
+                    throw new IllegalStateException("La tabla " + tabla + " del shard " + shard
+                                                    + " tiene ids fuera de su rango (" + maximo + ")");
+                }
+                if (maximo < primerId) {
+                    ejecutar(conexion, mysql
+                        ? "ALTER TABLE " + tabla + " AUTO_INCREMENT = " + primerId
+                        : "ALTER TABLE " + tabla + " ALTER COLUMN " + columna + " RESTART WITH " + primerId);
+                }
+            }
+
+            long inicioSecuencia = primerId + ASIGNACION_SECUENCIA;
+            if (mysql) {
+                ejecutar(conexion, "UPDATE movimiento_seq SET next_val = " + inicioSecuencia
+                                   + " WHERE next_val < " + inicioSecuencia);
+            } else if (siguienteValor(conexion) < inicioSecuencia) {
+                ejecutar(conexion, "ALTER SEQUENCE movimiento_seq RESTART WITH " + inicioSecuencia);
+            }
+            logger.info("Shard {}: ids de clientes, cuentas y movimientos desde {}", shard, primerId);
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo numerar el shard " + shard + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Catálogo y esquema de la conexión: sin ellos MySQL devuelve las tablas de todas las bases del servidor
+    private static String buscarTabla(Connection conexion, DatabaseMetaData metadatos, String nombre)
+            throws SQLException {
+        try (ResultSet tablas = metadatos.getTables(conexion.getCatalog(), conexion.getSchema(), "%", null)) {
+            while (tablas.next()) {
+                String tabla = tablas.getString("TABLE_NAME");
+                if (tabla.equalsIgnoreCase(nombre)) {
+                    return tabla;
+                }
+            }
+        }
+        throw new IllegalStateException("No existe la tabla " + nombre);
+    }
+
+    private static String clavePrimaria(Connection conexion, DatabaseMetaData metadatos, String tabla)
+            throws SQLException {
+        try (ResultSet columnas = metadatos.getPrimaryKeys(conexion.getCatalog(), conexion.getSchema(), tabla)) {
+            if (columnas.next()) {
+                return columnas.getString("COLUMN_NAME");
+            }
+        }
+        throw new IllegalStateException("La tabla " + tabla + " no tiene clave primaria");
+    }
+
+    private static long maximo(Connection conexion, String tabla, String columna) throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet resultado = sentencia.executeQuery("SELECT MAX(" + columna + ") FROM " + tabla)) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    // Consume un valor de la secuencia: a lo sumo se salta un bloque de ids
+    private static long siguienteValor(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet resultado = sentencia.executeQuery("SELECT NEXT VALUE FOR movimiento_seq")) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    private static void ejecutar(Connection conexion, String sql) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.banco.ms_banco.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Shards que se suman a la base de {@code spring.datasource.*}, que siempre es el shard 0. Sin adicionales hay un
+ * solo shard. Usuario y clave vacíos toman los de {@code spring.datasource.*}; sin {@code replica-url} las lecturas
+ * del shard van a su primaria.
+ */
+@Data
+@ConfigurationProperties(prefix = "banco.shards")
+public class PropiedadesShards {
+
+    private List<Shard> adicionales = new ArrayList<>();
+
+    public int cantidad() {
+        return 1 + adicionales.size();
+    }
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String replicaUrl;
+    }
+}
@@ -0,0 +1,6 @@
+package com.banco.ms_banco.datasource;
+
+public enum RutaDatos {
+    PRIMARIA,
+    REPLICA
+}
@@ -0,0 +1,73 @@
+package com.banco.ms_banco.datasource;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.banco.ms_banco.cache.CacheAcotada;
+
+/**
+ * Tabla {@code (clave, shard)} en la primaria del shard 0. Se usa con su propio {@link JdbcTemplate} sobre ese
+ * pool, fuera de la transacción del shard que esté en curso, y su clave primaria hace única la clave entre todos los
+ * shards. Una clave sin fila es anterior al directorio o no existe: en ambos casos se busca en el shard 0. Las
+ * filas no cambian de shard, así que las encontradas se guardan en cache sin expiración.
+ */
+final class TablaDirectorio {
+
+    private final JdbcTemplate jdbc;
+    private final EnrutadorShards enrutadorShards;
+    private final CacheAcotada<String, Integer> cache;
+    private final String consulta;
+    private final String insercion;
+    private final String borrado;
+
+    TablaDirectorio(DataSource primaria, EnrutadorShards enrutadorShards, String tabla, String columna,
+                    int capacidadCache) {
+        this.jdbc = new JdbcTemplate(primaria);
+        this.enrutadorShards = enrutadorShards;
+        this.cache = new CacheAcotada<>(tabla, capacidadCache);
+        this.consulta = "SELECT shard FROM " + tabla + " WHERE " + columna + " = ?";
+        this.insercion = "INSERT INTO " + tabla + " (" + columna + ", shard) VALUES (?, ?)";
+        this.borrado = "DELETE FROM " + tabla + " WHERE " + columna + " = ?";
+    }
+
+    // Con un solo shard no hace falta consultar: todo está en el 0
+    int shardDe(String clave) {
+        if (enrutadorShards.cantidad() == 1 || clave == null) {
+            return 0;
+        }
+        Optional<Integer> guardado = cache.obtener(clave);
+        if (guardado.isPresent()) {
+            return guardado.get();
+        }
+        List<Integer> shards = jdbc.queryForList(consulta, Integer.class, clave);
+        if (shards.isEmpty()) {
+            return 0;
+        }
+        int shard = shards.get(0);
+        if (shard >= enrutadorShards.cantidad()) {
+            throw new IllegalStateException("La clave " + clave + " está en el shard " + shard + ", que no está configurado");
+        }
+        cache.guardar(clave, shard);
+        return shard;
+    }
+
+    // Se registra también con un solo shard: así el directorio está completo cuando se agreguen más
+    boolean reservar(String clave, int shard) {
+        try {
+            jdbc.update(insercion, clave, shard);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    void liberar(String clave) {
+        jdbc.update(borrado, clave);
+        cache.invalidar(clave);
+    }
+}
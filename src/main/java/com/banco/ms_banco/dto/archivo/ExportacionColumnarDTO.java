@@ -0,0 +1,19 @@
+package com.banco.ms_banco.dto.archivo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ExportacionColumnarDTO {
+    private String periodo;
+    private String archivo;
+    private int cuentas;
+    private long movimientos;
+    private long bytes;
+    private long duracionMs;
+}
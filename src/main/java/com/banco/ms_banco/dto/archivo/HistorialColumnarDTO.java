@@ -0,0 +1,22 @@
+package com.banco.ms_banco.dto.archivo;
+
+import java.util.List;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HistorialColumnarDTO {
+    private Long cuentaId;
+    private String desde;
+    private String hasta;
+    private List<MovimientoResponseDTO> movimientos;
+    private List<String> periodosSinArchivo;
+}
@@ -0,0 +1,26 @@
+package com.banco.ms_banco.dto.archivo;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResumenColumnarDTO {
+    private String periodo;
+    private Long cuentaId;
+    private String numeroCuenta;
+    private int cantidadMovimientos;
+    private LocalDateTime primeraFecha;
+    private LocalDateTime ultimaFecha;
+    private BigDecimal saldoApertura;
+    private BigDecimal saldoCierre;
+    private BigDecimal totalDebitos;
+    private BigDecimal totalCreditos;
+}
@@ -0,0 +1,24 @@
+package com.banco.ms_banco.dto.archivo;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VerificacionColumnarDTO {
+    private String periodo;
+    private long filasBaseDatos;
+    private long filasArchivo;
+    private long diferencias;
+    private List<String> primerasDiferencias;
+    private boolean coincide;
+    private long lecturaBaseDatosMs;
+    private long lecturaArchivoMs;
+    private long duracionMs;
+}
@@ -0,0 +1,8 @@
+package com.banco.ms_banco.dto.clientes;
+
+/**
+ * Fila plana de cliente con los datos de su persona, leída en la misma sentencia que el cliente.
+ */
+public record ClienteProyeccion(Long clienteId, String estado, Long personaId, String identificacion,
+                                String nombre, String genero, Integer edad, String direccion, String telefono) {
+}
@@ -20,5 +20,10 @@ public class CuentaResumenDTO {
     private String tipoCuenta;
     private String estado;
     private BigDecimal saldoActual;
+    private BigDecimal saldoAperturaPeriodo;
+    private BigDecimal totalDebitosPeriodo;
+    private BigDecimal totalCreditosPeriodo;
+    private long cantidadMovimientosPeriodo;
+    private BigDecimal saldoCierrePeriodo;
     private List<MovimientoDetalleDTO> movimientos;
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.banco.ms_banco.dto.cuentas;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldos de una cuenta sin cargar la entidad: el inicial con el que abrió y el actual que mantienen los movimientos.
+ */
+public record CuentaSaldoProyeccion(Long cuentaId, String numeroCuenta, BigDecimal saldoInicial,
+                                    BigDecimal saldoActual) {
+}
@@ -0,0 +1,21 @@
+package com.banco.ms_banco.dto.metricas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CacheMetricasDTO {
+    private String nombre;
+    private int tamano;
+    private int capacidadMaxima;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private double tasaAciertos;
+    private long bytesEstimados;
+}
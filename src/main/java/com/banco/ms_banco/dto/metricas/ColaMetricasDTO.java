@@ -0,0 +1,25 @@
+package com.banco.ms_banco.dto.metricas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ColaMetricasDTO {
+    private String nombre;
+    private int enCola;
+    private int capacidad;
+    private int workers;
+    private long aceptados;
+    private long rechazados;
+    private long completados;
+    private long fallidos;
+    private double esperaPromedioMs;
+    private double procesamientoPromedioMs;
+    private double latenciaPromedioMs;
+    private double latenciaMaximaMs;
+}
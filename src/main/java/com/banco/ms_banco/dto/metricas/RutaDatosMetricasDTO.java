@@ -0,0 +1,28 @@
+package com.banco.ms_banco.dto.metricas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RutaDatosMetricasDTO {
+    private int shard;
+    private String ruta;
+    private boolean compartidaConPrimaria;
+    private long conexionesObtenidas;
+    private int conexionesActivas;
+    private double esperaPromedioMs;
+    private double esperaMaximaMs;
+    private double usoPromedioMs;
+    private double usoMaximoMs;
+    private long lecturasPorEscrituraReciente;
+    private String pool;
+    private int poolActivas;
+    private int poolInactivas;
+    private int poolEnEspera;
+    private int poolMaximo;
+}
@@ -0,0 +1,19 @@
+package com.banco.ms_banco.dto.metricas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ShardMetricasDTO {
+    private int shard;
+    private int profundidadCola;
+    private long tareasProcesadas;
+    private long tareasRechazadas;
+    private double esperaPromedioMs;
+    private double esperaMaximaMs;
+}
@@ -0,0 +1,19 @@
+package com.banco.ms_banco.dto.movimientos;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArchivoMovimientosDTO {
+    private LocalDateTime frontera;
+    private long movimientosArchivados;
+    private int lotes;
+    private long duracionMs;
+}
@@ -0,0 +1,17 @@
+package com.banco.ms_banco.dto.movimientos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MovimientoLoteItemDTO {
+    private String numeroCuenta;
+    private BigDecimal valor;
+}
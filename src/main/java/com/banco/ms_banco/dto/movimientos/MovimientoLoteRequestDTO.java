@@ -0,0 +1,18 @@
+package com.banco.ms_banco.dto.movimientos;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MovimientoLoteRequestDTO {
+    @NotEmpty(message = "El lote debe contener al menos un movimiento")
+    private List<MovimientoLoteItemDTO> movimientos;
+}
@@ -0,0 +1,19 @@
+package com.banco.ms_banco.dto.movimientos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MovimientoLoteResponseDTO {
+    private int total;
+    private int exitosos;
+    private int fallidos;
+    private List<MovimientoLoteResultadoDTO> resultados;
+}
@@ -0,0 +1,18 @@
+package com.banco.ms_banco.dto.movimientos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MovimientoLoteResultadoDTO {
+    private int indice;
+    private String numeroCuenta;
+    private boolean exitoso;
+    private MovimientoResponseDTO movimiento;
+    private String error;
+}
@@ -0,0 +1,11 @@
+package com.banco.ms_banco.dto.movimientos;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana de movimiento con el número de su cuenta, leída en la misma sentencia que el movimiento.
+ */
+public record MovimientoProyeccion(Long movimientoId, LocalDateTime fecha, String tipoMovimiento,
+                                   BigDecimal valor, BigDecimal saldo, Long cuentaId, String numeroCuenta) {
+}
@@ -0,0 +1,19 @@
+package com.banco.ms_banco.dto.movimientos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaginaMovimientosDTO {
+    private List<MovimientoResponseDTO> movimientos;
+    private int tamano;
+    private boolean hayMas;
+    private String siguienteCursor;
+}
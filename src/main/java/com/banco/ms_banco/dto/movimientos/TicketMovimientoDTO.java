@@ -0,0 +1,24 @@
+package com.banco.ms_banco.dto.movimientos;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TicketMovimientoDTO {
+    private String ticketId;
+    private String estado;
+    private String numeroCuenta;
+    private BigDecimal valor;
+    private LocalDateTime fechaRecepcion;
+    private LocalDateTime fechaFinalizacion;
+    private MovimientoResponseDTO movimiento;
+    private String error;
+}
@@ -0,0 +1,29 @@
+package com.banco.ms_banco.dto.reportes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoteEstadosCuentaDTO {
+    private String periodo;
+    private String estado;
+    private String directorio;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFinalizacion;
+    private int particionesTotales;
+    private int particionesCompletadas;
+    private int particionesReanudadas;
+    private long generados;
+    private long omitidos;
+    private long fallidos;
+    private double estadosPorSegundo;
+    private List<ParticionLoteDTO> particiones;
+}
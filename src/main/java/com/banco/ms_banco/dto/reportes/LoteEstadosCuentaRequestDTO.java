@@ -0,0 +1,18 @@
+package com.banco.ms_banco.dto.reportes;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoteEstadosCuentaRequestDTO {
+
+    // Mes a generar (YYYY-MM); por defecto el mes anterior
+    @Pattern(regexp = "\\d{4}-\\d{2}", message = "El periodo debe tener el formato YYYY-MM")
+    private String periodo;
+}
@@ -0,0 +1,22 @@
+package com.banco.ms_banco.dto.reportes;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ParticionLoteDTO {
+    private Long clienteIdDesde;
+    private Long clienteIdHasta;
+    private String estado;
+    private long generados;
+    private long omitidos;
+    private long fallidos;
+    private List<String> errores;
+}
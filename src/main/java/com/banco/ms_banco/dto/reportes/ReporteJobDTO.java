@@ -0,0 +1,28 @@
+package com.banco.ms_banco.dto.reportes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReporteJobDTO {
+    private String jobId;
+    private String estado;
+    private Long clienteId;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private String formato;
+    private LocalDateTime fechaRecepcion;
+    private LocalDateTime fechaFinalizacion;
+    private Double esperaMs;
+    private Double generacionMs;
+    private String urlDescarga;
+    private String error;
+}
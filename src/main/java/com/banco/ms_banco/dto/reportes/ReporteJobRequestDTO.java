@@ -0,0 +1,29 @@
+package com.banco.ms_banco.dto.reportes;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReporteJobRequestDTO {
+
+    @NotNull(message = "El ID del cliente es obligatorio")
+    private Long clienteId;
+
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private LocalDate fechaInicio;
+
+    @NotNull(message = "La fecha de fin es obligatoria")
+    private LocalDate fechaFin;
+
+    @Pattern(regexp = "PDF|JSON", message = "El formato debe ser PDF o JSON")
+    private String formato;
+}
@@ -0,0 +1,25 @@
+package com.banco.ms_banco.dto.saldos;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CuentaDescuadradaDTO {
+    private Long cuentaId;
+    private String numeroCuenta;
+    private long movimientos;
+    private long rupturas;
+    private boolean aperturaValida;
+    private Long primerMovimientoRoto;
+    private BigDecimal saldoEsperado;
+    private BigDecimal saldoRegistrado;
+    private BigDecimal saldoReproducido;
+    private BigDecimal saldoActual;
+}
@@ -0,0 +1,17 @@
+package com.banco.ms_banco.dto.saldos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReconstruccionSaldosDTO {
+    private int cuentasProcesadas;
+    private int periodosGenerados;
+    private int cuentasConDiferencia;
+    private long duracionMs;
+}
@@ -0,0 +1,54 @@
+package com.banco.ms_banco.dto.saldos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totales de movimientos de una cuenta agrupados por mes, calculados en la base de datos.
+ * Las sumas llegan nulas cuando el mes no tiene movimientos de ese tipo.
+ */
+public record ResumenMensualMovimientos(Long cuentaId, Integer anio, Integer mes,
+                                        BigDecimal totalDebitos, BigDecimal totalCreditos, Long cantidad) {
+
+    public LocalDate periodo() {
+        return LocalDate.of(anio, mes, 1);
+    }
+
+    public BigDecimal debitos() {
+        return totalDebitos == null ? BigDecimal.ZERO : totalDebitos;
+    }
+
+    public BigDecimal creditos() {
+        return totalCreditos == null ? BigDecimal.ZERO : totalCreditos;
+    }
+
+    /**
+     * Suma los resúmenes de la tabla caliente y del archivo: un mes puede quedar repartido entre ambas mientras
+     * el archivo se pone al día. El resultado queda ordenado por cuenta y periodo.
+     */
+    public static List<ResumenMensualMovimientos> combinar(List<ResumenMensualMovimientos> calientes,
+                                                           List<ResumenMensualMovimientos> archivados) {
+        if (archivados.isEmpty()) {
+            return calientes;
+        }
+        Map<String, ResumenMensualMovimientos> porMes = new LinkedHashMap<>();
+        for (List<ResumenMensualMovimientos> resumenes : List.of(archivados, calientes)) {
+            for (ResumenMensualMovimientos resumen : resumenes) {
+                porMes.merge(resumen.cuentaId() + "-" + resumen.anio() + "-" + resumen.mes(), resumen,
+                             (a, b) -> new ResumenMensualMovimientos(a.cuentaId(), a.anio(), a.mes(),
+                                                                     a.debitos().add(b.debitos()),
+                                                                     a.creditos().add(b.creditos()),
+                                                                     a.cantidad() + b.cantidad()));
+            }
+        }
+        List<ResumenMensualMovimientos> resultado = new ArrayList<>(porMes.values());
+        resultado.sort(Comparator.comparing(ResumenMensualMovimientos::cuentaId)
+                                 .thenComparing(ResumenMensualMovimientos::periodo));
+        return resultado;
+    }
+}
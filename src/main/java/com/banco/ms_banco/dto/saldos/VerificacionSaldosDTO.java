@@ -0,0 +1,32 @@
+package com.banco.ms_banco.dto.saldos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VerificacionSaldosDTO {
+    private String estado;
+    private boolean reparar;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFinalizacion;
+    private int paralelismo;
+    private long cuentasTotales;
+    private long cuentasProcesadas;
+    private long movimientosProcesados;
+    private double movimientosPorSegundo;
+    private int tareasCompletadas;
+    private int tareasFallidas;
+    private long cuentasConCadenaRota;
+    private long cuentasDescuadradas;
+    private long cuentasReparadas;
+    private List<CuentaDescuadradaDTO> cuentas;
+    private List<String> errores;
+}
@@ -0,0 +1,25 @@
+package com.banco.ms_banco.dto.transferencias;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransferenciaRequestDTO {
+    @NotBlank(message = "El número de cuenta origen es obligatorio")
+    private String numeroCuentaOrigen;
+
+    @NotBlank(message = "El número de cuenta destino es obligatorio")
+    private String numeroCuentaDestino;
+
+    @NotNull(message = "El valor es obligatorio")
+    @Digits(integer = 15, fraction = 2, message = "El valor debe tener máximo 15 enteros y 2 decimales")
+    private BigDecimal valor;
+}
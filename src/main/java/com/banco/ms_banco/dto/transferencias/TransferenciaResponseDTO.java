@@ -0,0 +1,22 @@
+package com.banco.ms_banco.dto.transferencias;
+
+import java.math.BigDecimal;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransferenciaResponseDTO {
+    private String numeroCuentaOrigen;
+    private String numeroCuentaDestino;
+    private BigDecimal valor;
+    private MovimientoResponseDTO retiro;
+    private MovimientoResponseDTO deposito;
+}
@@ -0,0 +1,9 @@
+package com.banco.ms_banco.event;
+
+/**
+ * Se publica cuando cambia una cuenta sin que se registre un movimiento: un cambio de estado o la reconstrucción
+ * de sus saldos mensuales. Como {@link MovimientoRegistradoEvent}, se publica dentro de la transacción que la
+ * modifica y los oyentes con estado en memoria deben reaccionar solo después del commit.
+ */
+public record CuentaModificadaEvent(Long cuentaId, Long clienteId) {
+}
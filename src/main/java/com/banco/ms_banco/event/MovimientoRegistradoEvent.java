@@ -0,0 +1,22 @@
+package com.banco.ms_banco.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.banco.ms_banco.model.Movimiento;
+
+/**
+ * Se publica por cada movimiento guardado, dentro de la transacción que lo registra.
+ * Los oyentes que mantienen estado en memoria deben reaccionar solo después del commit.
+ */
+public record MovimientoRegistradoEvent(Long movimientoId, Long cuentaId, String numeroCuenta, Long clienteId,
+                                        String tipoMovimiento, BigDecimal valor, BigDecimal saldo,
+                                        LocalDateTime fecha) {
+
+    public static MovimientoRegistradoEvent de(Movimiento movimiento, Long cuentaId, String numeroCuenta,
+                                               Long clienteId) {
+        return new MovimientoRegistradoEvent(movimiento.getMovimientoId(), cuentaId, numeroCuenta, clienteId,
+                                             movimiento.getTipoMovimiento(), movimiento.getValor(),
+                                             movimiento.getSaldo(), movimiento.getFecha());
+    }
+}
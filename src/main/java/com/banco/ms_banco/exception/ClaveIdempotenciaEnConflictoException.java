@@ -0,0 +1,7 @@
+package com.banco.ms_banco.exception;
+
+public class ClaveIdempotenciaEnConflictoException extends RuntimeException {
+    public ClaveIdempotenciaEnConflictoException(String clave) {
+        super("La clave de idempotencia " + clave + " está siendo usada por otra solicitud. Intente nuevamente");
+    }
+}
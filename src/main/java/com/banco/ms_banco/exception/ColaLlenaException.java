@@ -0,0 +1,12 @@
+package com.banco.ms_banco.exception;
+
+public class ColaLlenaException extends RuntimeException {
+    public ColaLlenaException(String message) {
+        super(message);
+    }
+
+    public ColaLlenaException(String nombreCola, int capacidad) {
+        super(String.format("La cola %s está llena (capacidad %d). Intente nuevamente más tarde", 
+                            nombreCola, capacidad));
+    }
+}
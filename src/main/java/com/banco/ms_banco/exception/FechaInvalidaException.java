@@ -23,7 +23,11 @@ public class FechaInvalidaException extends RuntimeException {
     }
     
     public static FechaInvalidaException rangoExcesivo() {
-        return new FechaInvalidaException("El rango de fechas no puede ser mayor a 1 año");
+        return rangoExcesivo(1);
+    }
+    
+    public static FechaInvalidaException rangoExcesivo(int anios) {
+        return new FechaInvalidaException("El rango de fechas no puede ser mayor a " + anios + (anios == 1 ? " año" : " años"));
     }
     
     public static FechaInvalidaException fechasFuturas() {
@@ -0,0 +1,7 @@
+package com.banco.ms_banco.exception;
+
+public class TicketNotFoundException extends RuntimeException {
+    public TicketNotFoundException(String ticketId) {
+        super("Ticket no encontrado o expirado: " + ticketId);
+    }
+}
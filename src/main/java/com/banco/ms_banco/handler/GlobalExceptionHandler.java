@@ -76,6 +76,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ClaveIdempotenciaEnConflictoException.class)
+    public ResponseEntity<ErrorResponse> handleClaveIdempotenciaEnConflictoException(
+            ClaveIdempotenciaEnConflictoException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "Clave de Idempotencia en Conflicto",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        logger.warn("Clave de idempotencia en conflicto: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(
             ValidationException ex, HttpServletRequest request) {
@@ -242,4 +257,34 @@ public class GlobalExceptionHandler {
         logger.warn("Cuenta con movimientos recientes: {}", ex.getMessage());
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(ColaLlenaException.class)
+    public ResponseEntity<ErrorResponse> handleColaLlenaException(
+            ColaLlenaException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Cola Llena",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        logger.warn("Cola llena: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(TicketNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleTicketNotFoundException(
+            TicketNotFoundException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.NOT_FOUND.value(),
+            "Ticket No Encontrado",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        logger.warn("Ticket no encontrado: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.banco.ms_banco.ledger;
+
+import java.math.BigDecimal;
+
+import com.banco.ms_banco.dto.cuentas.CuentaSaldoProyeccion;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+
+/**
+ * Reproduce el libro de una cuenta aplicando sus movimientos en orden (fecha, movimientoId). Cada fila debe
+ * registrar el saldo de la fila anterior ± su valor; la cadena empieza en cero y, si la cuenta abrió con saldo,
+ * el primer movimiento debe ser el DEPOSITO de ese saldo inicial. Una ruptura no se arrastra: la fila siguiente
+ * se compara contra el saldo registrado, así que cada actualización perdida cuenta una sola vez. El saldo
+ * reproducido, en cambio, es la suma de los valores y se compara al final con el saldo actual de la cuenta.
+ */
+public final class ReproduccionCuenta {
+
+    private static final String RETIRO = "RETIRO";
+
+    private final CuentaSaldoProyeccion cuenta;
+    private BigDecimal saldoReproducido = BigDecimal.ZERO;
+    private BigDecimal saldoRegistrado = BigDecimal.ZERO;
+    private long movimientos;
+    private long rupturas;
+    private boolean aperturaValida = true;
+    private Long primerMovimientoRoto;
+    private BigDecimal saldoEsperadoEnRuptura;
+    private BigDecimal saldoRegistradoEnRuptura;
+
+    public ReproduccionCuenta(CuentaSaldoProyeccion cuenta) {
+        this.cuenta = cuenta;
+    }
+
+    public Long cuentaId() {
+        return cuenta.cuentaId();
+    }
+
+    public void aplicar(MovimientoProyeccion movimiento) {
+        boolean retiro = RETIRO.equals(movimiento.tipoMovimiento());
+        if (movimientos == 0 && cuenta.saldoInicial().signum() > 0
+                && (retiro || movimiento.valor().compareTo(cuenta.saldoInicial()) != 0)) {
+            aperturaValida = false;
+        }
+
+        BigDecimal esperado = retiro ? saldoRegistrado.subtract(movimiento.valor()) : saldoRegistrado.add(movimiento.valor());
+        if (movimiento.saldo().compareTo(esperado) != 0) {
+            if (rupturas == 0) {
+                primerMovimientoRoto = movimiento.movimientoId();
+                saldoEsperadoEnRuptura = esperado;
+                saldoRegistradoEnRuptura = movimiento.saldo();
+            }
+            rupturas++;
+        }
+
+        saldoReproducido = retiro ? saldoReproducido.subtract(movimiento.valor()) : saldoReproducido.add(movimiento.valor());
+        saldoRegistrado = movimiento.saldo();
+        movimientos++;
+    }
+
+    public Resultado terminar() {
+        if (movimientos == 0 && cuenta.saldoInicial().signum() > 0) {
+            aperturaValida = false;
+        }
+        return new Resultado(cuenta.cuentaId(), cuenta.numeroCuenta(), movimientos, rupturas, aperturaValida,
+                             primerMovimientoRoto, saldoEsperadoEnRuptura, saldoRegistradoEnRuptura,
+                             saldoReproducido, cuenta.saldoActual());
+    }
+
+    public record Resultado(Long cuentaId, String numeroCuenta, long movimientos, long rupturas, boolean aperturaValida,
+                            Long primerMovimientoRoto, BigDecimal saldoEsperado, BigDecimal saldoRegistrado,
+                            BigDecimal saldoReproducido, BigDecimal saldoActual) {
+
+        public boolean cadenaValida() {
+            return rupturas == 0 && aperturaValida;
+        }
+
+        public boolean saldoCuadra() {
+            return saldoReproducido.compareTo(saldoActual) == 0;
+        }
+
+        public boolean correcta() {
+            return cadenaValida() && saldoCuadra();
+        }
+    }
+}
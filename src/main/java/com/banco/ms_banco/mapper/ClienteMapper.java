@@ -2,6 +2,7 @@ package com.banco.ms_banco.mapper;
 
 import org.springframework.stereotype.Component;
 
+import com.banco.ms_banco.dto.clientes.ClienteProyeccion;
 import com.banco.ms_banco.dto.clientes.ClienteRequestDTO;
 import com.banco.ms_banco.dto.clientes.ClienteResponseDTO;
 import com.banco.ms_banco.dto.clientes.PersonaDTO;
@@ -62,4 +63,24 @@ public class ClienteMapper {
                 .build();
         return dto;
     }
-}
\ No newline at end of file
+
+    public ClienteResponseDTO toResponseDTO(ClienteProyeccion proyeccion) {
+        if (proyeccion == null) return null;
+
+        PersonaDTO persona = PersonaDTO.builder()
+        .personaId(proyeccion.personaId())
+        .identificacion(proyeccion.identificacion())
+        .nombre(proyeccion.nombre())
+        .genero(proyeccion.genero())
+        .edad(proyeccion.edad())
+        .direccion(proyeccion.direccion())
+        .telefono(proyeccion.telefono())
+        .build();
+
+        return ClienteResponseDTO.builder()
+                .clienteId(proyeccion.clienteId())
+                .estado(proyeccion.estado())
+                .persona(persona)
+                .build();
+    }
+}
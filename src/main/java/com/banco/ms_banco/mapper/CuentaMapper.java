@@ -2,6 +2,7 @@ package com.banco.ms_banco.mapper;
 
 import org.springframework.stereotype.Component;
 
+import com.banco.ms_banco.cache.CuentaCache.DatosCuenta;
 import com.banco.ms_banco.dto.cuentas.CuentaRequestDTO;
 import com.banco.ms_banco.dto.cuentas.CuentaResponseDTO;
 import com.banco.ms_banco.model.Cuenta;
@@ -15,6 +16,7 @@ public class CuentaMapper {
         Cuenta entity = new Cuenta();
         entity.setTipoCuenta(dto.getTipoCuenta());
         entity.setSaldoInicial(dto.getSaldoInicial());
+        entity.setSaldoActual(dto.getSaldoInicial());
         entity.setClienteId(dto.getClienteId());
         return entity;
     }
@@ -33,4 +35,17 @@ public class CuentaMapper {
         
         return dto;
     }
+
+    public CuentaResponseDTO toResponseDTO(DatosCuenta datos) {
+        if (datos == null) return null;
+
+        return CuentaResponseDTO.builder()
+        .cuentaId(datos.cuentaId())
+        .numeroCuenta(datos.numeroCuenta())
+        .tipoCuenta(datos.tipoCuenta())
+        .saldoInicial(datos.saldoInicial())
+        .estado(datos.estado())
+        .clienteId(datos.clienteId())
+        .build();
+    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 
 import org.springframework.stereotype.Component;
 
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
 import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
 import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
 import com.banco.ms_banco.model.Cuenta;
@@ -37,4 +38,23 @@ public class MovimientoMapper {
         dto.setNumeroCuenta(entity.getCuenta().getNumeroCuenta());
         return dto;
     }
-}
\ No newline at end of file
+
+    public MovimientoResponseDTO toResponseDTO(MovimientoProyeccion proyeccion) {
+        if (proyeccion == null) return null;
+
+        BigDecimal valorRespuesta = proyeccion.valor();
+        if ("RETIRO".equals(proyeccion.tipoMovimiento())) {
+            valorRespuesta = proyeccion.valor().negate();
+        }
+
+        return MovimientoResponseDTO.builder()
+                .movimientoId(proyeccion.movimientoId())
+                .fecha(proyeccion.fecha())
+                .tipoMovimiento(proyeccion.tipoMovimiento())
+                .valor(valorRespuesta)
+                .saldo(proyeccion.saldo())
+                .cuentaId(proyeccion.cuentaId())
+                .numeroCuenta(proyeccion.numeroCuenta())
+                .build();
+    }
+}
@@ -32,6 +32,10 @@ public class Cuenta {
     @Column(name = "SaldoInicial", nullable = false, precision = 15, scale = 2)
     private BigDecimal saldoInicial = BigDecimal.ZERO;
 
+    @NotNull(message = "El saldo actual es obligatorio")
+    @Column(name = "SaldoActual", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoActual = BigDecimal.ZERO;
+
     @Column(name = "Estado", length = 20)
     private String estado = "ACTIVA";
 
@@ -44,6 +48,7 @@ public class Cuenta {
         this.numeroCuenta = numeroCuenta;
         this.tipoCuenta = tipoCuenta;
         this.saldoInicial = saldoInicial;
+        this.saldoActual = saldoInicial;
         this.clienteId = clienteId;
     }
 }
\ No newline at end of file
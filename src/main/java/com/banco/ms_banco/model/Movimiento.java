@@ -15,8 +15,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "MOVIMIENTO")
 public class Movimiento {
+    // Secuencia con optimizador pooled: IDENTITY impide que Hibernate agrupe los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimiento_seq")
+    @SequenceGenerator(name = "movimiento_seq", sequenceName = "movimiento_seq", allocationSize = 50)
     @Column(name = "MovimientoId")
     private Long movimientoId;
 
@@ -0,0 +1,37 @@
+package com.banco.ms_banco.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento anterior al horizonte de archivo, trasladado desde {@code MOVIMIENTO} con su mismo identificador.
+ * Es de solo lectura: las filas se insertan en bloque desde la tabla caliente y nunca se modifican.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "MOVIMIENTO_ARCHIVO")
+public class MovimientoArchivado {
+    @Id
+    @Column(name = "MovimientoId")
+    private Long movimientoId;
+
+    @Column(name = "Fecha", nullable = false)
+    private LocalDateTime fecha;
+
+    @Column(name = "TipoMovimiento", nullable = false, length = 30)
+    private String tipoMovimiento;
+
+    @Column(name = "Valor", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Column(name = "Saldo", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldo;
+
+    @Column(name = "CuentaId", nullable = false)
+    private Long cuentaId;
+}
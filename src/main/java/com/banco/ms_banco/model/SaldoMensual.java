@@ -0,0 +1,64 @@
+package com.banco.ms_banco.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resumen de una cuenta en un mes calendario. {@code periodo} es siempre el primer día del mes.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "SALDO_MENSUAL",
+       uniqueConstraints = @UniqueConstraint(name = "uk_saldo_mensual_cuenta_periodo", columnNames = {"CuentaId", "Periodo"}))
+public class SaldoMensual {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "SaldoMensualId")
+    private Long saldoMensualId;
+
+    @NotNull(message = "La cuenta es obligatoria")
+    @Column(name = "CuentaId", nullable = false)
+    private Long cuentaId;
+
+    @NotNull(message = "El periodo es obligatorio")
+    @Column(name = "Periodo", nullable = false)
+    private LocalDate periodo;
+
+    @NotNull(message = "El saldo de apertura es obligatorio")
+    @Column(name = "SaldoApertura", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoApertura;
+
+    @NotNull(message = "El saldo de cierre es obligatorio")
+    @Column(name = "SaldoCierre", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoCierre;
+
+    @NotNull(message = "El total de débitos es obligatorio")
+    @Column(name = "TotalDebitos", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalDebitos = BigDecimal.ZERO;
+
+    @NotNull(message = "El total de créditos es obligatorio")
+    @Column(name = "TotalCreditos", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalCreditos = BigDecimal.ZERO;
+
+    @Column(name = "CantidadMovimientos", nullable = false)
+    private long cantidadMovimientos;
+
+    public SaldoMensual() {}
+
+    public SaldoMensual(Long cuentaId, LocalDate periodo, BigDecimal saldoApertura, BigDecimal saldoCierre,
+                        BigDecimal totalDebitos, BigDecimal totalCreditos, long cantidadMovimientos) {
+        this.cuentaId = cuentaId;
+        this.periodo = periodo;
+        this.saldoApertura = saldoApertura;
+        this.saldoCierre = saldoCierre;
+        this.totalDebitos = totalDebitos;
+        this.totalCreditos = totalCreditos;
+        this.cantidadMovimientos = cantidadMovimientos;
+    }
+}
@@ -0,0 +1,73 @@
+package com.banco.ms_banco.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "IDEMPOTENCIA")
+public class SolicitudIdempotente implements Persistable<String> {
+    @Id
+    @Column(name = "Clave", length = 100)
+    private String clave;
+
+    @NotBlank(message = "El número de cuenta es obligatorio")
+    @Column(name = "NumeroCuenta", nullable = false, length = 30)
+    private String numeroCuenta;
+
+    @NotNull(message = "El valor es obligatorio")
+    @Column(name = "Valor", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @NotBlank(message = "La respuesta es obligatoria")
+    @Column(name = "Respuesta", nullable = false, length = 2000)
+    private String respuesta;
+
+    @NotNull(message = "La fecha es obligatoria")
+    @Column(name = "FechaCreacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    // La clave la asigna el cliente: sin esto save() haría merge y pisaría la fila de otra solicitud con la
+    // misma clave en lugar de fallar por clave duplicada
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean nueva = true;
+
+    public SolicitudIdempotente() {
+        this.fechaCreacion = LocalDateTime.now();
+    }
+
+    public SolicitudIdempotente(String clave, String numeroCuenta, BigDecimal valor, String respuesta) {
+        this();
+        this.clave = clave;
+        this.numeroCuenta = numeroCuenta;
+        this.valor = valor;
+        this.respuesta = respuesta;
+    }
+
+    @Override
+    public String getId() {
+        return clave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarGuardada() {
+        this.nueva = false;
+    }
+}
@@ -0,0 +1,183 @@
+package com.banco.ms_banco.report;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.archive.HorizonteArchivo;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.dto.saldos.ResumenMensualMovimientos;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.model.SaldoMensual;
+import com.banco.ms_banco.repository.ClienteRepository;
+import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.MovimientoArchivadoRepository;
+import com.banco.ms_banco.repository.MovimientoRepository;
+import com.banco.ms_banco.repository.SaldoMensualRepository;
+import com.banco.ms_banco.repository.custom.CustomMovimientoRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Carga todo lo que necesita un estado de cuenta con un número fijo de sentencias, sin importar cuántas cuentas
+ * tenga el cliente: cliente con persona, cuentas activas (el saldo actual viene materializado en la fila),
+ * movimientos del rango y los resúmenes de {@code SALDO_MENSUAL} para la apertura y los totales del periodo.
+ * Para los PDF escritos en flujo se carga solo la cabecera y los movimientos se recorren con un cursor.
+ */
+@Component
+public class CargadorEstadoCuenta {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private CustomMovimientoRepository customMovimientoRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private SaldoMensualRepository saldoMensualRepository;
+
+    @Autowired
+    private MovimientoArchivadoRepository movimientoArchivadoRepository;
+
+    @Autowired
+    private HorizonteArchivo horizonteArchivo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banco.reportes.pdf.fetch-size:500}")
+    private int fetchSize;
+
+    private TransactionTemplate lectura;
+
+    @PostConstruct
+    public void iniciar() {
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    public DatosEstadoCuenta cargar(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        return cargar(clienteId, fechaInicio, fechaFin, true);
+    }
+
+    /**
+     * Cliente, cuentas y resúmenes mensuales, sin movimientos: {@code movimientosPorCuenta} queda vacío.
+     */
+    @Transactional(readOnly = true)
+    public DatosEstadoCuenta cargarCabecera(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        return cargar(clienteId, fechaInicio, fechaFin, false);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean tieneMovimientos(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        LocalDateTime desde = fechaInicio.atStartOfDay();
+        LocalDateTime hasta = fechaFin.atTime(LocalTime.MAX);
+        return movimientoRepository.existsByClienteActivoAndFechaBetween(clienteId, desde, hasta)
+                || (horizonteArchivo.alcanza(desde)
+                    && movimientoArchivadoRepository.existsByClienteActivoAndFechaBetween(clienteId, desde, hasta));
+    }
+
+    /**
+     * Entrega los movimientos de las cuentas de {@code cabecera} ordenados por cuenta y fecha descendente, uno a la vez.
+     * Hasta un año se lee con un solo cursor por cliente. Los rangos más largos se leen por cuenta y, dentro de cada
+     * una, un cursor por mes del más reciente al más antiguo, cada uno en su propia transacción de solo lectura: el
+     * orden de salida es el mismo y ninguna transacción queda abierta durante todo el documento.
+     */
+    public void recorrerMovimientos(DatosEstadoCuenta cabecera, Consumer<MovimientoProyeccion> consumidor) {
+        LocalDate fechaInicio = cabecera.fechaInicio();
+        LocalDate fechaFin = cabecera.fechaFin();
+        if (!TramoFechas.esRangoLargo(fechaInicio, fechaFin)) {
+            lectura.executeWithoutResult(status -> {
+                try (Stream<MovimientoProyeccion> movimientos = customMovimientoRepository
+                        .streamProyeccionesPorCuentaByClienteAndFechaRange(
+                            cabecera.clienteId(), fechaInicio.atStartOfDay(), fechaFin.atTime(LocalTime.MAX), fetchSize)) {
+                    movimientos.forEach(consumidor);
+                }
+            });
+            return;
+        }
+
+        List<TramoFechas> tramos = TramoFechas.dividir(fechaInicio, fechaFin);
+        List<Long> cuentaIds = cabecera.cuentas().stream().map(Cuenta::getCuentaId).sorted().toList();
+        for (Long cuentaId : cuentaIds) {
+            for (int i = tramos.size() - 1; i >= 0; i--) {
+                TramoFechas tramo = tramos.get(i);
+                lectura.executeWithoutResult(status -> {
+                    try (Stream<MovimientoProyeccion> movimientos = customMovimientoRepository
+                            .streamProyeccionesByCuentaAndFechaRange(cuentaId, tramo.desde(), tramo.hasta(), fetchSize)) {
+                        movimientos.forEach(consumidor);
+                    }
+                });
+            }
+        }
+    }
+
+    private DatosEstadoCuenta cargar(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, boolean conMovimientos) {
+        List<Cuenta> cuentas = cuentaRepository.findByClienteIdAndEstado(clienteId, "ACTIVA");
+        if (cuentas.isEmpty()) {
+            return new DatosEstadoCuenta(clienteId, fechaInicio, fechaFin,
+                                         clienteRepository.findProyeccionById(clienteId), cuentas,
+                                         Map.of(), Map.of(), Map.of(), Map.of());
+        }
+
+        Map<Long, List<MovimientoProyeccion>> movimientosPorCuenta = !conMovimientos
+                ? Map.of()
+                : customMovimientoRepository
+                        .findProyeccionesByClienteAndFechaRange(clienteId, fechaInicio.atStartOfDay(), fechaFin.atTime(LocalTime.MAX))
+                        .stream()
+                        .collect(Collectors.groupingBy(MovimientoProyeccion::cuentaId));
+
+        List<Long> cuentaIds = cuentas.stream().map(Cuenta::getCuentaId).toList();
+        LocalDate primerMes = fechaInicio.withDayOfMonth(1);
+
+        Map<Long, List<SaldoMensual>> saldosMensualesPorCuenta = saldoMensualRepository
+                .findByCuentaIdsAndPeriodoBetween(cuentaIds, primerMes, fechaFin.withDayOfMonth(1))
+                .stream()
+                .collect(Collectors.groupingBy(SaldoMensual::getCuentaId));
+
+        Map<Long, SaldoMensual> saldoAnteriorPorCuenta = saldoMensualRepository
+                .findUltimosAnterioresA(cuentaIds, primerMes)
+                .stream()
+                .collect(Collectors.toMap(SaldoMensual::getCuentaId, Function.identity()));
+
+        // Solo los días del primer mes anteriores al rango; nunca más de un mes de movimientos
+        Map<Long, ResumenMensualMovimientos> movimientosPreviosPorCuenta = primerMes.equals(fechaInicio)
+                ? Map.of()
+                : resumenesPrevios(cuentaIds, primerMes.atStartOfDay(), fechaInicio.atStartOfDay())
+                        .stream()
+                        .collect(Collectors.toMap(ResumenMensualMovimientos::cuentaId, Function.identity()));
+
+        return new DatosEstadoCuenta(clienteId, fechaInicio, fechaFin,
+                                     clienteRepository.findProyeccionById(clienteId), cuentas, movimientosPorCuenta,
+                                     saldosMensualesPorCuenta, saldoAnteriorPorCuenta, movimientosPreviosPorCuenta);
+    }
+
+    private List<ResumenMensualMovimientos> resumenesPrevios(List<Long> cuentaIds, LocalDateTime desde, LocalDateTime hasta) {
+        List<ResumenMensualMovimientos> calientes = movimientoRepository.findResumenesMensuales(cuentaIds, desde, hasta);
+        if (!horizonteArchivo.alcanza(desde)) {
+            return calientes;
+        }
+        return ResumenMensualMovimientos.combinar(
+            calientes, movimientoArchivadoRepository.findResumenesMensuales(cuentaIds, desde, hasta));
+    }
+}
@@ -0,0 +1,46 @@
+package com.banco.ms_banco.report;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.banco.ms_banco.dto.clientes.ClienteProyeccion;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.dto.saldos.ResumenMensualMovimientos;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.model.SaldoMensual;
+
+/**
+ * Datos de un estado de cuenta leídos en una sola pasada. El reporte JSON y el PDF se construyen desde aquí.
+ * Los resúmenes mensuales cubren los meses tocados por el rango; {@code saldoAnteriorPorCuenta} es el último
+ * resumen previo al primer mes y {@code movimientosPreviosPorCuenta} los totales del primer mes antes de la fecha
+ * de inicio (vacío cuando el rango empieza el día 1).
+ */
+public record DatosEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin,
+                                Optional<ClienteProyeccion> cliente, List<Cuenta> cuentas,
+                                Map<Long, List<MovimientoProyeccion>> movimientosPorCuenta,
+                                Map<Long, List<SaldoMensual>> saldosMensualesPorCuenta,
+                                Map<Long, SaldoMensual> saldoAnteriorPorCuenta,
+                                Map<Long, ResumenMensualMovimientos> movimientosPreviosPorCuenta) {
+
+    public List<MovimientoProyeccion> movimientosDe(Long cuentaId) {
+        return movimientosPorCuenta.getOrDefault(cuentaId, List.of());
+    }
+
+    public List<SaldoMensual> saldosMensualesDe(Long cuentaId) {
+        return saldosMensualesPorCuenta.getOrDefault(cuentaId, List.of());
+    }
+
+    public Optional<SaldoMensual> saldoAnteriorDe(Long cuentaId) {
+        return Optional.ofNullable(saldoAnteriorPorCuenta.get(cuentaId));
+    }
+
+    public Optional<ResumenMensualMovimientos> movimientosPreviosDe(Long cuentaId) {
+        return Optional.ofNullable(movimientosPreviosPorCuenta.get(cuentaId));
+    }
+
+    public boolean sinMovimientos() {
+        return movimientosPorCuenta.isEmpty();
+    }
+}
@@ -0,0 +1,161 @@
+package com.banco.ms_banco.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.exception.ValidationException;
+import com.banco.ms_banco.repository.custom.CustomMovimientoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exporta los movimientos de un cliente en CSV o NDJSON, una línea por movimiento, leyendo de un cursor y
+ * escribiendo cada fila en cuanto llega: la memoria no depende del tamaño del rango, que puede abarcar varios años.
+ */
+@Component
+public class ExportadorMovimientos {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportadorMovimientos.class);
+
+    private static final String ENCABEZADO_CSV = "movimientoId,fecha,numeroCuenta,tipoMovimiento,valor,saldo";
+
+    @Autowired
+    private CustomMovimientoRepository customMovimientoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final int fetchSize;
+    private final int filasPorFlush;
+    private final TransactionTemplate lectura;
+
+    public ExportadorMovimientos(
+            @Value("${banco.reportes.export.fetch-size:500}") int fetchSize,
+            @Value("${banco.reportes.export.filas-por-flush:500}") int filasPorFlush,
+            PlatformTransactionManager transactionManager) {
+        this.fetchSize = fetchSize;
+        this.filasPorFlush = filasPorFlush;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    public enum Formato {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Formato(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Formato desde(String valor) {
+            for (Formato formato : values()) {
+                if (formato.name().equalsIgnoreCase(valor)) {
+                    return formato;
+                }
+            }
+            throw new ValidationException("Formato de exportación no soportado: " + valor + ". Use csv o ndjson");
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Cada tramo del rango (ver {@link TramoFechas}) se lee con su propio cursor dentro de una transacción de solo
+     * lectura que se mantiene abierta mientras se escriben sus filas. Los tramos son cronológicos, así que el
+     * archivo conserva el orden por fecha aunque el rango abarque varios años.
+     *
+     * @return cantidad de movimientos exportados
+     */
+    public long exportar(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, Formato formato,
+                         OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        if (formato == Formato.CSV) {
+            writer.write(ENCABEZADO_CSV);
+            writer.write('\n');
+        }
+
+        long[] filas = {0};
+        try {
+            for (TramoFechas tramo : TramoFechas.dividir(fechaInicio, fechaFin)) {
+                lectura.executeWithoutResult(status -> exportarTramo(clienteId, tramo, formato, writer, filas));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+
+        logger.info("Exportados {} movimientos en {} para cliente: {}", filas[0], formato, clienteId);
+        return filas[0];
+    }
+
+    private void exportarTramo(Long clienteId, TramoFechas tramo, Formato formato, Writer writer, long[] filas) {
+        try (Stream<MovimientoProyeccion> movimientos = customMovimientoRepository.streamProyeccionesByClienteAndFechaRange(
+                clienteId, tramo.desde(), tramo.hasta(), fetchSize)) {
+            Iterator<MovimientoProyeccion> iterador = movimientos.iterator();
+            while (iterador.hasNext()) {
+                escribirFila(writer, iterador.next(), formato);
+                // Vacía el buffer periódicamente: el cliente recibe filas mientras se siguen leyendo
+                if (++filas[0] % filasPorFlush == 0) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escribirFila(Writer writer, MovimientoProyeccion movimiento, Formato formato) throws IOException {
+        if (formato == Formato.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(movimiento));
+        } else {
+            writer.write(String.valueOf(movimiento.movimientoId()));
+            writer.write(',');
+            writer.write(movimiento.fecha().toString());
+            writer.write(',');
+            writer.write(escaparCsv(movimiento.numeroCuenta()));
+            writer.write(',');
+            writer.write(escaparCsv(movimiento.tipoMovimiento()));
+            writer.write(',');
+            writer.write(movimiento.valor().toPlainString());
+            writer.write(',');
+            writer.write(movimiento.saldo().toPlainString());
+        }
+        writer.write('\n');
+    }
+
+    private static String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
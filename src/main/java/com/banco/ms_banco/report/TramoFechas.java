@@ -0,0 +1,36 @@
+package com.banco.ms_banco.report;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un tramo del rango de un reporte, con límites inclusivos listos para {@code BETWEEN}. Los rangos de hasta un año
+ * se leen en un solo tramo; los más largos (estados de cuenta de varios años) se dividen por mes calendario para
+ * que cada cursor y su transacción de solo lectura cubran a lo sumo un mes de movimientos.
+ */
+public record TramoFechas(LocalDateTime desde, LocalDateTime hasta) {
+
+    public static boolean esRangoLargo(LocalDate fechaInicio, LocalDate fechaFin) {
+        return fechaInicio.plusYears(1).isBefore(fechaFin);
+    }
+
+    /**
+     * @return los tramos en orden cronológico; el primero y el último pueden cubrir solo parte de su mes
+     */
+    public static List<TramoFechas> dividir(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (!esRangoLargo(fechaInicio, fechaFin)) {
+            return List.of(new TramoFechas(fechaInicio.atStartOfDay(), fechaFin.atTime(LocalTime.MAX)));
+        }
+        List<TramoFechas> tramos = new ArrayList<>();
+        for (LocalDate inicio = fechaInicio; !inicio.isAfter(fechaFin);
+             inicio = inicio.withDayOfMonth(1).plusMonths(1)) {
+            LocalDate finMes = inicio.withDayOfMonth(inicio.lengthOfMonth());
+            LocalDate fin = finMes.isAfter(fechaFin) ? fechaFin : finMes;
+            tramos.add(new TramoFechas(inicio.atStartOfDay(), fin.atTime(LocalTime.MAX)));
+        }
+        return tramos;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.banco.ms_banco.dto.clientes.ClienteProyeccion;
 import com.banco.ms_banco.model.Cliente;
 
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
@@ -19,4 +20,25 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     
     @Query("SELECT COUNT(c) > 0 FROM Cliente c WHERE c.persona.identificacion = :identificacion")
     boolean existsByPersonaIdentificacion(@Param("identificacion") String identificacion);
+
+    // Cliente y persona en una sola sentencia, sin inicializar la relación perezosa por cada fila
+    @Query("SELECT new com.banco.ms_banco.dto.clientes.ClienteProyeccion(" +
+           "c.clienteId, c.estado, p.personaId, p.identificacion, p.nombre, p.genero, p.edad, p.direccion, p.telefono) " +
+           "FROM Cliente c JOIN c.persona p ORDER BY c.clienteId")
+    List<ClienteProyeccion> findAllProyecciones();
+
+    @Query("SELECT new com.banco.ms_banco.dto.clientes.ClienteProyeccion(" +
+           "c.clienteId, c.estado, p.personaId, p.identificacion, p.nombre, p.genero, p.edad, p.direccion, p.telefono) " +
+           "FROM Cliente c JOIN c.persona p WHERE c.clienteId = :clienteId")
+    Optional<ClienteProyeccion> findProyeccionById(@Param("clienteId") Long clienteId);
+
+    @Query("SELECT MIN(c.clienteId) FROM Cliente c")
+    Optional<Long> findMinClienteId();
+
+    @Query("SELECT MAX(c.clienteId) FROM Cliente c")
+    Optional<Long> findMaxClienteId();
+
+    @Query("SELECT c.clienteId FROM Cliente c WHERE c.estado = 'ACTIVO' AND c.clienteId BETWEEN :desde AND :hasta " +
+           "ORDER BY c.clienteId")
+    List<Long> findIdsActivosEntre(@Param("desde") Long desde, @Param("hasta") Long hasta);
 }
@@ -1,14 +1,21 @@
 package com.banco.ms_banco.repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.banco.ms_banco.dto.cuentas.CuentaSaldoProyeccion;
 import com.banco.ms_banco.model.Cuenta;
 
+import jakarta.persistence.LockModeType;
+
 public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     
     @Query("SELECT c FROM Cuenta c WHERE c.numeroCuenta = :numeroCuenta")
@@ -24,4 +31,43 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     boolean existsByNumeroCuenta(@Param("numeroCuenta") String numeroCuenta);
 
     List<Cuenta> findByClienteIdAndEstado(Long clienteId, String estado);
+
+    @Query("SELECT c.cuentaId FROM Cuenta c WHERE c.numeroCuenta IN :numerosCuenta")
+    List<Long> findCuentaIdsByNumeroCuentaIn(@Param("numerosCuenta") Collection<String> numerosCuenta);
+
+    // Bloqueo en orden de cuentaId: todos los escritores de varias cuentas adquieren las filas en el mismo orden
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.cuentaId IN :cuentaIds ORDER BY c.cuentaId")
+    List<Cuenta> findByCuentaIdInForUpdate(@Param("cuentaIds") Collection<Long> cuentaIds);
+
+    @Query("SELECT c.cuentaId FROM Cuenta c ORDER BY c.cuentaId")
+    List<Long> findAllCuentaIds();
+
+    @Query("SELECT MIN(c.cuentaId) FROM Cuenta c")
+    Optional<Long> findMinCuentaId();
+
+    @Query("SELECT MAX(c.cuentaId) FROM Cuenta c")
+    Optional<Long> findMaxCuentaId();
+
+    @Query("SELECT new com.banco.ms_banco.dto.cuentas.CuentaSaldoProyeccion(" +
+           "c.cuentaId, c.numeroCuenta, c.saldoInicial, c.saldoActual) " +
+           "FROM Cuenta c WHERE c.cuentaId BETWEEN :desde AND :hasta ORDER BY c.cuentaId")
+    List<CuentaSaldoProyeccion> findSaldosEntre(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    @Query("SELECT c.saldoActual FROM Cuenta c WHERE c.cuentaId = :cuentaId")
+    Optional<BigDecimal> findSaldoActualByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    // Solo el estado: el saldo lo escriben los UPDATE de los movimientos y no se reescribe desde una entidad leída antes
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Cuenta c SET c.estado = :estado WHERE c.cuentaId = :cuentaId")
+    int actualizarEstado(@Param("cuentaId") Long cuentaId, @Param("estado") String estado);
+
+    @Modifying
+    @Query("UPDATE Cuenta c SET c.saldoActual = c.saldoActual + :valor WHERE c.cuentaId = :cuentaId")
+    int acreditarSaldo(@Param("cuentaId") Long cuentaId, @Param("valor") BigDecimal valor);
+
+    // Débito condicional: solo afecta la fila si el saldo alcanza, en una única sentencia
+    @Modifying
+    @Query("UPDATE Cuenta c SET c.saldoActual = c.saldoActual - :valor WHERE c.cuentaId = :cuentaId AND c.saldoActual >= :valor")
+    int debitarSaldo(@Param("cuentaId") Long cuentaId, @Param("valor") BigDecimal valor);
 }
@@ -0,0 +1,128 @@
+package com.banco.ms_banco.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.dto.saldos.ResumenMensualMovimientos;
+import com.banco.ms_banco.model.MovimientoArchivado;
+
+/**
+ * Lecturas del archivo con las mismas proyecciones y el mismo orden que {@link MovimientoRepository}, para que
+ * los servicios puedan mezclarlas con las de la tabla caliente.
+ */
+public interface MovimientoArchivadoRepository extends JpaRepository<MovimientoArchivado, Long> {
+
+    // Copia en bloque desde la tabla caliente conservando el identificador; el borrado lo hace el mismo lote
+    @Modifying
+    @Query("INSERT INTO MovimientoArchivado (movimientoId, fecha, tipoMovimiento, valor, saldo, cuentaId) " +
+           "SELECT m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, m.cuenta.cuentaId " +
+           "FROM Movimiento m WHERE m.movimientoId IN :movimientoIds")
+    int copiarDesdeMovimientos(@Param("movimientoIds") Collection<Long> movimientoIds);
+
+    @Query("SELECT MAX(a.fecha) FROM MovimientoArchivado a")
+    Optional<LocalDateTime> findMaxFecha();
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId WHERE a.movimientoId = :movimientoId")
+    Optional<MovimientoProyeccion> findProyeccionById(@Param("movimientoId") Long movimientoId);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId WHERE c.cuentaId = :cuentaId " +
+           "ORDER BY a.fecha DESC, a.movimientoId DESC")
+    List<MovimientoProyeccion> findProyeccionesPorCuenta(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId WHERE c.clienteId = :clienteId " +
+           "ORDER BY a.fecha DESC, a.movimientoId DESC")
+    List<MovimientoProyeccion> findProyeccionesPorCliente(@Param("clienteId") Long clienteId);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId " +
+           "ORDER BY a.fecha DESC, a.movimientoId DESC")
+    List<MovimientoProyeccion> findProyecciones();
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId WHERE c.cuentaId = :cuentaId " +
+           "ORDER BY a.fecha DESC, a.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaPorCuenta(@Param("cuentaId") Long cuentaId, Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId WHERE c.cuentaId = :cuentaId " +
+           "AND (a.fecha < :fecha OR (a.fecha = :fecha AND a.movimientoId < :movimientoId)) " +
+           "ORDER BY a.fecha DESC, a.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaPorCuentaDespuesDe(@Param("cuentaId") Long cuentaId,
+                                                            @Param("fecha") LocalDateTime fecha,
+                                                            @Param("movimientoId") Long movimientoId,
+                                                            Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId WHERE c.clienteId = :clienteId " +
+           "ORDER BY a.fecha DESC, a.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaPorCliente(@Param("clienteId") Long clienteId, Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId WHERE c.clienteId = :clienteId " +
+           "AND (a.fecha < :fecha OR (a.fecha = :fecha AND a.movimientoId < :movimientoId)) " +
+           "ORDER BY a.fecha DESC, a.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaPorClienteDespuesDe(@Param("clienteId") Long clienteId,
+                                                             @Param("fecha") LocalDateTime fecha,
+                                                             @Param("movimientoId") Long movimientoId,
+                                                             Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId " +
+           "ORDER BY a.fecha DESC, a.movimientoId DESC")
+    List<MovimientoProyeccion> findPagina(Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "a.movimientoId, a.fecha, a.tipoMovimiento, a.valor, a.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId " +
+           "WHERE a.fecha < :fecha OR (a.fecha = :fecha AND a.movimientoId < :movimientoId) " +
+           "ORDER BY a.fecha DESC, a.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaDespuesDe(@Param("fecha") LocalDateTime fecha,
+                                                   @Param("movimientoId") Long movimientoId,
+                                                   Pageable pageable);
+
+    @Query("SELECT COUNT(a) > 0 FROM MovimientoArchivado a JOIN Cuenta c ON c.cuentaId = a.cuentaId " +
+           "WHERE c.clienteId = :clienteId AND c.estado = 'ACTIVA' AND a.fecha BETWEEN :fechaInicio AND :fechaFin")
+    boolean existsByClienteActivoAndFechaBetween(@Param("clienteId") Long clienteId,
+                                                 @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                 @Param("fechaFin") LocalDateTime fechaFin);
+
+    @Query("SELECT new com.banco.ms_banco.dto.saldos.ResumenMensualMovimientos(" +
+           "a.cuentaId, YEAR(a.fecha), MONTH(a.fecha), " +
+           "SUM(CASE WHEN a.tipoMovimiento = 'RETIRO' THEN a.valor ELSE NULL END), " +
+           "SUM(CASE WHEN a.tipoMovimiento = 'RETIRO' THEN NULL ELSE a.valor END), COUNT(a)) " +
+           "FROM MovimientoArchivado a WHERE a.cuentaId = :cuentaId " +
+           "GROUP BY a.cuentaId, YEAR(a.fecha), MONTH(a.fecha) ORDER BY YEAR(a.fecha), MONTH(a.fecha)")
+    List<ResumenMensualMovimientos> findResumenesMensualesPorCuenta(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT new com.banco.ms_banco.dto.saldos.ResumenMensualMovimientos(" +
+           "a.cuentaId, YEAR(a.fecha), MONTH(a.fecha), " +
+           "SUM(CASE WHEN a.tipoMovimiento = 'RETIRO' THEN a.valor ELSE NULL END), " +
+           "SUM(CASE WHEN a.tipoMovimiento = 'RETIRO' THEN NULL ELSE a.valor END), COUNT(a)) " +
+           "FROM MovimientoArchivado a " +
+           "WHERE a.cuentaId IN :cuentaIds AND a.fecha >= :desde AND a.fecha < :hasta " +
+           "GROUP BY a.cuentaId, YEAR(a.fecha), MONTH(a.fecha)")
+    List<ResumenMensualMovimientos> findResumenesMensuales(@Param("cuentaIds") Collection<Long> cuentaIds,
+                                                           @Param("desde") LocalDateTime desde,
+                                                           @Param("hasta") LocalDateTime hasta);
+}
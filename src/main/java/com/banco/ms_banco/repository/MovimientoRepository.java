@@ -1,13 +1,18 @@
 package com.banco.ms_banco.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.dto.saldos.ResumenMensualMovimientos;
 import com.banco.ms_banco.model.Movimiento;
 
 public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
@@ -24,4 +29,99 @@ public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
     @Query("SELECT COUNT(m) > 0 FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId AND m.fecha > :fechaLimite")
     boolean existsByCuentaCuentaIdAndFechaAfter(@Param("cuentaId") Long cuentaId, 
                                                 @Param("fechaLimite") LocalDateTime fechaLimite);
+
+    // Proyecciones planas: movimiento y número de cuenta en una sola sentencia, sin cargar la cuenta perezosa
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM Movimiento m JOIN m.cuenta c WHERE c.cuentaId = :cuentaId ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoProyeccion> findProyeccionesPorCuenta(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM Movimiento m JOIN m.cuenta c WHERE c.clienteId = :clienteId ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoProyeccion> findProyeccionesPorCliente(@Param("clienteId") Long clienteId);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM Movimiento m JOIN m.cuenta c ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoProyeccion> findProyecciones();
+
+    // Paginación por clave (fecha, movimientoId) descendente: cada página es un rango del índice, sin OFFSET
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM Movimiento m JOIN m.cuenta c WHERE c.cuentaId = :cuentaId ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaPorCuenta(@Param("cuentaId") Long cuentaId, Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM Movimiento m JOIN m.cuenta c WHERE c.cuentaId = :cuentaId " +
+           "AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.movimientoId < :movimientoId)) " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaPorCuentaDespuesDe(@Param("cuentaId") Long cuentaId,
+                                                            @Param("fecha") LocalDateTime fecha,
+                                                            @Param("movimientoId") Long movimientoId,
+                                                            Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM Movimiento m JOIN m.cuenta c WHERE c.clienteId = :clienteId ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaPorCliente(@Param("clienteId") Long clienteId, Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM Movimiento m JOIN m.cuenta c WHERE c.clienteId = :clienteId " +
+           "AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.movimientoId < :movimientoId)) " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaPorClienteDespuesDe(@Param("clienteId") Long clienteId,
+                                                             @Param("fecha") LocalDateTime fecha,
+                                                             @Param("movimientoId") Long movimientoId,
+                                                             Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM Movimiento m JOIN m.cuenta c ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoProyeccion> findPagina(Pageable pageable);
+
+    @Query("SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta) " +
+           "FROM Movimiento m JOIN m.cuenta c " +
+           "WHERE m.fecha < :fecha OR (m.fecha = :fecha AND m.movimientoId < :movimientoId) " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoProyeccion> findPaginaDespuesDe(@Param("fecha") LocalDateTime fecha,
+                                                   @Param("movimientoId") Long movimientoId,
+                                                   Pageable pageable);
+
+    @Query("SELECT COUNT(m) > 0 FROM Movimiento m JOIN m.cuenta c WHERE c.clienteId = :clienteId " +
+           "AND c.estado = 'ACTIVA' AND m.fecha BETWEEN :fechaInicio AND :fechaFin")
+    boolean existsByClienteActivoAndFechaBetween(@Param("clienteId") Long clienteId,
+                                                 @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                 @Param("fechaFin") LocalDateTime fechaFin);
+
+    // Totales por mes calculados en la base de datos: no se traen las filas de movimientos
+    @Query("SELECT new com.banco.ms_banco.dto.saldos.ResumenMensualMovimientos(" +
+           "c.cuentaId, YEAR(m.fecha), MONTH(m.fecha), " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'RETIRO' THEN m.valor ELSE NULL END), " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'RETIRO' THEN NULL ELSE m.valor END), COUNT(m)) " +
+           "FROM Movimiento m JOIN m.cuenta c WHERE c.cuentaId = :cuentaId " +
+           "GROUP BY c.cuentaId, YEAR(m.fecha), MONTH(m.fecha) ORDER BY YEAR(m.fecha), MONTH(m.fecha)")
+    List<ResumenMensualMovimientos> findResumenesMensualesPorCuenta(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT new com.banco.ms_banco.dto.saldos.ResumenMensualMovimientos(" +
+           "c.cuentaId, YEAR(m.fecha), MONTH(m.fecha), " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'RETIRO' THEN m.valor ELSE NULL END), " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'RETIRO' THEN NULL ELSE m.valor END), COUNT(m)) " +
+           "FROM Movimiento m JOIN m.cuenta c " +
+           "WHERE c.cuentaId IN :cuentaIds AND m.fecha >= :desde AND m.fecha < :hasta " +
+           "GROUP BY c.cuentaId, YEAR(m.fecha), MONTH(m.fecha)")
+    List<ResumenMensualMovimientos> findResumenesMensuales(@Param("cuentaIds") Collection<Long> cuentaIds,
+                                                           @Param("desde") LocalDateTime desde,
+                                                           @Param("hasta") LocalDateTime hasta);
+
+    // Lote de archivo: los más antiguos primero, por el índice (fecha, movimientoId)
+    @Query("SELECT m.movimientoId FROM Movimiento m WHERE m.fecha < :frontera ORDER BY m.fecha, m.movimientoId")
+    List<Long> findIdsAnterioresA(@Param("frontera") LocalDateTime frontera, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Movimiento m WHERE m.movimientoId IN :movimientoIds")
+    int deleteByMovimientoIdIn(@Param("movimientoIds") Collection<Long> movimientoIds);
 }
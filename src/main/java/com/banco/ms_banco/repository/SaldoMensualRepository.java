@@ -0,0 +1,46 @@
+package com.banco.ms_banco.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.banco.ms_banco.model.SaldoMensual;
+
+public interface SaldoMensualRepository extends JpaRepository<SaldoMensual, Long> {
+
+    // Acumula un movimiento en el resumen del mes; 0 filas afectadas significa que el mes aún no existe
+    @Modifying
+    @Query("UPDATE SaldoMensual s SET s.saldoCierre = :saldo, " +
+           "s.totalDebitos = s.totalDebitos + :debito, s.totalCreditos = s.totalCreditos + :credito, " +
+           "s.cantidadMovimientos = s.cantidadMovimientos + 1 " +
+           "WHERE s.cuentaId = :cuentaId AND s.periodo = :periodo")
+    int acumularMovimiento(@Param("cuentaId") Long cuentaId, @Param("periodo") LocalDate periodo,
+                           @Param("saldo") BigDecimal saldo, @Param("debito") BigDecimal debito,
+                           @Param("credito") BigDecimal credito);
+
+    @Modifying
+    @Query("DELETE FROM SaldoMensual s WHERE s.cuentaId = :cuentaId")
+    int deleteByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT s FROM SaldoMensual s WHERE s.cuentaId IN :cuentaIds AND s.periodo BETWEEN :desde AND :hasta " +
+           "ORDER BY s.cuentaId, s.periodo")
+    List<SaldoMensual> findByCuentaIdsAndPeriodoBetween(@Param("cuentaIds") Collection<Long> cuentaIds,
+                                                        @Param("desde") LocalDate desde,
+                                                        @Param("hasta") LocalDate hasta);
+
+    // Resúmenes de todas las cuentas con movimientos en el mes
+    @Query("SELECT s FROM SaldoMensual s WHERE s.periodo = :periodo")
+    List<SaldoMensual> findByPeriodo(@Param("periodo") LocalDate periodo);
+
+    // Último resumen anterior al periodo, uno por cuenta: su saldo de cierre es la apertura de los meses sin movimientos
+    @Query("SELECT s FROM SaldoMensual s WHERE s.cuentaId IN :cuentaIds AND s.periodo = (" +
+           "SELECT MAX(s2.periodo) FROM SaldoMensual s2 WHERE s2.cuentaId = s.cuentaId AND s2.periodo < :periodo)")
+    List<SaldoMensual> findUltimosAnterioresA(@Param("cuentaIds") Collection<Long> cuentaIds,
+                                              @Param("periodo") LocalDate periodo);
+}
@@ -0,0 +1,17 @@
+package com.banco.ms_banco.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.banco.ms_banco.model.SolicitudIdempotente;
+
+public interface SolicitudIdempotenteRepository extends JpaRepository<SolicitudIdempotente, String> {
+
+    @Modifying
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.fechaCreacion < :fechaLimite")
+    int deleteByFechaCreacionBefore(@Param("fechaLimite") LocalDateTime fechaLimite);
+}
@@ -2,10 +2,28 @@ package com.banco.ms_banco.repository.custom;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
 import com.banco.ms_banco.model.Movimiento;
 
 public interface CustomMovimientoRepository {
     
     List<Movimiento> findMovimientosByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    List<MovimientoProyeccion> findProyeccionesByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    Stream<MovimientoProyeccion> streamProyeccionesByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio,
+                                                                         LocalDateTime fechaFin, int fetchSize);
+
+    Stream<MovimientoProyeccion> streamProyeccionesPorCuentaByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio,
+                                                                                  LocalDateTime fechaFin, int fetchSize);
+
+    Stream<MovimientoProyeccion> streamProyeccionesByCuentaAndFechaRange(Long cuentaId, LocalDateTime fechaInicio,
+                                                                        LocalDateTime fechaFin, int fetchSize);
+
+    Stream<MovimientoProyeccion> streamProyeccionesByFechaRange(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                               int fetchSize);
+
+    Stream<MovimientoProyeccion> streamProyeccionesByCuentaIdRange(Long cuentaDesde, Long cuentaHasta, int fetchSize);
 }
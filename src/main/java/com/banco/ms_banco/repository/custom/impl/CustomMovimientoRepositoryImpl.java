@@ -1,10 +1,17 @@
 package com.banco.ms_banco.repository.custom.impl;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import com.banco.ms_banco.archive.FusionMovimientos;
+import com.banco.ms_banco.archive.HorizonteArchivo;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
 import com.banco.ms_banco.model.Movimiento;
 import com.banco.ms_banco.repository.custom.CustomMovimientoRepository;
 
@@ -15,9 +22,16 @@ import jakarta.persistence.TypedQuery;
 @Repository
 public class CustomMovimientoRepositoryImpl implements CustomMovimientoRepository {
 
+    // Misma consulta sobre la tabla caliente o sobre el archivo: el alias es igual para compartir filtros y orden
+    private static final String CALIENTE = "Movimiento m JOIN m.cuenta c";
+    private static final String ARCHIVO = "MovimientoArchivado m JOIN Cuenta c ON c.cuentaId = m.cuentaId";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private HorizonteArchivo horizonteArchivo;
+
     @Override
     public List<Movimiento> findMovimientosByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         String jpql = """
@@ -35,4 +49,167 @@ public class CustomMovimientoRepositoryImpl implements CustomMovimientoRepositor
 
         return query.getResultList();
     }
+
+    @Override
+    public List<MovimientoProyeccion> findProyeccionesByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        String jpql = """
+            SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(
+                m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta)
+            FROM %s 
+            WHERE c.clienteId = :clienteId 
+            AND m.fecha BETWEEN :fechaInicio AND :fechaFin 
+            ORDER BY m.fecha DESC, m.movimientoId DESC
+            """;
+
+        List<MovimientoProyeccion> calientes = listar(jpql.formatted(CALIENTE), clienteId, fechaInicio, fechaFin);
+        if (!horizonteArchivo.alcanza(fechaInicio)) {
+            return calientes;
+        }
+        return FusionMovimientos.fusionar(calientes, listar(jpql.formatted(ARCHIVO), clienteId, fechaInicio, fechaFin),
+                                          FusionMovimientos.RECIENTES_PRIMERO, Integer.MAX_VALUE);
+    }
+
+    private List<MovimientoProyeccion> listar(String jpql, Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        TypedQuery<MovimientoProyeccion> query = entityManager.createQuery(jpql, MovimientoProyeccion.class);
+        query.setParameter("clienteId", clienteId);
+        query.setParameter("fechaInicio", fechaInicio);
+        query.setParameter("fechaFin", fechaFin);
+
+        return query.getResultList();
+    }
+
+    /**
+     * Recorre los movimientos del rango con un cursor de solo avance: las filas se leen de a {@code fetchSize}
+     * y, al ser proyecciones, no quedan en el contexto de persistencia. Debe consumirse dentro de una transacción
+     * y cerrarse al terminar. En MySQL requiere {@code useCursorFetch=true} en la URL para respetar el fetch size
+     * (y para mantener abiertos a la vez el cursor de la tabla caliente y el del archivo cuando el rango lo alcanza).
+     */
+    @Override
+    public Stream<MovimientoProyeccion> streamProyeccionesByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio,
+                                                                                LocalDateTime fechaFin, int fetchSize) {
+        String jpql = """
+            SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(
+                m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta)
+            FROM %s 
+            WHERE c.clienteId = :clienteId 
+            AND c.estado = 'ACTIVA' 
+            AND m.fecha BETWEEN :fechaInicio AND :fechaFin 
+            ORDER BY m.fecha, m.movimientoId
+            """;
+
+        return abrirCursor(jpql, FusionMovimientos.CRONOLOGICO, "clienteId", clienteId, fechaInicio, fechaFin, fetchSize);
+    }
+
+    /**
+     * Mismo cursor que {@link #streamProyeccionesByClienteAndFechaRange}, agrupado por cuenta: las filas de cada
+     * cuenta llegan contiguas (y, dentro de ella, de la más reciente a la más antigua), de modo que quien consume
+     * puede cerrar la sección de una cuenta al ver la primera fila de la siguiente.
+     */
+    @Override
+    public Stream<MovimientoProyeccion> streamProyeccionesPorCuentaByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio,
+                                                                                         LocalDateTime fechaFin, int fetchSize) {
+        String jpql = """
+            SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(
+                m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta)
+            FROM %s 
+            WHERE c.clienteId = :clienteId 
+            AND c.estado = 'ACTIVA' 
+            AND m.fecha BETWEEN :fechaInicio AND :fechaFin 
+            ORDER BY c.cuentaId, m.fecha DESC, m.movimientoId DESC
+            """;
+
+        return abrirCursor(jpql, FusionMovimientos.POR_CUENTA_RECIENTES_PRIMERO, "clienteId", clienteId,
+                           fechaInicio, fechaFin, fetchSize);
+    }
+
+    // Un tramo de una sola cuenta, en el mismo orden que el cursor por cuenta
+    @Override
+    public Stream<MovimientoProyeccion> streamProyeccionesByCuentaAndFechaRange(Long cuentaId, LocalDateTime fechaInicio,
+                                                                               LocalDateTime fechaFin, int fetchSize) {
+        String jpql = """
+            SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(
+                m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta)
+            FROM %s 
+            WHERE c.cuentaId = :cuentaId 
+            AND m.fecha BETWEEN :fechaInicio AND :fechaFin 
+            ORDER BY m.fecha DESC, m.movimientoId DESC
+            """;
+
+        return abrirCursor(jpql, FusionMovimientos.RECIENTES_PRIMERO, "cuentaId", cuentaId, fechaInicio, fechaFin, fetchSize);
+    }
+
+    /**
+     * Todos los movimientos del rango, de todas las cuentas, agrupados por cuenta y en orden cronológico dentro de
+     * cada una: es el orden en que {@link com.banco.ms_banco.archive.EscritorColumnar} arma sus bloques.
+     */
+    @Override
+    public Stream<MovimientoProyeccion> streamProyeccionesByFechaRange(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                                      int fetchSize) {
+        String jpql = """
+            SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(
+                m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta)
+            FROM %s 
+            WHERE m.fecha BETWEEN :fechaInicio AND :fechaFin 
+            ORDER BY c.cuentaId, m.fecha, m.movimientoId
+            """;
+
+        return abrirCursor(jpql, FusionMovimientos.POR_CUENTA_CRONOLOGICO, null, null, fechaInicio, fechaFin, fetchSize);
+    }
+
+    /**
+     * Historia completa de las cuentas con id en el rango, sin filtro de fechas, en orden (cuentaId, fecha,
+     * movimientoId). Incluye siempre el archivo.
+     */
+    @Override
+    public Stream<MovimientoProyeccion> streamProyeccionesByCuentaIdRange(Long cuentaDesde, Long cuentaHasta, int fetchSize) {
+        String jpql = """
+            SELECT new com.banco.ms_banco.dto.movimientos.MovimientoProyeccion(
+                m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.cuentaId, c.numeroCuenta)
+            FROM %s 
+            WHERE c.cuentaId BETWEEN :cuentaDesde AND :cuentaHasta 
+            ORDER BY c.cuentaId, m.fecha, m.movimientoId
+            """;
+
+        Stream<MovimientoProyeccion> calientes = abrirCursorCuentas(jpql.formatted(CALIENTE), cuentaDesde, cuentaHasta, fetchSize);
+        return FusionMovimientos.fusionar(
+            calientes, abrirCursorCuentas(jpql.formatted(ARCHIVO), cuentaDesde, cuentaHasta, fetchSize),
+            FusionMovimientos.POR_CUENTA_CRONOLOGICO);
+    }
+
+    // Solo se abre el cursor del archivo cuando el rango empieza antes de la frontera
+    private Stream<MovimientoProyeccion> abrirCursor(String jpql, Comparator<MovimientoProyeccion> orden,
+                                                     String parametroId, Long id, LocalDateTime fechaInicio,
+                                                     LocalDateTime fechaFin, int fetchSize) {
+        Stream<MovimientoProyeccion> calientes = abrirCursor(
+            jpql.formatted(CALIENTE), parametroId, id, fechaInicio, fechaFin, fetchSize);
+        if (!horizonteArchivo.alcanza(fechaInicio)) {
+            return calientes;
+        }
+        return FusionMovimientos.fusionar(
+            calientes, abrirCursor(jpql.formatted(ARCHIVO), parametroId, id, fechaInicio, fechaFin, fetchSize), orden);
+    }
+
+    private Stream<MovimientoProyeccion> abrirCursor(String jpql, String parametroId, Long id, LocalDateTime fechaInicio,
+                                                     LocalDateTime fechaFin, int fetchSize) {
+        TypedQuery<MovimientoProyeccion> query = entityManager.createQuery(jpql, MovimientoProyeccion.class);
+        if (parametroId != null) {
+            query.setParameter(parametroId, id);
+        }
+        query.setParameter("fechaInicio", fechaInicio);
+        query.setParameter("fechaFin", fechaFin);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        return query.getResultStream();
+    }
+
+    private Stream<MovimientoProyeccion> abrirCursorCuentas(String jpql, Long cuentaDesde, Long cuentaHasta, int fetchSize) {
+        TypedQuery<MovimientoProyeccion> query = entityManager.createQuery(jpql, MovimientoProyeccion.class);
+        query.setParameter("cuentaDesde", cuentaDesde);
+        query.setParameter("cuentaHasta", cuentaHasta);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        return query.getResultStream();
+    }
 }
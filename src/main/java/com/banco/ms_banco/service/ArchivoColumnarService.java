@@ -0,0 +1,14 @@
+package com.banco.ms_banco.service;
+
+import com.banco.ms_banco.dto.archivo.ExportacionColumnarDTO;
+import com.banco.ms_banco.dto.archivo.HistorialColumnarDTO;
+import com.banco.ms_banco.dto.archivo.ResumenColumnarDTO;
+import com.banco.ms_banco.dto.archivo.VerificacionColumnarDTO;
+
+public interface ArchivoColumnarService {
+
+    ExportacionColumnarDTO exportarMes(String periodo);
+    VerificacionColumnarDTO verificarMes(String periodo);
+    HistorialColumnarDTO historialCuenta(Long cuentaId, String desde, String hasta);
+    ResumenColumnarDTO resumenCuenta(Long cuentaId, String periodo);
+}
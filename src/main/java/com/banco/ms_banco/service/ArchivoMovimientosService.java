@@ -0,0 +1,8 @@
+package com.banco.ms_banco.service;
+
+import com.banco.ms_banco.dto.movimientos.ArchivoMovimientosDTO;
+
+public interface ArchivoMovimientosService {
+
+    ArchivoMovimientosDTO archivar();
+}
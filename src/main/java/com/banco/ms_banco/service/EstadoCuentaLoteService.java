@@ -0,0 +1,10 @@
+package com.banco.ms_banco.service;
+
+import com.banco.ms_banco.dto.reportes.LoteEstadosCuentaDTO;
+import com.banco.ms_banco.dto.reportes.LoteEstadosCuentaRequestDTO;
+
+public interface EstadoCuentaLoteService {
+
+    LoteEstadosCuentaDTO iniciarLote(LoteEstadosCuentaRequestDTO loteRequest);
+    LoteEstadosCuentaDTO consultarLote();
+}
@@ -0,0 +1,15 @@
+package com.banco.ms_banco.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import com.banco.ms_banco.dto.metricas.CacheMetricasDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+
+public interface IdempotenciaService {
+
+    Optional<MovimientoResponseDTO> buscarRespuesta(String clave, String numeroCuenta, BigDecimal valor);
+    void registrarRespuesta(String clave, String numeroCuenta, BigDecimal valor, MovimientoResponseDTO respuesta);
+    int purgarSolicitudesVencidas();
+    CacheMetricasDTO obtenerMetricasCache();
+}
@@ -0,0 +1,439 @@
+package com.banco.ms_banco.service.Impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.archive.EscritorColumnar;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.archive.FusionMovimientos;
+import com.banco.ms_banco.archive.LectorColumnar;
+import com.banco.ms_banco.dto.archivo.ExportacionColumnarDTO;
+import com.banco.ms_banco.dto.archivo.HistorialColumnarDTO;
+import com.banco.ms_banco.dto.archivo.ResumenColumnarDTO;
+import com.banco.ms_banco.dto.archivo.VerificacionColumnarDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.exception.ValidationException;
+import com.banco.ms_banco.mapper.MovimientoMapper;
+import com.banco.ms_banco.model.SaldoMensual;
+import com.banco.ms_banco.repository.SaldoMensualRepository;
+import com.banco.ms_banco.repository.custom.CustomMovimientoRepository;
+import com.banco.ms_banco.service.ArchivoColumnarService;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Exporta meses cerrados de movimientos a archivos {@code movimientos-YYYY-MM.mbca} y atiende desde ellos el
+ * historial y el resumen mensual de una cuenta sin consultar la base. Los lectores quedan mapeados en memoria por
+ * periodo; exportar de nuevo un mes reemplaza el archivo de forma atómica y descarta su lector. Con varios shards
+ * el mes se lee shard por shard en orden: los cuentaId de cada shard son mayores que los del anterior, así que las
+ * filas siguen en el orden (cuentaId, fecha, movimientoId) que espera el archivo.
+ */
+@Service
+public class ArchivoColumnarServiceImpl implements ArchivoColumnarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivoColumnarService.class);
+
+    private static final int MAXIMO_DIFERENCIAS_REPORTADAS = 20;
+
+    @Autowired
+    private CustomMovimientoRepository customMovimientoRepository;
+
+    @Autowired
+    private SaldoMensualRepository saldoMensualRepository;
+
+    @Autowired
+    private MovimientoMapper movimientoMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Value("${banco.archivo-columnar.directorio:${java.io.tmpdir}/ms-banco-archivo-columnar}")
+    private String directorio;
+
+    @Value("${banco.archivo-columnar.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${banco.reportes.rango-largo.maximo-anios:7}")
+    private int maximoAnios;
+
+    private Path directorioBase;
+    private TransactionTemplate lectura;
+    private final Map<YearMonth, LectorColumnar> lectores = new ConcurrentHashMap<>();
+    private final AtomicBoolean exportando = new AtomicBoolean();
+
+    @PostConstruct
+    public void iniciar() {
+        directorioBase = Paths.get(directorio);
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    /**
+     * Solo se exportan meses cerrados: las filas de un mes en curso todavía pueden cambiar. El archivo se escribe
+     * en un temporal y se mueve al terminar, así que un lector nunca ve un archivo a medio escribir. La apertura de
+     * cada cuenta sale de su resumen del mes en {@code SALDO_MENSUAL} o, si no lo tiene, de su cierre en el archivo
+     * del mes anterior; una cuenta sin ninguno de los dos cancela la exportación hasta reconstruir sus resúmenes.
+     */
+    @Override
+    public ExportacionColumnarDTO exportarMes(String periodoTexto) {
+        YearMonth periodo = obtenerPeriodo(periodoTexto);
+        if (!periodo.isBefore(YearMonth.now())) {
+            throw new ValidationException("Solo se pueden exportar meses cerrados");
+        }
+        if (!exportando.compareAndSet(false, true)) {
+            throw new ValidationException("Ya hay una exportación columnar en ejecución");
+        }
+        Path temporal = null;
+        try {
+            long inicio = System.nanoTime();
+            Files.createDirectories(directorioBase);
+            temporal = Files.createTempFile(directorioBase, "movimientos-" + periodo, ".tmp");
+            Path destino = rutaArchivo(periodo);
+
+            // Se cargan por shard, solo las aperturas de las cuentas con movimientos en el mes
+            Map<Long, BigDecimal> aperturas = new HashMap<>();
+            Optional<LectorColumnar> anterior = obtenerLector(periodo.minusMonths(1));
+            EscritorColumnar escritor = new EscritorColumnar(temporal, periodo, cuentaId ->
+                    Optional.ofNullable(aperturas.get(cuentaId))
+                            .or(() -> anterior.flatMap(lector -> lector.resumen(cuentaId))
+                                              .map(LectorColumnar.ResumenCuenta::saldoCierre)));
+            long bytes;
+            try (escritor) {
+                for (int shard = 0; shard < enrutadorShards.cantidad(); shard++) {
+                    enrutadorShards.enShard(shard, () -> lectura.executeWithoutResult(status -> {
+                        aperturas.clear();
+                        for (SaldoMensual resumen : saldoMensualRepository.findByPeriodo(periodo.atDay(1))) {
+                            aperturas.put(resumen.getCuentaId(), resumen.getSaldoApertura());
+                        }
+                        try (Stream<MovimientoProyeccion> filas = leerMes(periodo)) {
+                            filas.forEach(fila -> {
+                                try {
+                                    escritor.agregar(fila);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+                        }
+                    }));
+                }
+                bytes = escritor.terminar();
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lectores.remove(periodo);
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            logger.info("Archivo columnar {}: {} movimientos de {} cuentas, {} bytes en {} ms",
+                        periodo, escritor.filas(), escritor.cuentas(), bytes, duracionMs);
+            return ExportacionColumnarDTO.builder()
+                    .periodo(periodo.toString())
+                    .archivo(destino.toString())
+                    .cuentas(escritor.cuentas())
+                    .movimientos(escritor.filas())
+                    .bytes(bytes)
+                    .duracionMs(duracionMs)
+                    .build();
+        } catch (UncheckedIOException e) {
+            logger.error("Error al exportar el archivo columnar {}", periodo, e.getCause());
+            throw new RuntimeException("Error al exportar el archivo columnar", e.getCause());
+        } catch (IOException e) {
+            logger.error("Error al exportar el archivo columnar {}", periodo, e);
+            throw new RuntimeException("Error al exportar el archivo columnar", e);
+        } finally {
+            eliminarTemporal(temporal);
+            exportando.set(false);
+        }
+    }
+
+    /**
+     * Recorre a la vez el cursor de la base y el archivo, ambos en orden (cuentaId, fecha, movimientoId), y compara
+     * fila por fila; con varios shards, el cursor de cada uno contra su tramo del archivo. Los tiempos de lectura de
+     * cada lado se acumulan por separado.
+     */
+    @Override
+    public VerificacionColumnarDTO verificarMes(String periodoTexto) {
+        YearMonth periodo = obtenerPeriodo(periodoTexto);
+        LectorColumnar lector = obtenerLector(periodo)
+                .orElseThrow(() -> new ValidationException("No existe archivo columnar para el periodo " + periodo));
+        try {
+            long inicio = System.nanoTime();
+            ComparacionArchivo comparacion = new ComparacionArchivo();
+            ArchivoPorShard archivo = new ArchivoPorShard(lector.iterador());
+            for (int shard = 0; shard < enrutadorShards.cantidad(); shard++) {
+                // El último shard se queda también con las filas fuera de todo rango, que no existen en ninguna base
+                long ultimoCuentaId = shard == enrutadorShards.cantidad() - 1 ? Long.MAX_VALUE : EnrutadorShards.ultimoId(shard);
+                enrutadorShards.enShard(shard, () -> lectura.executeWithoutResult(status -> {
+                    try (Stream<MovimientoProyeccion> filas = leerMes(periodo)) {
+                        comparacion.comparar(filas.iterator(), archivo.hasta(ultimoCuentaId));
+                    }
+                }));
+            }
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            logger.info("Verificación del archivo columnar {}: {} filas en base, {} en archivo, {} diferencias",
+                        periodo, comparacion.filasBaseDatos, comparacion.filasArchivo, comparacion.diferencias);
+            return VerificacionColumnarDTO.builder()
+                    .periodo(periodo.toString())
+                    .filasBaseDatos(comparacion.filasBaseDatos)
+                    .filasArchivo(comparacion.filasArchivo)
+                    .diferencias(comparacion.diferencias)
+                    .primerasDiferencias(comparacion.primerasDiferencias)
+                    .coincide(comparacion.diferencias == 0)
+                    .lecturaBaseDatosMs(comparacion.nanosBaseDatos / 1_000_000)
+                    .lecturaArchivoMs(comparacion.nanosArchivo / 1_000_000)
+                    .duracionMs(duracionMs)
+                    .build();
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al verificar el archivo columnar {}", periodo, e);
+            throw new RuntimeException("Error al verificar el archivo columnar", e);
+        }
+    }
+
+    /**
+     * Historial de la cuenta entre dos meses (inclusive), del más reciente al más antiguo, leído solo de los
+     * archivos. Los meses sin archivo se informan aparte en lugar de consultarse a la base.
+     */
+    @Override
+    public HistorialColumnarDTO historialCuenta(Long cuentaId, String desdeTexto, String hastaTexto) {
+        YearMonth desde = obtenerPeriodo(desdeTexto);
+        YearMonth hasta = obtenerPeriodo(hastaTexto);
+        if (desde.isAfter(hasta)) {
+            throw new ValidationException("El periodo inicial no puede ser posterior al final");
+        }
+        if (desde.plusYears(maximoAnios).isBefore(hasta)) {
+            throw new ValidationException("El rango no puede superar " + maximoAnios + " años");
+        }
+
+        List<MovimientoResponseDTO> movimientos = new ArrayList<>();
+        List<String> sinArchivo = new ArrayList<>();
+        for (YearMonth periodo = hasta; !periodo.isBefore(desde); periodo = periodo.minusMonths(1)) {
+            Optional<LectorColumnar> lector = obtenerLector(periodo);
+            if (lector.isEmpty()) {
+                sinArchivo.add(periodo.toString());
+                continue;
+            }
+            List<MovimientoProyeccion> delMes = lector.get().movimientos(cuentaId);
+            for (int i = delMes.size() - 1; i >= 0; i--) {
+                movimientos.add(movimientoMapper.toResponseDTO(delMes.get(i)));
+            }
+        }
+
+        return HistorialColumnarDTO.builder()
+                .cuentaId(cuentaId)
+                .desde(desde.toString())
+                .hasta(hasta.toString())
+                .movimientos(movimientos)
+                .periodosSinArchivo(sinArchivo)
+                .build();
+    }
+
+    // Sale del índice del archivo: no decodifica las filas de la cuenta
+    @Override
+    public ResumenColumnarDTO resumenCuenta(Long cuentaId, String periodoTexto) {
+        YearMonth periodo = obtenerPeriodo(periodoTexto);
+        LectorColumnar lector = obtenerLector(periodo)
+                .orElseThrow(() -> new ValidationException("No existe archivo columnar para el periodo " + periodo));
+        LectorColumnar.ResumenCuenta resumen = lector.resumen(cuentaId)
+                .orElseThrow(() -> new ValidationException(
+                    "La cuenta " + cuentaId + " no tiene movimientos en el archivo del periodo " + periodo));
+
+        return ResumenColumnarDTO.builder()
+                .periodo(periodo.toString())
+                .cuentaId(resumen.cuentaId())
+                .numeroCuenta(resumen.numeroCuenta())
+                .cantidadMovimientos(resumen.cantidadMovimientos())
+                .primeraFecha(resumen.primeraFecha())
+                .ultimaFecha(resumen.ultimaFecha())
+                .saldoApertura(resumen.saldoApertura())
+                .saldoCierre(resumen.saldoCierre())
+                .totalDebitos(resumen.totalDebitos())
+                .totalCreditos(resumen.totalCreditos())
+                .build();
+    }
+
+    private Stream<MovimientoProyeccion> leerMes(YearMonth periodo) {
+        return customMovimientoRepository.streamProyeccionesByFechaRange(
+            periodo.atDay(1).atStartOfDay(), periodo.atEndOfMonth().atTime(LocalTime.MAX), fetchSize);
+    }
+
+    private Optional<LectorColumnar> obtenerLector(YearMonth periodo) {
+        LectorColumnar lector = lectores.get(periodo);
+        if (lector != null) {
+            return Optional.of(lector);
+        }
+        Path archivo = rutaArchivo(periodo);
+        if (!Files.exists(archivo)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(lectores.computeIfAbsent(periodo, p -> abrir(archivo)));
+        } catch (UncheckedIOException e) {
+            logger.error("Error al abrir el archivo columnar {}", archivo, e.getCause());
+            throw new RuntimeException("Error al abrir el archivo columnar", e.getCause());
+        }
+    }
+
+    private static LectorColumnar abrir(Path archivo) {
+        try {
+            return LectorColumnar.abrir(archivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path rutaArchivo(YearMonth periodo) {
+        return directorioBase.resolve("movimientos-" + periodo + ".mbca");
+    }
+
+    private YearMonth obtenerPeriodo(String periodo) {
+        try {
+            return YearMonth.parse(periodo);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("El periodo debe tener el formato YYYY-MM");
+        }
+    }
+
+    private void eliminarTemporal(Path temporal) {
+        if (temporal == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporal);
+        } catch (IOException e) {
+            logger.warn("No se pudo eliminar el temporal {}", temporal, e);
+        }
+    }
+
+    // Reparte las filas del archivo, ordenadas por cuentaId, en tramos consecutivos: uno por shard
+    private static final class ArchivoPorShard {
+        private final Iterator<MovimientoProyeccion> archivo;
+        private MovimientoProyeccion pendiente;
+
+        private ArchivoPorShard(Iterator<MovimientoProyeccion> archivo) {
+            this.archivo = archivo;
+        }
+
+        private Iterator<MovimientoProyeccion> hasta(long ultimoCuentaId) {
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    if (pendiente == null && archivo.hasNext()) {
+                        pendiente = archivo.next();
+                    }
+                    return pendiente != null && pendiente.cuentaId() <= ultimoCuentaId;
+                }
+
+                @Override
+                public MovimientoProyeccion next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    MovimientoProyeccion fila = pendiente;
+                    pendiente = null;
+                    return fila;
+                }
+            };
+        }
+    }
+
+    // Mezcla de dos secuencias ordenadas: una fila solo de un lado cuenta como diferencia sin desalinear el resto
+    private static final class ComparacionArchivo {
+        private long filasBaseDatos;
+        private long filasArchivo;
+        private long diferencias;
+        private long nanosBaseDatos;
+        private long nanosArchivo;
+        private final List<String> primerasDiferencias = new ArrayList<>();
+
+        private void comparar(Iterator<MovimientoProyeccion> base, Iterator<MovimientoProyeccion> archivo) {
+            MovimientoProyeccion deBase = siguienteBase(base);
+            MovimientoProyeccion deArchivo = siguienteArchivo(archivo);
+            while (deBase != null || deArchivo != null) {
+                int orden = deBase == null ? 1 : deArchivo == null ? -1
+                        : FusionMovimientos.POR_CUENTA_CRONOLOGICO.compare(deBase, deArchivo);
+                if (orden < 0) {
+                    registrar("Movimiento " + deBase.movimientoId() + " falta en el archivo");
+                    deBase = siguienteBase(base);
+                } else if (orden > 0) {
+                    registrar("Movimiento " + deArchivo.movimientoId() + " no existe en la base");
+                    deArchivo = siguienteArchivo(archivo);
+                } else {
+                    if (!iguales(deBase, deArchivo)) {
+                        registrar("Movimiento " + deBase.movimientoId() + ": base " + deBase + ", archivo " + deArchivo);
+                    }
+                    deBase = siguienteBase(base);
+                    deArchivo = siguienteArchivo(archivo);
+                }
+            }
+        }
+
+        private MovimientoProyeccion siguienteBase(Iterator<MovimientoProyeccion> base) {
+            long inicio = System.nanoTime();
+            MovimientoProyeccion fila = base.hasNext() ? base.next() : null;
+            nanosBaseDatos += System.nanoTime() - inicio;
+            if (fila != null) {
+                filasBaseDatos++;
+            }
+            return fila;
+        }
+
+        private MovimientoProyeccion siguienteArchivo(Iterator<MovimientoProyeccion> archivo) {
+            long inicio = System.nanoTime();
+            MovimientoProyeccion fila = archivo.hasNext() ? archivo.next() : null;
+            nanosArchivo += System.nanoTime() - inicio;
+            if (fila != null) {
+                filasArchivo++;
+            }
+            return fila;
+        }
+
+        // Montos por valor y no por escala: la base puede devolver 10.5 donde el archivo devuelve 10.50
+        private static boolean iguales(MovimientoProyeccion a, MovimientoProyeccion b) {
+            return a.movimientoId().equals(b.movimientoId())
+                && a.fecha().equals(b.fecha())
+                && a.tipoMovimiento().equals(b.tipoMovimiento())
+                && a.valor().compareTo(b.valor()) == 0
+                && a.saldo().compareTo(b.saldo()) == 0
+                && a.cuentaId().equals(b.cuentaId())
+                && a.numeroCuenta().equals(b.numeroCuenta());
+        }
+
+        private void registrar(String diferencia) {
+            diferencias++;
+            if (primerasDiferencias.size() < MAXIMO_DIFERENCIAS_REPORTADAS) {
+                primerasDiferencias.add(diferencia);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.banco.ms_banco.service.Impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.archive.HorizonteArchivo;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.dto.movimientos.ArchivoMovimientosDTO;
+import com.banco.ms_banco.exception.ValidationException;
+import com.banco.ms_banco.repository.MovimientoArchivadoRepository;
+import com.banco.ms_banco.repository.MovimientoRepository;
+import com.banco.ms_banco.service.ArchivoMovimientosService;
+
+@Service
+public class ArchivoMovimientosServiceImpl implements ArchivoMovimientosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivoMovimientosService.class);
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private MovimientoArchivadoRepository movimientoArchivadoRepository;
+
+    @Autowired
+    private HorizonteArchivo horizonteArchivo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Value("${banco.movimientos.archivo.lote:1000}")
+    private int tamanoLote;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+
+    /**
+     * Traslada al archivo los movimientos anteriores a la frontera, de a {@code banco.movimientos.archivo.lote}
+     * filas y una transacción por lote: cada lote copia y borra las mismas filas, así que un movimiento está siempre
+     * en una sola tabla y una interrupción solo deja lotes completos. Los movimientos nuevos nunca caen antes de la
+     * frontera, por lo que el proceso no compite con las escrituras. Los shards se archivan uno tras otro, cada uno
+     * con su propia tabla de archivo. Deshabilitado por defecto; se programa con {@code banco.movimientos.archivo.cron}.
+     */
+    @Override
+    @Scheduled(cron = "${banco.movimientos.archivo.cron:-}")
+    public ArchivoMovimientosDTO archivar() {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new ValidationException("Ya hay un proceso de archivo de movimientos en ejecución");
+        }
+        try {
+            long inicio = System.nanoTime();
+            LocalDateTime frontera = horizonteArchivo.frontera();
+            // Antes del primer commit: ninguna lectura de esta instancia puede dejar de ver las filas ya movidas
+            horizonteArchivo.marcarArchivadoHasta(frontera);
+            long archivados = 0;
+            int lotes = 0;
+            for (int shard = 0; shard < enrutadorShards.cantidad(); shard++) {
+                int movidos;
+                do {
+                    movidos = enrutadorShards.enShard(shard, () -> transactionTemplate.execute(status -> archivarLote(frontera)));
+                    if (movidos > 0) {
+                        archivados += movidos;
+                        lotes++;
+                    }
+                } while (movidos == tamanoLote);
+            }
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            logger.info("Archivo de movimientos anteriores a {}: {} movimientos en {} lotes, {} ms", 
+                        frontera, archivados, lotes, duracionMs);
+            return ArchivoMovimientosDTO.builder()
+                    .frontera(frontera)
+                    .movimientosArchivados(archivados)
+                    .lotes(lotes)
+                    .duracionMs(duracionMs)
+                    .build();
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    private int archivarLote(LocalDateTime frontera) {
+        List<Long> movimientoIds = movimientoRepository.findIdsAnterioresA(frontera, PageRequest.of(0, tamanoLote));
+        if (movimientoIds.isEmpty()) {
+            return 0;
+        }
+        movimientoArchivadoRepository.copiarDesdeMovimientos(movimientoIds);
+        return movimientoRepository.deleteByMovimientoIdIn(movimientoIds);
+    }
+}
@@ -1,5 +1,6 @@
 package com.banco.ms_banco.service.Impl;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -10,6 +11,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.banco.ms_banco.datasource.DirectorioClientes;
+import com.banco.ms_banco.datasource.EnrutadorShards;
 import com.banco.ms_banco.dto.clientes.ClienteRequestDTO;
 import com.banco.ms_banco.dto.clientes.ClienteResponseDTO;
 import com.banco.ms_banco.dto.clientes.ClienteUpdateRequestDTO;
@@ -37,13 +40,40 @@ public class ClienteServiceImpl implements ClienteService {
     @Autowired
     private ClienteMapper clienteMapper;
 
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Autowired
+    private DirectorioClientes directorioClientes;
+
     @Override
     public ClienteResponseDTO crearCliente(ClienteRequestDTO clienteRequest) {
         logger.info("Iniciando creación de cliente: {}", clienteRequest.getPersona().getNombre());
 
         try {
-            if (personaRepository.existsByIdentificacion(clienteRequest.getPersona().getIdentificacion())) {
-                throw new PersonaAlreadyExistsException("identificación", clienteRequest.getPersona().getIdentificacion());
+            String identificacion = clienteRequest.getPersona().getIdentificacion();
+            // La reserva en el directorio hace única la identificación entre todos los shards
+            int shard = directorioClientes.reservar(identificacion)
+                    .orElseThrow(() -> new PersonaAlreadyExistsException("identificación", identificacion));
+            try {
+                return crearClienteEnShard(clienteRequest, identificacion, shard);
+            } catch (RuntimeException e) {
+                directorioClientes.liberar(identificacion);
+                throw e;
+            }
+
+        } catch (PersonaAlreadyExistsException | ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error inesperado al crear cliente", e);
+            throw new RuntimeException("Error inesperado al crear el cliente: " + e.getMessage());
+        }
+    }
+
+    private ClienteResponseDTO crearClienteEnShard(ClienteRequestDTO clienteRequest, String identificacion, int shard) {
+        return enrutadorShards.enShard(shard, () -> {
+            if (personaRepository.existsByIdentificacion(identificacion)) {
+                throw new PersonaAlreadyExistsException("identificación", identificacion);
             }
 
             if (clienteRequest.getContrasena() == null || clienteRequest.getContrasena().trim().isEmpty()) {
@@ -57,24 +87,25 @@ public class ClienteServiceImpl implements ClienteService {
             Cliente cliente = clienteMapper.toEntity(clienteRequest);
 
             Cliente clienteGuardado = clienteRepository.save(cliente);
+            // Un id que no vuelve a este shard haría inubicables al cliente y sus cuentas
+            if (enrutadorShards.shardDeCliente(clienteGuardado.getClienteId()) != shard) {
+                logger.error("El cliente ID: {} se creó en el shard {}, que no numera ese id", clienteGuardado.getClienteId(), shard);
+                throw new IllegalStateException("Numeración de ids inconsistente con el shard " + shard);
+            }
 
             return clienteMapper.toResponseDTO(clienteGuardado);
-
-        } catch (PersonaAlreadyExistsException | ValidationException e) {
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error inesperado al crear cliente", e);
-            throw new RuntimeException("Error inesperado al crear el cliente: " + e.getMessage());
-        }
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ClienteResponseDTO> obtenerTodosLosClientes() {
         try {
-            return clienteRepository.findAll()
+            return enrutadorShards.enTodos(shard -> clienteRepository.findAllProyecciones())
                     .stream()
+                    .flatMap(List::stream)
                     .map(clienteMapper::toResponseDTO)
+                    .sorted(Comparator.comparing(ClienteResponseDTO::getClienteId))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             logger.error("Error al obtener todos los clientes", e);
@@ -86,7 +117,8 @@ public class ClienteServiceImpl implements ClienteService {
     @Transactional(readOnly = true)
     public Optional<ClienteResponseDTO> obtenerClientePorId(Long id) {
         try {
-            Optional<Cliente> cliente = clienteRepository.findById(id);
+            Optional<Cliente> cliente = enrutadorShards.enShard(enrutadorShards.shardDeCliente(id),
+                () -> clienteRepository.findById(id));
             if (cliente.isEmpty()) {
                 throw new ClienteNotFoundException(id);
             }
@@ -103,7 +135,8 @@ public class ClienteServiceImpl implements ClienteService {
     @Transactional(readOnly = true)
     public Optional<ClienteResponseDTO> obtenerClientePorIdentificacion(String identificacion) {
         try {
-            Optional<Cliente> cliente = clienteRepository.findByPersonaIdentificacion(identificacion);
+            Optional<Cliente> cliente = enrutadorShards.enShard(directorioClientes.shardDe(identificacion),
+                () -> clienteRepository.findByPersonaIdentificacion(identificacion));
             if (cliente.isEmpty()) {
                 throw new ClienteNotFoundException(identificacion, true);
             }
@@ -119,7 +152,7 @@ public class ClienteServiceImpl implements ClienteService {
     @Override
     public ClienteResponseDTO actualizarCliente(Long id, ClienteUpdateRequestDTO clienteRequest) {
         try {
-            return clienteRepository.findById(id)
+            return enrutadorShards.enShard(enrutadorShards.shardDeCliente(id), () -> clienteRepository.findById(id)
                 .map(clienteExistente -> {
                     
                     Persona persona = clienteExistente.getPersona();
@@ -144,7 +177,7 @@ public class ClienteServiceImpl implements ClienteService {
                     
                     return clienteMapper.toResponseDTO(clienteActualizado);
                 })
-                .orElseThrow(() -> new ClienteNotFoundException(id));
+                .orElseThrow(() -> new ClienteNotFoundException(id)));
         } catch (ClienteNotFoundException | ValidationException e) {
             throw e;
         } catch (Exception e) {
@@ -156,17 +189,19 @@ public class ClienteServiceImpl implements ClienteService {
     @Override
     public void desactivarCliente(Long id) {
         try {
-            Cliente cliente = clienteRepository.findById(id)
-                .orElseThrow(() -> new ClienteNotFoundException(id));
-            
-            if ("INACTIVO".equals(cliente.getEstado())) {
-                throw new ValidationException("El cliente ya se encuentra INACTIVO");
-            }
-            
-            cliente.setEstado("INACTIVO");
-            clienteRepository.save(cliente);
-            logger.info("Cliente ID: {} desactivado exitosamente", id);
-            
+            enrutadorShards.enShard(enrutadorShards.shardDeCliente(id), () -> {
+                Cliente cliente = clienteRepository.findById(id)
+                    .orElseThrow(() -> new ClienteNotFoundException(id));
+
+                if ("INACTIVO".equals(cliente.getEstado())) {
+                    throw new ValidationException("El cliente ya se encuentra INACTIVO");
+                }
+
+                cliente.setEstado("INACTIVO");
+                clienteRepository.save(cliente);
+                logger.info("Cliente ID: {} desactivado exitosamente", id);
+            });
+
         } catch (ClienteNotFoundException | ValidationException e) {
             throw e;
         } catch (Exception e) {
@@ -178,7 +213,8 @@ public class ClienteServiceImpl implements ClienteService {
     @Override
     public boolean existeClientePorIdentificacion(String identificacion) {
         try {
-            return clienteRepository.existsByPersonaIdentificacion(identificacion);
+            return enrutadorShards.enShard(directorioClientes.shardDe(identificacion),
+                () -> clienteRepository.existsByPersonaIdentificacion(identificacion));
         } catch (Exception e) {
             logger.error("Error al verificar existencia de cliente con identificación: {}", identificacion, e);
             throw new RuntimeException("Error al verificar la existencia del cliente");
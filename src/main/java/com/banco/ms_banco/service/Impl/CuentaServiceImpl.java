@@ -2,17 +2,23 @@ package com.banco.ms_banco.service.Impl;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Random;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.banco.ms_banco.cache.CuentaCache;
+import com.banco.ms_banco.datasource.DirectorioCuentas;
+import com.banco.ms_banco.datasource.EnrutadorShards;
 import com.banco.ms_banco.dto.cuentas.CuentaRequestDTO;
 import com.banco.ms_banco.dto.cuentas.CuentaResponseDTO;
+import com.banco.ms_banco.event.CuentaModificadaEvent;
 import com.banco.ms_banco.exception.CuentaConSaldoException;
 import com.banco.ms_banco.exception.CuentaNoActivaException;
 import com.banco.ms_banco.exception.CuentaNotFoundException;
@@ -37,7 +43,20 @@ public class CuentaServiceImpl implements CuentaService {
     @Autowired
     private MovimientoService movimientoService;
 
-    private Random random = new Random();
+    @Autowired
+    private CuentaCache cuentaCache;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Autowired
+    private DirectorioCuentas directorioCuentas;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public CuentaResponseDTO crearCuenta(CuentaRequestDTO cuentaRequest) {
         try {
@@ -45,20 +64,27 @@ public class CuentaServiceImpl implements CuentaService {
 
             validarDatosCuenta(cuentaRequest);
 
-            String numeroCuenta = generarNumeroCuentaUnico();
+            int shard = enrutadorShards.shardDeCliente(cuentaRequest.getClienteId());
+            return enrutadorShards.enShard(shard, () -> {
+                String numeroCuenta = generarNumeroCuentaUnico(shard);
 
-            Cuenta cuenta = cuentaMapper.toEntity(cuentaRequest);
-            cuenta.setNumeroCuenta(numeroCuenta);
+                Cuenta cuenta = cuentaMapper.toEntity(cuentaRequest);
+                cuenta.setNumeroCuenta(numeroCuenta);
 
-            Cuenta cuentaGuardada = cuentaRepository.save(cuenta);
-            logger.info("Cuenta creada exitosamente: {} para cliente ID: {}", 
-                        numeroCuenta, cuentaRequest.getClienteId());
-            
-            if (cuentaGuardada.getSaldoInicial().compareTo(BigDecimal.ZERO) > 0) {
-                movimientoService.crearMovimientoInicial(cuentaGuardada);
-            }
+                Cuenta cuentaGuardada = cuentaRepository.save(cuenta);
+                if (enrutadorShards.shardDeCuenta(cuentaGuardada.getCuentaId()) != shard) {
+                    logger.error("La cuenta ID: {} se creó en el shard {}, que no numera ese id", cuentaGuardada.getCuentaId(), shard);
+                    throw new IllegalStateException("Numeración de ids inconsistente con el shard " + shard);
+                }
+                logger.info("Cuenta creada exitosamente: {} para cliente ID: {}", 
+                            numeroCuenta, cuentaRequest.getClienteId());
 
-            return cuentaMapper.toResponseDTO(cuentaGuardada);
+                if (cuentaGuardada.getSaldoInicial().compareTo(BigDecimal.ZERO) > 0) {
+                    movimientoService.crearMovimientoInicial(cuentaGuardada);
+                }
+
+                return cuentaMapper.toResponseDTO(cuentaGuardada);
+            });
 
         } catch (ValidationException e) {
             throw e;
@@ -72,7 +98,8 @@ public class CuentaServiceImpl implements CuentaService {
     public List<CuentaResponseDTO> obtenerCuentasPorCliente(Long clienteId) {
         try {
             logger.info("Obteniendo cuentas para cliente ID: {}", clienteId);
-            return cuentaRepository.findByClienteId(clienteId)
+            return enrutadorShards.enShard(enrutadorShards.shardDeCliente(clienteId),
+                        () -> cuentaRepository.findByClienteId(clienteId))
                     .stream()
                     .map(cuentaMapper::toResponseDTO)
                     .collect(Collectors.toList());
@@ -86,9 +113,9 @@ public class CuentaServiceImpl implements CuentaService {
     public CuentaResponseDTO obtenerCuentaPorId(Long cuentaId) {
         try {
             logger.info("Buscando cuenta con ID: {}", cuentaId);
-            Cuenta cuenta = cuentaRepository.findById(cuentaId)
+            return enrutadorShards.enShard(enrutadorShards.shardDeCuenta(cuentaId), () -> cuentaCache.buscarPorId(cuentaId))
+                    .map(cuentaMapper::toResponseDTO)
                     .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
-            return cuentaMapper.toResponseDTO(cuenta);
         } catch (CuentaNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -101,9 +128,9 @@ public class CuentaServiceImpl implements CuentaService {
     public CuentaResponseDTO obtenerCuentaPorNumero(String numeroCuenta) {
         try {
             logger.info("Buscando cuenta con número: {}", numeroCuenta);
-            Cuenta cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta)
+            return enrutadorShards.enShard(directorioCuentas.shardDe(numeroCuenta), () -> cuentaCache.buscarPorNumero(numeroCuenta))
+                    .map(cuentaMapper::toResponseDTO)
                     .orElseThrow(() -> new CuentaNotFoundException(numeroCuenta, true));
-            return cuentaMapper.toResponseDTO(cuenta);
         } catch (CuentaNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -116,8 +143,9 @@ public class CuentaServiceImpl implements CuentaService {
     public List<CuentaResponseDTO> obtenerTodasLasCuentas() {
         try {
             logger.info("Obteniendo todas las cuentas");
-            return cuentaRepository.findAll()
+            return enrutadorShards.enTodos(shard -> cuentaRepository.findAll())
                     .stream()
+                    .flatMap(List::stream)
                     .map(cuentaMapper::toResponseDTO)
                     .collect(Collectors.toList());
         } catch (Exception e) {
@@ -131,11 +159,12 @@ public class CuentaServiceImpl implements CuentaService {
         try {
             logger.info("Consultando saldo para cuenta ID: {}", cuentaId);
             
-            if (!cuentaRepository.existsById(cuentaId)) {
-                throw new CuentaNotFoundException(cuentaId);
-            }
-            
-            BigDecimal saldo = movimientoService.calcularSaldoDisponible(cuentaId);
+            BigDecimal saldo = enrutadorShards.enShard(enrutadorShards.shardDeCuenta(cuentaId), () -> {
+                if (cuentaCache.buscarPorId(cuentaId).isEmpty()) {
+                    throw new CuentaNotFoundException(cuentaId);
+                }
+                return movimientoService.calcularSaldoDisponible(cuentaId);
+            });
             logger.info("Saldo consultado para cuenta ID: {} - Saldo: {}", cuentaId, saldo);
             
             return saldo;
@@ -150,19 +179,15 @@ public class CuentaServiceImpl implements CuentaService {
     public CuentaResponseDTO actualizarEstadoCuenta(Long cuentaId, String nuevoEstado) {
         try {
             logger.info("Actualizando estado de cuenta ID: {} a {}", cuentaId, nuevoEstado);
-            
-            Cuenta cuenta = cuentaRepository.findById(cuentaId)
-                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
-            
-            if (!List.of("ACTIVA", "BLOQUEADA", "CANCELADA").contains(nuevoEstado)) {
-                throw new ValidationException("Estado de cuenta inválido: " + nuevoEstado);
-            }
-            
-            cuenta.setEstado(nuevoEstado);
-            Cuenta cuentaActualizada = cuentaRepository.save(cuenta);
-            
+
+            CuentaResponseDTO cuentaActualizada = cambiarEstado(cuentaId, nuevoEstado, cuenta -> {
+                if (!List.of("ACTIVA", "BLOQUEADA", "CANCELADA").contains(nuevoEstado)) {
+                    throw new ValidationException("Estado de cuenta inválido: " + nuevoEstado);
+                }
+            });
+
             logger.info("Estado de cuenta ID: {} actualizado exitosamente a {}", cuentaId, nuevoEstado);
-            return cuentaMapper.toResponseDTO(cuentaActualizada);
+            return cuentaActualizada;
             
         } catch (CuentaNotFoundException | ValidationException e) {
             throw e;
@@ -208,26 +233,21 @@ public class CuentaServiceImpl implements CuentaService {
         try {
             logger.info("Iniciando eliminación lógica de cuenta ID: {}", cuentaId);
 
-            Cuenta cuenta = cuentaRepository.findById(cuentaId)
-                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
-
-            if (!"ACTIVA".equals(cuenta.getEstado())) {
-                throw new CuentaNoActivaException(
-                    cuenta.getNumeroCuenta(), cuenta.getEstado());
-            }
-
-            BigDecimal saldoActual = movimientoService.calcularSaldoDisponible(cuentaId);
-            if (saldoActual.compareTo(BigDecimal.ZERO) > 0) {
-                throw new CuentaConSaldoException(cuenta.getNumeroCuenta(), saldoActual);
-            }
+            CuentaResponseDTO cuentaEliminada = cambiarEstado(cuentaId, "ELIMINADA", cuenta -> {
+                if (!"ACTIVA".equals(cuenta.getEstado())) {
+                    throw new CuentaNoActivaException(
+                        cuenta.getNumeroCuenta(), cuenta.getEstado());
+                }
 
-            cuenta.setEstado("ELIMINADA");
-
-            Cuenta cuentaEliminada = cuentaRepository.save(cuenta);
+                // Con la fila bloqueada ningún depósito puede entrar entre esta comprobación y el cambio de estado
+                if (cuenta.getSaldoActual().compareTo(BigDecimal.ZERO) > 0) {
+                    throw new CuentaConSaldoException(cuenta.getNumeroCuenta(), cuenta.getSaldoActual());
+                }
+            });
 
             logger.info("Cuenta ID: {} eliminada lógicamente exitosamente.", cuentaId);
 
-            return cuentaMapper.toResponseDTO(cuentaEliminada);
+            return cuentaEliminada;
 
         } catch (CuentaNotFoundException | CuentaConSaldoException| ValidationException e) {
             throw e;
@@ -241,23 +261,18 @@ public class CuentaServiceImpl implements CuentaService {
         try {
             logger.info("Reactivando cuenta ID: {}", cuentaId);
 
-            Cuenta cuenta = cuentaRepository.findById(cuentaId)
-                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
-
-            if (!"ELIMINADA".equals(cuenta.getEstado())) {
-                throw new ValidationException(
-                    String.format("No se puede reactivar la cuenta %s porque no está eliminada. Estado actual: %s", 
-                                cuenta.getNumeroCuenta(), cuenta.getEstado())
-                );
-            }
-
-            cuenta.setEstado("ACTIVA");
+            CuentaResponseDTO cuentaReactivada = cambiarEstado(cuentaId, "ACTIVA", cuenta -> {
+                if (!"ELIMINADA".equals(cuenta.getEstado())) {
+                    throw new ValidationException(
+                        String.format("No se puede reactivar la cuenta %s porque no está eliminada. Estado actual: %s", 
+                                    cuenta.getNumeroCuenta(), cuenta.getEstado())
+                    );
+                }
+            });
 
-            Cuenta cuentaReactivada = cuentaRepository.save(cuenta);
-            
             logger.info("Cuenta ID: {} reactivada exitosamente", cuentaId);
 
-            return cuentaMapper.toResponseDTO(cuentaReactivada);
+            return cuentaReactivada;
 
         } catch (CuentaNotFoundException | ValidationException e) {
             throw e;
@@ -267,6 +282,28 @@ public class CuentaServiceImpl implements CuentaService {
         }
     }
 
+    /**
+     * Bloquea la fila de la cuenta, valida el cambio y escribe solo la columna de estado. Guardar la entidad completa
+     * devolvería a la base el saldo leído al inicio y perdería los movimientos registrados mientras tanto.
+     */
+    private CuentaResponseDTO cambiarEstado(Long cuentaId, String nuevoEstado, Consumer<Cuenta> validacion) {
+        return enrutadorShards.enShard(enrutadorShards.shardDeCuenta(cuentaId), () -> transactionTemplate.execute(status -> {
+            Cuenta cuenta = cuentaRepository.findByCuentaIdInForUpdate(List.of(cuentaId))
+                    .stream()
+                    .findFirst()
+                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
+            validacion.accept(cuenta);
+
+            CuentaResponseDTO respuesta = cuentaMapper.toResponseDTO(cuenta);
+            cuentaRepository.actualizarEstado(cuentaId, nuevoEstado);
+            cuentaCache.invalidar(cuentaId, cuenta.getNumeroCuenta());
+            // Los estados de cuenta solo listan cuentas activas
+            eventPublisher.publishEvent(new CuentaModificadaEvent(cuentaId, cuenta.getClienteId()));
+            respuesta.setEstado(nuevoEstado);
+            return respuesta;
+        }));
+    }
+
     private void validarDatosCuenta(CuentaRequestDTO cuentaRequest) {
         if (cuentaRequest.getTipoCuenta() == null || cuentaRequest.getTipoCuenta().trim().isEmpty()) {
             throw new ValidationException("El tipo de cuenta es obligatorio");
@@ -285,20 +322,18 @@ public class CuentaServiceImpl implements CuentaService {
         }
     }
 
-    private String generarNumeroCuentaUnico() {
+    // La reserva en el directorio hace único el número entre todos los shards; la comprobación en el shard cubre
+    // las cuentas anteriores al directorio. Si el alta falla después, el número queda reservado sin uso.
+    private String generarNumeroCuentaUnico(int shard) {
         String numeroCuenta;
         int intentos = 0;
         do {
-            numeroCuenta = generarNumeroCuenta();
+            numeroCuenta = directorioCuentas.nuevoNumero();
             intentos++;
             if (intentos > 10) {
                 throw new RuntimeException("No se pudo generar un número de cuenta único después de 10 intentos");
             }
-        } while (cuentaRepository.existsByNumeroCuenta(numeroCuenta));
+        } while (cuentaRepository.existsByNumeroCuenta(numeroCuenta) || !directorioCuentas.reservar(numeroCuenta, shard));
         return numeroCuenta;
     }
-
-    private String generarNumeroCuenta() {
-        return String.format("%010d", random.nextInt(1000000000));
-    }
 }
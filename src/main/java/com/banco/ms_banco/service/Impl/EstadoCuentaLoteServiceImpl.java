@@ -0,0 +1,357 @@
+package com.banco.ms_banco.service.Impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.dto.reportes.LoteEstadosCuentaDTO;
+import com.banco.ms_banco.dto.reportes.LoteEstadosCuentaRequestDTO;
+import com.banco.ms_banco.dto.reportes.ParticionLoteDTO;
+import com.banco.ms_banco.exception.CuentasNoEncontradasException;
+import com.banco.ms_banco.exception.ValidationException;
+import com.banco.ms_banco.report.DatosEstadoCuenta;
+import com.banco.ms_banco.repository.ClienteRepository;
+import com.banco.ms_banco.service.EstadoCuentaLoteService;
+import com.banco.ms_banco.service.ReporteService;
+
+/**
+ * Generación de fin de mes de los estados de cuenta PDF de todos los clientes activos. Los clientes se reparten
+ * en particiones por rango de id que atiende un pool fijo de workers; al terminar sin fallas cada partición se
+ * agrega una línea al archivo {@code checkpoint} del periodo, y una nueva ejecución del mismo periodo salta las
+ * particiones ya registradas. Los rangos salen de una grilla fija de ids, así que no cambian aunque se den de alta
+ * clientes entre intentos; el tamaño de partición sí debe mantenerse entre intentos de un mismo periodo.
+ */
+@Service
+public class EstadoCuentaLoteServiceImpl implements EstadoCuentaLoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadoCuentaLoteService.class);
+
+    private static final String ARCHIVO_CHECKPOINT = "checkpoint";
+    private static final int MAXIMO_ERRORES_POR_PARTICION = 20;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    private final int cantidadWorkers;
+    private final int tamanoParticion;
+    private final Path directorioBase;
+
+    private final AtomicReference<EjecucionLote> ejecucionActual = new AtomicReference<>();
+
+    public EstadoCuentaLoteServiceImpl(
+            @Value("${banco.estados-cuenta.lote.workers:4}") int cantidadWorkers,
+            @Value("${banco.estados-cuenta.lote.tamano-particion:500}") int tamanoParticion,
+            @Value("${banco.estados-cuenta.lote.directorio:${java.io.tmpdir}/ms-banco-estados-cuenta}") String directorio) {
+        this.cantidadWorkers = cantidadWorkers;
+        this.tamanoParticion = tamanoParticion;
+        this.directorioBase = Paths.get(directorio);
+    }
+
+    @Override
+    public LoteEstadosCuentaDTO iniciarLote(LoteEstadosCuentaRequestDTO loteRequest) {
+        YearMonth periodo = obtenerPeriodo(loteRequest);
+        reporteService.validarFechas(periodo.atDay(1).toString(), periodo.atEndOfMonth().toString());
+
+        EjecucionLote anterior = ejecucionActual.get();
+        if (anterior != null && anterior.enCurso()) {
+            throw new ValidationException("Ya hay un lote de estados de cuenta en ejecución para el periodo " 
+                                          + anterior.periodo);
+        }
+
+        try {
+            Path directorio = directorioBase.resolve(periodo.toString());
+            Files.createDirectories(directorio);
+            Set<String> completadas = leerCheckpoint(directorio);
+
+            EjecucionLote ejecucion = new EjecucionLote(periodo, directorio, calcularParticiones());
+            if (!ejecucionActual.compareAndSet(anterior, ejecucion)) {
+                throw new ValidationException("Ya hay un lote de estados de cuenta en ejecución");
+            }
+            for (Particion particion : ejecucion.particiones) {
+                if (completadas.contains(particion.clave())) {
+                    particion.estado = "REANUDADA";
+                }
+            }
+
+            logger.info("Iniciando lote de estados de cuenta {}: {} particiones ({} ya registradas en checkpoint)", 
+                        periodo, ejecucion.particiones.size(), ejecucion.particionesReanudadas());
+            Thread.ofPlatform().name("estados-cuenta-lote").start(() -> ejecutar(ejecucion));
+            return ejecucion.toDTO();
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al iniciar lote de estados de cuenta {}", periodo, e);
+            throw new RuntimeException("Error al iniciar el lote de estados de cuenta: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public LoteEstadosCuentaDTO consultarLote() {
+        EjecucionLote ejecucion = ejecucionActual.get();
+        if (ejecucion == null) {
+            throw new ValidationException("No se ha ejecutado ningún lote de estados de cuenta");
+        }
+        return ejecucion.toDTO();
+    }
+
+    private YearMonth obtenerPeriodo(LoteEstadosCuentaRequestDTO loteRequest) {
+        if (loteRequest == null || loteRequest.getPeriodo() == null) {
+            return YearMonth.now().minusMonths(1);
+        }
+        try {
+            return YearMonth.parse(loteRequest.getPeriodo());
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("El periodo debe tener el formato YYYY-MM");
+        }
+    }
+
+    // Celdas de la grilla de tamaño fijo que cubren los ids de cada shard, recortadas al rango de ids del shard:
+    // una celda no depende del mínimo ni del máximo actuales ni se mezcla con la de otro shard
+    private List<Particion> calcularParticiones() {
+        List<Particion> particiones = new ArrayList<>();
+        for (int shard = 0; shard < enrutadorShards.cantidad(); shard++) {
+            Optional<Long> minimo = enrutadorShards.enShard(shard, () -> clienteRepository.findMinClienteId());
+            Optional<Long> maximo = enrutadorShards.enShard(shard, () -> clienteRepository.findMaxClienteId());
+            if (minimo.isEmpty() || maximo.isEmpty()) {
+                continue;
+            }
+            long primerId = EnrutadorShards.primerId(shard);
+            long ultimoId = EnrutadorShards.ultimoId(shard);
+            for (long celda = Math.floorDiv(minimo.get(), tamanoParticion) * tamanoParticion;
+                 celda <= maximo.get(); celda += tamanoParticion) {
+                particiones.add(new Particion(shard, Math.max(celda, primerId),
+                                              Math.min(celda + tamanoParticion - 1, ultimoId)));
+            }
+        }
+        return particiones;
+    }
+
+    private void ejecutar(EjecucionLote ejecucion) {
+        AtomicInteger secuencia = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(cantidadWorkers,
+            tarea -> new Thread(tarea, "estados-cuenta-lote-" + secuencia.getAndIncrement()));
+        try {
+            List<Future<?>> pendientes = new ArrayList<>();
+            for (Particion particion : ejecucion.particiones) {
+                if (!"REANUDADA".equals(particion.estado)) {
+                    pendientes.add(workers.submit(() -> procesarParticion(ejecucion, particion)));
+                }
+            }
+            for (Future<?> pendiente : pendientes) {
+                pendiente.get();
+            }
+            boolean conFallas = ejecucion.particiones.stream().anyMatch(p -> "FALLIDA".equals(p.estado));
+            ejecucion.estado = conFallas ? "COMPLETADO_CON_ERRORES" : "COMPLETADO";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ejecucion.estado = "INTERRUMPIDO";
+        } catch (Exception e) {
+            logger.error("Error en lote de estados de cuenta {}", ejecucion.periodo, e);
+            ejecucion.estado = "FALLIDO";
+        } finally {
+            workers.shutdownNow();
+            ejecucion.fechaFinalizacion = LocalDateTime.now();
+            logger.info("Lote de estados de cuenta {} {}: {} generados, {} omitidos, {} fallidos ({} estados/s)", 
+                        ejecucion.periodo, ejecucion.estado, ejecucion.generados.get(), ejecucion.omitidos.get(),
+                        ejecucion.fallidos.get(), String.format("%.2f", ejecucion.estadosPorSegundo()));
+        }
+    }
+
+    // Solo se registra en el checkpoint una partición sin fallas; las demás se vuelven a procesar completas en el
+    // siguiente intento, que reemplaza los archivos ya generados
+    private void procesarParticion(EjecucionLote ejecucion, Particion particion) {
+        particion.estado = "PROCESANDO";
+        try {
+            List<Long> clienteIds = enrutadorShards.enShard(particion.shard,
+                () -> clienteRepository.findIdsActivosEntre(particion.desde, particion.hasta));
+            for (Long clienteId : clienteIds) {
+                try {
+                    generarEstadoCuenta(ejecucion, clienteId);
+                    particion.generados.incrementAndGet();
+                    ejecucion.generados.incrementAndGet();
+                } catch (CuentasNoEncontradasException e) {
+                    // Sin cuentas activas o sin movimientos en el periodo: no hay estado que generar
+                    particion.omitidos.incrementAndGet();
+                    ejecucion.omitidos.incrementAndGet();
+                } catch (Exception e) {
+                    particion.fallidos.incrementAndGet();
+                    ejecucion.fallidos.incrementAndGet();
+                    if (particion.errores.size() < MAXIMO_ERRORES_POR_PARTICION) {
+                        particion.errores.add("Cliente " + clienteId + ": " + e.getMessage());
+                    }
+                    logger.warn("Estado de cuenta {} fallido para cliente {}: {}", 
+                                ejecucion.periodo, clienteId, e.getMessage());
+                }
+            }
+            if (particion.fallidos.get() > 0) {
+                particion.estado = "FALLIDA";
+                return;
+            }
+            registrarCheckpoint(ejecucion, particion);
+            particion.estado = "COMPLETADA";
+        } catch (Exception e) {
+            particion.estado = "FALLIDA";
+            particion.errores.add(String.valueOf(e.getMessage()));
+            logger.error("Partición {} del lote {} fallida", particion.clave(), ejecucion.periodo, e);
+        }
+    }
+
+    private void generarEstadoCuenta(EjecucionLote ejecucion, Long clienteId) throws IOException {
+        LocalDate fechaInicio = ejecucion.periodo.atDay(1);
+        LocalDate fechaFin = ejecucion.periodo.atEndOfMonth();
+        DatosEstadoCuenta cabecera = reporteService.cargarCabeceraEstadoCuenta(clienteId, fechaInicio, fechaFin);
+
+        Path destino = ejecucion.directorio.resolve("estado_cuenta_" + clienteId + "_" + ejecucion.periodo + ".pdf");
+        Path temporal = ejecucion.directorio.resolve(destino.getFileName() + ".tmp");
+        try (OutputStream salida = Files.newOutputStream(temporal)) {
+            reporteService.escribirReporteEstadoCuentaPDFEnFlujo(cabecera, salida);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        // Un reintento reemplaza el archivo que una ejecución caída pudo dejar escrito
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Set<String> leerCheckpoint(Path directorio) throws IOException {
+        Path checkpoint = directorio.resolve(ARCHIVO_CHECKPOINT);
+        Set<String> completadas = new HashSet<>();
+        if (Files.exists(checkpoint)) {
+            for (String linea : Files.readAllLines(checkpoint, StandardCharsets.UTF_8)) {
+                if (!linea.isBlank()) {
+                    completadas.add(linea.split(";")[0]);
+                }
+            }
+        }
+        return completadas;
+    }
+
+    private synchronized void registrarCheckpoint(EjecucionLote ejecucion, Particion particion) throws IOException {
+        String linea = particion.clave() + ";" + particion.generados.get() + ";" + particion.omitidos.get() 
+                       + ";" + particion.fallidos.get() + System.lineSeparator();
+        Files.writeString(ejecucion.directorio.resolve(ARCHIVO_CHECKPOINT), linea, StandardCharsets.UTF_8,
+                          StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+    }
+
+    private static final class EjecucionLote {
+
+        private final YearMonth periodo;
+        private final Path directorio;
+        private final List<Particion> particiones;
+        private final LocalDateTime fechaInicio = LocalDateTime.now();
+        private final long inicioNanos = System.nanoTime();
+        private final AtomicLong generados = new AtomicLong();
+        private final AtomicLong omitidos = new AtomicLong();
+        private final AtomicLong fallidos = new AtomicLong();
+
+        private volatile String estado = "EN_EJECUCION";
+        private volatile LocalDateTime fechaFinalizacion;
+
+        private EjecucionLote(YearMonth periodo, Path directorio, List<Particion> particiones) {
+            this.periodo = periodo;
+            this.directorio = directorio;
+            this.particiones = particiones;
+        }
+
+        private boolean enCurso() {
+            return "EN_EJECUCION".equals(estado);
+        }
+
+        private int particionesReanudadas() {
+            return (int) particiones.stream().filter(p -> "REANUDADA".equals(p.estado)).count();
+        }
+
+        private double estadosPorSegundo() {
+            double segundos = (System.nanoTime() - inicioNanos) / 1_000_000_000.0;
+            return segundos <= 0 ? 0.0 : generados.get() / segundos;
+        }
+
+        private LoteEstadosCuentaDTO toDTO() {
+            return LoteEstadosCuentaDTO.builder()
+                    .periodo(periodo.toString())
+                    .estado(estado)
+                    .directorio(directorio.toString())
+                    .fechaInicio(fechaInicio)
+                    .fechaFinalizacion(fechaFinalizacion)
+                    .particionesTotales(particiones.size())
+                    .particionesCompletadas((int) particiones.stream()
+                            .filter(p -> "COMPLETADA".equals(p.estado) || "REANUDADA".equals(p.estado)).count())
+                    .particionesReanudadas(particionesReanudadas())
+                    .generados(generados.get())
+                    .omitidos(omitidos.get())
+                    .fallidos(fallidos.get())
+                    .estadosPorSegundo(estadosPorSegundo())
+                    .particiones(particiones.stream().map(Particion::toDTO).toList())
+                    .build();
+        }
+    }
+
+    private static final class Particion {
+
+        private final int shard;
+        private final long desde;
+        private final long hasta;
+        private final AtomicLong generados = new AtomicLong();
+        private final AtomicLong omitidos = new AtomicLong();
+        private final AtomicLong fallidos = new AtomicLong();
+        private final List<String> errores = new CopyOnWriteArrayList<>();
+
+        private volatile String estado = "PENDIENTE";
+
+        private Particion(int shard, long desde, long hasta) {
+            this.shard = shard;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        private String clave() {
+            return desde + "-" + hasta;
+        }
+
+        private ParticionLoteDTO toDTO() {
+            return ParticionLoteDTO.builder()
+                    .clienteIdDesde(desde)
+                    .clienteIdHasta(hasta)
+                    .estado(estado)
+                    .generados(generados.get())
+                    .omitidos(omitidos.get())
+                    .fallidos(fallidos.get())
+                    .errores(List.copyOf(errores))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.banco.ms_banco.service.Impl;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.cache.CacheAcotada;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.dto.metricas.CacheMetricasDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.exception.ValidationException;
+import com.banco.ms_banco.model.SolicitudIdempotente;
+import com.banco.ms_banco.repository.SolicitudIdempotenteRepository;
+import com.banco.ms_banco.service.IdempotenciaService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    @Autowired
+    private SolicitudIdempotenteRepository solicitudIdempotenteRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Duration ventana;
+
+    private final CacheAcotada<String, RegistroIdempotente> cache;
+
+    public IdempotenciaServiceImpl(
+            @Value("${banco.idempotencia.ventana:PT24H}") Duration ventana,
+            @Value("${banco.idempotencia.cache.capacidad:10000}") int capacidadCache) {
+        this.ventana = ventana;
+        this.cache = new CacheAcotada<>("idempotencia", capacidadCache, ventana);
+    }
+
+    @Override
+    public Optional<MovimientoResponseDTO> buscarRespuesta(String clave, String numeroCuenta, BigDecimal valor) {
+        Optional<RegistroIdempotente> registro = cache.obtener(clave);
+        if (registro.isEmpty()) {
+            registro = solicitudIdempotenteRepository.findById(clave)
+                    .map(this::convertirARegistro)
+                    .filter(this::vigente);
+            registro.ifPresent(r -> cache.guardar(clave, r));
+        }
+
+        return registro
+                .filter(this::vigente)
+                .map(r -> {
+                    if (!r.numeroCuenta().equals(numeroCuenta) || r.valor().compareTo(valor) != 0) {
+                        throw new ValidationException(
+                            "La clave de idempotencia " + clave + " ya fue utilizada con una solicitud diferente");
+                    }
+                    logger.info("Reintento detectado para la clave de idempotencia: {}. Se retorna la respuesta original", clave);
+                    return r.respuesta();
+                });
+    }
+
+    @Override
+    public void registrarRespuesta(String clave, String numeroCuenta, BigDecimal valor, MovimientoResponseDTO respuesta) {
+        try {
+            SolicitudIdempotente solicitud = new SolicitudIdempotente(
+                clave, numeroCuenta, valor, objectMapper.writeValueAsString(respuesta));
+            solicitudIdempotenteRepository.save(solicitud);
+
+            RegistroIdempotente registro = new RegistroIdempotente(
+                numeroCuenta, valor, respuesta, solicitud.getFechaCreacion());
+
+            // Solo se publica en cache cuando el movimiento asociado queda confirmado
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        cache.guardar(clave, registro);
+                    }
+                });
+            } else {
+                cache.guardar(clave, registro);
+            }
+        } catch (JsonProcessingException e) {
+            logger.error("Error al serializar la respuesta para la clave de idempotencia: {}", clave, e);
+            throw new RuntimeException("Error al registrar la clave de idempotencia");
+        }
+    }
+
+    // Las claves se guardan en el shard de su cuenta: se purga cada shard en su propia transacción
+    @Override
+    @Scheduled(fixedDelayString = "${banco.idempotencia.limpieza-ms:600000}")
+    public int purgarSolicitudesVencidas() {
+        try {
+            cache.purgarExpiradas();
+            LocalDateTime limite = LocalDateTime.now().minus(ventana);
+            int eliminadas = 0;
+            for (int shard = 0; shard < enrutadorShards.cantidad(); shard++) {
+                eliminadas += enrutadorShards.enShard(shard, () -> transactionTemplate.execute(
+                        estado -> solicitudIdempotenteRepository.deleteByFechaCreacionBefore(limite)));
+            }
+            if (eliminadas > 0) {
+                logger.info("Se eliminaron {} claves de idempotencia vencidas", eliminadas);
+            }
+            return eliminadas;
+        } catch (Exception e) {
+            logger.error("Error al purgar claves de idempotencia vencidas", e);
+            return 0;
+        }
+    }
+
+    @Override
+    public CacheMetricasDTO obtenerMetricasCache() {
+        return cache.metricas();
+    }
+
+    private RegistroIdempotente convertirARegistro(SolicitudIdempotente solicitud) {
+        try {
+            return new RegistroIdempotente(
+                solicitud.getNumeroCuenta(),
+                solicitud.getValor(),
+                objectMapper.readValue(solicitud.getRespuesta(), MovimientoResponseDTO.class),
+                solicitud.getFechaCreacion());
+        } catch (JsonProcessingException e) {
+            logger.error("Respuesta almacenada inválida para la clave de idempotencia: {}", solicitud.getClave(), e);
+            throw new RuntimeException("Error al leer la clave de idempotencia");
+        }
+    }
+
+    private boolean vigente(RegistroIdempotente registro) {
+        return registro.fechaCreacion().isAfter(LocalDateTime.now().minus(ventana));
+    }
+
+    private record RegistroIdempotente(String numeroCuenta, BigDecimal valor,
+                                       MovimientoResponseDTO respuesta, LocalDateTime fechaCreacion) {}
+}
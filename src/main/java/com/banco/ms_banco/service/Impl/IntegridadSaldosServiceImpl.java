@@ -0,0 +1,341 @@
+package com.banco.ms_banco.service.Impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.dto.cuentas.CuentaSaldoProyeccion;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.dto.saldos.CuentaDescuadradaDTO;
+import com.banco.ms_banco.dto.saldos.VerificacionSaldosDTO;
+import com.banco.ms_banco.exception.ValidationException;
+import com.banco.ms_banco.ledger.ReproduccionCuenta;
+import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.custom.CustomMovimientoRepository;
+import com.banco.ms_banco.service.IntegridadSaldosService;
+import com.banco.ms_banco.service.SaldoMensualService;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Verifica la cadena de saldos de todas las cuentas reproduciendo sus movimientos. El rango de cuentaId se divide
+ * en un pool fork-join hasta tener tareas de {@code banco.integridad-saldos.cuentas-por-tarea} ids; cada tarea lee
+ * los saldos de sus cuentas y recorre sus movimientos con un único cursor ordenado por cuenta, dentro de una
+ * transacción de solo lectura. Con {@code reparar}, las cuentas con problemas pasan al final por
+ * {@link SaldoMensualService#repararCuenta}, que bloquea la cuenta y recalcula saldo actual y resúmenes mensuales.
+ */
+@Service
+public class IntegridadSaldosServiceImpl implements IntegridadSaldosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntegridadSaldosService.class);
+
+    private static final int MAXIMO_ERRORES = 20;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private CustomMovimientoRepository customMovimientoRepository;
+
+    @Autowired
+    private SaldoMensualService saldoMensualService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    // Cada tarea hoja ocupa una conexión: no debe superar el pool de conexiones
+    @Value("${banco.integridad-saldos.paralelismo:4}")
+    private int paralelismo;
+
+    @Value("${banco.integridad-saldos.cuentas-por-tarea:2000}")
+    private int cuentasPorTarea;
+
+    @Value("${banco.integridad-saldos.fetch-size:2000}")
+    private int fetchSize;
+
+    @Value("${banco.integridad-saldos.maximo-reportadas:100}")
+    private int maximoReportadas;
+
+    private TransactionTemplate lectura;
+
+    private final AtomicReference<EjecucionVerificacion> ejecucionActual = new AtomicReference<>();
+
+    @PostConstruct
+    public void iniciar() {
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    @Override
+    public VerificacionSaldosDTO iniciarVerificacion(boolean reparar) {
+        EjecucionVerificacion anterior = ejecucionActual.get();
+        if (anterior != null && anterior.enCurso()) {
+            throw new ValidationException("Ya hay una verificación de saldos en ejecución");
+        }
+        EjecucionVerificacion ejecucion = new EjecucionVerificacion(reparar, paralelismo,
+            enrutadorShards.enTodos(shard -> cuentaRepository.count()).stream().mapToLong(Long::longValue).sum());
+        if (!ejecucionActual.compareAndSet(anterior, ejecucion)) {
+            throw new ValidationException("Ya hay una verificación de saldos en ejecución");
+        }
+
+        logger.info("Iniciando verificación de saldos de {} cuentas (paralelismo {}, reparar: {})",
+                    ejecucion.cuentasTotales, ejecucion.paralelismo, reparar);
+        Thread.ofPlatform().name("integridad-saldos").start(() -> ejecutar(ejecucion));
+        return ejecucion.toDTO();
+    }
+
+    @Override
+    public VerificacionSaldosDTO consultarVerificacion() {
+        EjecucionVerificacion ejecucion = ejecucionActual.get();
+        if (ejecucion == null) {
+            throw new ValidationException("No se ha ejecutado ninguna verificación de saldos");
+        }
+        return ejecucion.toDTO();
+    }
+
+    private void ejecutar(EjecucionVerificacion ejecucion) {
+        ForkJoinPool pool = new ForkJoinPool(ejecucion.paralelismo);
+        try {
+            // Cada shard numera sus cuentas en su propio rango: se divide el rango de cada uno por separado
+            List<TareaRango> tareas = new ArrayList<>();
+            for (int shard = 0; shard < enrutadorShards.cantidad(); shard++) {
+                Optional<Long> minimo = enrutadorShards.enShard(shard, () -> cuentaRepository.findMinCuentaId());
+                Optional<Long> maximo = enrutadorShards.enShard(shard, () -> cuentaRepository.findMaxCuentaId());
+                if (minimo.isPresent() && maximo.isPresent()) {
+                    tareas.add(new TareaRango(ejecucion, shard, minimo.get(), maximo.get()));
+                }
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tareas)));
+            if (ejecucion.reparar) {
+                reparar(ejecucion);
+            }
+            ejecucion.estado = ejecucion.tareasFallidas.get() > 0 ? "COMPLETADO_CON_ERRORES" : "COMPLETADO";
+        } catch (Exception e) {
+            logger.error("Error en la verificación de saldos", e);
+            ejecucion.registrarError(String.valueOf(e.getMessage()));
+            ejecucion.estado = "FALLIDO";
+        } finally {
+            pool.shutdownNow();
+            ejecucion.fechaFinalizacion = LocalDateTime.now();
+            logger.info("Verificación de saldos {}: {} cuentas, {} movimientos, {} con cadena rota, {} descuadradas, "
+                        + "{} reparadas ({} movimientos/s)",
+                        ejecucion.estado, ejecucion.cuentasProcesadas.sum(), ejecucion.movimientosProcesados.sum(),
+                        ejecucion.cuentasConCadenaRota.get(), ejecucion.cuentasDescuadradas.get(),
+                        ejecucion.cuentasReparadas.get(), String.format("%.0f", ejecucion.movimientosPorSegundo()));
+        }
+    }
+
+    // Fuera del pool y de a una cuenta: cada reparación toma el bloqueo de la cuenta y compite con los movimientos
+    private void reparar(EjecucionVerificacion ejecucion) {
+        Long cuentaId;
+        while ((cuentaId = ejecucion.cuentasAReparar.poll()) != null) {
+            try {
+                saldoMensualService.repararCuenta(cuentaId);
+                ejecucion.cuentasReparadas.incrementAndGet();
+            } catch (Exception e) {
+                logger.error("Error al reparar los saldos de la cuenta ID: {}", cuentaId, e);
+                ejecucion.registrarError("Cuenta " + cuentaId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void verificarRango(EjecucionVerificacion ejecucion, int shard, long desde, long hasta) {
+        enrutadorShards.enShard(shard,
+            () -> lectura.executeWithoutResult(status -> verificarRangoEnShard(ejecucion, desde, hasta)));
+    }
+
+    private void verificarRangoEnShard(EjecucionVerificacion ejecucion, long desde, long hasta) {
+        List<CuentaSaldoProyeccion> cuentas = cuentaRepository.findSaldosEntre(desde, hasta);
+        if (cuentas.isEmpty()) {
+            return;
+        }
+        Iterator<CuentaSaldoProyeccion> pendientes = cuentas.iterator();
+        ReproduccionCuenta actual = new ReproduccionCuenta(pendientes.next());
+        long movimientos = 0;
+        try (Stream<MovimientoProyeccion> filas =
+                 customMovimientoRepository.streamProyeccionesByCuentaIdRange(desde, hasta, fetchSize)) {
+            Iterator<MovimientoProyeccion> iterador = filas.iterator();
+            while (iterador.hasNext()) {
+                MovimientoProyeccion movimiento = iterador.next();
+                // Las cuentas sin movimientos también se cierran: su saldo actual debe ser el de apertura
+                while (actual != null && actual.cuentaId() < movimiento.cuentaId()) {
+                    cerrar(ejecucion, actual);
+                    actual = pendientes.hasNext() ? new ReproduccionCuenta(pendientes.next()) : null;
+                }
+                // Una cuenta creada después de leer los saldos queda para la próxima verificación
+                if (actual != null && actual.cuentaId().equals(movimiento.cuentaId())) {
+                    actual.aplicar(movimiento);
+                }
+                if (++movimientos % 1000 == 0) {
+                    ejecucion.movimientosProcesados.add(1000);
+                }
+            }
+        }
+        ejecucion.movimientosProcesados.add(movimientos % 1000);
+        while (actual != null) {
+            cerrar(ejecucion, actual);
+            actual = pendientes.hasNext() ? new ReproduccionCuenta(pendientes.next()) : null;
+        }
+    }
+
+    private void cerrar(EjecucionVerificacion ejecucion, ReproduccionCuenta reproduccion) {
+        ReproduccionCuenta.Resultado resultado = reproduccion.terminar();
+        ejecucion.cuentasProcesadas.increment();
+        if (resultado.correcta()) {
+            return;
+        }
+        if (!resultado.cadenaValida()) {
+            ejecucion.cuentasConCadenaRota.incrementAndGet();
+        }
+        if (!resultado.saldoCuadra()) {
+            ejecucion.cuentasDescuadradas.incrementAndGet();
+        }
+        ejecucion.cuentasAReparar.add(resultado.cuentaId());
+        if (ejecucion.cuentas.size() < maximoReportadas) {
+            ejecucion.cuentas.add(toDTO(resultado));
+        }
+        logger.warn("Cuenta {} con saldos inconsistentes: {} rupturas (primera en el movimiento {}), apertura {}, "
+                    + "saldo reproducido {} y saldo actual {}",
+                    resultado.numeroCuenta(), resultado.rupturas(), resultado.primerMovimientoRoto(),
+                    resultado.aperturaValida() ? "válida" : "inválida",
+                    resultado.saldoReproducido(), resultado.saldoActual());
+    }
+
+    private CuentaDescuadradaDTO toDTO(ReproduccionCuenta.Resultado resultado) {
+        return CuentaDescuadradaDTO.builder()
+                .cuentaId(resultado.cuentaId())
+                .numeroCuenta(resultado.numeroCuenta())
+                .movimientos(resultado.movimientos())
+                .rupturas(resultado.rupturas())
+                .aperturaValida(resultado.aperturaValida())
+                .primerMovimientoRoto(resultado.primerMovimientoRoto())
+                .saldoEsperado(resultado.saldoEsperado())
+                .saldoRegistrado(resultado.saldoRegistrado())
+                .saldoReproducido(resultado.saldoReproducido())
+                .saldoActual(resultado.saldoActual())
+                .build();
+    }
+
+    private final class TareaRango extends RecursiveAction {
+
+        private final EjecucionVerificacion ejecucion;
+        private final int shard;
+        private final long desde;
+        private final long hasta;
+
+        private TareaRango(EjecucionVerificacion ejecucion, int shard, long desde, long hasta) {
+            this.ejecucion = ejecucion;
+            this.shard = shard;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde + 1 > cuentasPorTarea) {
+                long medio = desde + (hasta - desde) / 2;
+                invokeAll(new TareaRango(ejecucion, shard, desde, medio),
+                          new TareaRango(ejecucion, shard, medio + 1, hasta));
+                return;
+            }
+            try {
+                verificarRango(ejecucion, shard, desde, hasta);
+                ejecucion.tareasCompletadas.incrementAndGet();
+            } catch (Exception e) {
+                // Un rango fallido no detiene el resto; sus cuentas quedan sin verificar
+                ejecucion.tareasFallidas.incrementAndGet();
+                ejecucion.registrarError("Cuentas " + desde + "-" + hasta + ": " + e.getMessage());
+                logger.error("Verificación de saldos fallida para las cuentas {}-{}", desde, hasta, e);
+            }
+        }
+    }
+
+    private static final class EjecucionVerificacion {
+
+        private final boolean reparar;
+        private final int paralelismo;
+        private final long cuentasTotales;
+        private final LocalDateTime fechaInicio = LocalDateTime.now();
+        private final long inicioNanos = System.nanoTime();
+        private final LongAdder cuentasProcesadas = new LongAdder();
+        private final LongAdder movimientosProcesados = new LongAdder();
+        private final AtomicInteger tareasCompletadas = new AtomicInteger();
+        private final AtomicInteger tareasFallidas = new AtomicInteger();
+        private final AtomicLong cuentasConCadenaRota = new AtomicLong();
+        private final AtomicLong cuentasDescuadradas = new AtomicLong();
+        private final AtomicLong cuentasReparadas = new AtomicLong();
+        private final Queue<Long> cuentasAReparar = new ConcurrentLinkedQueue<>();
+        private final List<CuentaDescuadradaDTO> cuentas = new CopyOnWriteArrayList<>();
+        private final List<String> errores = new CopyOnWriteArrayList<>();
+
+        private volatile String estado = "EN_EJECUCION";
+        private volatile LocalDateTime fechaFinalizacion;
+
+        private EjecucionVerificacion(boolean reparar, int paralelismo, long cuentasTotales) {
+            this.reparar = reparar;
+            this.paralelismo = paralelismo;
+            this.cuentasTotales = cuentasTotales;
+        }
+
+        private boolean enCurso() {
+            return "EN_EJECUCION".equals(estado);
+        }
+
+        private void registrarError(String error) {
+            if (errores.size() < MAXIMO_ERRORES) {
+                errores.add(error);
+            }
+        }
+
+        private double movimientosPorSegundo() {
+            double segundos = (System.nanoTime() - inicioNanos) / 1_000_000_000.0;
+            return segundos <= 0 ? 0.0 : movimientosProcesados.sum() / segundos;
+        }
+
+        private VerificacionSaldosDTO toDTO() {
+            return VerificacionSaldosDTO.builder()
+                    .estado(estado)
+                    .reparar(reparar)
+                    .paralelismo(paralelismo)
+                    .fechaInicio(fechaInicio)
+                    .fechaFinalizacion(fechaFinalizacion)
+                    .cuentasTotales(cuentasTotales)
+                    .cuentasProcesadas(cuentasProcesadas.sum())
+                    .movimientosProcesados(movimientosProcesados.sum())
+                    .movimientosPorSegundo(movimientosPorSegundo())
+                    .tareasCompletadas(tareasCompletadas.get())
+                    .tareasFallidas(tareasFallidas.get())
+                    .cuentasConCadenaRota(cuentasConCadenaRota.get())
+                    .cuentasDescuadradas(cuentasDescuadradas.get())
+                    .cuentasReparadas(cuentasReparadas.get())
+                    .cuentas(List.copyOf(cuentas))
+                    .errores(List.copyOf(errores))
+                    .build();
+        }
+    }
+}
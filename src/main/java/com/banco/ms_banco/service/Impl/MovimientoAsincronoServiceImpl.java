@@ -0,0 +1,209 @@
+package com.banco.ms_banco.service.Impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.banco.ms_banco.cache.CacheAcotada;
+import com.banco.ms_banco.dto.metricas.ColaMetricasDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.dto.movimientos.TicketMovimientoDTO;
+import com.banco.ms_banco.exception.ColaLlenaException;
+import com.banco.ms_banco.exception.TicketNotFoundException;
+import com.banco.ms_banco.service.MovimientoAsincronoService;
+import com.banco.ms_banco.service.MovimientoService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class MovimientoAsincronoServiceImpl implements MovimientoAsincronoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovimientoAsincronoService.class);
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    private final int capacidadCola;
+    private final int cantidadWorkers;
+    private final BlockingQueue<TicketMovimiento> cola;
+
+    // Tickets PENDIENTE o PROCESANDO: no se desalojan, y su cantidad la limitan la cola y los workers
+    private final Map<String, TicketMovimiento> ticketsEnCurso = new ConcurrentHashMap<>();
+
+    // Tickets finalizados, para consultar su resultado hasta que expiren o se desalojen
+    private final CacheAcotada<String, TicketMovimiento> tickets;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final AtomicLong aceptados = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong completados = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong latenciaTotalNanos = new AtomicLong();
+    private final AtomicLong latenciaMaximaNanos = new AtomicLong();
+
+    public MovimientoAsincronoServiceImpl(
+            @Value("${banco.movimientos.async.capacidad-cola:1000}") int capacidadCola,
+            @Value("${banco.movimientos.async.workers:64}") int cantidadWorkers,
+            @Value("${banco.movimientos.async.tickets.capacidad:100000}") int capacidadTickets,
+            @Value("${banco.movimientos.async.tickets.ttl:PT1H}") Duration ttlTickets) {
+        this.capacidadCola = capacidadCola;
+        this.cantidadWorkers = cantidadWorkers;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.tickets = new CacheAcotada<>("tickets-movimientos", capacidadTickets, ttlTickets);
+    }
+
+    @PostConstruct
+    public void iniciarWorkers() {
+        for (int i = 0; i < cantidadWorkers; i++) {
+            workers.add(Thread.ofVirtual().name("movimientos-async-" + i).start(this::procesarCola));
+        }
+        logger.info("Cola asíncrona de movimientos iniciada con {} workers virtuales y capacidad {}", 
+                    cantidadWorkers, capacidadCola);
+    }
+
+    @PreDestroy
+    public void detenerWorkers() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    @Override
+    public TicketMovimientoDTO encolarMovimiento(String numeroCuenta, MovimientoRequestDTO movimientoRequest,
+                                                 String claveIdempotencia) {
+        // Una solicitud inválida se rechaza ahora y no ocupa lugar en la cola
+        movimientoService.validarSolicitud(numeroCuenta, movimientoRequest, claveIdempotencia);
+
+        TicketMovimiento ticket = new TicketMovimiento(
+            UUID.randomUUID().toString(), numeroCuenta, movimientoRequest, claveIdempotencia);
+        ticketsEnCurso.put(ticket.ticketId, ticket);
+
+        if (!cola.offer(ticket)) {
+            ticketsEnCurso.remove(ticket.ticketId);
+            rechazados.incrementAndGet();
+            logger.warn("Cola asíncrona de movimientos llena. Se rechaza movimiento para cuenta: {}", numeroCuenta);
+            throw new ColaLlenaException("movimientos", capacidadCola);
+        }
+
+        aceptados.incrementAndGet();
+        logger.info("Movimiento encolado con ticket {} para cuenta: {}", ticket.ticketId, numeroCuenta);
+        return ticket.toDTO();
+    }
+
+    @Override
+    public TicketMovimientoDTO consultarTicket(String ticketId) {
+        return Optional.ofNullable(ticketsEnCurso.get(ticketId))
+                .or(() -> tickets.obtener(ticketId))
+                .map(TicketMovimiento::toDTO)
+                .orElseThrow(() -> new TicketNotFoundException(ticketId));
+    }
+
+    @Override
+    public ColaMetricasDTO obtenerMetricas() {
+        long finalizados = completados.get() + fallidos.get();
+        return ColaMetricasDTO.builder()
+                .nombre("movimientos-async")
+                .enCola(cola.size())
+                .capacidad(capacidadCola)
+                .workers(cantidadWorkers)
+                .aceptados(aceptados.get())
+                .rechazados(rechazados.get())
+                .completados(completados.get())
+                .fallidos(fallidos.get())
+                .esperaPromedioMs(finalizados == 0 ? 0.0 : esperaTotalNanos.get() / (double) finalizados / 1_000_000.0)
+                .procesamientoPromedioMs(finalizados == 0 ? 0.0
+                        : (latenciaTotalNanos.get() - esperaTotalNanos.get()) / (double) finalizados / 1_000_000.0)
+                .latenciaPromedioMs(finalizados == 0 ? 0.0 : latenciaTotalNanos.get() / (double) finalizados / 1_000_000.0)
+                .latenciaMaximaMs(latenciaMaximaNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    private void procesarCola() {
+        while (!Thread.currentThread().isInterrupted()) {
+            TicketMovimiento ticket;
+            try {
+                ticket = cola.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            procesarTicket(ticket);
+        }
+    }
+
+    private void procesarTicket(TicketMovimiento ticket) {
+        esperaTotalNanos.addAndGet(System.nanoTime() - ticket.recibidoNanos);
+        ticket.estado = "PROCESANDO";
+        try {
+            ticket.movimiento = movimientoService.registrarMovimiento(
+                ticket.numeroCuenta, ticket.movimientoRequest, ticket.claveIdempotencia);
+            ticket.estado = "COMPLETADO";
+            completados.incrementAndGet();
+        } catch (Exception e) {
+            ticket.error = e.getMessage();
+            ticket.estado = "FALLIDO";
+            fallidos.incrementAndGet();
+            logger.warn("Movimiento asíncrono {} fallido para cuenta {}: {}", 
+                        ticket.ticketId, ticket.numeroCuenta, e.getMessage());
+        } finally {
+            ticket.fechaFinalizacion = LocalDateTime.now();
+            // Se guarda en la cache antes de sacarlo de los en curso para que siempre pueda consultarse
+            tickets.guardar(ticket.ticketId, ticket);
+            ticketsEnCurso.remove(ticket.ticketId);
+            long latencia = System.nanoTime() - ticket.recibidoNanos;
+            latenciaTotalNanos.addAndGet(latencia);
+            latenciaMaximaNanos.accumulateAndGet(latencia, Math::max);
+        }
+    }
+
+    private static final class TicketMovimiento {
+
+        private final String ticketId;
+        private final String numeroCuenta;
+        private final MovimientoRequestDTO movimientoRequest;
+        private final String claveIdempotencia;
+        private final LocalDateTime fechaRecepcion = LocalDateTime.now();
+        private final long recibidoNanos = System.nanoTime();
+
+        private volatile String estado = "PENDIENTE";
+        private volatile LocalDateTime fechaFinalizacion;
+        private volatile MovimientoResponseDTO movimiento;
+        private volatile String error;
+
+        private TicketMovimiento(String ticketId, String numeroCuenta, MovimientoRequestDTO movimientoRequest,
+                                 String claveIdempotencia) {
+            this.ticketId = ticketId;
+            this.numeroCuenta = numeroCuenta;
+            this.movimientoRequest = movimientoRequest;
+            this.claveIdempotencia = claveIdempotencia;
+        }
+
+        private TicketMovimientoDTO toDTO() {
+            return TicketMovimientoDTO.builder()
+                    .ticketId(ticketId)
+                    .estado(estado)
+                    .numeroCuenta(numeroCuenta)
+                    .valor(movimientoRequest.getValor())
+                    .fechaRecepcion(fechaRecepcion)
+                    .fechaFinalizacion(fechaFinalizacion)
+                    .movimiento(movimiento)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -1,27 +1,64 @@
 package com.banco.ms_banco.service.Impl;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.archive.FusionMovimientos;
+import com.banco.ms_banco.archive.HorizonteArchivo;
+import com.banco.ms_banco.cache.CuentaCache;
+import com.banco.ms_banco.cache.CuentaCache.DatosCuenta;
+import com.banco.ms_banco.cache.SaldoCache;
+import com.banco.ms_banco.concurrency.SecuenciadorCuentas;
+import com.banco.ms_banco.datasource.CoordinadorShards;
+import com.banco.ms_banco.datasource.DirectorioCuentas;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteItemDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteRequestDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteResponseDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteResultadoDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
 import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
 import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.dto.movimientos.PaginaMovimientosDTO;
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+import com.banco.ms_banco.exception.ClaveIdempotenciaEnConflictoException;
+import com.banco.ms_banco.exception.ColaLlenaException;
 import com.banco.ms_banco.exception.CuentaInactivaException;
 import com.banco.ms_banco.exception.CuentaNotFoundException;
 import com.banco.ms_banco.exception.MovimientoInvalidoException;
 import com.banco.ms_banco.exception.SaldoInsuficienteException;
+import com.banco.ms_banco.exception.ValidationException;
 import com.banco.ms_banco.mapper.MovimientoMapper;
 import com.banco.ms_banco.model.Cuenta;
 import com.banco.ms_banco.model.Movimiento;
 import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.MovimientoArchivadoRepository;
 import com.banco.ms_banco.repository.MovimientoRepository;
+import com.banco.ms_banco.service.IdempotenciaService;
 import com.banco.ms_banco.service.MovimientoService;
 
 @Service
@@ -35,45 +72,160 @@ public class MovimientoServiceImpl implements MovimientoService {
     @Autowired
     private CuentaRepository cuentaRepository;
 
+    @Autowired
+    private MovimientoArchivadoRepository movimientoArchivadoRepository;
+
+    @Autowired
+    private HorizonteArchivo horizonteArchivo;
+
     @Autowired
     private MovimientoMapper movimientoMapper;
 
+    @Autowired
+    private CuentaCache cuentaCache;
+
+    @Autowired
+    private SaldoCache saldoCache;
+
+    @Autowired
+    private SecuenciadorCuentas secuenciadorCuentas;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Autowired
+    private DirectorioCuentas directorioCuentas;
+
+    @Autowired
+    private CoordinadorShards coordinadorShards;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${banco.movimientos.lote.maximo:1000}")
+    private int tamanoMaximoLote = 1000;
+
+    @Value("${banco.movimientos.pagina.tamano-defecto:50}")
+    private int tamanoPaginaDefecto = 50;
+
+    @Value("${banco.movimientos.pagina.tamano-maximo:500}")
+    private int tamanoPaginaMaximo = 500;
+
     @Override
     public MovimientoResponseDTO registrarMovimiento(String numeroCuenta, MovimientoRequestDTO movimientoRequest) {
+        return registrarMovimiento(numeroCuenta, movimientoRequest, null);
+    }
+
+    @Override
+    public MovimientoResponseDTO registrarMovimiento(String numeroCuenta, MovimientoRequestDTO movimientoRequest,
+                                                     String claveIdempotencia) {
         try {
             logger.info("Registrando movimiento para cuenta: {} - Valor recibido: {}", 
                     numeroCuenta, movimientoRequest.getValor());
 
             validarMovimiento(movimientoRequest);
 
-            Cuenta cuenta = obtenerYValidarCuenta(numeroCuenta);
+            String clave = normalizarClaveIdempotencia(claveIdempotencia);
+            int shard = directorioCuentas.shardDe(numeroCuenta);
+            return enrutadorShards.enShard(shard, () -> {
+                if (clave != null) {
+                    Optional<MovimientoResponseDTO> respuestaPrevia = idempotenciaService
+                            .buscarRespuesta(clave, numeroCuenta, movimientoRequest.getValor());
+                    if (respuestaPrevia.isPresent()) {
+                        return respuestaPrevia.get();
+                    }
+                }
+
+                // La transacción corre en el hilo del secuenciador: lleva el shard y el cliente de lectura propia
+                try {
+                    return secuenciadorCuentas.ejecutar(numeroCuenta, enrutadorShards.propagar(shard,
+                            () -> transactionTemplate.execute(estado -> procesarMovimiento(numeroCuenta, movimientoRequest, clave))));
+                } catch (DataIntegrityViolationException e) {
+                    if (clave == null) {
+                        throw e;
+                    }
+                    // Otra solicitud con la misma clave, de otra cuenta o de otra instancia, confirmó primero: este
+                    // movimiento se revirtió junto con la clave y se responde como un reintento de aquella
+                    logger.info("Clave de idempotencia {} registrada por una solicitud concurrente", clave);
+                    return idempotenciaService.buscarRespuesta(clave, numeroCuenta, movimientoRequest.getValor())
+                            .orElseThrow(() -> new ClaveIdempotenciaEnConflictoException(clave));
+                }
+            });
+
+        } catch (CuentaNotFoundException | SaldoInsuficienteException | CuentaInactivaException
+                | MovimientoInvalidoException | ValidationException | ClaveIdempotenciaEnConflictoException
+                | ColaLlenaException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al registrar movimiento para cuenta ID: {}", numeroCuenta, e);
+            throw new RuntimeException("Error al registrar el movimiento: " + e.getMessage());
+        }
+    }
 
-            String tipoMovimiento = determinarTipoMovimiento(movimientoRequest.getValor());
-            
-            BigDecimal valorAbsoluto = movimientoRequest.getValor().abs();
+    /**
+     * Un fallo inesperado revierte el lote entero. Si el lote toca varios shards, cada uno procesa su parte en su
+     * transacción y {@link CoordinadorShards} las confirma o revierte juntas.
+     */
+    @Override
+    public MovimientoLoteResponseDTO registrarMovimientosLote(MovimientoLoteRequestDTO loteRequest) {
+        try {
+            List<MovimientoLoteItemDTO> items = loteRequest.getMovimientos();
+            logger.info("Registrando lote de {} movimientos", items.size());
 
-            BigDecimal saldoActual = calcularSaldoDisponible(cuenta.getCuentaId());
-            
-            if ("RETIRO".equals(tipoMovimiento)) {
-                validarRetiro(saldoActual, valorAbsoluto);
+            if (items.size() > tamanoMaximoLote) {
+                throw new ValidationException("El lote no puede superar " + tamanoMaximoLote + " movimientos");
             }
 
-            BigDecimal nuevoSaldo = calcularNuevoSaldo(tipoMovimiento, saldoActual, valorAbsoluto);
+            MovimientoLoteResultadoDTO[] resultados = new MovimientoLoteResultadoDTO[items.size()];
+            Map<Integer, List<Integer>> indicesPorShard = new TreeMap<>();
+            for (int i = 0; i < items.size(); i++) {
+                MovimientoLoteItemDTO item = items.get(i);
+                try {
+                    if (item.getNumeroCuenta() == null || item.getNumeroCuenta().trim().isEmpty()) {
+                        throw new MovimientoInvalidoException("El número de cuenta es obligatorio");
+                    }
+                    validarMovimiento(new MovimientoRequestDTO(item.getValor()));
+                    indicesPorShard.computeIfAbsent(directorioCuentas.shardDe(item.getNumeroCuenta()), shard -> new ArrayList<>())
+                                   .add(i);
+                } catch (MovimientoInvalidoException e) {
+                    resultados[i] = crearResultadoFallido(i, item.getNumeroCuenta(), e.getMessage());
+                }
+            }
 
-            Movimiento movimiento = crearMovimiento(tipoMovimiento, valorAbsoluto, nuevoSaldo, cuenta);
-            Movimiento movimientoGuardado = movimientoRepository.save(movimiento);
+            int exitosos = 0;
+            if (indicesPorShard.size() == 1) {
+                Map.Entry<Integer, List<Integer>> entrada = indicesPorShard.entrySet().iterator().next();
+                exitosos = enrutadorShards.enShard(entrada.getKey(), () -> transactionTemplate.execute(
+                        estado -> procesarLoteShard(items, entrada.getValue(), resultados)));
+            } else if (indicesPorShard.size() > 1) {
+                // En orden de shard: los bloqueos de cuentas siguen el orden global de cuentaId
+                exitosos = coordinadorShards.ejecutar(pasos -> indicesPorShard.entrySet().stream()
+                        .mapToInt(entrada -> pasos.en(entrada.getKey(),
+                                () -> procesarLoteShard(items, entrada.getValue(), resultados)))
+                        .sum());
+            }
 
-            logger.info("Movimiento {} registrado exitosamente para cuenta: {}. Valor: {}, Nuevo saldo: {}", 
-                        tipoMovimiento, numeroCuenta, valorAbsoluto, nuevoSaldo);
+            logger.info("Lote procesado: {} movimientos registrados, {} rechazados",
+                        exitosos, items.size() - exitosos);
 
-            return crearResponseDTO(movimientoGuardado, movimientoRequest.getValor());
+            return MovimientoLoteResponseDTO.builder()
+                    .total(items.size())
+                    .exitosos(exitosos)
+                    .fallidos(items.size() - exitosos)
+                    .resultados(Arrays.asList(resultados))
+                    .build();
 
-        } catch (CuentaNotFoundException | SaldoInsuficienteException | 
-                CuentaInactivaException | MovimientoInvalidoException e) {
+        } catch (ValidationException e) {
             throw e;
         } catch (Exception e) {
-            logger.error("Error al registrar movimiento para cuenta ID: {}", numeroCuenta, e);
-            throw new RuntimeException("Error al registrar el movimiento: " + e.getMessage());
+            logger.error("Error al registrar lote de movimientos", e);
+            throw new RuntimeException("Error al registrar el lote de movimientos: " + e.getMessage());
         }
     }
 
@@ -82,12 +234,14 @@ public class MovimientoServiceImpl implements MovimientoService {
     public List<MovimientoResponseDTO> obtenerMovimientosPorCuenta(Long cuentaId) {
         try {
             logger.info("Obteniendo movimientos para cuenta ID: {}", cuentaId);
-            
-            if (!cuentaRepository.existsById(cuentaId)) {
-                throw new CuentaNotFoundException(cuentaId);
-            }
-            
-            return movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaId)
+
+            return enrutadorShards.enShard(enrutadorShards.shardDeCuenta(cuentaId), () -> {
+                        if (!cuentaRepository.existsById(cuentaId)) {
+                            throw new CuentaNotFoundException(cuentaId);
+                        }
+                        return conArchivo(movimientoRepository.findProyeccionesPorCuenta(cuentaId),
+                                          () -> movimientoArchivadoRepository.findProyeccionesPorCuenta(cuentaId));
+                    })
                     .stream()
                     .map(movimientoMapper::toResponseDTO)
                     .collect(Collectors.toList());
@@ -104,7 +258,9 @@ public class MovimientoServiceImpl implements MovimientoService {
     public List<MovimientoResponseDTO> obtenerMovimientosPorCliente(Long clienteId) {
         try {
             logger.info("Obteniendo movimientos para cliente ID: {}", clienteId);
-            return movimientoRepository.findByCuentaClienteId(clienteId)
+            return enrutadorShards.enShard(enrutadorShards.shardDeCliente(clienteId),
+                        () -> conArchivo(movimientoRepository.findProyeccionesPorCliente(clienteId),
+                                         () -> movimientoArchivadoRepository.findProyeccionesPorCliente(clienteId)))
                     .stream()
                     .map(movimientoMapper::toResponseDTO)
                     .collect(Collectors.toList());
@@ -114,14 +270,101 @@ public class MovimientoServiceImpl implements MovimientoService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaMovimientosDTO obtenerPaginaMovimientosPorCuenta(Long cuentaId, String cursor, Integer tamano) {
+        try {
+            logger.info("Obteniendo página de movimientos para cuenta ID: {}", cuentaId);
+
+            int tamanoPagina = resolverTamanoPagina(tamano);
+            CursorMovimiento posicion = decodificarCursor(cursor);
+            PageRequest limite = PageRequest.of(0, tamanoPagina + 1);
+            return enrutadorShards.enShard(enrutadorShards.shardDeCuenta(cuentaId), () -> {
+                if (!cuentaRepository.existsById(cuentaId)) {
+                    throw new CuentaNotFoundException(cuentaId);
+                }
+
+                List<MovimientoProyeccion> filas = posicion == null
+                        ? movimientoRepository.findPaginaPorCuenta(cuentaId, limite)
+                        : movimientoRepository.findPaginaPorCuentaDespuesDe(
+                            cuentaId, posicion.fecha(), posicion.movimientoId(), limite);
+                filas = completarConArchivo(filas, limite.getPageSize(), () -> posicion == null
+                        ? movimientoArchivadoRepository.findPaginaPorCuenta(cuentaId, limite)
+                        : movimientoArchivadoRepository.findPaginaPorCuentaDespuesDe(
+                            cuentaId, posicion.fecha(), posicion.movimientoId(), limite));
+                return construirPagina(filas, tamanoPagina);
+            });
+        } catch (CuentaNotFoundException | ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al obtener página de movimientos para cuenta ID: {}", cuentaId, e);
+            throw new RuntimeException("Error al obtener los movimientos de la cuenta");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaMovimientosDTO obtenerPaginaMovimientosPorCliente(Long clienteId, String cursor, Integer tamano) {
+        try {
+            logger.info("Obteniendo página de movimientos para cliente ID: {}", clienteId);
+
+            int tamanoPagina = resolverTamanoPagina(tamano);
+            CursorMovimiento posicion = decodificarCursor(cursor);
+            PageRequest limite = PageRequest.of(0, tamanoPagina + 1);
+            return enrutadorShards.enShard(enrutadorShards.shardDeCliente(clienteId), () -> {
+                List<MovimientoProyeccion> filas = posicion == null
+                        ? movimientoRepository.findPaginaPorCliente(clienteId, limite)
+                        : movimientoRepository.findPaginaPorClienteDespuesDe(
+                            clienteId, posicion.fecha(), posicion.movimientoId(), limite);
+                filas = completarConArchivo(filas, limite.getPageSize(), () -> posicion == null
+                        ? movimientoArchivadoRepository.findPaginaPorCliente(clienteId, limite)
+                        : movimientoArchivadoRepository.findPaginaPorClienteDespuesDe(
+                            clienteId, posicion.fecha(), posicion.movimientoId(), limite));
+                return construirPagina(filas, tamanoPagina);
+            });
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al obtener página de movimientos para cliente ID: {}", clienteId, e);
+            throw new RuntimeException("Error al obtener los movimientos del cliente");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaMovimientosDTO obtenerPaginaMovimientos(String cursor, Integer tamano) {
+        try {
+            logger.info("Obteniendo página de movimientos");
+
+            int tamanoPagina = resolverTamanoPagina(tamano);
+            CursorMovimiento posicion = decodificarCursor(cursor);
+            PageRequest limite = PageRequest.of(0, tamanoPagina + 1);
+            // Cada shard devuelve su mejor página; la mezcla conserva el orden y el mismo cursor sirve para todos
+            List<List<MovimientoProyeccion>> porShard = enrutadorShards.enTodos(shard -> {
+                List<MovimientoProyeccion> filas = posicion == null
+                        ? movimientoRepository.findPagina(limite)
+                        : movimientoRepository.findPaginaDespuesDe(posicion.fecha(), posicion.movimientoId(), limite);
+                return completarConArchivo(filas, limite.getPageSize(), () -> posicion == null
+                        ? movimientoArchivadoRepository.findPagina(limite)
+                        : movimientoArchivadoRepository.findPaginaDespuesDe(posicion.fecha(), posicion.movimientoId(), limite));
+            });
+            return construirPagina(fusionarShards(porShard, limite.getPageSize()), tamanoPagina);
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al obtener página de movimientos", e);
+            throw new RuntimeException("Error al obtener los movimientos");
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public MovimientoResponseDTO obtenerMovimientoPorId(Long movimientoId) {
         try {
             logger.info("Obteniendo movimiento con ID: {}", movimientoId);
-            Movimiento movimiento = movimientoRepository.findById(movimientoId)
+            return enrutadorShards.enShard(enrutadorShards.shardDeMovimiento(movimientoId),
+                                           () -> buscarMovimiento(movimientoId))
                     .orElseThrow(() -> new RuntimeException("Movimiento no encontrado con ID: " + movimientoId));
-            return movimientoMapper.toResponseDTO(movimiento);
         } catch (Exception e) {
             logger.error("Error al obtener movimiento por ID: {}", movimientoId, e);
             throw new RuntimeException("Error al obtener el movimiento");
@@ -133,7 +376,10 @@ public class MovimientoServiceImpl implements MovimientoService {
     public List<MovimientoResponseDTO> obtenerTodosLosMovimientos() {
         try {
             logger.info("Obteniendo todos los movimientos");
-            return movimientoRepository.findAll()
+            List<List<MovimientoProyeccion>> porShard = enrutadorShards.enTodos(
+                shard -> conArchivo(movimientoRepository.findProyecciones(),
+                                    () -> movimientoArchivadoRepository.findProyecciones()));
+            return fusionarShards(porShard, Integer.MAX_VALUE)
                     .stream()
                     .map(movimientoMapper::toResponseDTO)
                     .collect(Collectors.toList());
@@ -146,12 +392,16 @@ public class MovimientoServiceImpl implements MovimientoService {
     @Override
     public BigDecimal calcularSaldoDisponible(Long cuentaId) {
         try {
-            Optional<Movimiento> ultimoMovimiento = this.movimientoRepository
-                    .findTopByCuentaCuentaIdOrderByFechaDesc(cuentaId);
-            
-            return ultimoMovimiento
-                    .map(Movimiento::getSaldo)
-                    .orElse(BigDecimal.ZERO);
+            if (!saldoCache.estaHabilitada()) {
+                return enrutadorShards.enShard(enrutadorShards.shardDeCuenta(cuentaId), () -> leerSaldo(cuentaId));
+            }
+            Optional<BigDecimal> saldoCacheado = saldoCache.obtener(cuentaId);
+            if (saldoCacheado.isPresent()) {
+                return saldoCacheado.get();
+            }
+            BigDecimal saldo = enrutadorShards.enShard(enrutadorShards.shardDeCuenta(cuentaId), () -> leerSaldo(cuentaId));
+            saldoCache.guardarLectura(cuentaId, saldo);
+            return saldo;
         } catch (Exception e) {
             logger.error("Error al calcular saldo para cuenta ID: {}", cuentaId, e);
             throw new RuntimeException("Error al calcular el saldo disponible");
@@ -167,7 +417,13 @@ public class MovimientoServiceImpl implements MovimientoService {
                 cuenta.getSaldoInicial(),
                 cuenta
             );
-            movimientoRepository.save(movimientoInicial);
+            // Los oyentes del evento escriben en la misma base que el movimiento
+            enrutadorShards.enShard(enrutadorShards.shardDeCuenta(cuenta.getCuentaId()), () -> {
+                Movimiento movimientoGuardado = movimientoRepository.save(movimientoInicial);
+                eventPublisher.publishEvent(
+                    MovimientoRegistradoEvent.de(movimientoGuardado, cuenta.getCuentaId(), cuenta.getNumeroCuenta(),
+                                                 cuenta.getClienteId()));
+            });
             logger.info("Movimiento inicial registrado para cuenta: {}", cuenta.getNumeroCuenta());
         } catch (Exception e) {
             logger.error("Error al crear movimiento inicial para cuenta: {}", cuenta.getNumeroCuenta(), e);
@@ -175,6 +431,226 @@ public class MovimientoServiceImpl implements MovimientoService {
         }
     }
 
+    private MovimientoResponseDTO procesarMovimiento(String numeroCuenta, MovimientoRequestDTO movimientoRequest,
+                                                     String claveIdempotencia) {
+        if (claveIdempotencia != null) {
+            // Un reintento de la misma cuenta pudo confirmarse mientras esta solicitud esperaba su turno en el shard
+            Optional<MovimientoResponseDTO> respuestaPrevia = idempotenciaService
+                    .buscarRespuesta(claveIdempotencia, numeroCuenta, movimientoRequest.getValor());
+            if (respuestaPrevia.isPresent()) {
+                return respuestaPrevia.get();
+            }
+        }
+
+        DatosCuenta datosCuenta = obtenerYValidarCuenta(numeroCuenta);
+
+        String tipoMovimiento = determinarTipoMovimiento(movimientoRequest.getValor());
+        
+        BigDecimal valorAbsoluto = movimientoRequest.getValor().abs();
+
+        BigDecimal nuevoSaldo = aplicarMovimientoEnSaldo(datosCuenta.cuentaId(), tipoMovimiento, valorAbsoluto);
+
+        // Referencia sin consulta: el movimiento solo necesita la clave foránea de la cuenta
+        Cuenta cuenta = cuentaRepository.getReferenceById(datosCuenta.cuentaId());
+        Movimiento movimiento = crearMovimiento(tipoMovimiento, valorAbsoluto, nuevoSaldo, cuenta);
+        Movimiento movimientoGuardado = movimientoRepository.save(movimiento);
+        eventPublisher.publishEvent(
+            MovimientoRegistradoEvent.de(movimientoGuardado, datosCuenta.cuentaId(), numeroCuenta, datosCuenta.clienteId()));
+
+        logger.info("Movimiento {} registrado exitosamente para cuenta: {}. Valor: {}, Nuevo saldo: {}", 
+                    tipoMovimiento, numeroCuenta, valorAbsoluto, nuevoSaldo);
+
+        MovimientoResponseDTO respuesta = crearResponseDTO(movimientoGuardado, movimientoRequest.getValor(), numeroCuenta);
+
+        if (claveIdempotencia != null) {
+            idempotenciaService.registrarRespuesta(
+                claveIdempotencia, numeroCuenta, movimientoRequest.getValor(), respuesta);
+        }
+
+        return respuesta;
+    }
+
+    private int procesarLoteShard(List<MovimientoLoteItemDTO> items, List<Integer> indices,
+                                  MovimientoLoteResultadoDTO[] resultados) {
+        Set<String> numerosCuenta = new LinkedHashSet<>();
+        for (int indice : indices) {
+            numerosCuenta.add(items.get(indice).getNumeroCuenta());
+        }
+        Map<String, Cuenta> cuentasPorNumero = bloquearCuentasLote(numerosCuenta);
+
+        List<Movimiento> movimientos = new ArrayList<>();
+        List<Integer> indicesMovimientos = new ArrayList<>();
+        for (int i : indices) {
+            MovimientoLoteItemDTO item = items.get(i);
+            try {
+                Cuenta cuenta = cuentasPorNumero.get(item.getNumeroCuenta());
+                if (cuenta == null) {
+                    throw new CuentaNotFoundException(item.getNumeroCuenta(), true);
+                }
+                if (!"ACTIVA".equals(cuenta.getEstado())) {
+                    throw new CuentaInactivaException(cuenta.getNumeroCuenta(), cuenta.getEstado());
+                }
+
+                String tipoMovimiento = determinarTipoMovimiento(item.getValor());
+                BigDecimal valorAbsoluto = item.getValor().abs();
+                BigDecimal saldoActual = cuenta.getSaldoActual();
+                BigDecimal nuevoSaldo = "RETIRO".equals(tipoMovimiento)
+                        ? saldoActual.subtract(valorAbsoluto)
+                        : saldoActual.add(valorAbsoluto);
+                if (nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
+                    throw new SaldoInsuficienteException(saldoActual, valorAbsoluto);
+                }
+
+                // La cuenta está bloqueada y gestionada: el saldo final se escribe en un único UPDATE al hacer flush
+                cuenta.setSaldoActual(nuevoSaldo);
+                movimientos.add(crearMovimiento(tipoMovimiento, valorAbsoluto, nuevoSaldo, cuenta));
+                indicesMovimientos.add(i);
+            } catch (CuentaNotFoundException | CuentaInactivaException | SaldoInsuficienteException e) {
+                resultados[i] = crearResultadoFallido(i, item.getNumeroCuenta(), e.getMessage());
+            }
+        }
+
+        List<Movimiento> movimientosGuardados = movimientoRepository.saveAll(movimientos);
+        for (Movimiento movimientoGuardado : movimientosGuardados) {
+            Cuenta cuenta = movimientoGuardado.getCuenta();
+            eventPublisher.publishEvent(
+                MovimientoRegistradoEvent.de(movimientoGuardado, cuenta.getCuentaId(), cuenta.getNumeroCuenta(),
+                                             cuenta.getClienteId()));
+        }
+        for (int j = 0; j < movimientosGuardados.size(); j++) {
+            int indice = indicesMovimientos.get(j);
+            MovimientoLoteItemDTO item = items.get(indice);
+            resultados[indice] = MovimientoLoteResultadoDTO.builder()
+                    .indice(indice)
+                    .numeroCuenta(item.getNumeroCuenta())
+                    .exitoso(true)
+                    .movimiento(crearResponseDTO(movimientosGuardados.get(j), item.getValor(), item.getNumeroCuenta()))
+                    .build();
+        }
+        return movimientosGuardados.size();
+    }
+
+    private Map<String, Cuenta> bloquearCuentasLote(Set<String> numerosCuenta) {
+        if (numerosCuenta.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> cuentaIds = cuentaRepository.findCuentaIdsByNumeroCuentaIn(numerosCuenta);
+        if (cuentaIds.isEmpty()) {
+            return Map.of();
+        }
+        return cuentaRepository.findByCuentaIdInForUpdate(cuentaIds)
+                .stream()
+                .collect(Collectors.toMap(Cuenta::getNumeroCuenta, Function.identity()));
+    }
+
+    private int resolverTamanoPagina(Integer tamano) {
+        if (tamano == null) {
+            return tamanoPaginaDefecto;
+        }
+        if (tamano < 1 || tamano > tamanoPaginaMaximo) {
+            throw new ValidationException("El tamaño de página debe estar entre 1 y " + tamanoPaginaMaximo);
+        }
+        return tamano;
+    }
+
+    private Optional<MovimientoResponseDTO> buscarMovimiento(Long movimientoId) {
+        Optional<Movimiento> movimiento = movimientoRepository.findById(movimientoId);
+        if (movimiento.isPresent()) {
+            return movimiento.map(movimientoMapper::toResponseDTO);
+        }
+        // Los movimientos archivados conservan su identificador
+        return movimientoArchivadoRepository.findProyeccionById(movimientoId).map(movimientoMapper::toResponseDTO);
+    }
+
+    private List<MovimientoProyeccion> fusionarShards(List<List<MovimientoProyeccion>> porShard, int limite) {
+        List<MovimientoProyeccion> resultado = porShard.get(0);
+        for (int shard = 1; shard < porShard.size(); shard++) {
+            resultado = FusionMovimientos.fusionar(resultado, porShard.get(shard), FusionMovimientos.RECIENTES_PRIMERO, limite);
+        }
+        return resultado;
+    }
+
+    // Historial completo: empieza antes de cualquier frontera, así que siempre incluye el archivo
+    private List<MovimientoProyeccion> conArchivo(List<MovimientoProyeccion> calientes,
+                                                  Supplier<List<MovimientoProyeccion>> archivadas) {
+        return FusionMovimientos.fusionar(calientes, archivadas.get(), FusionMovimientos.RECIENTES_PRIMERO, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Una página llena de la tabla caliente cuya última fila es posterior a la frontera no puede contener filas
+     * archivadas (todas son anteriores a la frontera): solo se consulta el archivo cuando la página queda corta
+     * o llega hasta la frontera, y entonces se mezclan ambas con el mismo cursor.
+     */
+    private List<MovimientoProyeccion> completarConArchivo(List<MovimientoProyeccion> calientes, int limite,
+                                                           Supplier<List<MovimientoProyeccion>> archivadas) {
+        if (calientes.size() >= limite
+                && !calientes.get(calientes.size() - 1).fecha().isBefore(horizonteArchivo.frontera())) {
+            return calientes;
+        }
+        return FusionMovimientos.fusionar(calientes, archivadas.get(), FusionMovimientos.RECIENTES_PRIMERO, limite);
+    }
+
+    // Se pide una fila de más para saber si existe una página siguiente sin ejecutar un COUNT
+    private PaginaMovimientosDTO construirPagina(List<MovimientoProyeccion> filas, int tamanoPagina) {
+        boolean hayMas = filas.size() > tamanoPagina;
+        List<MovimientoProyeccion> pagina = hayMas ? filas.subList(0, tamanoPagina) : filas;
+        String siguienteCursor = hayMas ? codificarCursor(pagina.get(pagina.size() - 1)) : null;
+
+        return PaginaMovimientosDTO.builder()
+                .movimientos(pagina.stream()
+                        .map(movimientoMapper::toResponseDTO)
+                        .collect(Collectors.toList()))
+                .tamano(pagina.size())
+                .hayMas(hayMas)
+                .siguienteCursor(siguienteCursor)
+                .build();
+    }
+
+    private String codificarCursor(MovimientoProyeccion ultimo) {
+        String posicion = ultimo.fecha() + "|" + ultimo.movimientoId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicion.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorMovimiento decodificarCursor(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String posicion = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separador = posicion.indexOf('|');
+            return new CursorMovimiento(
+                LocalDateTime.parse(posicion.substring(0, separador)),
+                Long.valueOf(posicion.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException("El cursor de paginación no es válido");
+        }
+    }
+
+    private MovimientoLoteResultadoDTO crearResultadoFallido(int indice, String numeroCuenta, String error) {
+        return MovimientoLoteResultadoDTO.builder()
+                .indice(indice)
+                .numeroCuenta(numeroCuenta)
+                .exitoso(false)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Las validaciones de {@link #registrarMovimiento} que no consultan la base, para rechazar una solicitud
+     * antes de aceptarla para más tarde.
+     */
+    @Override
+    public void validarSolicitud(String numeroCuenta, MovimientoRequestDTO movimientoRequest, String claveIdempotencia) {
+        if (numeroCuenta == null || numeroCuenta.trim().isEmpty()) {
+            throw new ValidationException("El número de cuenta es obligatorio");
+        }
+        if (movimientoRequest == null) {
+            throw new MovimientoInvalidoException("El movimiento es obligatorio");
+        }
+        validarMovimiento(movimientoRequest);
+        normalizarClaveIdempotencia(claveIdempotencia);
+    }
+
     private void validarMovimiento(MovimientoRequestDTO movimientoRequest) {
         if (movimientoRequest.getValor() == null) {
             throw new MovimientoInvalidoException("El valor del movimiento es obligatorio");
@@ -193,6 +669,17 @@ public class MovimientoServiceImpl implements MovimientoService {
         }
     }
 
+    private String normalizarClaveIdempotencia(String claveIdempotencia) {
+        if (claveIdempotencia == null || claveIdempotencia.trim().isEmpty()) {
+            return null;
+        }
+        String clave = claveIdempotencia.trim();
+        if (clave.length() > 100) {
+            throw new ValidationException("La clave de idempotencia no puede exceder 100 caracteres");
+        }
+        return clave;
+    }
+
     private String determinarTipoMovimiento(BigDecimal valor) {
         if (valor.compareTo(BigDecimal.ZERO) > 0) {
             return "DEPOSITO";
@@ -202,30 +689,33 @@ public class MovimientoServiceImpl implements MovimientoService {
     }
 
 
-    private Cuenta obtenerYValidarCuenta(String numeroCuenta) {
-        Cuenta cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta)
+    private DatosCuenta obtenerYValidarCuenta(String numeroCuenta) {
+        DatosCuenta datosCuenta = cuentaCache.buscarPorNumero(numeroCuenta)
                 .orElseThrow(() -> new CuentaNotFoundException(numeroCuenta, true));
 
-        if (!"ACTIVA".equals(cuenta.getEstado())) {
-            throw new CuentaInactivaException(cuenta.getNumeroCuenta(), cuenta.getEstado());
+        if (!"ACTIVA".equals(datosCuenta.estado())) {
+            throw new CuentaInactivaException(datosCuenta.numeroCuenta(), datosCuenta.estado());
         }
 
-        return cuenta;
+        return datosCuenta;
     }
 
-    private void validarRetiro(BigDecimal saldoActual, BigDecimal valorRetiro) {
-        if (saldoActual.compareTo(valorRetiro) < 0) {
-            throw new SaldoInsuficienteException(saldoActual, valorRetiro);
+    private BigDecimal aplicarMovimientoEnSaldo(Long cuentaId, String tipoMovimiento, BigDecimal valorAbsoluto) {
+        if ("RETIRO".equals(tipoMovimiento)) {
+            if (cuentaRepository.debitarSaldo(cuentaId, valorAbsoluto) == 0) {
+                throw new SaldoInsuficienteException(leerSaldo(cuentaId), valorAbsoluto);
+            }
+        } else {
+            cuentaRepository.acreditarSaldo(cuentaId, valorAbsoluto);
         }
+        // La fila de la cuenta queda bloqueada por el UPDATE hasta el commit, el saldo leído es el definitivo.
+        // Se lee de la base: la cache solo recibe el nuevo saldo después del commit
+        return leerSaldo(cuentaId);
     }
 
-
-    private BigDecimal calcularNuevoSaldo(String tipoMovimiento, BigDecimal saldoActual, BigDecimal valorAbsoluto) {
-        if ("DEPOSITO".equals(tipoMovimiento)) {
-            return saldoActual.add(valorAbsoluto);
-        } else {
-            return saldoActual.subtract(valorAbsoluto);
-        }
+    private BigDecimal leerSaldo(Long cuentaId) {
+        return cuentaRepository.findSaldoActualByCuentaId(cuentaId)
+                .orElse(BigDecimal.ZERO);
     }
 
     private Movimiento crearMovimiento(String tipoMovimiento, BigDecimal valorAbsoluto, 
@@ -238,7 +728,7 @@ public class MovimientoServiceImpl implements MovimientoService {
         return movimiento;
     }
 
-    private MovimientoResponseDTO crearResponseDTO(Movimiento movimiento, BigDecimal valorOriginal) {
+    private MovimientoResponseDTO crearResponseDTO(Movimiento movimiento, BigDecimal valorOriginal, String numeroCuenta) {
         MovimientoResponseDTO dto = new MovimientoResponseDTO();
         dto.setMovimientoId(movimiento.getMovimientoId());
         dto.setFecha(movimiento.getFecha());
@@ -246,7 +736,9 @@ public class MovimientoServiceImpl implements MovimientoService {
         dto.setValor(valorOriginal);
         dto.setSaldo(movimiento.getSaldo());
         dto.setCuentaId(movimiento.getCuenta().getCuentaId());
-        dto.setNumeroCuenta(movimiento.getCuenta().getNumeroCuenta());
+        dto.setNumeroCuenta(numeroCuenta);
         return dto;
     }
+
+    private record CursorMovimiento(LocalDateTime fecha, Long movimientoId) {}
 }
@@ -0,0 +1,308 @@
+package com.banco.ms_banco.service.Impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.banco.ms_banco.dto.metricas.ColaMetricasDTO;
+import com.banco.ms_banco.dto.reportes.ReporteJobDTO;
+import com.banco.ms_banco.dto.reportes.ReporteJobRequestDTO;
+import com.banco.ms_banco.exception.ColaLlenaException;
+import com.banco.ms_banco.exception.TicketNotFoundException;
+import com.banco.ms_banco.exception.ValidationException;
+import com.banco.ms_banco.report.DatosEstadoCuenta;
+import com.banco.ms_banco.service.ReporteJobService;
+import com.banco.ms_banco.service.ReporteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generación asíncrona de estados de cuenta. Los jobs se atienden con un pool acotado de hilos
+ * de plataforma (la generación es intensiva en CPU y memoria) y el resultado se escribe en disco,
+ * de modo que la petición HTTP sólo descarga un archivo ya generado.
+ */
+@Service
+public class ReporteJobServiceImpl implements ReporteJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReporteJobService.class);
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final int capacidadCola;
+    private final int cantidadWorkers;
+    private final Duration ttl;
+    private final Path directorio;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, JobReporte> jobs = new ConcurrentHashMap<>();
+    // Un solo job en curso por combinación cliente/rango/formato
+    private final Map<String, JobReporte> jobsEnCurso = new ConcurrentHashMap<>();
+
+    private final AtomicLong aceptados = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong completados = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong latenciaTotalNanos = new AtomicLong();
+    private final AtomicLong latenciaMaximaNanos = new AtomicLong();
+
+    public ReporteJobServiceImpl(
+            @Value("${banco.reportes.jobs.capacidad-cola:100}") int capacidadCola,
+            @Value("${banco.reportes.jobs.workers:2}") int cantidadWorkers,
+            @Value("${banco.reportes.jobs.ttl:PT1H}") Duration ttl,
+            @Value("${banco.reportes.jobs.directorio:${java.io.tmpdir}/ms-banco-reportes}") String directorio) {
+        this.capacidadCola = capacidadCola;
+        this.cantidadWorkers = cantidadWorkers;
+        this.ttl = ttl;
+        this.directorio = Paths.get(directorio);
+        AtomicInteger secuencia = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            cantidadWorkers, cantidadWorkers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadCola),
+            tarea -> new Thread(tarea, "reportes-job-" + secuencia.getAndIncrement()),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        Files.createDirectories(directorio);
+        logger.info("Cola de reportes iniciada con {} workers y capacidad {}. Directorio de resultados: {}", 
+                    cantidadWorkers, capacidadCola, directorio);
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ReporteJobDTO encolarReporte(ReporteJobRequestDTO jobRequest) {
+        String formato = jobRequest.getFormato() == null ? "PDF" : jobRequest.getFormato();
+        // El PDF se escribe desde el cursor por tramos; el JSON se arma en memoria y conserva el límite de un año
+        if ("JSON".equals(formato)) {
+            reporteService.validarFechas(jobRequest.getFechaInicio().toString(), jobRequest.getFechaFin().toString());
+        } else {
+            reporteService.validarFechasRangoLargo(jobRequest.getFechaInicio().toString(), jobRequest.getFechaFin().toString());
+        }
+
+        JobReporte job = new JobReporte(UUID.randomUUID().toString(), jobRequest.getClienteId(),
+                                        jobRequest.getFechaInicio(), jobRequest.getFechaFin(), formato);
+
+        JobReporte existente = jobsEnCurso.putIfAbsent(job.claveDeduplicacion(), job);
+        if (existente != null) {
+            logger.info("Reporte ya en curso para cliente {} ({} a {}, {}). Se reutiliza job {}", 
+                        job.clienteId, job.fechaInicio, job.fechaFin, formato, existente.jobId);
+            return existente.toDTO();
+        }
+
+        jobs.put(job.jobId, job);
+        try {
+            executor.execute(() -> procesarJob(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.jobId);
+            jobsEnCurso.remove(job.claveDeduplicacion(), job);
+            rechazados.incrementAndGet();
+            logger.warn("Cola de reportes llena. Se rechaza reporte para cliente: {}", job.clienteId);
+            throw new ColaLlenaException("reportes", capacidadCola);
+        }
+
+        aceptados.incrementAndGet();
+        logger.info("Reporte encolado con job {} para cliente: {}", job.jobId, job.clienteId);
+        return job.toDTO();
+    }
+
+    @Override
+    public ReporteJobDTO consultarJob(String jobId) {
+        return buscarJob(jobId).toDTO();
+    }
+
+    @Override
+    public Path obtenerArchivo(String jobId) {
+        JobReporte job = buscarJob(jobId);
+        if (!"COMPLETADO".equals(job.estado)) {
+            throw new ValidationException("El reporte " + jobId + " no está disponible. Estado: " + job.estado);
+        }
+        return job.archivo;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${banco.reportes.jobs.limpieza-ms:300000}")
+    public int purgarJobsVencidos() {
+        LocalDateTime limite = LocalDateTime.now().minus(ttl);
+        int eliminados = 0;
+        Iterator<JobReporte> iterador = jobs.values().iterator();
+        while (iterador.hasNext()) {
+            JobReporte job = iterador.next();
+            if (job.fechaFinalizacion == null || job.fechaFinalizacion.isAfter(limite)) {
+                continue;
+            }
+            iterador.remove();
+            eliminarArchivo(job.archivo);
+            eliminados++;
+        }
+        if (eliminados > 0) {
+            logger.info("Se eliminaron {} reportes vencidos", eliminados);
+        }
+        return eliminados;
+    }
+
+    @Override
+    public ColaMetricasDTO obtenerMetricas() {
+        long finalizados = completados.get() + fallidos.get();
+        return ColaMetricasDTO.builder()
+                .nombre("reportes-jobs")
+                .enCola(executor.getQueue().size())
+                .capacidad(capacidadCola)
+                .workers(cantidadWorkers)
+                .aceptados(aceptados.get())
+                .rechazados(rechazados.get())
+                .completados(completados.get())
+                .fallidos(fallidos.get())
+                .esperaPromedioMs(finalizados == 0 ? 0.0 : esperaTotalNanos.get() / (double) finalizados / 1_000_000.0)
+                .procesamientoPromedioMs(finalizados == 0 ? 0.0
+                        : (latenciaTotalNanos.get() - esperaTotalNanos.get()) / (double) finalizados / 1_000_000.0)
+                .latenciaPromedioMs(finalizados == 0 ? 0.0 : latenciaTotalNanos.get() / (double) finalizados / 1_000_000.0)
+                .latenciaMaximaMs(latenciaMaximaNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    private JobReporte buscarJob(String jobId) {
+        JobReporte job = jobs.get(jobId);
+        if (job == null) {
+            throw new TicketNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    private void procesarJob(JobReporte job) {
+        long inicioNanos = System.nanoTime();
+        long espera = inicioNanos - job.recibidoNanos;
+        esperaTotalNanos.addAndGet(espera);
+        job.esperaNanos = espera;
+        job.estado = "PROCESANDO";
+
+        Path destino = directorio.resolve(job.jobId + "." + job.formato.toLowerCase());
+        Path temporal = directorio.resolve(job.jobId + ".tmp");
+        try {
+            try (OutputStream salida = Files.newOutputStream(temporal)) {
+                escribirReporte(job, salida);
+            }
+            // El archivo sólo aparece con su nombre definitivo una vez escrito completo
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+            job.archivo = destino;
+            job.estado = "COMPLETADO";
+            completados.incrementAndGet();
+        } catch (Exception e) {
+            eliminarArchivo(temporal);
+            job.error = e.getMessage();
+            job.estado = "FALLIDO";
+            fallidos.incrementAndGet();
+            logger.warn("Reporte {} fallido para cliente {}: {}", job.jobId, job.clienteId, e.getMessage());
+        } finally {
+            job.generacionNanos = System.nanoTime() - inicioNanos;
+            job.fechaFinalizacion = LocalDateTime.now();
+            jobsEnCurso.remove(job.claveDeduplicacion(), job);
+            long latencia = System.nanoTime() - job.recibidoNanos;
+            latenciaTotalNanos.addAndGet(latencia);
+            latenciaMaximaNanos.accumulateAndGet(latencia, Math::max);
+        }
+    }
+
+    private void escribirReporte(JobReporte job, OutputStream salida) throws IOException {
+        if ("JSON".equals(job.formato)) {
+            objectMapper.writeValue(salida,
+                reporteService.generarReporteEstadoCuenta(job.clienteId, job.fechaInicio, job.fechaFin));
+            return;
+        }
+        DatosEstadoCuenta cabecera = reporteService.cargarCabeceraEstadoCuenta(job.clienteId, job.fechaInicio, job.fechaFin);
+        reporteService.escribirReporteEstadoCuentaPDFEnFlujo(cabecera, salida);
+    }
+
+    private void eliminarArchivo(Path archivo) {
+        if (archivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            logger.warn("No se pudo eliminar el archivo de reporte {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private static final class JobReporte {
+
+        private final String jobId;
+        private final Long clienteId;
+        private final LocalDate fechaInicio;
+        private final LocalDate fechaFin;
+        private final String formato;
+        private final LocalDateTime fechaRecepcion = LocalDateTime.now();
+        private final long recibidoNanos = System.nanoTime();
+
+        private volatile String estado = "PENDIENTE";
+        private volatile LocalDateTime fechaFinalizacion;
+        private volatile long esperaNanos;
+        private volatile long generacionNanos;
+        private volatile Path archivo;
+        private volatile String error;
+
+        private JobReporte(String jobId, Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, String formato) {
+            this.jobId = jobId;
+            this.clienteId = clienteId;
+            this.fechaInicio = fechaInicio;
+            this.fechaFin = fechaFin;
+            this.formato = formato;
+        }
+
+        private String claveDeduplicacion() {
+            return clienteId + "|" + fechaInicio + "|" + fechaFin + "|" + formato;
+        }
+
+        private ReporteJobDTO toDTO() {
+            boolean finalizado = fechaFinalizacion != null;
+            return ReporteJobDTO.builder()
+                    .jobId(jobId)
+                    .estado(estado)
+                    .clienteId(clienteId)
+                    .fechaInicio(fechaInicio)
+                    .fechaFin(fechaFin)
+                    .formato(formato)
+                    .fechaRecepcion(fechaRecepcion)
+                    .fechaFinalizacion(fechaFinalizacion)
+                    .esperaMs(finalizado ? esperaNanos / 1_000_000.0 : null)
+                    .generacionMs(finalizado ? generacionNanos / 1_000_000.0 : null)
+                    .urlDescarga("COMPLETADO".equals(estado) ? "/api/reportes/jobs/" + jobId + "/descarga" : null)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -2,35 +2,46 @@ package com.banco.ms_banco.service.Impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Base64;
-import com.banco.ms_banco.repository.ClienteRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.banco.ms_banco.cache.ReporteCache;
+import com.banco.ms_banco.cache.ReporteCache.PdfReporte;
+import com.banco.ms_banco.datasource.ConsistenciaLecturas;
+import com.banco.ms_banco.datasource.EnrutadorShards;
 import com.banco.ms_banco.dto.reportes.EstadoCuentaReporteDTO;
 import com.banco.ms_banco.exception.CuentasNoEncontradasException;
 import com.banco.ms_banco.exception.FechaInvalidaException;
-import com.banco.ms_banco.model.Movimiento;
-import com.banco.ms_banco.repository.CuentaRepository;
-import com.banco.ms_banco.repository.custom.CustomMovimientoRepository;
-import com.banco.ms_banco.service.MovimientoService;
+import com.banco.ms_banco.report.CargadorEstadoCuenta;
+import com.banco.ms_banco.report.DatosEstadoCuenta;
+import com.banco.ms_banco.report.ExportadorMovimientos;
+import com.banco.ms_banco.report.ExportadorMovimientos.Formato;
 import com.banco.ms_banco.service.ReporteService;
 import com.banco.ms_banco.dto.FileBase64DTO;
 import com.banco.ms_banco.dto.cuentas.CuentaResumenDTO;
 import com.banco.ms_banco.dto.movimientos.MovimientoDetalleDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
 import com.banco.ms_banco.model.Cuenta;
-import com.banco.ms_banco.model.Cliente;
+import com.banco.ms_banco.model.SaldoMensual;
 
 import com.lowagie.text.Document;
 import com.lowagie.text.Font;
@@ -45,74 +56,42 @@ public class ReporteServiceImpl implements ReporteService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReporteService.class);
 
+    private static final int FILAS_POR_BLOQUE = 200;
+
+    @Autowired
+    private CargadorEstadoCuenta cargadorEstadoCuenta;
+
     @Autowired
-    private CuentaRepository cuentaRepository;
+    private ReporteCache reporteCache;
 
     @Autowired
-    private CustomMovimientoRepository customMovimientoRepository;
+    private ExportadorMovimientos exportadorMovimientos;
 
     @Autowired
-    private MovimientoService movimientoService;
+    private EnrutadorShards enrutadorShards;
 
     @Autowired
-    private ClienteRepository clienteRepository;
+    private ConsistenciaLecturas consistenciaLecturas;
+
+    // Límite de los reportes que se leen por tramos mensuales (PDF en flujo y exportación); el resto sigue en 1 año
+    @Value("${banco.reportes.rango-largo.maximo-anios:7}")
+    private int maximoAniosRangoLargo;
 
     public EstadoCuentaReporteDTO generarReporteEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
         try {
-            logger.info("Generando reporte de estado de cuenta para cliente: {} entre {} y {}", 
-                        clienteId, fechaInicio, fechaFin);
-
             validarFechas(fechaInicio, fechaFin);
-
-            List<Cuenta> cuentas = cuentaRepository.findByClienteIdAndEstado(clienteId, "ACTIVA");
-            
-            if (cuentas.isEmpty()) {
-                logger.warn("No se encontraron cuentas activas para el cliente: {}", clienteId);
-                throw CuentasNoEncontradasException.paraCliente(clienteId);
-            }
-
-            LocalDateTime fechaInicioTime = fechaInicio.atStartOfDay();
-            LocalDateTime fechaFinTime = fechaFin.atTime(LocalTime.MAX);
-
-            List<Movimiento> movimientos = customMovimientoRepository
-                    .findMovimientosByClienteAndFechaRange(clienteId, fechaInicioTime, fechaFinTime);
-
-            if (movimientos.isEmpty()) {
-                logger.warn("No se encontraron movimientos para el cliente {} en el rango {} - {}", 
-                            clienteId, fechaInicio, fechaFin);
-                throw CuentasNoEncontradasException.paraClienteEnRango(
-                    clienteId, fechaInicio.toString(), fechaFin.toString());
-            }
-
-            Map<Long, List<Movimiento>> movimientosPorCuenta = movimientos.stream()
-                    .collect(Collectors.groupingBy(m -> m.getCuenta().getCuentaId()));
-
-            List<CuentaResumenDTO> cuentasDTO = cuentas.stream()
-                    .map(cuenta -> {
-                        CuentaResumenDTO cuentaDTO = convertirCuentaADTO(cuenta);
-                        
-                        List<Movimiento> movimientosCuenta = movimientosPorCuenta.getOrDefault(cuenta.getCuentaId(), new ArrayList<>());
-                        List<MovimientoDetalleDTO> movimientosDTO = movimientosCuenta.stream()
-                                .map(this::convertirMovimientoADTO)
-                                .collect(Collectors.toList());
-                        
-                        cuentaDTO.setMovimientos(movimientosDTO);
-                        return cuentaDTO;
-                    })
-                    .collect(Collectors.toList());
-
-            if (cuentasDTO.isEmpty()) {
-                throw CuentasNoEncontradasException.paraClienteEnRango(
-                    clienteId, fechaInicio.toString(), fechaFin.toString());
+            Optional<EstadoCuentaReporteDTO> cacheado = reporteCache.obtenerReporte(clienteId, fechaInicio, fechaFin);
+            if (cacheado.isPresent()) {
+                logger.info("Reporte de estado de cuenta servido desde cache para cliente: {}", clienteId);
+                return cacheado.get();
             }
 
-            EstadoCuentaReporteDTO reporte = new EstadoCuentaReporteDTO(clienteId, fechaInicio, fechaFin, cuentasDTO);
-            
-            logger.info("Reporte generado exitosamente para cliente: {}. Total cuentas: {}, Saldo total: {}", 
-                        clienteId, cuentasDTO.size(), reporte.getSaldoTotal());
-
+            // Lo que va a la cache lo leen otros llamadores: se lee de la primaria para no guardar datos atrasados
+            long generacion = reporteCache.generacion(clienteId);
+            EstadoCuentaReporteDTO reporte = construirReporte(consistenciaLecturas.enPrimaria(
+                () -> cargarDatosEstadoCuenta(clienteId, fechaInicio, fechaFin)));
+            reporteCache.guardarReporte(clienteId, fechaInicio, fechaFin, reporte, generacion);
             return reporte;
-
         } catch (FechaInvalidaException | CuentasNoEncontradasException e) {
             throw e;
         } catch (Exception e) {
@@ -121,49 +100,117 @@ public class ReporteServiceImpl implements ReporteService {
         }
     }
 
+    public DatosEstadoCuenta cargarDatosEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        logger.info("Generando reporte de estado de cuenta para cliente: {} entre {} y {}", 
+                    clienteId, fechaInicio, fechaFin);
+
+        validarFechas(fechaInicio, fechaFin);
+
+        DatosEstadoCuenta datos = enrutadorShards.enShard(enrutadorShards.shardDeCliente(clienteId),
+            () -> cargadorEstadoCuenta.cargar(clienteId, fechaInicio, fechaFin));
+
+        if (datos.cuentas().isEmpty()) {
+            logger.warn("No se encontraron cuentas activas para el cliente: {}", clienteId);
+            throw CuentasNoEncontradasException.paraCliente(clienteId);
+        }
+
+        if (datos.sinMovimientos()) {
+            logger.warn("No se encontraron movimientos para el cliente {} en el rango {} - {}", 
+                        clienteId, fechaInicio, fechaFin);
+            throw CuentasNoEncontradasException.paraClienteEnRango(
+                clienteId, fechaInicio.toString(), fechaFin.toString());
+        }
+
+        return datos;
+    }
+
+    /**
+     * Igual que {@link #cargarDatosEstadoCuenta} pero sin traer los movimientos: solo cliente, cuentas y resúmenes
+     * mensuales. Los movimientos los recorre {@link #escribirReporteEstadoCuentaPDFEnFlujo} desde un cursor.
+     */
+    public DatosEstadoCuenta cargarCabeceraEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        logger.info("Cargando cabecera de estado de cuenta para cliente: {} entre {} y {}", 
+                    clienteId, fechaInicio, fechaFin);
+
+        validarFechas(fechaInicio, fechaFin, maximoAniosRangoLargo);
+
+        int shard = enrutadorShards.shardDeCliente(clienteId);
+        DatosEstadoCuenta cabecera = enrutadorShards.enShard(shard,
+            () -> cargadorEstadoCuenta.cargarCabecera(clienteId, fechaInicio, fechaFin));
+
+        if (cabecera.cuentas().isEmpty()) {
+            logger.warn("No se encontraron cuentas activas para el cliente: {}", clienteId);
+            throw CuentasNoEncontradasException.paraCliente(clienteId);
+        }
+
+        if (!enrutadorShards.enShard(shard, () -> cargadorEstadoCuenta.tieneMovimientos(clienteId, fechaInicio, fechaFin))) {
+            logger.warn("No se encontraron movimientos para el cliente {} en el rango {} - {}", 
+                        clienteId, fechaInicio, fechaFin);
+            throw CuentasNoEncontradasException.paraClienteEnRango(
+                clienteId, fechaInicio.toString(), fechaFin.toString());
+        }
+
+        return cabecera;
+    }
+
+    private EstadoCuentaReporteDTO construirReporte(DatosEstadoCuenta datos) {
+        List<CuentaResumenDTO> cuentasDTO = datos.cuentas().stream()
+                .map(cuenta -> {
+                    CuentaResumenDTO cuentaDTO = convertirCuentaADTO(cuenta);
+                    AcumuladorPeriodo acumulador = new AcumuladorPeriodo(cuenta.getCuentaId(), datos);
+                    datos.movimientosDe(cuenta.getCuentaId()).forEach(acumulador::agregar);
+                    acumulador.aplicar(cuentaDTO);
+                    
+                    List<MovimientoDetalleDTO> movimientosDTO = datos.movimientosDe(cuenta.getCuentaId()).stream()
+                            .map(this::convertirMovimientoADTO)
+                            .collect(Collectors.toList());
+                    
+                    cuentaDTO.setMovimientos(movimientosDTO);
+                    return cuentaDTO;
+                })
+                .collect(Collectors.toList());
+
+        EstadoCuentaReporteDTO reporte = new EstadoCuentaReporteDTO(
+            datos.clienteId(), datos.fechaInicio(), datos.fechaFin(), cuentasDTO);
+        
+        logger.info("Reporte generado exitosamente para cliente: {}. Total cuentas: {}, Saldo total: {}", 
+                    datos.clienteId(), cuentasDTO.size(), reporte.getSaldoTotal());
+
+        return reporte;
+    }
+
+    // El saldo actual viene en la fila de la cuenta ya cargada: no se consulta por cuenta
     private CuentaResumenDTO convertirCuentaADTO(Cuenta cuenta) {
-        try {
-            if (!"ACTIVA".equals(cuenta.getEstado())) {
-                throw CuentasNoEncontradasException.cuentaInactiva(cuenta.getCuentaId(), cuenta.getEstado());
-            }
-            
-            BigDecimal saldoActual = movimientoService.calcularSaldoDisponible(cuenta.getCuentaId());
-            
-            return CuentaResumenDTO.builder()
-                .cuentaId(cuenta.getCuentaId())
-                .numeroCuenta(cuenta.getNumeroCuenta())
-                .tipoCuenta(cuenta.getTipoCuenta())
-                .estado(cuenta.getEstado())
-                .saldoActual(saldoActual)
-                .build();
-
-        } catch (CuentasNoEncontradasException e) {
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error al convertir cuenta a DTO: {}", cuenta.getCuentaId(), e);
-            return CuentaResumenDTO.builder()
+        if (!"ACTIVA".equals(cuenta.getEstado())) {
+            throw CuentasNoEncontradasException.cuentaInactiva(cuenta.getCuentaId(), cuenta.getEstado());
+        }
+
+        return CuentaResumenDTO.builder()
             .cuentaId(cuenta.getCuentaId())
             .numeroCuenta(cuenta.getNumeroCuenta())
             .tipoCuenta(cuenta.getTipoCuenta())
             .estado(cuenta.getEstado())
-            .saldoActual(cuenta.getSaldoInicial())
+            .saldoActual(cuenta.getSaldoActual())
             .build();
-        }
     }
 
-    private MovimientoDetalleDTO convertirMovimientoADTO(Movimiento movimiento) {
+    private MovimientoDetalleDTO convertirMovimientoADTO(MovimientoProyeccion movimiento) {
         return new MovimientoDetalleDTO(
-            movimiento.getMovimientoId(),
-            movimiento.getFecha(),
-            movimiento.getTipoMovimiento(),
-            movimiento.getValor(),
-            movimiento.getTipoMovimiento().equals("DEBITO") ? 
-            "Debito de $" + movimiento.getValor() : "Crédito de $" + movimiento.getValor(),
-            movimiento.getSaldo()
+            movimiento.movimientoId(),
+            movimiento.fecha(),
+            movimiento.tipoMovimiento(),
+            movimiento.valor(),
+            movimiento.tipoMovimiento().equals("DEBITO") ? 
+            "Debito de $" + movimiento.valor() : "Crédito de $" + movimiento.valor(),
+            movimiento.saldo()
         );
     }
 
     private void validarFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarFechas(fechaInicio, fechaFin, 1);
+    }
+
+    private void validarFechas(LocalDate fechaInicio, LocalDate fechaFin, int maximoAnios) {
         if (fechaInicio == null || fechaFin == null) {
             throw FechaInvalidaException.fechasNulas();
         }
@@ -172,8 +219,8 @@ public class ReporteServiceImpl implements ReporteService {
             throw FechaInvalidaException.fechaInicioPosterior();
         }
 
-        if (fechaInicio.plusYears(1).isBefore(fechaFin)) {
-            throw FechaInvalidaException.rangoExcesivo();
+        if (fechaInicio.plusYears(maximoAnios).isBefore(fechaFin)) {
+            throw FechaInvalidaException.rangoExcesivo(maximoAnios);
         }
 
         LocalDate hoy = LocalDate.now();
@@ -191,82 +238,338 @@ public class ReporteServiceImpl implements ReporteService {
             throw FechaInvalidaException.formatoInvalido();
         }
     }
+
+    public void validarFechasRangoLargo(String fechaInicioStr, String fechaFinStr) {
+        try {
+            LocalDate fechaInicio = LocalDate.parse(fechaInicioStr);
+            LocalDate fechaFin = LocalDate.parse(fechaFinStr);
+            validarFechas(fechaInicio, fechaFin, maximoAniosRangoLargo);
+        } catch (DateTimeParseException e) {
+            throw FechaInvalidaException.formatoInvalido();
+        }
+    }
     
     public FileBase64DTO generarReporteEstadoCuentaPDF(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
         try {
-            EstadoCuentaReporteDTO reporte = generarReporteEstadoCuenta(clienteId, fechaInicio, fechaFin);
-
-            Cliente cliente = clienteRepository.findById(clienteId).orElse(null);
+            // El PDF en Base64 se arma completo en memoria: conserva el límite de un año
+            validarFechas(fechaInicio, fechaFin);
+            Optional<PdfReporte> cacheado = obtenerPDFCacheado(clienteId, fechaInicio, fechaFin);
+            if (cacheado.isPresent()) {
+                logger.info("PDF de estado de cuenta servido desde cache para cliente: {}", clienteId);
+                return new FileBase64DTO(cacheado.get().nombreArchivo(), "application/pdf",
+                                         Base64.getEncoder().encodeToString(cacheado.get().contenido()));
+            }
 
+            long generacion = reporteCache.generacion(clienteId);
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            Document document = new Document();
-            PdfWriter.getInstance(document, baos);
-            document.open();
+            DatosEstadoCuenta cabecera = consistenciaLecturas.enPrimaria(() -> {
+                DatosEstadoCuenta datos = cargarCabeceraEstadoCuenta(clienteId, fechaInicio, fechaFin);
+                renderizarPDFEnFlujo(datos, baos);
+                return datos;
+            });
 
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+            byte[] pdfBytes = baos.toByteArray();
+            String base64 = Base64.getEncoder().encodeToString(pdfBytes);
+            reporteCache.guardarPDF(clienteId, fechaInicio, fechaFin,
+                                    new PdfReporte(nombreArchivoPDF(cabecera), pdfBytes), generacion);
 
-            document.add(new Paragraph("Estado de Cuenta", titleFont));
-            String clienteInfo = "Cliente ID: " + reporte.getClienteId();
-            if (cliente != null && cliente.getPersona() != null) {
-                clienteInfo = cliente.getPersona().getNombre() + " - " + cliente.getPersona().getIdentificacion();
-            }
-            document.add(new Paragraph(clienteInfo));
-            document.add(new Paragraph("Periodo: " + fechaInicio + " - " + fechaFin));
-            document.add(new Paragraph(" "));
+            return new FileBase64DTO(nombreArchivoPDF(cabecera), "application/pdf", base64);
 
-            for (CuentaResumenDTO cuentaDTO : reporte.getCuentas()) {
-                Cuenta cuenta = cuentaRepository.findById(cuentaDTO.getCuentaId()).orElse(null);
-
-                PdfPTable table = new PdfPTable(2);
-                table.setWidthPercentage(100);
-                table.addCell(new PdfPCell(new Paragraph("Número de cuenta", headerFont)));
-                table.addCell(cuentaDTO.getNumeroCuenta());
-                table.addCell(new PdfPCell(new Paragraph("Tipo de cuenta", headerFont)));
-                table.addCell(cuentaDTO.getTipoCuenta());
-                table.addCell(new PdfPCell(new Paragraph("Saldo inicial", headerFont)));
-                table.addCell(cuenta != null && cuenta.getSaldoInicial() != null ? cuenta.getSaldoInicial().toString() : "N/A");
-                table.addCell(new PdfPCell(new Paragraph("Estado", headerFont)));
-                table.addCell(cuentaDTO.getEstado());
-                document.add(table);
-
-                document.add(new Paragraph("Movimientos:"));
-
-                PdfPTable mtable = new PdfPTable(5);
-                mtable.setWidthPercentage(100);
-                mtable.addCell(new PdfPCell(new Paragraph("Fecha", headerFont)));
-                mtable.addCell(new PdfPCell(new Paragraph("Tipo", headerFont)));
-                mtable.addCell(new PdfPCell(new Paragraph("Valor", headerFont)));
-                mtable.addCell(new PdfPCell(new Paragraph("Descripción", headerFont)));
-                mtable.addCell(new PdfPCell(new Paragraph("Saldo", headerFont)));
-
-                if (cuentaDTO.getMovimientos() != null) {
-                    for (MovimientoDetalleDTO m : cuentaDTO.getMovimientos()) {
-                        mtable.addCell(m.getFecha() != null ? m.getFecha().toString() : "");
-                        mtable.addCell(m.getTipoMovimiento() != null ? m.getTipoMovimiento() : "");
-                        mtable.addCell(m.getValor() != null ? m.getValor().toString() : "");
-                        mtable.addCell(m.getDescripcion() != null ? m.getDescripcion() : "");
-                        mtable.addCell(m.getSaldoDespues() != null ? m.getSaldoDespues().toString() : "");
-                    }
+        } catch (Exception e) {
+            logger.error("Error al generar reporte PDF para cliente: {}", clienteId, e);
+            throw new RuntimeException("Error al generar el PDF: " + e.getMessage());
+        }
+    }
+
+    public Optional<PdfReporte> obtenerPDFCacheado(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        validarFechas(fechaInicio, fechaFin, maximoAniosRangoLargo);
+        return reporteCache.obtenerPDF(clienteId, fechaInicio, fechaFin);
+    }
+
+    public void escribirReporteEstadoCuentaPDFEnFlujo(DatosEstadoCuenta cabecera, OutputStream salida) {
+        try {
+            logger.info("Escribiendo PDF de estado de cuenta desde cursor para cliente: {}", cabecera.clienteId());
+            renderizarPDFEnFlujo(cabecera, salida);
+        } catch (Exception e) {
+            logger.error("Error al escribir reporte PDF para cliente: {}", cabecera.clienteId(), e);
+            throw new RuntimeException("Error al generar el PDF: " + e.getMessage());
+        }
+    }
+
+    // Sin bloque try/catch: si la escritura falla, la respuesta ya está comprometida y solo queda cortar el flujo
+    public long exportarMovimientos(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, Formato formato,
+                                    OutputStream salida) throws IOException {
+        logger.info("Exportando movimientos en {} para cliente: {} entre {} y {}", 
+                    formato, clienteId, fechaInicio, fechaFin);
+        try {
+            return enrutadorShards.enShard(enrutadorShards.shardDeCliente(clienteId), () -> {
+                try {
+                    return exportadorMovimientos.exportar(clienteId, fechaInicio, fechaFin, formato, salida);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
+    public String nombreArchivoPDF(DatosEstadoCuenta datos) {
+        return "estado_cuenta_" + (datos.cuentas().isEmpty() ? "sin_cuenta" : datos.cuentas().get(0).getNumeroCuenta()) + ".pdf";
+    }
+
+    /**
+     * Una sola pasada sobre el cursor de movimientos ordenado por cuenta: cada fila se agrega a la tabla de su cuenta
+     * (escrita por bloques de {@link #FILAS_POR_BLOQUE}) y a los totales del periodo, y la sección se cierra con sus
+     * totales al llegar la primera fila de la cuenta siguiente. En memoria queda a lo sumo un bloque de filas de una
+     * cuenta, sin importar cuántos movimientos tenga el cliente en el rango.
+     */
+    private void renderizarPDFEnFlujo(DatosEstadoCuenta cabecera, OutputStream salida) {
+        Document document = abrirDocumento(cabecera, salida);
+        Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+
+        EscritorSecciones escritor = new EscritorSecciones(document, cabecera, headerFont);
+        enrutadorShards.enShard(enrutadorShards.shardDeCliente(cabecera.clienteId()),
+            () -> cargadorEstadoCuenta.recorrerMovimientos(cabecera, escritor::agregar));
+        escritor.terminar();
+
+        document.close();
+    }
+
+    private Document abrirDocumento(DatosEstadoCuenta datos, OutputStream salida) {
+        Document document = new Document();
+        PdfWriter.getInstance(document, salida);
+        document.open();
+
+        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+
+        document.add(new Paragraph("Estado de Cuenta", titleFont));
+        String clienteInfo = datos.cliente()
+                .map(c -> c.nombre() + " - " + c.identificacion())
+                .orElse("Cliente ID: " + datos.clienteId());
+        document.add(new Paragraph(clienteInfo));
+        document.add(new Paragraph("Periodo: " + datos.fechaInicio() + " - " + datos.fechaFin()));
+        document.add(new Paragraph(" "));
+        return document;
+    }
+
+    private PdfPTable construirTablaCuenta(CuentaResumenDTO cuentaDTO, Cuenta cuenta, Font headerFont) {
+        PdfPTable table = new PdfPTable(2);
+        table.setWidthPercentage(100);
+        table.addCell(new PdfPCell(new Paragraph("Número de cuenta", headerFont)));
+        table.addCell(cuentaDTO.getNumeroCuenta());
+        table.addCell(new PdfPCell(new Paragraph("Tipo de cuenta", headerFont)));
+        table.addCell(cuentaDTO.getTipoCuenta());
+        table.addCell(new PdfPCell(new Paragraph("Saldo inicial", headerFont)));
+        table.addCell(cuenta != null && cuenta.getSaldoInicial() != null ? cuenta.getSaldoInicial().toString() : "N/A");
+        table.addCell(new PdfPCell(new Paragraph("Estado", headerFont)));
+        table.addCell(cuentaDTO.getEstado());
+        table.addCell(new PdfPCell(new Paragraph("Saldo al inicio del periodo", headerFont)));
+        table.addCell(cuentaDTO.getSaldoAperturaPeriodo().toString());
+        return table;
+    }
+
+    // Va después de los movimientos: en el PDF escrito desde el cursor los totales se conocen al cerrar la cuenta
+    private PdfPTable construirTablaTotales(CuentaResumenDTO cuentaDTO, Font headerFont) {
+        PdfPTable table = new PdfPTable(2);
+        table.setWidthPercentage(100);
+        table.addCell(new PdfPCell(new Paragraph("Movimientos del periodo", headerFont)));
+        table.addCell(String.valueOf(cuentaDTO.getCantidadMovimientosPeriodo()));
+        table.addCell(new PdfPCell(new Paragraph("Total débitos del periodo", headerFont)));
+        table.addCell(cuentaDTO.getTotalDebitosPeriodo().toString());
+        table.addCell(new PdfPCell(new Paragraph("Total créditos del periodo", headerFont)));
+        table.addCell(cuentaDTO.getTotalCreditosPeriodo().toString());
+        table.addCell(new PdfPCell(new Paragraph("Saldo al cierre del periodo", headerFont)));
+        table.addCell(cuentaDTO.getSaldoCierrePeriodo().toString());
+        return table;
+    }
+
+    private PdfPTable construirEncabezadoMovimientos(Font headerFont) {
+        PdfPTable mtable = new PdfPTable(5);
+        mtable.setWidthPercentage(100);
+        mtable.setHeaderRows(1);
+        mtable.addCell(new PdfPCell(new Paragraph("Fecha", headerFont)));
+        mtable.addCell(new PdfPCell(new Paragraph("Tipo", headerFont)));
+        mtable.addCell(new PdfPCell(new Paragraph("Valor", headerFont)));
+        mtable.addCell(new PdfPCell(new Paragraph("Descripción", headerFont)));
+        mtable.addCell(new PdfPCell(new Paragraph("Saldo", headerFont)));
+        return mtable;
+    }
+
+    private void agregarFilaMovimiento(PdfPTable mtable, MovimientoDetalleDTO m) {
+        mtable.addCell(m.getFecha() != null ? m.getFecha().toString() : "");
+        mtable.addCell(m.getTipoMovimiento() != null ? m.getTipoMovimiento() : "");
+        mtable.addCell(m.getValor() != null ? m.getValor().toString() : "");
+        mtable.addCell(m.getDescripcion() != null ? m.getDescripcion() : "");
+        mtable.addCell(m.getSaldoDespues() != null ? m.getSaldoDespues().toString() : "");
+    }
+
+    /**
+     * Secciones del PDF escritas a medida que llegan las filas del cursor. Las cuentas se recorren en el mismo orden
+     * que el cursor (por {@code cuentaId}); las que no tienen movimientos en el rango igual reciben su sección, con
+     * la tabla vacía y los totales tomados de los resúmenes mensuales.
+     */
+    private class EscritorSecciones {
+
+        private final Document document;
+        private final DatosEstadoCuenta cabecera;
+        private final Font headerFont;
+        private final List<Cuenta> cuentas;
+        private int siguiente;
+
+        private Cuenta actual;
+        private CuentaResumenDTO cuentaDTO;
+        private AcumuladorPeriodo acumulador;
+        private PdfPTable mtable;
+        private int filas;
+
+        EscritorSecciones(Document document, DatosEstadoCuenta cabecera, Font headerFont) {
+            this.document = document;
+            this.cabecera = cabecera;
+            this.headerFont = headerFont;
+            this.cuentas = cabecera.cuentas().stream()
+                    .sorted(Comparator.comparing(Cuenta::getCuentaId))
+                    .toList();
+        }
+
+        void agregar(MovimientoProyeccion movimiento) {
+            if (actual == null || !actual.getCuentaId().equals(movimiento.cuentaId())) {
+                avanzarHasta(movimiento.cuentaId());
+                // Cuenta activada después de leer la cabecera: no tiene sección en este documento
+                if (actual == null || !actual.getCuentaId().equals(movimiento.cuentaId())) {
+                    return;
+                }
+            }
+            acumulador.agregar(movimiento);
+            agregarFilaMovimiento(mtable, convertirMovimientoADTO(movimiento));
+            if (++filas % FILAS_POR_BLOQUE == 0) {
                 document.add(mtable);
-                document.add(new Paragraph(" "));
             }
+        }
 
-            document.close();
+        void terminar() {
+            cerrarSeccion();
+            while (siguiente < cuentas.size()) {
+                abrirSeccion(cuentas.get(siguiente++));
+                cerrarSeccion();
+            }
+        }
 
-            byte[] pdfBytes = baos.toByteArray();
-            String base64 = Base64.getEncoder().encodeToString(pdfBytes);
+        private void avanzarHasta(Long cuentaId) {
+            while (siguiente < cuentas.size() && cuentas.get(siguiente).getCuentaId() <= cuentaId) {
+                cerrarSeccion();
+                abrirSeccion(cuentas.get(siguiente++));
+            }
+        }
+
+        private void abrirSeccion(Cuenta cuenta) {
+            actual = cuenta;
+            cuentaDTO = convertirCuentaADTO(cuenta);
+            acumulador = new AcumuladorPeriodo(cuenta.getCuentaId(), cabecera);
+            cuentaDTO.setSaldoAperturaPeriodo(acumulador.saldoApertura);
+            filas = 0;
+
+            document.add(construirTablaCuenta(cuentaDTO, cuenta, headerFont));
+            document.add(new Paragraph("Movimientos:"));
+            mtable = construirEncabezadoMovimientos(headerFont);
+            mtable.setComplete(false);
+        }
+
+        private void cerrarSeccion() {
+            if (mtable == null) {
+                return;
+            }
+            mtable.setComplete(true);
+            document.add(mtable);
+            acumulador.aplicar(cuentaDTO);
+            document.add(construirTablaTotales(cuentaDTO, headerFont));
+            document.add(new Paragraph(" "));
+            mtable = null;
+        }
+    }
 
-            String fileName = "estado_cuenta_" + (reporte.getCuentas().isEmpty() ? "sin_cuenta" : reporte.getCuentas().get(0).getNumeroCuenta()) + ".pdf";
+    /**
+     * Apertura y totales del periodo de una cuenta desde {@code SALDO_MENSUAL}: los meses completos dentro del rango
+     * se toman del resumen sin recorrer sus movimientos; solo los meses de los extremos que el rango cubre en parte
+     * se suman con los movimientos que se van pasando a {@link #agregar}, de modo que sirve igual para la lista ya
+     * cargada que para las filas de un cursor. Un mes completo sin resumen (cuenta sin movimientos ese mes, o
+     * resúmenes sin reconstruir después de la migración) también se suma desde los movimientos, y si tenía alguno
+     * se registra un aviso.
+     */
+    private static class AcumuladorPeriodo {
+
+        private final Long cuentaId;
+        private final BigDecimal saldoApertura;
+        private final Set<LocalDate> mesesParciales = new HashSet<>();
+        private final Set<LocalDate> mesesSinResumen = new HashSet<>();
+        private final Set<LocalDate> mesesSinResumenConMovimientos = new TreeSet<>();
+        private BigDecimal debitos = BigDecimal.ZERO;
+        private BigDecimal creditos = BigDecimal.ZERO;
+        private long cantidad;
+
+        AcumuladorPeriodo(Long cuentaId, DatosEstadoCuenta datos) {
+            this.cuentaId = cuentaId;
+            LocalDate fechaInicio = datos.fechaInicio();
+            LocalDate fechaFin = datos.fechaFin();
+            LocalDate primerMes = fechaInicio.withDayOfMonth(1);
+
+            Map<LocalDate, SaldoMensual> saldosPorPeriodo = datos.saldosMensualesDe(cuentaId).stream()
+                    .collect(Collectors.toMap(SaldoMensual::getPeriodo, Function.identity()));
+
+            SaldoMensual saldoPrimerMes = saldosPorPeriodo.get(primerMes);
+            BigDecimal apertura = saldoPrimerMes != null
+                    ? saldoPrimerMes.getSaldoApertura()
+                    : datos.saldoAnteriorDe(cuentaId).map(SaldoMensual::getSaldoCierre).orElse(BigDecimal.ZERO);
+            saldoApertura = datos.movimientosPreviosDe(cuentaId)
+                    .map(previos -> previos.creditos().subtract(previos.debitos()))
+                    .orElse(BigDecimal.ZERO)
+                    .add(apertura);
+
+            for (LocalDate mes = primerMes; !mes.isAfter(fechaFin); mes = mes.plusMonths(1)) {
+                boolean completo = !mes.isBefore(fechaInicio) && !mes.plusMonths(1).minusDays(1).isAfter(fechaFin);
+                if (!completo) {
+                    mesesParciales.add(mes);
+                    continue;
+                }
+                SaldoMensual saldoMes = saldosPorPeriodo.get(mes);
+                if (saldoMes == null) {
+                    mesesParciales.add(mes);
+                    mesesSinResumen.add(mes);
+                    continue;
+                }
+                debitos = debitos.add(saldoMes.getTotalDebitos());
+                creditos = creditos.add(saldoMes.getTotalCreditos());
+                cantidad += saldoMes.getCantidadMovimientos();
+            }
+        }
 
-            return new FileBase64DTO(fileName, "application/pdf", base64);
+        void agregar(MovimientoProyeccion movimiento) {
+            LocalDate mes = movimiento.fecha().toLocalDate().withDayOfMonth(1);
+            if (!mesesParciales.contains(mes)) {
+                return;
+            }
+            if (mesesSinResumen.contains(mes)) {
+                mesesSinResumenConMovimientos.add(mes);
+            }
+            if ("RETIRO".equals(movimiento.tipoMovimiento())) {
+                debitos = debitos.add(movimiento.valor());
+            } else {
+                creditos = creditos.add(movimiento.valor());
+            }
+            cantidad++;
+        }
 
-        } catch (Exception e) {
-            logger.error("Error al generar reporte PDF para cliente: {}", clienteId, e);
-            throw new RuntimeException("Error al generar el PDF: " + e.getMessage());
+        void aplicar(CuentaResumenDTO cuentaDTO) {
+            if (!mesesSinResumenConMovimientos.isEmpty()) {
+                logger.warn("La cuenta ID: {} no tiene resumen mensual de {} aunque tiene movimientos; " +
+                            "sus totales se sumaron desde los movimientos. Reconstruir sus saldos mensuales",
+                            cuentaId, mesesSinResumenConMovimientos);
+            }
+            cuentaDTO.setSaldoAperturaPeriodo(saldoApertura);
+            cuentaDTO.setTotalDebitosPeriodo(debitos);
+            cuentaDTO.setTotalCreditosPeriodo(creditos);
+            cuentaDTO.setCantidadMovimientosPeriodo(cantidad);
+            cuentaDTO.setSaldoCierrePeriodo(saldoApertura.add(creditos).subtract(debitos));
         }
     }
-    
 }
@@ -0,0 +1,195 @@
+package com.banco.ms_banco.service.Impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.cache.SaldoCache;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.dto.saldos.ReconstruccionSaldosDTO;
+import com.banco.ms_banco.dto.saldos.ResumenMensualMovimientos;
+import com.banco.ms_banco.event.CuentaModificadaEvent;
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+import com.banco.ms_banco.exception.CuentaNotFoundException;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.model.SaldoMensual;
+import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.MovimientoArchivadoRepository;
+import com.banco.ms_banco.repository.MovimientoRepository;
+import com.banco.ms_banco.repository.SaldoMensualRepository;
+import com.banco.ms_banco.service.SaldoMensualService;
+
+@Service
+public class SaldoMensualServiceImpl implements SaldoMensualService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaldoMensualService.class);
+
+    @Autowired
+    private SaldoMensualRepository saldoMensualRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoArchivadoRepository movimientoArchivadoRepository;
+
+    @Autowired
+    private SaldoCache saldoCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Se ejecuta dentro de la transacción que registra el movimiento: el resumen se confirma o se revierte con él.
+     * Los escritores de una misma cuenta ya están serializados por el bloqueo de su fila, así que el último
+     * evento aplicado es siempre el saldo de cierre del mes.
+     */
+    @Override
+    @EventListener
+    @Transactional
+    public void acumularMovimiento(MovimientoRegistradoEvent evento) {
+        LocalDate periodo = evento.fecha().toLocalDate().withDayOfMonth(1);
+        boolean esDebito = "RETIRO".equals(evento.tipoMovimiento());
+        BigDecimal debito = esDebito ? evento.valor() : BigDecimal.ZERO;
+        BigDecimal credito = esDebito ? BigDecimal.ZERO : evento.valor();
+
+        int actualizadas = saldoMensualRepository.acumularMovimiento(
+            evento.cuentaId(), periodo, evento.saldo(), debito, credito);
+        if (actualizadas == 0) {
+            // Primer movimiento del mes: la apertura es el saldo antes de este movimiento
+            BigDecimal saldoApertura = evento.saldo().subtract(credito).add(debito);
+            saldoMensualRepository.save(new SaldoMensual(
+                evento.cuentaId(), periodo, saldoApertura, evento.saldo(), debito, credito, 1));
+        }
+    }
+
+    @Override
+    public ReconstruccionSaldosDTO reconstruirCuenta(Long cuentaId) {
+        long inicio = System.nanoTime();
+        ResultadoCuenta resultado = reconstruirEnShard(cuentaId, false);
+        return ReconstruccionSaldosDTO.builder()
+                .cuentasProcesadas(1)
+                .periodosGenerados(resultado.periodos())
+                .cuentasConDiferencia(resultado.cuadra() ? 0 : 1)
+                .duracionMs((System.nanoTime() - inicio) / 1_000_000)
+                .build();
+    }
+
+    /**
+     * Recalcula los resúmenes de todas las cuentas, una transacción por cuenta para no retener bloqueos.
+     * Deshabilitado por defecto; se programa con {@code banco.saldos-mensuales.reconstruccion.cron}.
+     */
+    @Override
+    @Scheduled(cron = "${banco.saldos-mensuales.reconstruccion.cron:-}")
+    public ReconstruccionSaldosDTO reconstruirTodas() {
+        long inicio = System.nanoTime();
+        List<Long> cuentaIds = enrutadorShards.enTodos(shard -> cuentaRepository.findAllCuentaIds())
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        int periodos = 0;
+        int conDiferencia = 0;
+        for (Long cuentaId : cuentaIds) {
+            try {
+                ResultadoCuenta resultado = reconstruirEnShard(cuentaId, false);
+                periodos += resultado.periodos();
+                if (!resultado.cuadra()) {
+                    conDiferencia++;
+                }
+            } catch (Exception e) {
+                logger.error("Error al reconstruir saldos mensuales de la cuenta ID: {}", cuentaId, e);
+            }
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        logger.info("Saldos mensuales reconstruidos: {} cuentas, {} periodos, {} cuentas con diferencia en {} ms", 
+                    cuentaIds.size(), periodos, conDiferencia, duracionMs);
+        return ReconstruccionSaldosDTO.builder()
+                .cuentasProcesadas(cuentaIds.size())
+                .periodosGenerados(periodos)
+                .cuentasConDiferencia(conDiferencia)
+                .duracionMs(duracionMs)
+                .build();
+    }
+
+    /**
+     * Igual que {@link #reconstruirCuenta}, pero además reemplaza el saldo actual de la cuenta por el reconstruido
+     * desde sus movimientos cuando no coinciden. Los movimientos no se modifican.
+     */
+    @Override
+    public ReconstruccionSaldosDTO repararCuenta(Long cuentaId) {
+        long inicio = System.nanoTime();
+        ResultadoCuenta resultado = reconstruirEnShard(cuentaId, true);
+        return ReconstruccionSaldosDTO.builder()
+                .cuentasProcesadas(1)
+                .periodosGenerados(resultado.periodos())
+                .cuentasConDiferencia(resultado.cuadra() ? 0 : 1)
+                .duracionMs((System.nanoTime() - inicio) / 1_000_000)
+                .build();
+    }
+
+    private ResultadoCuenta reconstruirEnShard(Long cuentaId, boolean corregirSaldoActual) {
+        return enrutadorShards.enShard(enrutadorShards.shardDeCuenta(cuentaId),
+            () -> transactionTemplate.execute(status -> reconstruir(cuentaId, corregirSaldoActual)));
+    }
+
+    private ResultadoCuenta reconstruir(Long cuentaId, boolean corregirSaldoActual) {
+        // Bloquea la cuenta: ningún movimiento puede acumularse mientras se reemplazan sus resúmenes
+        List<Cuenta> cuentas = cuentaRepository.findByCuentaIdInForUpdate(List.of(cuentaId));
+        if (cuentas.isEmpty()) {
+            throw new CuentaNotFoundException(cuentaId);
+        }
+        Cuenta cuenta = cuentas.get(0);
+
+        saldoMensualRepository.deleteByCuentaId(cuentaId);
+
+        // Toda cuenta nace en cero y su saldo inicial entra como primer DEPOSITO
+        BigDecimal saldo = BigDecimal.ZERO;
+        List<ResumenMensualMovimientos> resumenes = ResumenMensualMovimientos.combinar(
+            movimientoRepository.findResumenesMensualesPorCuenta(cuentaId),
+            movimientoArchivadoRepository.findResumenesMensualesPorCuenta(cuentaId));
+        for (ResumenMensualMovimientos resumen : resumenes) {
+            BigDecimal saldoCierre = saldo.add(resumen.creditos()).subtract(resumen.debitos());
+            saldoMensualRepository.save(new SaldoMensual(
+                cuentaId, resumen.periodo(), saldo, saldoCierre,
+                resumen.debitos(), resumen.creditos(), resumen.cantidad()));
+            saldo = saldoCierre;
+        }
+
+        boolean cuadra = saldo.compareTo(cuenta.getSaldoActual()) == 0;
+        if (!cuadra && corregirSaldoActual) {
+            logger.warn("Saldo actual de la cuenta {} corregido de {} a {}", 
+                        cuenta.getNumeroCuenta(), cuenta.getSaldoActual(), saldo);
+            cuenta.setSaldoActual(saldo);
+            saldoCache.invalidar(cuentaId);
+        } else if (!cuadra) {
+            logger.warn("El saldo reconstruido de la cuenta {} ({}) no coincide con su saldo actual ({})", 
+                        cuenta.getNumeroCuenta(), saldo, cuenta.getSaldoActual());
+        }
+        // Los estados de cuenta cacheados toman la apertura de estos resúmenes
+        eventPublisher.publishEvent(new CuentaModificadaEvent(cuentaId, cuenta.getClienteId()));
+        return new ResultadoCuenta(resumenes.size(), cuadra);
+    }
+
+    private record ResultadoCuenta(int periodos, boolean cuadra) {}
+}
@@ -0,0 +1,219 @@
+package com.banco.ms_banco.service.Impl;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.datasource.CoordinadorShards;
+import com.banco.ms_banco.datasource.DirectorioCuentas;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.dto.transferencias.TransferenciaRequestDTO;
+import com.banco.ms_banco.dto.transferencias.TransferenciaResponseDTO;
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+import com.banco.ms_banco.exception.CuentaInactivaException;
+import com.banco.ms_banco.exception.CuentaNotFoundException;
+import com.banco.ms_banco.exception.MovimientoInvalidoException;
+import com.banco.ms_banco.exception.SaldoInsuficienteException;
+import com.banco.ms_banco.mapper.MovimientoMapper;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.model.Movimiento;
+import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.MovimientoRepository;
+import com.banco.ms_banco.service.TransferenciaService;
+
+@Service
+public class TransferenciaServiceImpl implements TransferenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferenciaService.class);
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private MovimientoMapper movimientoMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Autowired
+    private DirectorioCuentas directorioCuentas;
+
+    @Autowired
+    private CoordinadorShards coordinadorShards;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * La transacción se abre dentro del shard que corresponde: en un mismo shard, con su propio
+     * {@link TransactionTemplate}; entre shards, una por shard a cargo de {@link CoordinadorShards}.
+     */
+    @Override
+    public TransferenciaResponseDTO realizarTransferencia(TransferenciaRequestDTO transferenciaRequest) {
+        String numeroOrigen = transferenciaRequest.getNumeroCuentaOrigen();
+        String numeroDestino = transferenciaRequest.getNumeroCuentaDestino();
+        try {
+            logger.info("Transfiriendo {} de la cuenta {} a la cuenta {}", 
+                        transferenciaRequest.getValor(), numeroOrigen, numeroDestino);
+
+            validarTransferencia(transferenciaRequest);
+
+            int shardOrigen = directorioCuentas.shardDe(numeroOrigen);
+            int shardDestino = directorioCuentas.shardDe(numeroDestino);
+            if (shardOrigen == shardDestino) {
+                return enrutadorShards.enShard(shardOrigen,
+                    () -> transactionTemplate.execute(estado -> transferir(transferenciaRequest)));
+            }
+            return coordinadorShards.ejecutar(
+                pasos -> transferirEntreShards(pasos, transferenciaRequest, shardOrigen, shardDestino));
+
+        } catch (CuentaNotFoundException | SaldoInsuficienteException | 
+                CuentaInactivaException | MovimientoInvalidoException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al transferir de la cuenta {} a la cuenta {}", numeroOrigen, numeroDestino, e);
+            throw new RuntimeException("Error al realizar la transferencia: " + e.getMessage());
+        }
+    }
+
+    private void validarTransferencia(TransferenciaRequestDTO transferenciaRequest) {
+        if (transferenciaRequest.getNumeroCuentaOrigen().equals(transferenciaRequest.getNumeroCuentaDestino())) {
+            throw new MovimientoInvalidoException("La cuenta origen y destino no pueden ser la misma");
+        }
+
+        if (transferenciaRequest.getValor().compareTo(new BigDecimal("0.01")) < 0) {
+            throw new MovimientoInvalidoException("El valor mínimo de la transferencia es 0.01");
+        }
+
+        if (transferenciaRequest.getValor().compareTo(new BigDecimal("1000000")) > 0) {
+            throw new MovimientoInvalidoException("El valor máximo de la transferencia es 1,000,000.00");
+        }
+    }
+
+    private TransferenciaResponseDTO transferir(TransferenciaRequestDTO transferenciaRequest) {
+        String numeroOrigen = transferenciaRequest.getNumeroCuentaOrigen();
+        String numeroDestino = transferenciaRequest.getNumeroCuentaDestino();
+
+        // Las dos filas se bloquean en orden de cuentaId: transferencias cruzadas no pueden interbloquearse
+        Map<String, Cuenta> cuentas = bloquearCuentas(numeroOrigen, numeroDestino);
+        Cuenta origen = obtenerYValidarCuenta(cuentas, numeroOrigen);
+        Cuenta destino = obtenerYValidarCuenta(cuentas, numeroDestino);
+
+        BigDecimal valor = transferenciaRequest.getValor();
+        if (origen.getSaldoActual().compareTo(valor) < 0) {
+            throw new SaldoInsuficienteException(origen.getSaldoActual(), valor);
+        }
+
+        origen.setSaldoActual(origen.getSaldoActual().subtract(valor));
+        destino.setSaldoActual(destino.getSaldoActual().add(valor));
+
+        Movimiento retiro = new Movimiento("RETIRO", valor, origen.getSaldoActual(), origen);
+        Movimiento deposito = new Movimiento("DEPOSITO", valor, destino.getSaldoActual(), destino);
+        movimientoRepository.saveAll(List.of(retiro, deposito));
+        eventPublisher.publishEvent(
+            MovimientoRegistradoEvent.de(retiro, origen.getCuentaId(), numeroOrigen, origen.getClienteId()));
+        eventPublisher.publishEvent(
+            MovimientoRegistradoEvent.de(deposito, destino.getCuentaId(), numeroDestino, destino.getClienteId()));
+
+        logger.info("Transferencia registrada. Cuenta {} nuevo saldo: {}, cuenta {} nuevo saldo: {}", 
+                    numeroOrigen, origen.getSaldoActual(), numeroDestino, destino.getSaldoActual());
+
+        return TransferenciaResponseDTO.builder()
+                .numeroCuentaOrigen(numeroOrigen)
+                .numeroCuentaDestino(numeroDestino)
+                .valor(valor)
+                .retiro(movimientoMapper.toResponseDTO(retiro))
+                .deposito(movimientoMapper.toResponseDTO(deposito))
+                .build();
+    }
+
+    /**
+     * Cada cuenta se bloquea y se mueve en la transacción de su shard, y ambas se confirman o revierten juntas. Los
+     * ids de un shard son menores que los del siguiente: bloquear primero la cuenta del shard menor respeta el mismo
+     * orden de cuentaId que las transferencias dentro de un shard.
+     */
+    private TransferenciaResponseDTO transferirEntreShards(CoordinadorShards.Pasos pasos,
+                                                           TransferenciaRequestDTO transferenciaRequest,
+                                                           int shardOrigen, int shardDestino) {
+        String numeroOrigen = transferenciaRequest.getNumeroCuentaOrigen();
+        String numeroDestino = transferenciaRequest.getNumeroCuentaDestino();
+
+        Map<String, Cuenta> cuentas = new HashMap<>();
+        if (shardOrigen < shardDestino) {
+            cuentas.putAll(pasos.en(shardOrigen, () -> bloquearCuentas(numeroOrigen)));
+            cuentas.putAll(pasos.en(shardDestino, () -> bloquearCuentas(numeroDestino)));
+        } else {
+            cuentas.putAll(pasos.en(shardDestino, () -> bloquearCuentas(numeroDestino)));
+            cuentas.putAll(pasos.en(shardOrigen, () -> bloquearCuentas(numeroOrigen)));
+        }
+        Cuenta origen = obtenerYValidarCuenta(cuentas, numeroOrigen);
+        Cuenta destino = obtenerYValidarCuenta(cuentas, numeroDestino);
+
+        BigDecimal valor = transferenciaRequest.getValor();
+        if (origen.getSaldoActual().compareTo(valor) < 0) {
+            throw new SaldoInsuficienteException(origen.getSaldoActual(), valor);
+        }
+
+        MovimientoResponseDTO retiro = pasos.en(shardOrigen,
+            () -> registrar(origen, "RETIRO", valor, origen.getSaldoActual().subtract(valor)));
+        MovimientoResponseDTO deposito = pasos.en(shardDestino,
+            () -> registrar(destino, "DEPOSITO", valor, destino.getSaldoActual().add(valor)));
+
+        logger.info("Transferencia entre shards {} y {} registrada. Cuenta {} nuevo saldo: {}, cuenta {} nuevo saldo: {}",
+                    shardOrigen, shardDestino, numeroOrigen, retiro.getSaldo(), numeroDestino, deposito.getSaldo());
+
+        return TransferenciaResponseDTO.builder()
+                .numeroCuentaOrigen(numeroOrigen)
+                .numeroCuentaDestino(numeroDestino)
+                .valor(valor)
+                .retiro(retiro)
+                .deposito(deposito)
+                .build();
+    }
+
+    private MovimientoResponseDTO registrar(Cuenta cuenta, String tipoMovimiento, BigDecimal valor, BigDecimal nuevoSaldo) {
+        cuenta.setSaldoActual(nuevoSaldo);
+        Movimiento movimiento = movimientoRepository.save(new Movimiento(tipoMovimiento, valor, nuevoSaldo, cuenta));
+        eventPublisher.publishEvent(
+            MovimientoRegistradoEvent.de(movimiento, cuenta.getCuentaId(), cuenta.getNumeroCuenta(), cuenta.getClienteId()));
+        return movimientoMapper.toResponseDTO(movimiento);
+    }
+
+    private Map<String, Cuenta> bloquearCuentas(String... numerosCuenta) {
+        List<Long> cuentaIds = cuentaRepository.findCuentaIdsByNumeroCuentaIn(List.of(numerosCuenta));
+        if (cuentaIds.isEmpty()) {
+            return Map.of();
+        }
+        return cuentaRepository.findByCuentaIdInForUpdate(cuentaIds)
+                .stream()
+                .collect(Collectors.toMap(Cuenta::getNumeroCuenta, Function.identity()));
+    }
+
+    private Cuenta obtenerYValidarCuenta(Map<String, Cuenta> cuentas, String numeroCuenta) {
+        Cuenta cuenta = cuentas.get(numeroCuenta);
+        if (cuenta == null) {
+            throw new CuentaNotFoundException(numeroCuenta, true);
+        }
+        if (!"ACTIVA".equals(cuenta.getEstado())) {
+            throw new CuentaInactivaException(cuenta.getNumeroCuenta(), cuenta.getEstado());
+        }
+        return cuenta;
+    }
+}
@@ -0,0 +1,9 @@
+package com.banco.ms_banco.service;
+
+import com.banco.ms_banco.dto.saldos.VerificacionSaldosDTO;
+
+public interface IntegridadSaldosService {
+
+    VerificacionSaldosDTO iniciarVerificacion(boolean reparar);
+    VerificacionSaldosDTO consultarVerificacion();
+}
@@ -0,0 +1,12 @@
+package com.banco.ms_banco.service;
+
+import com.banco.ms_banco.dto.metricas.ColaMetricasDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
+import com.banco.ms_banco.dto.movimientos.TicketMovimientoDTO;
+
+public interface MovimientoAsincronoService {
+
+    TicketMovimientoDTO encolarMovimiento(String numeroCuenta, MovimientoRequestDTO movimientoRequest, String claveIdempotencia);
+    TicketMovimientoDTO consultarTicket(String ticketId);
+    ColaMetricasDTO obtenerMetricas();
+}
@@ -3,15 +3,24 @@ package com.banco.ms_banco.service;
 import java.math.BigDecimal;
 import java.util.List;
 
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteRequestDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteResponseDTO;
 import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
 import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.dto.movimientos.PaginaMovimientosDTO;
 import com.banco.ms_banco.model.Cuenta;
 
 public interface MovimientoService {
 
     MovimientoResponseDTO registrarMovimiento(String numeroCuenta, MovimientoRequestDTO movimientoRequest);
+    MovimientoResponseDTO registrarMovimiento(String numeroCuenta, MovimientoRequestDTO movimientoRequest, String claveIdempotencia);
+    void validarSolicitud(String numeroCuenta, MovimientoRequestDTO movimientoRequest, String claveIdempotencia);
+    MovimientoLoteResponseDTO registrarMovimientosLote(MovimientoLoteRequestDTO loteRequest);
     List<MovimientoResponseDTO> obtenerMovimientosPorCuenta(Long cuentaId);
     List<MovimientoResponseDTO> obtenerMovimientosPorCliente(Long clienteId);
+    PaginaMovimientosDTO obtenerPaginaMovimientosPorCuenta(Long cuentaId, String cursor, Integer tamano);
+    PaginaMovimientosDTO obtenerPaginaMovimientosPorCliente(Long clienteId, String cursor, Integer tamano);
+    PaginaMovimientosDTO obtenerPaginaMovimientos(String cursor, Integer tamano);
     MovimientoResponseDTO obtenerMovimientoPorId(Long movimientoId);
     List<MovimientoResponseDTO> obtenerTodosLosMovimientos();
     BigDecimal calcularSaldoDisponible(Long cuentaId);
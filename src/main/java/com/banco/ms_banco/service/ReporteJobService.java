@@ -0,0 +1,16 @@
+package com.banco.ms_banco.service;
+
+import java.nio.file.Path;
+
+import com.banco.ms_banco.dto.metricas.ColaMetricasDTO;
+import com.banco.ms_banco.dto.reportes.ReporteJobDTO;
+import com.banco.ms_banco.dto.reportes.ReporteJobRequestDTO;
+
+public interface ReporteJobService {
+
+    ReporteJobDTO encolarReporte(ReporteJobRequestDTO jobRequest);
+    ReporteJobDTO consultarJob(String jobId);
+    Path obtenerArchivo(String jobId);
+    int purgarJobsVencidos();
+    ColaMetricasDTO obtenerMetricas();
+}
@@ -1,14 +1,28 @@
 package com.banco.ms_banco.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.Optional;
 
+import com.banco.ms_banco.cache.ReporteCache.PdfReporte;
 import com.banco.ms_banco.dto.FileBase64DTO;
 import com.banco.ms_banco.dto.reportes.EstadoCuentaReporteDTO;
+import com.banco.ms_banco.report.DatosEstadoCuenta;
+import com.banco.ms_banco.report.ExportadorMovimientos.Formato;
 
 public interface ReporteService {
 
     EstadoCuentaReporteDTO generarReporteEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
     FileBase64DTO generarReporteEstadoCuentaPDF(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
+    Optional<PdfReporte> obtenerPDFCacheado(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
+    DatosEstadoCuenta cargarDatosEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
+    DatosEstadoCuenta cargarCabeceraEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
+    void escribirReporteEstadoCuentaPDFEnFlujo(DatosEstadoCuenta cabecera, OutputStream salida);
+    String nombreArchivoPDF(DatosEstadoCuenta datos);
+    long exportarMovimientos(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, Formato formato,
+                             OutputStream salida) throws IOException;
     void validarFechas(String fechaInicioStr, String fechaFinStr);
+    void validarFechasRangoLargo(String fechaInicioStr, String fechaFinStr);
     
 }
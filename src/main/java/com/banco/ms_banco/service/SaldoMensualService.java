@@ -0,0 +1,12 @@
+package com.banco.ms_banco.service;
+
+import com.banco.ms_banco.dto.saldos.ReconstruccionSaldosDTO;
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+
+public interface SaldoMensualService {
+
+    void acumularMovimiento(MovimientoRegistradoEvent evento);
+    ReconstruccionSaldosDTO reconstruirCuenta(Long cuentaId);
+    ReconstruccionSaldosDTO reconstruirTodas();
+    ReconstruccionSaldosDTO repararCuenta(Long cuentaId);
+}
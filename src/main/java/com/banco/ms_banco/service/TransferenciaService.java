@@ -0,0 +1,9 @@
+package com.banco.ms_banco.service;
+
+import com.banco.ms_banco.dto.transferencias.TransferenciaRequestDTO;
+import com.banco.ms_banco.dto.transferencias.TransferenciaResponseDTO;
+
+public interface TransferenciaService {
+
+    TransferenciaResponseDTO realizarTransferencia(TransferenciaRequestDTO transferenciaRequest);
+}
@@ -0,0 +1,180 @@
+package com.banco.ms_banco.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchivoColumnarTest {
+
+    private static final YearMonth PERIODO = YearMonth.of(2024, 3);
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void archivoColumnar_IdaYVuelta_DevuelveLasMismasFilas() throws Exception {
+        List<MovimientoProyeccion> filas = generarFilas(40, 25);
+        Path archivo = escribir(filas);
+
+        LectorColumnar lector = LectorColumnar.abrir(archivo);
+        List<MovimientoProyeccion> leidas = new ArrayList<>();
+        lector.iterador().forEachRemaining(leidas::add);
+
+        assertEquals(PERIODO, lector.periodo());
+        assertEquals(40, lector.cuentas());
+        assertEquals(filas.size(), lector.filas());
+        assertEquals(filas.size(), leidas.size());
+        for (int i = 0; i < filas.size(); i++) {
+            assertMismaFila(filas.get(i), leidas.get(i));
+        }
+    }
+
+    @Test
+    void archivoColumnar_CuentaYResumen_SeLeenDelIndice() throws Exception {
+        List<MovimientoProyeccion> filas = generarFilas(10, 8);
+        LectorColumnar lector = LectorColumnar.abrir(escribir(filas));
+
+        List<MovimientoProyeccion> deLaCuenta = filas.stream().filter(f -> f.cuentaId() == 7L).toList();
+        List<MovimientoProyeccion> leidas = lector.movimientos(7L);
+        assertEquals(deLaCuenta.size(), leidas.size());
+        for (int i = 0; i < leidas.size(); i++) {
+            assertMismaFila(deLaCuenta.get(i), leidas.get(i));
+        }
+
+        LectorColumnar.ResumenCuenta resumen = lector.resumen(7L).orElseThrow();
+        MovimientoProyeccion primera = deLaCuenta.get(0);
+        assertEquals(deLaCuenta.size(), resumen.cantidadMovimientos());
+        assertEquals(0, aperturaDe(primera).compareTo(resumen.saldoApertura()));
+        assertEquals(0, deLaCuenta.get(deLaCuenta.size() - 1).saldo().compareTo(resumen.saldoCierre()));
+        assertEquals(primera.fecha(), resumen.primeraFecha());
+
+        assertTrue(lector.resumen(999L).isEmpty());
+        assertTrue(lector.movimientos(999L).isEmpty());
+    }
+
+    @Test
+    void archivoColumnar_SaldoFueraDeCadena_SeConservaExacto() throws Exception {
+        LocalDateTime fecha = PERIODO.atDay(5).atTime(10, 0);
+        List<MovimientoProyeccion> filas = List.of(
+            new MovimientoProyeccion(5L, fecha, "DEPOSITO", new BigDecimal("100.00"), new BigDecimal("600.00"), 1L, "478758"),
+            // Saldo que no cuadra con el anterior: el residuo debe guardarlo tal cual
+            new MovimientoProyeccion(3L, fecha, "RETIRO", new BigDecimal("50.25"), new BigDecimal("12.34"), 1L, "478758"));
+
+        LectorColumnar lector = LectorColumnar.abrir(escribir(filas));
+
+        List<MovimientoProyeccion> leidas = lector.movimientos(1L);
+        assertMismaFila(filas.get(0), leidas.get(0));
+        assertMismaFila(filas.get(1), leidas.get(1));
+    }
+
+    @Test
+    void archivoColumnar_PrimeraFilaFueraDeCadena_ConservaLaAperturaRecibida() throws Exception {
+        LocalDateTime fecha = PERIODO.atDay(2).atTime(9, 0);
+        // La apertura del mes es 500.00, pero la primera fila dice 700.00 después de depositar 100.00
+        List<MovimientoProyeccion> filas = List.of(
+            new MovimientoProyeccion(8L, fecha, "DEPOSITO", new BigDecimal("100.00"), new BigDecimal("700.00"), 4L, "998877"),
+            new MovimientoProyeccion(9L, fecha.plusHours(1), "RETIRO", new BigDecimal("50.00"), new BigDecimal("650.00"), 4L, "998877"));
+
+        LectorColumnar lector = LectorColumnar.abrir(escribir(filas, Map.of(4L, new BigDecimal("500.00"))));
+
+        LectorColumnar.ResumenCuenta resumen = lector.resumen(4L).orElseThrow();
+        assertEquals(0, new BigDecimal("500.00").compareTo(resumen.saldoApertura()));
+        assertEquals(0, new BigDecimal("650.00").compareTo(resumen.saldoCierre()));
+        List<MovimientoProyeccion> leidas = lector.movimientos(4L);
+        assertMismaFila(filas.get(0), leidas.get(0));
+        assertMismaFila(filas.get(1), leidas.get(1));
+    }
+
+    @Test
+    void escritorColumnar_CuentaSinSaldoDeApertura_LanzaExcepcion() throws Exception {
+        LocalDateTime fecha = PERIODO.atDay(5).atStartOfDay();
+        try (EscritorColumnar escritor = new EscritorColumnar(directorio.resolve("sin-apertura.mbca"), PERIODO,
+                                                              cuentaId -> Optional.empty())) {
+            assertThrows(IllegalStateException.class, () -> escritor.agregar(
+                new MovimientoProyeccion(1L, fecha, "DEPOSITO", BigDecimal.ONE, BigDecimal.ONE, 2L, "225487")));
+        }
+    }
+
+    @Test
+    void escritorColumnar_FilasDesordenadas_LanzaExcepcion() throws Exception {
+        LocalDateTime fecha = PERIODO.atDay(5).atStartOfDay();
+        try (EscritorColumnar escritor = new EscritorColumnar(directorio.resolve("desordenado.mbca"), PERIODO,
+                                                              cuentaId -> Optional.of(BigDecimal.ZERO))) {
+            escritor.agregar(new MovimientoProyeccion(1L, fecha, "DEPOSITO", BigDecimal.ONE, BigDecimal.ONE, 2L, "225487"));
+
+            assertThrows(IllegalStateException.class, () -> escritor.agregar(
+                new MovimientoProyeccion(2L, fecha, "DEPOSITO", BigDecimal.ONE, BigDecimal.TEN, 1L, "478758")));
+            assertThrows(IllegalArgumentException.class, () -> escritor.agregar(
+                new MovimientoProyeccion(3L, fecha.plusMonths(1), "DEPOSITO", BigDecimal.ONE, BigDecimal.TEN, 2L, "225487")));
+        }
+    }
+
+    // Aperturas como las daría SALDO_MENSUAL para una cadena sana: el saldo antes de la primera fila de cada cuenta
+    private Path escribir(List<MovimientoProyeccion> filas) throws Exception {
+        Map<Long, BigDecimal> aperturas = new HashMap<>();
+        for (MovimientoProyeccion fila : filas) {
+            aperturas.putIfAbsent(fila.cuentaId(), aperturaDe(fila));
+        }
+        return escribir(filas, aperturas);
+    }
+
+    private Path escribir(List<MovimientoProyeccion> filas, Map<Long, BigDecimal> aperturas) throws Exception {
+        Path archivo = directorio.resolve("movimientos-" + PERIODO + ".mbca");
+        try (EscritorColumnar escritor = new EscritorColumnar(archivo, PERIODO,
+                                                              cuentaId -> Optional.ofNullable(aperturas.get(cuentaId)))) {
+            for (MovimientoProyeccion fila : filas) {
+                escritor.agregar(fila);
+            }
+            escritor.terminar();
+        }
+        return archivo;
+    }
+
+    // Filas ordenadas por (cuentaId, fecha, movimientoId) con saldos encadenados, como las entrega el cursor
+    private static List<MovimientoProyeccion> generarFilas(int cuentas, int movimientosPorCuenta) {
+        List<MovimientoProyeccion> filas = new ArrayList<>();
+        long movimientoId = 1;
+        for (long cuentaId = 1; cuentaId <= cuentas; cuentaId++) {
+            BigDecimal saldo = BigDecimal.valueOf(1000 + cuentaId * 37, 2);
+            LocalDateTime fecha = PERIODO.atDay(1).atTime(8, 0).plusSeconds(cuentaId);
+            for (int i = 0; i < movimientosPorCuenta; i++) {
+                boolean retiro = i % 3 == 2;
+                BigDecimal valor = BigDecimal.valueOf(125 + i * 991L + cuentaId, 2);
+                saldo = retiro ? saldo.subtract(valor) : saldo.add(valor);
+                fecha = fecha.plusMinutes(i * 97L).plusNanos(123_000);
+                filas.add(new MovimientoProyeccion(movimientoId * 3 + cuentaId, fecha, retiro ? "RETIRO" : "DEPOSITO",
+                                                   valor, saldo, cuentaId, String.format("%06d", 100000 + cuentaId)));
+                movimientoId++;
+            }
+        }
+        return filas;
+    }
+
+    private static BigDecimal aperturaDe(MovimientoProyeccion primera) {
+        return "RETIRO".equals(primera.tipoMovimiento())
+                ? primera.saldo().add(primera.valor()) : primera.saldo().subtract(primera.valor());
+    }
+
+    private static void assertMismaFila(MovimientoProyeccion esperada, MovimientoProyeccion leida) {
+        assertEquals(esperada.movimientoId(), leida.movimientoId());
+        assertEquals(esperada.fecha(), leida.fecha());
+        assertEquals(esperada.tipoMovimiento(), leida.tipoMovimiento());
+        assertEquals(0, esperada.valor().compareTo(leida.valor()));
+        assertEquals(0, esperada.saldo().compareTo(leida.saldo()));
+        assertEquals(esperada.cuentaId(), leida.cuentaId());
+        assertEquals(esperada.numeroCuenta(), leida.numeroCuenta());
+    }
+}
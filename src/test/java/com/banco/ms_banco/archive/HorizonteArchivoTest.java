@@ -0,0 +1,74 @@
+package com.banco.ms_banco.archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banco.ms_banco.datasource.ConsistenciaLecturas;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.datasource.PropiedadesShards;
+import com.banco.ms_banco.repository.MovimientoArchivadoRepository;
+
+class HorizonteArchivoTest {
+
+    private final MovimientoArchivadoRepository repositorio = mock(MovimientoArchivadoRepository.class);
+    private final HorizonteArchivo horizonte = new HorizonteArchivo();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(horizonte, "movimientoArchivadoRepository", repositorio);
+        ReflectionTestUtils.setField(horizonte, "enrutadorShards",
+            new EnrutadorShards(new PropiedadesShards(), null, new ConsistenciaLecturas(0, 1)));
+        ReflectionTestUtils.setField(horizonte, "horizonteMeses", 24);
+    }
+
+    @Test
+    void alcanza_SinArchivoVerificado_ConsultaElArchivoAntesDeLaFronteraConfigurada() {
+        // Arrange: otra instancia puede estar archivando aunque esta todavía no haya visto filas
+        when(repositorio.findMaxFecha()).thenReturn(Optional.empty());
+        LocalDateTime configurada = LocalDate.now().withDayOfMonth(1).minusMonths(24).atStartOfDay();
+
+        // Act
+        horizonte.verificarArchivo();
+
+        // Assert
+        assertEquals(configurada, horizonte.frontera());
+        assertTrue(horizonte.alcanza(configurada.minusNanos(1)));
+        assertFalse(horizonte.alcanza(configurada));
+    }
+
+    @Test
+    void frontera_ConArchivoPosteriorAlHorizonte_NoRetrocede() {
+        // Arrange: se archivó con un horizonte más corto que el configurado ahora
+        LocalDateTime archivadaMasReciente = LocalDate.now().withDayOfMonth(1).minusMonths(6).atTime(10, 30);
+        when(repositorio.findMaxFecha()).thenReturn(Optional.of(archivadaMasReciente));
+
+        // Act
+        horizonte.verificarArchivo();
+
+        // Assert
+        assertTrue(horizonte.frontera().isAfter(archivadaMasReciente));
+        assertTrue(horizonte.alcanza(archivadaMasReciente));
+        assertFalse(horizonte.alcanza(archivadaMasReciente.plusSeconds(1)));
+    }
+
+    @Test
+    void frontera_ConArchivoAnteriorAlHorizonte_UsaElHorizonteConfigurado() {
+        // Arrange
+        LocalDateTime configurada = LocalDate.now().withDayOfMonth(1).minusMonths(24).atStartOfDay();
+        horizonte.marcarArchivadoHasta(configurada.minusMonths(3));
+
+        // Act
+        LocalDateTime frontera = horizonte.frontera();
+
+        // Assert
+        assertEquals(configurada, frontera);
+    }
+}
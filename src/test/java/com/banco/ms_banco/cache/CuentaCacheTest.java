@@ -0,0 +1,138 @@
+package com.banco.ms_banco.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.repository.CuentaRepository;
+
+class CuentaCacheTest {
+
+    private static final String NUMERO = "0000000001";
+
+    private final CuentaRepository repositorio = mock(CuentaRepository.class);
+    private final CuentaCache cache = new CuentaCache(repositorio, 10, Duration.ofMinutes(10));
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void buscarPorNumero_SegundaLectura_SeSirveDeAmbosIndices() {
+        // Arrange
+        when(repositorio.findByNumeroCuenta(NUMERO)).thenReturn(Optional.of(cuenta("ACTIVA")));
+
+        // Act
+        cache.buscarPorNumero(NUMERO);
+        Optional<CuentaCache.DatosCuenta> porNumero = cache.buscarPorNumero(NUMERO);
+        Optional<CuentaCache.DatosCuenta> porId = cache.buscarPorId(1L);
+
+        // Assert
+        assertEquals("ACTIVA", porNumero.orElseThrow().estado());
+        assertEquals(porNumero, porId);
+        verify(repositorio, times(1)).findByNumeroCuenta(NUMERO);
+        verify(repositorio, never()).findById(any());
+    }
+
+    @Test
+    void buscarPorNumero_InvalidadaDuranteLaCarga_NoGuardaLoCargado() {
+        // Arrange: el cambio de estado se confirma mientras la carga todavía tiene la fila anterior
+        when(repositorio.findByNumeroCuenta(NUMERO))
+            .thenAnswer(invocacion -> {
+                cache.invalidar(1L, NUMERO);
+                return Optional.of(cuenta("ACTIVA"));
+            })
+            .thenReturn(Optional.of(cuenta("BLOQUEADA")));
+
+        // Act
+        assertEquals("ACTIVA", cache.buscarPorNumero(NUMERO).orElseThrow().estado());
+        Optional<CuentaCache.DatosCuenta> siguiente = cache.buscarPorNumero(NUMERO);
+
+        // Assert
+        assertEquals("BLOQUEADA", siguiente.orElseThrow().estado());
+        verify(repositorio, times(2)).findByNumeroCuenta(NUMERO);
+    }
+
+    @Test
+    void buscarPorId_EnTransaccionDeSoloLectura_NoLaGuarda() {
+        // Arrange
+        when(repositorio.findById(1L)).thenReturn(Optional.of(cuenta("ACTIVA")));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        cache.buscarPorId(1L);
+        cache.buscarPorId(1L);
+
+        // Assert
+        verify(repositorio, times(2)).findById(1L);
+    }
+
+    @Test
+    void invalidar_AlCambiarElEstado_LaSiguienteLecturaTraeElNuevo() {
+        // Arrange
+        when(repositorio.findById(1L))
+            .thenReturn(Optional.of(cuenta("ACTIVA")))
+            .thenReturn(Optional.of(cuenta("BLOQUEADA")));
+        cache.buscarPorId(1L);
+
+        // Act
+        cache.invalidar(1L, NUMERO);
+
+        // Assert
+        assertEquals("BLOQUEADA", cache.buscarPorId(1L).orElseThrow().estado());
+    }
+
+    @Test
+    void invalidar_ConTransaccionEnCurso_DescartaDeNuevoLaLecturaAnteriorAlCommit() {
+        // Arrange: una lectura concurrente vuelve a cargar el estado anterior antes del commit
+        when(repositorio.findById(1L))
+            .thenReturn(Optional.of(cuenta("ACTIVA")))
+            .thenReturn(Optional.of(cuenta("BLOQUEADA")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cache.invalidar(1L, NUMERO);
+        assertEquals("ACTIVA", cache.buscarPorId(1L).orElseThrow().estado());
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert
+        assertEquals("BLOQUEADA", cache.buscarPorId(1L).orElseThrow().estado());
+    }
+
+    @Test
+    void buscarPorNumero_CuentaCreadaDespuesDeUnaBusquedaFallida_LaEncuentra() {
+        // Arrange: las cuentas inexistentes no se cachean
+        when(repositorio.findByNumeroCuenta(NUMERO))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(cuenta("ACTIVA")));
+        assertTrue(cache.buscarPorNumero(NUMERO).isEmpty());
+
+        // Act
+        Optional<CuentaCache.DatosCuenta> creada = cache.buscarPorNumero(NUMERO);
+
+        // Assert
+        assertTrue(creada.isPresent());
+        assertEquals(1L, creada.get().cuentaId());
+    }
+
+    private static Cuenta cuenta(String estado) {
+        Cuenta cuenta = new Cuenta(NUMERO, "AHORROS", BigDecimal.TEN, 7L);
+        cuenta.setCuentaId(1L);
+        cuenta.setEstado(estado);
+        return cuenta;
+    }
+}
@@ -0,0 +1,95 @@
+package com.banco.ms_banco.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.banco.ms_banco.dto.reportes.EstadoCuentaReporteDTO;
+import com.banco.ms_banco.event.CuentaModificadaEvent;
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+
+class ReporteCacheTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FIN = LocalDate.of(2024, 1, 31);
+
+    private final ReporteCache cache = new ReporteCache(true, 10, 10, Duration.ofMinutes(10));
+
+    @Test
+    void guardarReporte_ConGeneracionVigente_LoGuarda() {
+        // Act
+        guardar(1L);
+
+        // Assert
+        assertTrue(cache.obtenerReporte(1L, INICIO, FIN).isPresent());
+    }
+
+    @Test
+    void guardarReporte_ConMovimientoDuranteLaCarga_NoLoGuarda() {
+        // Arrange: la carga empieza antes de que se confirme un movimiento del cliente
+        long generacion = cache.generacion(1L);
+        cache.alRegistrarMovimiento(movimiento(1L, LocalDate.of(2023, 6, 1)));
+
+        // Act
+        cache.guardarReporte(1L, INICIO, FIN, reporte(1L), generacion);
+
+        // Assert
+        assertTrue(cache.obtenerReporte(1L, INICIO, FIN).isEmpty());
+    }
+
+    @Test
+    void alRegistrarMovimiento_SoloDescartaLosRangosQueIncluyenSuFecha() {
+        // Arrange
+        guardar(1L);
+        guardar(1L, INICIO.plusYears(1), FIN.plusYears(1));
+
+        // Act
+        cache.alRegistrarMovimiento(movimiento(1L, LocalDate.of(2024, 1, 15)));
+
+        // Assert
+        assertTrue(cache.obtenerReporte(1L, INICIO, FIN).isEmpty());
+        assertTrue(cache.obtenerReporte(1L, INICIO.plusYears(1), FIN.plusYears(1)).isPresent());
+    }
+
+    @Test
+    void alModificarCuenta_DescartaTodosLosRangosDelCliente() {
+        // Arrange
+        guardar(1L);
+        guardar(1L, INICIO.plusYears(1), FIN.plusYears(1));
+        guardar(2L);
+        cache.guardarPDF(1L, INICIO, FIN, new ReporteCache.PdfReporte("reporte.pdf", new byte[] {1}), cache.generacion(1L));
+        long generacionAntes = cache.generacion(1L);
+
+        // Act
+        cache.alModificarCuenta(new CuentaModificadaEvent(10L, 1L));
+
+        // Assert
+        assertTrue(cache.obtenerReporte(1L, INICIO, FIN).isEmpty());
+        assertTrue(cache.obtenerReporte(1L, INICIO.plusYears(1), FIN.plusYears(1)).isEmpty());
+        assertTrue(cache.obtenerPDF(1L, INICIO, FIN).isEmpty());
+        assertTrue(cache.obtenerReporte(2L, INICIO, FIN).isPresent());
+        assertNotEquals(generacionAntes, cache.generacion(1L));
+    }
+
+    private void guardar(Long clienteId) {
+        guardar(clienteId, INICIO, FIN);
+    }
+
+    private void guardar(Long clienteId, LocalDate inicio, LocalDate fin) {
+        cache.guardarReporte(clienteId, inicio, fin, reporte(clienteId), cache.generacion(clienteId));
+    }
+
+    private static EstadoCuentaReporteDTO reporte(Long clienteId) {
+        return new EstadoCuentaReporteDTO(clienteId, INICIO, FIN, List.of());
+    }
+
+    private static MovimientoRegistradoEvent movimiento(Long clienteId, LocalDate fecha) {
+        return new MovimientoRegistradoEvent(1L, 10L, "0000000001", clienteId, "DEPOSITO",
+                                             BigDecimal.TEN, BigDecimal.TEN, fecha.atStartOfDay());
+    }
+}
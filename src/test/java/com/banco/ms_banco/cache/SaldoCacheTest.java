@@ -0,0 +1,110 @@
+package com.banco.ms_banco.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+
+class SaldoCacheTest {
+
+    private final SaldoCache cache = new SaldoCache(true, 10, Duration.ofMinutes(5));
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void alRegistrarMovimiento_DespuesDeUnaLectura_ReemplazaElSaldo() {
+        // Arrange
+        cache.guardarLectura(1L, new BigDecimal("100.00"));
+
+        // Act
+        cache.alRegistrarMovimiento(movimiento(5L, "150.00"));
+
+        // Assert
+        assertEquals(Optional.of(new BigDecimal("150.00")), cache.obtener(1L));
+    }
+
+    @Test
+    void alRegistrarMovimiento_MovimientoAnteriorNotificadoDespues_NoPisaAlMasReciente() {
+        // Arrange
+        cache.alRegistrarMovimiento(movimiento(7L, "200.00"));
+
+        // Act
+        cache.alRegistrarMovimiento(movimiento(5L, "150.00"));
+
+        // Assert
+        assertEquals(Optional.of(new BigDecimal("200.00")), cache.obtener(1L));
+    }
+
+    @Test
+    void guardarLectura_ConEntradaDeUnCommit_ConservaElSaldoDelCommit() {
+        // Arrange: el commit se notificó entre la lectura en base y este punto
+        cache.alRegistrarMovimiento(movimiento(5L, "150.00"));
+
+        // Act
+        cache.guardarLectura(1L, new BigDecimal("100.00"));
+
+        // Assert
+        assertEquals(Optional.of(new BigDecimal("150.00")), cache.obtener(1L));
+    }
+
+    @Test
+    void guardarLectura_EnTransaccionDeSoloLectura_NoLaGuarda() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        cache.guardarLectura(1L, new BigDecimal("100.00"));
+
+        // Assert
+        assertTrue(cache.obtener(1L).isEmpty());
+    }
+
+    @Test
+    void invalidar_ConTransaccionEnCurso_VuelveADescartarAlTerminar() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        cache.alRegistrarMovimiento(movimiento(5L, "150.00"));
+
+        // Act: una lectura concurrente guarda el saldo anterior a la corrección antes del commit
+        cache.invalidar(1L);
+        cache.guardarLectura(1L, new BigDecimal("150.00"));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert
+        assertTrue(cache.obtener(1L).isEmpty());
+    }
+
+    @Test
+    void alRegistrarMovimiento_CacheDeshabilitada_NoGuardaNada() {
+        // Arrange
+        SaldoCache deshabilitada = new SaldoCache(false, 10, Duration.ofMinutes(5));
+
+        // Act
+        deshabilitada.alRegistrarMovimiento(movimiento(5L, "150.00"));
+
+        // Assert
+        assertFalse(deshabilitada.estaHabilitada());
+        assertTrue(deshabilitada.obtener(1L).isEmpty());
+    }
+
+    private static MovimientoRegistradoEvent movimiento(Long movimientoId, String saldo) {
+        return new MovimientoRegistradoEvent(movimientoId, 1L, "0000000001", 1L, "DEPOSITO",
+                                             BigDecimal.TEN, new BigDecimal(saldo), LocalDateTime.now());
+    }
+}
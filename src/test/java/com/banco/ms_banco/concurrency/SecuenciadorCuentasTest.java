@@ -0,0 +1,67 @@
+package com.banco.ms_banco.concurrency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.banco.ms_banco.exception.ColaLlenaException;
+
+class SecuenciadorCuentasTest {
+
+    private static final String CUENTA = "0000000001";
+
+    private final SecuenciadorCuentas secuenciador = new SecuenciadorCuentas(1, 1);
+    private final ExecutorService llamadores = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        llamadores.shutdownNow();
+        secuenciador.detener();
+    }
+
+    @Test
+    void ejecutar_ColaDelShardLlena_RechazaConColaLlenaException() throws Exception {
+        // Arrange: una tarea ocupa el hilo del shard y otra llena su cola de capacidad 1
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<String> ocupando = llamadores.submit(() -> secuenciador.ejecutar(CUENTA, () -> {
+            enCurso.countDown();
+            esperar(liberar);
+            return "primera";
+        }));
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+        Future<String> encolada = llamadores.submit(() -> secuenciador.ejecutar(CUENTA, () -> "segunda"));
+        esperarProfundidad(1);
+
+        // Act & Assert
+        assertThrows(ColaLlenaException.class, () -> secuenciador.ejecutar(CUENTA, () -> "tercera"));
+        assertEquals(1, secuenciador.obtenerMetricas().get(0).getTareasRechazadas());
+
+        liberar.countDown();
+        assertEquals("primera", ocupando.get(5, TimeUnit.SECONDS));
+        assertEquals("segunda", encolada.get(5, TimeUnit.SECONDS));
+    }
+
+    private void esperarProfundidad(int profundidad) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (secuenciador.obtenerMetricas().get(0).getProfundidadCola() < profundidad) {
+            assertTrue(System.nanoTime() < limite, "La tarea no llegó a la cola del shard");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
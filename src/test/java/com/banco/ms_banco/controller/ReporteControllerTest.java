@@ -0,0 +1,105 @@
+package com.banco.ms_banco.controller;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.banco.ms_banco.dto.cuentas.CuentaRequestDTO;
+import com.banco.ms_banco.dto.cuentas.CuentaResponseDTO;
+import com.banco.ms_banco.model.Cliente;
+import com.banco.ms_banco.model.Persona;
+import com.banco.ms_banco.repository.ClienteRepository;
+import com.banco.ms_banco.service.CuentaService;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+
+/**
+ * Verifica la descarga del PDF en flujo: el documento se escribe en la respuesta sin Content-Length, y los errores
+ * detectados al cargar la cabecera todavía se responden como JSON.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReporteControllerTest {
+
+    private static final LocalDate INICIO = LocalDate.now().minusDays(1);
+    private static final LocalDate FIN = LocalDate.now();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private Long clienteId;
+
+    @BeforeEach
+    void setUp() {
+        long sufijo = System.nanoTime() % 1_000_000L;
+        clienteId = clienteRepository.save(new Cliente("clave",
+            new Persona("20" + sufijo, "Cliente PDF Flujo", "M", 45, "Quito", "0966666666"))).getClienteId();
+    }
+
+    @Test
+    void descargarReporteEstadoCuentaPdf_ConMovimientos_EscribeElPdfSinContentLength() throws Exception {
+        // Arrange
+        CuentaResponseDTO cuenta = cuentaService.crearCuenta(
+            new CuentaRequestDTO("AHORROS", new BigDecimal("100.00"), clienteId));
+
+        // Act
+        MockHttpServletResponse respuesta = mockMvc.perform(get("/api/reportes/{clienteId}/pdf/stream", clienteId)
+                        .param("fechaInicio", INICIO.toString())
+                        .param("fechaFin", FIN.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("attachment;")))
+                .andReturn()
+                .getResponse();
+
+        // Assert
+        assertNull(respuesta.getHeader(HttpHeaders.CONTENT_LENGTH));
+        PdfReader reader = new PdfReader(respuesta.getContentAsByteArray());
+        assertTrue(reader.getNumberOfPages() >= 1);
+        assertTrue(new PdfTextExtractor(reader).getTextFromPage(1).contains(cuenta.getNumeroCuenta()));
+    }
+
+    @Test
+    void descargarReporteEstadoCuentaPdf_ClienteSinCuentas_RespondeErrorJson() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/reportes/{clienteId}/pdf/stream", clienteId)
+                        .param("fechaInicio", INICIO.toString())
+                        .param("fechaFin", FIN.toString()))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
+    @Test
+    void descargarReporteEstadoCuentaPdf_FechasFuturas_RespondeErrorJson() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/reportes/{clienteId}/pdf/stream", clienteId)
+                        .param("fechaInicio", FIN.plusDays(1).toString())
+                        .param("fechaFin", FIN.plusDays(2).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+}
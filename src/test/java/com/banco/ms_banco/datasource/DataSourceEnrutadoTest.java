@@ -0,0 +1,119 @@
+package com.banco.ms_banco.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.dto.metricas.RutaDatosMetricasDTO;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.repository.CuentaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DataSourceEnrutadoTest {
+
+    @Autowired
+    private DataSourceEnrutado dataSourceEnrutado;
+
+    @Autowired
+    private ConsistenciaLecturas consistenciaLecturas;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        consistenciaLecturas.liberarCliente();
+    }
+
+    @Test
+    void transaccionSoloLectura_SinEscrituraReciente_UsaReplica() {
+        long replicaAntes = conexiones(RutaDatos.REPLICA);
+
+        soloLectura().executeWithoutResult(status -> cuentaRepository.count());
+
+        assertEquals(replicaAntes + 1, conexiones(RutaDatos.REPLICA));
+        assertFalse(metricas(RutaDatos.REPLICA).isCompartidaConPrimaria());
+        assertEquals("replica", metricas(RutaDatos.REPLICA).getPool());
+    }
+
+    @Test
+    void transaccionSoloLectura_DespuesDeEscribirElMismoCliente_UsaPrimaria() {
+        consistenciaLecturas.fijarCliente("cliente-escritor-" + System.nanoTime());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            cuentaRepository.save(new Cuenta("91" + System.nanoTime() % 100_000_000L, "AHORROS", BigDecimal.ZERO, 1L)));
+
+        long replicaAntes = conexiones(RutaDatos.REPLICA);
+        long primariaAntes = conexiones(RutaDatos.PRIMARIA);
+        long desviadasAntes = metricas(RutaDatos.PRIMARIA).getLecturasPorEscrituraReciente();
+
+        soloLectura().executeWithoutResult(status -> cuentaRepository.count());
+
+        assertEquals(replicaAntes, conexiones(RutaDatos.REPLICA));
+        assertTrue(conexiones(RutaDatos.PRIMARIA) > primariaAntes);
+        assertEquals(desviadasAntes + 1, metricas(RutaDatos.PRIMARIA).getLecturasPorEscrituraReciente());
+
+        // Otro cliente no hereda la ventana
+        consistenciaLecturas.fijarCliente("cliente-lector-" + System.nanoTime());
+        soloLectura().executeWithoutResult(status -> cuentaRepository.count());
+        assertEquals(replicaAntes + 1, conexiones(RutaDatos.REPLICA));
+    }
+
+    @Test
+    void transaccionSoloLectura_EnPrimariaSinEscrituraDelLlamador_UsaPrimaria() {
+        // Un llamador que no escribió, como el que llena una cache compartida
+        consistenciaLecturas.fijarCliente("cliente-lector-" + System.nanoTime());
+        long replicaAntes = conexiones(RutaDatos.REPLICA);
+        long primariaAntes = conexiones(RutaDatos.PRIMARIA);
+        long desviadasAntes = metricas(RutaDatos.PRIMARIA).getLecturasPorEscrituraReciente();
+
+        consistenciaLecturas.enPrimaria(() -> soloLectura().execute(status -> cuentaRepository.count()));
+
+        assertEquals(replicaAntes, conexiones(RutaDatos.REPLICA));
+        assertTrue(conexiones(RutaDatos.PRIMARIA) > primariaAntes);
+        assertEquals(desviadasAntes, metricas(RutaDatos.PRIMARIA).getLecturasPorEscrituraReciente());
+        assertFalse(consistenciaLecturas.primariaForzada());
+
+        // Fuera del alcance vuelve a la réplica
+        soloLectura().executeWithoutResult(status -> cuentaRepository.count());
+        assertEquals(replicaAntes + 1, conexiones(RutaDatos.REPLICA));
+    }
+
+    @Test
+    void conexionesLiberadas_RegistranUsoYNoQuedanActivas() {
+        soloLectura().executeWithoutResult(status -> cuentaRepository.count());
+
+        RutaDatosMetricasDTO replica = metricas(RutaDatos.REPLICA);
+        assertTrue(replica.getUsoMaximoMs() > 0.0);
+        assertTrue(replica.getEsperaMaximaMs() > 0.0);
+        assertEquals(0, replica.getConexionesActivas());
+    }
+
+    private TransactionTemplate soloLectura() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private long conexiones(RutaDatos ruta) {
+        return metricas(ruta).getConexionesObtenidas();
+    }
+
+    private RutaDatosMetricasDTO metricas(RutaDatos ruta) {
+        return dataSourceEnrutado.obtenerMetricas().stream()
+                .filter(m -> m.getShard() == 0 && m.getRuta().equals(ruta.name()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,106 @@
+package com.banco.ms_banco.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class EnrutadorShardsTest {
+
+    @Test
+    void shardDeCliente_UbicaElIdEnElRangoDeSuShard() {
+        EnrutadorShards enrutador = enrutador(3);
+
+        assertEquals(0, enrutador.shardDeCliente(1L));
+        assertEquals(0, enrutador.shardDeCliente(EnrutadorShards.ultimoId(0)));
+        assertEquals(1, enrutador.shardDeCliente(EnrutadorShards.primerId(1)));
+        assertEquals(2, enrutador.shardDeCuenta(2 * EnrutadorShards.RANGO_IDS + 5));
+        assertEquals(1, enrutador.shardDeMovimiento(EnrutadorShards.primerId(1) + 49));
+        // Fuera de los shards configurados: se busca en el 0 y no se encuentra
+        assertEquals(0, enrutador.shardDeCliente(EnrutadorShards.primerId(3)));
+        assertEquals(0, enrutador.shardDeMovimiento(null));
+        assertEquals(0, enrutador.shardDeMovimiento(-7L));
+    }
+
+    @Test
+    void directorio_ConservaElShardReservadoAunqueCambieLaCantidad() {
+        DataSource primaria = new DriverManagerDataSource("jdbc:h2:mem:directorio;DB_CLOSE_DELAY=-1;MODE=MySQL", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(primaria);
+        jdbc.execute("CREATE TABLE directorio_cliente (identificacion VARCHAR(255) PRIMARY KEY, shard INT NOT NULL)");
+        jdbc.execute("CREATE TABLE directorio_cuenta (numero_cuenta VARCHAR(30) PRIMARY KEY, shard INT NOT NULL)");
+
+        DirectorioCuentas cuentas = new DirectorioCuentas(enrutador(3), primaria, 100);
+        assertTrue(cuentas.reservar("0000000042", 2));
+        assertFalse(cuentas.reservar("0000000042", 1));
+        assertEquals(2, cuentas.shardDe("0000000042"));
+        // Sin fila: anterior al directorio o inexistente, en ambos casos se busca en el shard 0
+        assertEquals(0, cuentas.shardDe("0000000043"));
+        assertEquals(0, cuentas.shardDe(null));
+        assertEquals(10, cuentas.nuevoNumero().length());
+
+        DirectorioClientes clientes = new DirectorioClientes(enrutador(3), primaria, 100);
+        int shard = clientes.reservar("1710034065").orElseThrow();
+        assertTrue(clientes.reservar("1710034065").isEmpty());
+        assertEquals(shard, clientes.shardDe("1710034065"));
+
+        // Un shard más no cambia dónde están los clientes y cuentas ya registrados
+        assertEquals(shard, new DirectorioClientes(enrutador(4), primaria, 100).shardDe("1710034065"));
+        assertEquals(2, new DirectorioCuentas(enrutador(4), primaria, 100).shardDe("0000000042"));
+
+        clientes.liberar("1710034065");
+        assertEquals(0, clientes.shardDe("1710034065"));
+        assertTrue(clientes.reservar("1710034065").isPresent());
+    }
+
+    @Test
+    void enShard_AlTerminarRestauraElShardAnterior() {
+        EnrutadorShards enrutador = enrutador(3);
+
+        enrutador.enShard(1, () -> {
+            assertEquals(1, EnrutadorShards.shardActual());
+            assertEquals(2, (int) enrutador.enShard(2, EnrutadorShards::shardActual));
+            assertEquals(1, EnrutadorShards.shardActual());
+        });
+
+        assertEquals(0, EnrutadorShards.shardActual());
+    }
+
+    @Test
+    void enShard_OtroShardDentroDeUnaTransaccion_Falla() {
+        EnrutadorShards enrutador = enrutador(3);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            enrutador.enShard(1, () -> {
+                assertEquals(1, (int) enrutador.enShard(1, EnrutadorShards::shardActual));
+                assertThrows(IllegalStateException.class, () -> enrutador.enShard(2, EnrutadorShards::shardActual));
+            });
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void enTodos_UnSoloShard_CorreEnElHiloDelLlamador() {
+        EnrutadorShards enrutador = enrutador(1);
+
+        List<Thread> hilos = enrutador.enTodos(shard -> Thread.currentThread());
+
+        assertEquals(List.of(Thread.currentThread()), hilos);
+    }
+
+    private EnrutadorShards enrutador(int cantidad) {
+        PropiedadesShards propiedades = new PropiedadesShards();
+        for (int shard = 1; shard < cantidad; shard++) {
+            PropiedadesShards.Shard adicional = new PropiedadesShards.Shard();
+            adicional.setUrl("jdbc:mysql://shard-" + shard + ":3306/banco");
+            propiedades.getAdicionales().add(adicional);
+        }
+        return new EnrutadorShards(propiedades, null, new ConsistenciaLecturas(0, 1));
+    }
+}
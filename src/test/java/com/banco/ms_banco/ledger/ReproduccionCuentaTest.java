@@ -0,0 +1,74 @@
+package com.banco.ms_banco.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import com.banco.ms_banco.dto.cuentas.CuentaSaldoProyeccion;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReproduccionCuentaTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2024, 5, 10, 9, 0);
+
+    @Test
+    void reproducir_CadenaSana_EsCorrecta() {
+        ReproduccionCuenta reproduccion = new ReproduccionCuenta(cuenta("500.00", "650.00"));
+        reproduccion.aplicar(movimiento(1L, "DEPOSITO", "500.00", "500.00"));
+        reproduccion.aplicar(movimiento(2L, "RETIRO", "100.00", "400.00"));
+        reproduccion.aplicar(movimiento(3L, "DEPOSITO", "250.00", "650.00"));
+
+        ReproduccionCuenta.Resultado resultado = reproduccion.terminar();
+
+        assertTrue(resultado.correcta());
+        assertEquals(3, resultado.movimientos());
+        assertEquals(0, new BigDecimal("650.00").compareTo(resultado.saldoReproducido()));
+    }
+
+    @Test
+    void reproducir_ActualizacionPerdida_CuentaUnaRupturaYDescuadre() {
+        // El movimiento 3 se calculó sobre el saldo anterior al 2: el retiro se perdió
+        ReproduccionCuenta reproduccion = new ReproduccionCuenta(cuenta("500.00", "750.00"));
+        reproduccion.aplicar(movimiento(1L, "DEPOSITO", "500.00", "500.00"));
+        reproduccion.aplicar(movimiento(2L, "RETIRO", "100.00", "400.00"));
+        reproduccion.aplicar(movimiento(3L, "DEPOSITO", "250.00", "750.00"));
+        reproduccion.aplicar(movimiento(4L, "RETIRO", "0.00", "750.00"));
+
+        ReproduccionCuenta.Resultado resultado = reproduccion.terminar();
+
+        assertFalse(resultado.cadenaValida());
+        assertFalse(resultado.saldoCuadra());
+        assertEquals(1, resultado.rupturas());
+        assertEquals(3L, resultado.primerMovimientoRoto().longValue());
+        assertEquals(0, new BigDecimal("650.00").compareTo(resultado.saldoEsperado()));
+        assertEquals(0, new BigDecimal("750.00").compareTo(resultado.saldoRegistrado()));
+        assertEquals(0, new BigDecimal("650.00").compareTo(resultado.saldoReproducido()));
+    }
+
+    @Test
+    void reproducir_SinDepositoInicial_AperturaInvalida() {
+        ReproduccionCuenta sinMovimientos = new ReproduccionCuenta(cuenta("300.00", "300.00"));
+        assertFalse(sinMovimientos.terminar().aperturaValida());
+
+        ReproduccionCuenta otroPrimerMovimiento = new ReproduccionCuenta(cuenta("300.00", "100.00"));
+        otroPrimerMovimiento.aplicar(movimiento(1L, "DEPOSITO", "100.00", "100.00"));
+        ReproduccionCuenta.Resultado resultado = otroPrimerMovimiento.terminar();
+        assertFalse(resultado.aperturaValida());
+        assertEquals(0, resultado.rupturas());
+
+        ReproduccionCuenta sinSaldoInicial = new ReproduccionCuenta(cuenta("0.00", "0.00"));
+        assertTrue(sinSaldoInicial.terminar().correcta());
+    }
+
+    private static CuentaSaldoProyeccion cuenta(String saldoInicial, String saldoActual) {
+        return new CuentaSaldoProyeccion(1L, "478758", new BigDecimal(saldoInicial), new BigDecimal(saldoActual));
+    }
+
+    private static MovimientoProyeccion movimiento(Long id, String tipo, String valor, String saldo) {
+        return new MovimientoProyeccion(id, FECHA.plusMinutes(id), tipo, new BigDecimal(valor), new BigDecimal(saldo),
+                                        1L, "478758");
+    }
+}
@@ -0,0 +1,162 @@
+package com.banco.ms_banco.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.repository.custom.CustomMovimientoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+class ExportadorMovimientosTest {
+
+    private static final Long CLIENTE = 1L;
+    private static final int FETCH_SIZE = 100;
+
+    private final CustomMovimientoRepository repositorio = mock(CustomMovimientoRepository.class);
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void exportar_Csv_EscapaComillasComasYSaltosDeLinea() throws Exception {
+        // Arrange
+        ExportadorMovimientos exportador = crearExportador(500);
+        devolver(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+            movimiento(1L, "1234567890", "DEPOSITO"),
+            movimiento(2L, "12,34", "RETIRO \"ATM\""),
+            movimiento(3L, "linea\nnueva", "retorno\rde carro"));
+
+        // Act
+        String csv = exportar(exportador, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), ExportadorMovimientos.Formato.CSV);
+
+        // Assert
+        assertEquals("movimientoId,fecha,numeroCuenta,tipoMovimiento,valor,saldo\n"
+                     + "1,2024-01-10T09:30,1234567890,DEPOSITO,10.50,100.00\n"
+                     + "2,2024-01-10T09:30,\"12,34\",\"RETIRO \"\"ATM\"\"\",10.50,100.00\n"
+                     + "3,2024-01-10T09:30,\"linea\nnueva\",\"retorno\rde carro\",10.50,100.00\n", csv);
+    }
+
+    @Test
+    void exportar_Ndjson_EscribeUnObjetoJsonPorLinea() throws Exception {
+        // Arrange
+        ExportadorMovimientos exportador = crearExportador(500);
+        devolver(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+            movimiento(1L, "1234567890", "DEPOSITO"),
+            movimiento(2L, "linea\nnueva", "RETIRO"));
+
+        // Act
+        String ndjson = exportar(exportador, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), ExportadorMovimientos.Formato.NDJSON);
+
+        // Assert: el salto de línea dentro de un valor se escapa y no parte el registro
+        String[] lineas = ndjson.split("\n");
+        assertEquals(2, lineas.length);
+        assertTrue(ndjson.endsWith("\n"));
+        JsonNode segunda = objectMapper.readTree(lineas[1]);
+        assertEquals(2L, segunda.get("movimientoId").asLong());
+        assertEquals("linea\nnueva", segunda.get("numeroCuenta").asText());
+        assertEquals("2024-01-10T09:30:00", segunda.get("fecha").asText());
+        assertEquals(0, new BigDecimal("10.50").compareTo(segunda.get("valor").decimalValue()));
+    }
+
+    @Test
+    void exportar_RangoDeVariosAnios_LeeUnTramoPorMesEnOrden() throws Exception {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2022, 1, 15);
+        LocalDate fin = LocalDate.of(2023, 3, 10);
+        ExportadorMovimientos exportador = crearExportador(500);
+        when(repositorio.streamProyeccionesByClienteAndFechaRange(eq(CLIENTE), any(), any(), eq(FETCH_SIZE)))
+                .thenAnswer(invocacion -> Stream.of(movimiento(
+                    ((LocalDateTime) invocacion.getArgument(1)).toLocalDate().toEpochDay(), "1234567890", "DEPOSITO")));
+
+        // Act
+        String csv = exportar(exportador, inicio, fin, ExportadorMovimientos.Formato.CSV);
+
+        // Assert: 15 meses contiguos, el primero y el último parciales, y el archivo en orden cronológico
+        ArgumentCaptor<LocalDateTime> desde = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> hasta = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repositorio, times(15)).streamProyeccionesByClienteAndFechaRange(
+            eq(CLIENTE), desde.capture(), hasta.capture(), eq(FETCH_SIZE));
+        assertEquals(inicio.atStartOfDay(), desde.getAllValues().get(0));
+        assertEquals(LocalDate.of(2022, 1, 31).atTime(LocalTime.MAX), hasta.getAllValues().get(0));
+        assertEquals(LocalDate.of(2023, 3, 1).atStartOfDay(), desde.getAllValues().get(14));
+        assertEquals(fin.atTime(LocalTime.MAX), hasta.getAllValues().get(14));
+        for (int i = 1; i < 15; i++) {
+            assertEquals(hasta.getAllValues().get(i - 1).plusNanos(1), desde.getAllValues().get(i));
+        }
+
+        List<Long> ids = csv.lines().skip(1).map(linea -> Long.valueOf(linea.substring(0, linea.indexOf(',')))).toList();
+        assertEquals(15, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+
+    @Test
+    void exportar_VaciaElBufferCadaFilasPorFlushFilas() throws Exception {
+        // Arrange
+        ExportadorMovimientos exportador = crearExportador(2);
+        devolver(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+            movimiento(1L, "1", "DEPOSITO"), movimiento(2L, "2", "DEPOSITO"), movimiento(3L, "3", "DEPOSITO"),
+            movimiento(4L, "4", "DEPOSITO"), movimiento(5L, "5", "DEPOSITO"));
+        SalidaConFlush salida = new SalidaConFlush();
+
+        // Act
+        long filas = exportador.exportar(CLIENTE, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                                         ExportadorMovimientos.Formato.CSV, salida);
+
+        // Assert: encabezado más 2 y 4 filas en los vaciados periódicos, y todo al terminar
+        assertEquals(5, filas);
+        assertEquals(List.of(3L, 5L, 6L), salida.lineasEnCadaFlush);
+    }
+
+    private ExportadorMovimientos crearExportador(int filasPorFlush) {
+        ExportadorMovimientos exportador = new ExportadorMovimientos(FETCH_SIZE, filasPorFlush, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(exportador, "customMovimientoRepository", repositorio);
+        ReflectionTestUtils.setField(exportador, "objectMapper", objectMapper);
+        return exportador;
+    }
+
+    private void devolver(LocalDate inicio, LocalDate fin, MovimientoProyeccion... movimientos) {
+        when(repositorio.streamProyeccionesByClienteAndFechaRange(
+                CLIENTE, inicio.atStartOfDay(), fin.atTime(LocalTime.MAX), FETCH_SIZE))
+                .thenAnswer(invocacion -> Stream.of(movimientos));
+    }
+
+    private String exportar(ExportadorMovimientos exportador, LocalDate inicio, LocalDate fin,
+                            ExportadorMovimientos.Formato formato) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        exportador.exportar(CLIENTE, inicio, fin, formato, salida);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static MovimientoProyeccion movimiento(Long movimientoId, String numeroCuenta, String tipoMovimiento) {
+        return new MovimientoProyeccion(movimientoId, LocalDateTime.of(2024, 1, 10, 9, 30), tipoMovimiento,
+                                        new BigDecimal("10.50"), new BigDecimal("100.00"), 1L, numeroCuenta);
+    }
+
+    // Registra cuántas líneas completas había recibido la salida en cada vaciado
+    private static final class SalidaConFlush extends ByteArrayOutputStream {
+
+        private final List<Long> lineasEnCadaFlush = new ArrayList<>();
+
+        @Override
+        public void flush() {
+            lineasEnCadaFlush.add(toString(StandardCharsets.UTF_8).chars().filter(c -> c == '\n').count());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.banco.ms_banco.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.repository.custom.CustomMovimientoRepository;
+
+class TramoFechasTest {
+
+    @Test
+    void dividir_HastaUnAnio_DevuelveUnSoloTramo() {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2023, 5, 10);
+        LocalDate fin = inicio.plusYears(1);
+
+        // Act
+        List<TramoFechas> tramos = TramoFechas.dividir(inicio, fin);
+
+        // Assert
+        assertFalse(TramoFechas.esRangoLargo(inicio, fin));
+        assertEquals(List.of(new TramoFechas(inicio.atStartOfDay(), fin.atTime(LocalTime.MAX))), tramos);
+    }
+
+    @Test
+    void dividir_RangoLargo_CubreElRangoConUnTramoContiguoPorMes() {
+        // Arrange: el rango cruza un febrero bisiesto
+        LocalDate inicio = LocalDate.of(2023, 1, 20);
+        LocalDate fin = LocalDate.of(2024, 3, 5);
+
+        // Act
+        List<TramoFechas> tramos = TramoFechas.dividir(inicio, fin);
+
+        // Assert
+        assertTrue(TramoFechas.esRangoLargo(inicio, fin));
+        assertEquals(15, tramos.size());
+        assertEquals(new TramoFechas(inicio.atStartOfDay(), LocalDate.of(2023, 1, 31).atTime(LocalTime.MAX)), tramos.get(0));
+        assertEquals(new TramoFechas(LocalDate.of(2024, 2, 1).atStartOfDay(), LocalDate.of(2024, 2, 29).atTime(LocalTime.MAX)),
+                     tramos.get(13));
+        assertEquals(new TramoFechas(LocalDate.of(2024, 3, 1).atStartOfDay(), fin.atTime(LocalTime.MAX)), tramos.get(14));
+        for (int i = 1; i < tramos.size(); i++) {
+            assertEquals(tramos.get(i - 1).hasta().plusNanos(1), tramos.get(i).desde());
+        }
+    }
+
+    @Test
+    void dividir_RangoLargoDeMesesCompletos_NoAgregaTramosVacios() {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2020, 1, 1);
+        LocalDate fin = LocalDate.of(2022, 12, 31);
+
+        // Act
+        List<TramoFechas> tramos = TramoFechas.dividir(inicio, fin);
+
+        // Assert
+        assertEquals(36, tramos.size());
+        assertEquals(inicio.atStartOfDay(), tramos.get(0).desde());
+        assertEquals(fin.atTime(LocalTime.MAX), tramos.get(35).hasta());
+    }
+
+    @Test
+    void recorrerMovimientos_RangoLargo_EntregaCadaCuentaDelMesMasRecienteAlMasAntiguo() {
+        // Arrange: dos cuentas con un movimiento al mes durante dos años
+        LocalDate inicio = LocalDate.of(2022, 1, 1);
+        LocalDate fin = LocalDate.of(2023, 12, 31);
+        List<MovimientoProyeccion> movimientos = new ArrayList<>();
+        long movimientoId = 1;
+        for (long cuentaId : new long[] {2L, 1L}) {
+            for (LocalDate mes = inicio; mes.isBefore(fin); mes = mes.plusMonths(1)) {
+                movimientos.add(new MovimientoProyeccion(movimientoId++, mes.atTime(12, 0), "DEPOSITO", BigDecimal.ONE,
+                                                         BigDecimal.TEN, cuentaId, "000000000" + cuentaId));
+            }
+        }
+        CustomMovimientoRepository repositorio = mock(CustomMovimientoRepository.class);
+        when(repositorio.streamProyeccionesByCuentaAndFechaRange(anyLong(), any(), any(), anyInt()))
+            .thenAnswer(invocacion -> {
+                Long cuentaId = invocacion.getArgument(0);
+                LocalDateTime desde = invocacion.getArgument(1);
+                LocalDateTime hasta = invocacion.getArgument(2);
+                return movimientos.stream()
+                        .filter(m -> m.cuentaId().equals(cuentaId))
+                        .filter(m -> !m.fecha().isBefore(desde) && !m.fecha().isAfter(hasta))
+                        .sorted(Comparator.comparing(MovimientoProyeccion::fecha).reversed());
+            });
+        CargadorEstadoCuenta cargador = crearCargador(repositorio);
+        DatosEstadoCuenta cabecera = new DatosEstadoCuenta(7L, inicio, fin, Optional.empty(),
+                                                           List.of(cuenta(2L), cuenta(1L)),
+                                                           Map.of(), Map.of(), Map.of(), Map.of());
+
+        // Act
+        List<MovimientoProyeccion> recorridos = new ArrayList<>();
+        cargador.recorrerMovimientos(cabecera, recorridos::add);
+
+        // Assert: un cursor por cuenta y mes, y la salida ordenada por cuenta y fecha descendente
+        verify(repositorio, times(48)).streamProyeccionesByCuentaAndFechaRange(anyLong(), any(), any(), anyInt());
+        verify(repositorio, never()).streamProyeccionesPorCuentaByClienteAndFechaRange(any(), any(), any(), anyInt());
+        List<MovimientoProyeccion> esperados = new ArrayList<>(movimientos);
+        esperados.sort(Comparator.comparing(MovimientoProyeccion::cuentaId)
+                                 .thenComparing(MovimientoProyeccion::fecha, Comparator.reverseOrder()));
+        assertEquals(esperados, recorridos);
+    }
+
+    private CargadorEstadoCuenta crearCargador(CustomMovimientoRepository repositorio) {
+        CargadorEstadoCuenta cargador = new CargadorEstadoCuenta();
+        ReflectionTestUtils.setField(cargador, "customMovimientoRepository", repositorio);
+        ReflectionTestUtils.setField(cargador, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(cargador, "fetchSize", 100);
+        cargador.iniciar();
+        return cargador;
+    }
+
+    private Cuenta cuenta(Long cuentaId) {
+        Cuenta cuenta = new Cuenta("000000000" + cuentaId, "AHORROS", BigDecimal.TEN, 7L);
+        cuenta.setCuentaId(cuentaId);
+        return cuenta;
+    }
+}
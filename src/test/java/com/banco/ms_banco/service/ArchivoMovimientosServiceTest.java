@@ -0,0 +1,70 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.archive.HorizonteArchivo;
+import com.banco.ms_banco.datasource.ConsistenciaLecturas;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.datasource.PropiedadesShards;
+import com.banco.ms_banco.dto.movimientos.ArchivoMovimientosDTO;
+import com.banco.ms_banco.repository.MovimientoArchivadoRepository;
+import com.banco.ms_banco.repository.MovimientoRepository;
+import com.banco.ms_banco.service.Impl.ArchivoMovimientosServiceImpl;
+
+class ArchivoMovimientosServiceTest {
+
+    private static final LocalDateTime FRONTERA = LocalDate.now().withDayOfMonth(1).minusMonths(24).atStartOfDay();
+
+    private final MovimientoRepository movimientoRepository = mock(MovimientoRepository.class);
+    private final MovimientoArchivadoRepository movimientoArchivadoRepository = mock(MovimientoArchivadoRepository.class);
+    private final HorizonteArchivo horizonteArchivo = mock(HorizonteArchivo.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ArchivoMovimientosServiceImpl servicio = new ArchivoMovimientosServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(servicio, "movimientoRepository", movimientoRepository);
+        ReflectionTestUtils.setField(servicio, "movimientoArchivadoRepository", movimientoArchivadoRepository);
+        ReflectionTestUtils.setField(servicio, "horizonteArchivo", horizonteArchivo);
+        ReflectionTestUtils.setField(servicio, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(servicio, "enrutadorShards",
+            new EnrutadorShards(new PropiedadesShards(), null, new ConsistenciaLecturas(0, 1)));
+        ReflectionTestUtils.setField(servicio, "tamanoLote", 2);
+        when(horizonteArchivo.frontera()).thenReturn(FRONTERA);
+        when(transactionTemplate.execute(any())).thenAnswer(
+            invocacion -> invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void archivar_ConLotes_ExtiendeLaFronteraAntesDelPrimerCommit() {
+        // Arrange: un lote lleno y uno parcial
+        when(movimientoRepository.findIdsAnterioresA(eq(FRONTERA), any()))
+            .thenReturn(List.of(1L, 2L))
+            .thenReturn(List.of(3L));
+        when(movimientoRepository.deleteByMovimientoIdIn(anyCollection()))
+            .thenAnswer(invocacion -> invocacion.<List<Long>>getArgument(0).size());
+
+        // Act
+        ArchivoMovimientosDTO resultado = servicio.archivar();
+
+        // Assert
+        assertEquals(3, resultado.getMovimientosArchivados());
+        assertEquals(2, resultado.getLotes());
+        InOrder orden = inOrder(horizonteArchivo, transactionTemplate);
+        orden.verify(horizonteArchivo).marcarArchivadoHasta(FRONTERA);
+        orden.verify(transactionTemplate, times(2)).execute(any());
+    }
+}
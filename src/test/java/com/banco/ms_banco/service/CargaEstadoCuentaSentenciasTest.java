@@ -0,0 +1,120 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.banco.ms_banco.dto.cuentas.CuentaRequestDTO;
+import com.banco.ms_banco.dto.cuentas.CuentaResponseDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
+import com.banco.ms_banco.model.Cliente;
+import com.banco.ms_banco.model.Persona;
+import com.banco.ms_banco.report.DatosEstadoCuenta;
+import com.banco.ms_banco.repository.ClienteRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica que los datos de un estado de cuenta se cargan en una sola pasada: las mismas sentencias SQL para un
+ * cliente con una cuenta que para uno con varias, y todos los movimientos agrupados por su cuenta.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CargaEstadoCuentaSentenciasTest {
+
+    private static final LocalDate INICIO = LocalDate.now().minusDays(1);
+    private static final LocalDate FIN = LocalDate.now();
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void cargarDatosEstadoCuenta_ConVariasCuentas_UsaLasMismasSentenciasQueConUna() {
+        // Arrange
+        Long clienteUnaCuenta = crearClienteConCuentas(1);
+        Long clienteCincoCuentas = crearClienteConCuentas(5);
+
+        // Act
+        long sentenciasUnaCuenta = contarSentencias(clienteUnaCuenta);
+        long sentenciasCincoCuentas = contarSentencias(clienteCincoCuentas);
+
+        // Assert
+        assertEquals(sentenciasUnaCuenta, sentenciasCincoCuentas, "Sentencias SQL para 1 y 5 cuentas");
+    }
+
+    @Test
+    void cargarDatosEstadoCuenta_ConMovimientosEnVariasCuentas_LosAgrupaPorCuenta() {
+        // Arrange
+        Long clienteId = crearClienteConCuentas(3);
+        List<CuentaResponseDTO> cuentas = cuentaService.obtenerCuentasPorCliente(clienteId);
+        CuentaResponseDTO primera = cuentas.get(0);
+        movimientoService.registrarMovimiento(primera.getNumeroCuenta(),
+            new MovimientoRequestDTO(new BigDecimal("-25.00")));
+
+        // Act
+        DatosEstadoCuenta datos = reporteService.cargarDatosEstadoCuenta(clienteId, INICIO, FIN);
+
+        // Assert
+        assertTrue(datos.cliente().isPresent());
+        assertEquals(3, datos.cuentas().size());
+        assertEquals(2, datos.movimientosDe(primera.getCuentaId()).size());
+        for (CuentaResponseDTO cuenta : cuentas) {
+            assertTrue(datos.movimientosDe(cuenta.getCuentaId()).stream()
+                    .map(MovimientoProyeccion::cuentaId)
+                    .allMatch(cuenta.getCuentaId()::equals));
+        }
+        assertEquals(0, new BigDecimal("75.00").compareTo(datos.cuentas().stream()
+                .filter(c -> c.getCuentaId().equals(primera.getCuentaId()))
+                .findFirst()
+                .orElseThrow()
+                .getSaldoActual()));
+    }
+
+    private Long crearClienteConCuentas(int cantidad) {
+        long sufijo = System.nanoTime() % 1_000_000L;
+        Long clienteId = clienteRepository.save(new Cliente("clave",
+            new Persona("21" + sufijo, "Cliente Estado Cuenta", "F", 28, "Quito", "0955555555"))).getClienteId();
+        for (int i = 0; i < cantidad; i++) {
+            cuentaService.crearCuenta(new CuentaRequestDTO("AHORROS", new BigDecimal("100.00"), clienteId));
+        }
+        return clienteId;
+    }
+
+    private long contarSentencias(Long clienteId) {
+        estadisticas.clear();
+        DatosEstadoCuenta datos = reporteService.cargarDatosEstadoCuenta(clienteId, INICIO, FIN);
+        assertFalse(datos.sinMovimientos());
+        return estadisticas.getPrepareStatementCount();
+    }
+}
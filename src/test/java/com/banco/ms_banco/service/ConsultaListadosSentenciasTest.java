@@ -0,0 +1,145 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.banco.ms_banco.dto.clientes.ClienteResponseDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.dto.movimientos.PaginaMovimientosDTO;
+import com.banco.ms_banco.model.Cliente;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.model.Movimiento;
+import com.banco.ms_banco.model.Persona;
+import com.banco.ms_banco.repository.ClienteRepository;
+import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.MovimientoRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica que los listados se resuelven con un número fijo de sentencias SQL, sin importar cuántas
+ * cuentas o personas distintas aparezcan en el resultado.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConsultaListadosSentenciasTest {
+
+    private static final int CUENTAS_POR_CLIENTE = 3;
+    private static final int MOVIMIENTOS_POR_CUENTA = 4;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private Long clienteId;
+    private Long cuentaId;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+
+        long sufijo = System.nanoTime() % 1_000_000L;
+        for (int c = 0; c < 2; c++) {
+            Persona persona = new Persona("17" + sufijo + c, "Cliente Listado " + c, "M", 30, "Quito", "0999999999");
+            clienteRepository.save(new Cliente("clave", persona));
+        }
+        Cliente cliente = clienteRepository.save(
+            new Cliente("clave", new Persona("18" + sufijo, "Cliente Movimientos", "F", 40, "Quito", "0988888888")));
+        clienteId = cliente.getClienteId();
+
+        for (int i = 0; i < CUENTAS_POR_CLIENTE; i++) {
+            Cuenta cuenta = cuentaRepository.save(
+                new Cuenta(String.format("77%06d%02d", sufijo, i), "AHORROS", BigDecimal.ZERO, clienteId));
+            cuentaId = cuenta.getCuentaId();
+            for (int m = 1; m <= MOVIMIENTOS_POR_CUENTA; m++) {
+                movimientoRepository.save(new Movimiento("DEPOSITO", BigDecimal.TEN, BigDecimal.TEN.multiply(BigDecimal.valueOf(m)), cuenta));
+            }
+        }
+    }
+
+    @Test
+    void obtenerMovimientosPorCliente_WithSeveralAccounts_ShouldUseSingleStatement() {
+        List<MovimientoResponseDTO> movimientos = contarSentencias(1, () -> movimientoService.obtenerMovimientosPorCliente(clienteId));
+
+        assertEquals(CUENTAS_POR_CLIENTE * MOVIMIENTOS_POR_CUENTA, movimientos.size());
+        assertEquals(CUENTAS_POR_CLIENTE, movimientos.stream().map(MovimientoResponseDTO::getNumeroCuenta).distinct().count());
+    }
+
+    @Test
+    void obtenerPaginaMovimientosPorCliente_WithCursor_ShouldUseSingleStatementPerPage() {
+        PaginaMovimientosDTO primera = contarSentencias(1, () -> movimientoService.obtenerPaginaMovimientosPorCliente(clienteId, null, 5));
+        PaginaMovimientosDTO segunda = contarSentencias(1, () -> movimientoService.obtenerPaginaMovimientosPorCliente(
+            clienteId, primera.getSiguienteCursor(), 5));
+
+        assertTrue(primera.isHayMas());
+        assertEquals(5, segunda.getMovimientos().size());
+        List<Long> idsPrimera = primera.getMovimientos().stream().map(MovimientoResponseDTO::getMovimientoId).toList();
+        assertTrue(segunda.getMovimientos().stream().noneMatch(m -> idsPrimera.contains(m.getMovimientoId())));
+    }
+
+    @Test
+    void obtenerTodosLosMovimientos_WithSeveralAccounts_ShouldUseSingleStatement() {
+        List<MovimientoResponseDTO> movimientos = contarSentencias(1, () -> movimientoService.obtenerTodosLosMovimientos());
+
+        assertTrue(movimientos.size() >= CUENTAS_POR_CLIENTE * MOVIMIENTOS_POR_CUENTA);
+        assertTrue(movimientos.stream().allMatch(m -> m.getNumeroCuenta() != null));
+    }
+
+    @Test
+    void obtenerPaginaMovimientos_WithSeveralAccounts_ShouldUseSingleStatement() {
+        PaginaMovimientosDTO pagina = contarSentencias(1, () -> movimientoService.obtenerPaginaMovimientos(null, 10));
+
+        assertEquals(10, pagina.getMovimientos().size());
+    }
+
+    @Test
+    void obtenerMovimientosPorCuenta_ShouldUseExistenceCheckAndSingleQuery() {
+        List<MovimientoResponseDTO> movimientos = contarSentencias(2, () -> movimientoService.obtenerMovimientosPorCuenta(cuentaId));
+        PaginaMovimientosDTO pagina = contarSentencias(2, () -> movimientoService.obtenerPaginaMovimientosPorCuenta(cuentaId, null, null));
+
+        assertEquals(MOVIMIENTOS_POR_CUENTA, movimientos.size());
+        assertEquals(MOVIMIENTOS_POR_CUENTA, pagina.getMovimientos().size());
+    }
+
+    @Test
+    void obtenerTodosLosClientes_WithSeveralPersons_ShouldUseSingleStatement() {
+        List<ClienteResponseDTO> clientes = contarSentencias(1, () -> clienteService.obtenerTodosLosClientes());
+
+        assertTrue(clientes.size() >= 3);
+        assertTrue(clientes.stream().allMatch(c -> c.getPersona() != null && c.getPersona().getNombre() != null));
+    }
+
+    private <T> T contarSentencias(long esperadas, Supplier<T> consulta) {
+        estadisticas.clear();
+        T resultado = consulta.get();
+        assertEquals(esperadas, estadisticas.getPrepareStatementCount(), "Sentencias SQL ejecutadas");
+        return resultado;
+    }
+}
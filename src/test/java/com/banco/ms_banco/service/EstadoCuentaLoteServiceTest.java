@@ -0,0 +1,157 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banco.ms_banco.datasource.ConsistenciaLecturas;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.datasource.PropiedadesShards;
+import com.banco.ms_banco.dto.reportes.LoteEstadosCuentaDTO;
+import com.banco.ms_banco.dto.reportes.LoteEstadosCuentaRequestDTO;
+import com.banco.ms_banco.dto.reportes.ParticionLoteDTO;
+import com.banco.ms_banco.report.DatosEstadoCuenta;
+import com.banco.ms_banco.repository.ClienteRepository;
+import com.banco.ms_banco.service.Impl.EstadoCuentaLoteServiceImpl;
+
+class EstadoCuentaLoteServiceTest {
+
+    private static final String PERIODO = "2024-01";
+    private static final int TAMANO_PARTICION = 10;
+
+    @TempDir
+    private Path directorio;
+
+    private final ReporteService reporteService = mock(ReporteService.class);
+    private final ClienteRepository clienteRepository = mock(ClienteRepository.class);
+
+    // Clientes cuyo PDF falla a medio escribir
+    private final Set<Long> clientesConFalla = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        when(reporteService.cargarCabeceraEstadoCuenta(anyLong(), any(), any())).thenAnswer(invocacion -> new DatosEstadoCuenta(
+            invocacion.getArgument(0), invocacion.getArgument(1), invocacion.getArgument(2), Optional.empty(),
+            List.of(), Map.of(), Map.of(), Map.of(), Map.of()));
+        doAnswer(invocacion -> {
+            DatosEstadoCuenta cabecera = invocacion.getArgument(0);
+            OutputStream salida = invocacion.getArgument(1);
+            salida.write("%PDF".getBytes());
+            if (clientesConFalla.contains(cabecera.clienteId())) {
+                throw new IllegalStateException("Fallo al renderizar");
+            }
+            return null;
+        }).when(reporteService).escribirReporteEstadoCuentaPDFEnFlujo(any(), any());
+        when(clienteRepository.findIdsActivosEntre(anyLong(), anyLong())).thenAnswer(invocacion -> {
+            long desde = invocacion.getArgument(0);
+            long hasta = invocacion.getArgument(1);
+            return Stream.of(7L, 15L, 23L, 31L).filter(id -> id >= desde && id <= hasta).toList();
+        });
+    }
+
+    @Test
+    void iniciarLote_ConNuevosClientes_ConservaLosRangosDeLasParticiones() throws Exception {
+        // Arrange
+        clientesEntre(7L, 23L);
+        LoteEstadosCuentaDTO primero = ejecutar();
+
+        // Act: se da de alta un cliente con un id mayor antes del siguiente intento
+        clientesEntre(7L, 31L);
+        LoteEstadosCuentaDTO segundo = ejecutar();
+
+        // Assert
+        assertEquals(List.of("1-9", "10-19", "20-29"), rangos(primero));
+        assertEquals(List.of("1-9", "10-19", "20-29", "30-39"), rangos(segundo));
+        assertEquals(3, segundo.getParticionesReanudadas());
+        assertEquals(1, segundo.getGenerados());
+    }
+
+    @Test
+    void iniciarLote_ConUnClienteFallido_NoRegistraSuParticionYLaReintenta() throws Exception {
+        // Arrange
+        clientesEntre(7L, 23L);
+        clientesConFalla.add(15L);
+
+        // Act
+        LoteEstadosCuentaDTO conFalla = ejecutar();
+        clientesConFalla.clear();
+        LoteEstadosCuentaDTO reintento = ejecutar();
+
+        // Assert
+        assertEquals("COMPLETADO_CON_ERRORES", conFalla.getEstado());
+        assertEquals("FALLIDA", particion(conFalla, "10-19").getEstado());
+        assertFalse(Files.readString(directorio.resolve(PERIODO).resolve("checkpoint")).contains("10-19"));
+
+        assertEquals("COMPLETADO", reintento.getEstado());
+        assertEquals(2, reintento.getParticionesReanudadas());
+        assertEquals("COMPLETADA", particion(reintento, "10-19").getEstado());
+        assertTrue(Files.exists(directorio.resolve(PERIODO).resolve("estado_cuenta_15_" + PERIODO + ".pdf")));
+    }
+
+    @Test
+    void iniciarLote_ConFalloAlEscribirElPDF_NoDejaArchivosTemporales() throws Exception {
+        // Arrange
+        clientesEntre(7L, 7L);
+        clientesConFalla.add(7L);
+
+        // Act
+        LoteEstadosCuentaDTO lote = ejecutar();
+
+        // Assert
+        assertEquals(1, lote.getFallidos());
+        try (Stream<Path> archivos = Files.list(directorio.resolve(PERIODO))) {
+            assertTrue(archivos.noneMatch(archivo -> archivo.toString().endsWith(".tmp")));
+        }
+    }
+
+    private void clientesEntre(long minimo, long maximo) {
+        when(clienteRepository.findMinClienteId()).thenReturn(Optional.of(minimo));
+        when(clienteRepository.findMaxClienteId()).thenReturn(Optional.of(maximo));
+    }
+
+    // Cada intento usa un servicio nuevo, como un reinicio del proceso, sobre el mismo directorio
+    private LoteEstadosCuentaDTO ejecutar() throws InterruptedException {
+        EstadoCuentaLoteServiceImpl servicio = new EstadoCuentaLoteServiceImpl(2, TAMANO_PARTICION, directorio.toString());
+        ReflectionTestUtils.setField(servicio, "reporteService", reporteService);
+        ReflectionTestUtils.setField(servicio, "clienteRepository", clienteRepository);
+        ReflectionTestUtils.setField(servicio, "enrutadorShards",
+            new EnrutadorShards(new PropiedadesShards(), null, new ConsistenciaLecturas(0, 1)));
+
+        servicio.iniciarLote(new LoteEstadosCuentaRequestDTO(PERIODO));
+        long limite = System.nanoTime() + 10_000_000_000L;
+        LoteEstadosCuentaDTO lote = servicio.consultarLote();
+        while ("EN_EJECUCION".equals(lote.getEstado()) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            lote = servicio.consultarLote();
+        }
+        assertNotEquals("EN_EJECUCION", lote.getEstado());
+        return lote;
+    }
+
+    private static List<String> rangos(LoteEstadosCuentaDTO lote) {
+        return lote.getParticiones().stream().map(p -> p.getClienteIdDesde() + "-" + p.getClienteIdHasta()).toList();
+    }
+
+    private static ParticionLoteDTO particion(LoteEstadosCuentaDTO lote, String rango) {
+        return lote.getParticiones().stream()
+                .filter(p -> rango.equals(p.getClienteIdDesde() + "-" + p.getClienteIdHasta()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,115 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.dto.movimientos.TicketMovimientoDTO;
+import com.banco.ms_banco.exception.ColaLlenaException;
+import com.banco.ms_banco.exception.MovimientoInvalidoException;
+import com.banco.ms_banco.service.Impl.MovimientoAsincronoServiceImpl;
+
+class MovimientoAsincronoServiceTest {
+
+    private static final String CUENTA = "0000000001";
+
+    private final MovimientoService movimientoService = mock(MovimientoService.class);
+    private final CountDownLatch liberarWorker = new CountDownLatch(1);
+
+    // Cola de 3 y cache de un solo ticket finalizado
+    private final MovimientoAsincronoServiceImpl servicio =
+            new MovimientoAsincronoServiceImpl(3, 1, 1, Duration.ofHours(1));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(servicio, "movimientoService", movimientoService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberarWorker.countDown();
+        servicio.detenerWorkers();
+    }
+
+    @Test
+    void encolarMovimiento_ConSolicitudInvalida_RechazaSinEncolar() {
+        // Arrange
+        MovimientoRequestDTO request = new MovimientoRequestDTO(BigDecimal.ZERO);
+        doThrow(new MovimientoInvalidoException("El valor del movimiento no puede ser cero"))
+                .when(movimientoService).validarSolicitud(CUENTA, request, null);
+
+        // Act & Assert
+        assertThrows(MovimientoInvalidoException.class, () -> servicio.encolarMovimiento(CUENTA, request, null));
+        assertEquals(0, servicio.obtenerMetricas().getEnCola());
+        assertEquals(0, servicio.obtenerMetricas().getAceptados());
+    }
+
+    @Test
+    void encolarMovimiento_MasTicketsEnCursoQueCapacidadDeCache_NoDesalojaNinguno() throws Exception {
+        // Arrange: el único worker queda ocupado con el primer ticket
+        CountDownLatch procesando = new CountDownLatch(1);
+        when(movimientoService.registrarMovimiento(anyString(), any(), any())).thenAnswer(invocacion -> {
+            procesando.countDown();
+            liberarWorker.await();
+            return new MovimientoResponseDTO();
+        });
+        servicio.iniciarWorkers();
+
+        // Act
+        List<String> ticketIds = new ArrayList<>();
+        ticketIds.add(encolar().getTicketId());
+        assertTrue(procesando.await(5, TimeUnit.SECONDS));
+        ticketIds.add(encolar().getTicketId());
+        ticketIds.add(encolar().getTicketId());
+
+        // Assert
+        assertEquals("PROCESANDO", servicio.consultarTicket(ticketIds.get(0)).getEstado());
+        assertEquals("PENDIENTE", servicio.consultarTicket(ticketIds.get(1)).getEstado());
+        assertEquals("PENDIENTE", servicio.consultarTicket(ticketIds.get(2)).getEstado());
+
+        liberarWorker.countDown();
+        TicketMovimientoDTO ultimo = esperarFinalizado(ticketIds.get(2));
+        assertEquals("COMPLETADO", ultimo.getEstado());
+    }
+
+    @Test
+    void encolarMovimiento_ConColaLlena_RechazaYNoConservaElTicket() {
+        // Arrange: sin workers, la cola se llena con 3 tickets
+        for (int i = 0; i < 3; i++) {
+            encolar();
+        }
+
+        // Act & Assert
+        assertThrows(ColaLlenaException.class, this::encolar);
+        assertEquals(1, servicio.obtenerMetricas().getRechazados());
+        assertEquals(3, servicio.obtenerMetricas().getEnCola());
+    }
+
+    private TicketMovimientoDTO encolar() {
+        return servicio.encolarMovimiento(CUENTA, new MovimientoRequestDTO(BigDecimal.TEN), null);
+    }
+
+    private TicketMovimientoDTO esperarFinalizado(String ticketId) throws InterruptedException {
+        long limite = System.nanoTime() + 5_000_000_000L;
+        TicketMovimientoDTO ticket = servicio.consultarTicket(ticketId);
+        while (!"COMPLETADO".equals(ticket.getEstado()) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            ticket = servicio.consultarTicket(ticketId);
+        }
+        return ticket;
+    }
+}
@@ -0,0 +1,217 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.exception.ValidationException;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.model.Movimiento;
+import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.MovimientoRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MovimientoConcurrenciaTest {
+
+    private static final int HILOS = 300;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Test
+    void registrarMovimiento_WithHotAccountFromManyThreads_ShouldKeepExactSaldoChain() throws Exception {
+        // Arrange
+        Cuenta cuenta = cuentaRepository.save(new Cuenta("9000000001", "AHORROS", BigDecimal.ZERO, 1L));
+        String numeroCuenta = cuenta.getNumeroCuenta();
+        movimientoService.registrarMovimiento(numeroCuenta, new MovimientoRequestDTO(new BigDecimal("100.00")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        // Act: cada hilo deposita 10.00 y retira 5.00 sobre la misma cuenta
+        for (int i = 0; i < HILOS; i++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                movimientoService.registrarMovimiento(numeroCuenta, new MovimientoRequestDTO(new BigDecimal("10.00")));
+                movimientoService.registrarMovimiento(numeroCuenta, new MovimientoRequestDTO(new BigDecimal("-5.00")));
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        List<Movimiento> movimientos = new ArrayList<>(
+                movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuenta.getCuentaId()));
+        movimientos.sort(Comparator.comparing(Movimiento::getMovimientoId));
+
+        assertEquals(1 + HILOS * 2, movimientos.size());
+
+        BigDecimal saldoEsperado = BigDecimal.ZERO;
+        for (Movimiento movimiento : movimientos) {
+            saldoEsperado = "RETIRO".equals(movimiento.getTipoMovimiento())
+                    ? saldoEsperado.subtract(movimiento.getValor())
+                    : saldoEsperado.add(movimiento.getValor());
+            assertEquals(0, saldoEsperado.compareTo(movimiento.getSaldo()),
+                    "Saldo roto en el movimiento " + movimiento.getMovimientoId());
+        }
+
+        BigDecimal saldoFinal = new BigDecimal("100.00").add(new BigDecimal("5.00").multiply(BigDecimal.valueOf(HILOS)));
+        assertEquals(0, saldoFinal.compareTo(saldoEsperado));
+        assertEquals(0, saldoFinal.compareTo(movimientoService.calcularSaldoDisponible(cuenta.getCuentaId())));
+    }
+
+    @Test
+    void actualizarEstadoCuenta_DuranteRetirosConcurrentes_NoPisaElSaldo() throws Exception {
+        // Arrange
+        Cuenta cuenta = cuentaRepository.save(new Cuenta("9000000002", "AHORROS", BigDecimal.ZERO, 1L));
+        String numeroCuenta = cuenta.getNumeroCuenta();
+        movimientoService.registrarMovimiento(numeroCuenta, new MovimientoRequestDTO(new BigDecimal("1000.00")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS + 1);
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicBoolean retirosTerminados = new AtomicBoolean();
+        List<Future<?>> tareas = new ArrayList<>();
+
+        // Act: cada hilo retira 1.00 mientras otro reescribe el estado de la cuenta sin cambiarlo
+        for (int i = 0; i < HILOS; i++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                movimientoService.registrarMovimiento(numeroCuenta, new MovimientoRequestDTO(new BigDecimal("-1.00")));
+                return null;
+            }));
+        }
+        Future<Integer> cambiosEstado = executor.submit(() -> {
+            salida.await();
+            int cambios = 0;
+            while (!retirosTerminados.get()) {
+                cuentaService.actualizarEstadoCuenta(cuenta.getCuentaId(), "ACTIVA");
+                cambios++;
+            }
+            return cambios;
+        });
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        retirosTerminados.set(true);
+        assertTrue(cambiosEstado.get(60, TimeUnit.SECONDS) > 0);
+        executor.shutdown();
+
+        // Assert: ningún cambio de estado devolvió a la base un saldo leído antes de un retiro
+        BigDecimal saldoEsperado = new BigDecimal("1000.00").subtract(BigDecimal.valueOf(HILOS));
+        BigDecimal saldoActual = cuentaRepository.findSaldoActualByCuentaId(cuenta.getCuentaId()).orElseThrow();
+        assertEquals(0, saldoEsperado.compareTo(saldoActual));
+        assertEquals(1 + HILOS, movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuenta.getCuentaId()).size());
+        assertEquals("ACTIVA", cuentaService.obtenerCuentaPorId(cuenta.getCuentaId()).getEstado());
+    }
+
+    @Test
+    void registrarMovimiento_MismaClaveEnVariasCuentasALaVez_RegistraUnSoloMovimiento() throws Exception {
+        // Arrange: cuentas distintas se atienden en paralelo, así que la clave solo la protege su fila
+        int cuentas = 8;
+        String clave = "clave-concurrente-" + System.nanoTime();
+        List<Cuenta> destinos = new ArrayList<>();
+        for (int i = 0; i < cuentas; i++) {
+            destinos.add(cuentaRepository.save(new Cuenta(String.format("90000001%02d", i), "AHORROS", BigDecimal.ZERO, 1L)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(cuentas);
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger rechazadas = new AtomicInteger();
+        List<Future<MovimientoResponseDTO>> tareas = new ArrayList<>();
+
+        // Act
+        for (Cuenta destino : destinos) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                try {
+                    return movimientoService.registrarMovimiento(
+                        destino.getNumeroCuenta(), new MovimientoRequestDTO(new BigDecimal("10.00")), clave);
+                } catch (ValidationException e) {
+                    // La clave ya quedó registrada por la solicitud de otra cuenta
+                    rechazadas.incrementAndGet();
+                    return null;
+                }
+            }));
+        }
+        salida.countDown();
+        int aceptadas = 0;
+        for (Future<MovimientoResponseDTO> tarea : tareas) {
+            if (tarea.get(60, TimeUnit.SECONDS) != null) {
+                aceptadas++;
+            }
+        }
+        executor.shutdown();
+
+        // Assert: una sola cuenta recibió el depósito y las demás revirtieron el suyo
+        assertEquals(1, aceptadas);
+        assertEquals(cuentas - 1, rechazadas.get());
+        int movimientos = 0;
+        for (Cuenta destino : destinos) {
+            movimientos += movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(destino.getCuentaId()).size();
+        }
+        assertEquals(1, movimientos);
+    }
+
+    @Test
+    void registrarMovimiento_MismaClaveYSolicitudDesdeVariosHilos_DevuelveElMismoMovimiento() throws Exception {
+        // Arrange
+        Cuenta cuenta = cuentaRepository.save(new Cuenta("9000000003", "AHORROS", BigDecimal.ZERO, 1L));
+        String clave = "  reintento-" + System.nanoTime() + "  ";
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<MovimientoResponseDTO>> tareas = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 16; i++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                return movimientoService.registrarMovimiento(
+                    cuenta.getNumeroCuenta(), new MovimientoRequestDTO(new BigDecimal("25.00")), clave);
+            }));
+        }
+        salida.countDown();
+        List<Long> movimientoIds = new ArrayList<>();
+        for (Future<MovimientoResponseDTO> tarea : tareas) {
+            movimientoIds.add(tarea.get(60, TimeUnit.SECONDS).getMovimientoId());
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1, movimientoIds.stream().distinct().count());
+        assertEquals(1, movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuenta.getCuentaId()).size());
+        assertEquals(0, new BigDecimal("25.00").compareTo(movimientoService.calcularSaldoDisponible(cuenta.getCuentaId())));
+    }
+}
@@ -0,0 +1,122 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.banco.ms_banco.dto.cuentas.CuentaRequestDTO;
+import com.banco.ms_banco.dto.cuentas.CuentaResponseDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteItemDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteRequestDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteResponseDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteResultadoDTO;
+import com.banco.ms_banco.exception.ValidationException;
+
+/**
+ * Verifica el registro de movimientos en lote: cada ítem se valida y se aplica en el orden del lote, los rechazados
+ * no impiden registrar los demás y cada resultado conserva la posición de su ítem.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MovimientoLoteTest {
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Test
+    void registrarMovimientosLote_ConItemsValidosEInvalidos_RegistraSoloLosValidos() {
+        // Arrange
+        CuentaResponseDTO ahorros = crearCuenta("100.00");
+        CuentaResponseDTO corriente = crearCuenta("20.00");
+        int movimientosAhorros = movimientoService.obtenerMovimientosPorCuenta(ahorros.getCuentaId()).size();
+
+        // Act
+        MovimientoLoteResponseDTO respuesta = movimientoService.registrarMovimientosLote(lote(
+            new MovimientoLoteItemDTO(ahorros.getNumeroCuenta(), new BigDecimal("50.00")),
+            new MovimientoLoteItemDTO(corriente.getNumeroCuenta(), BigDecimal.ZERO),
+            new MovimientoLoteItemDTO("0000000000", new BigDecimal("10.00")),
+            new MovimientoLoteItemDTO(" ", new BigDecimal("10.00")),
+            new MovimientoLoteItemDTO(corriente.getNumeroCuenta(), new BigDecimal("-5.00"))));
+
+        // Assert
+        assertEquals(5, respuesta.getTotal());
+        assertEquals(2, respuesta.getExitosos());
+        assertEquals(3, respuesta.getFallidos());
+        List<MovimientoLoteResultadoDTO> resultados = respuesta.getResultados();
+        for (int i = 0; i < resultados.size(); i++) {
+            assertEquals(i, resultados.get(i).getIndice());
+        }
+        assertEquals(List.of(true, false, false, false, true),
+                     resultados.stream().map(MovimientoLoteResultadoDTO::isExitoso).toList());
+        assertTrue(resultados.stream().filter(r -> !r.isExitoso()).allMatch(r -> r.getError() != null));
+
+        assertEquals("DEPOSITO", resultados.get(0).getMovimiento().getTipoMovimiento());
+        assertEquals("RETIRO", resultados.get(4).getMovimiento().getTipoMovimiento());
+        assertEquals(0, new BigDecimal("-5.00").compareTo(resultados.get(4).getMovimiento().getValor()));
+        assertSaldo("150.00", ahorros);
+        assertSaldo("15.00", corriente);
+        assertEquals(movimientosAhorros + 1, movimientoService.obtenerMovimientosPorCuenta(ahorros.getCuentaId()).size());
+    }
+
+    @Test
+    void registrarMovimientosLote_VariosRetirosDeUnaCuenta_AplicaCadaUnoSobreElSaldoAnterior() {
+        // Arrange
+        CuentaResponseDTO cuenta = crearCuenta("100.00");
+
+        // Act: el tercer retiro ya no tiene saldo, pero el depósito siguiente se aplica igual
+        MovimientoLoteResponseDTO respuesta = movimientoService.registrarMovimientosLote(lote(
+            new MovimientoLoteItemDTO(cuenta.getNumeroCuenta(), new BigDecimal("-30.00")),
+            new MovimientoLoteItemDTO(cuenta.getNumeroCuenta(), new BigDecimal("-60.00")),
+            new MovimientoLoteItemDTO(cuenta.getNumeroCuenta(), new BigDecimal("-20.00")),
+            new MovimientoLoteItemDTO(cuenta.getNumeroCuenta(), new BigDecimal("5.00"))));
+
+        // Assert
+        List<MovimientoLoteResultadoDTO> resultados = respuesta.getResultados();
+        assertEquals(3, respuesta.getExitosos());
+        assertFalse(resultados.get(2).isExitoso());
+        assertEquals(0, new BigDecimal("70.00").compareTo(resultados.get(0).getMovimiento().getSaldo()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(resultados.get(1).getMovimiento().getSaldo()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(resultados.get(3).getMovimiento().getSaldo()));
+        assertTrue(resultados.get(0).getMovimiento().getMovimientoId() < resultados.get(1).getMovimiento().getMovimientoId());
+        assertTrue(resultados.get(1).getMovimiento().getMovimientoId() < resultados.get(3).getMovimiento().getMovimientoId());
+        assertSaldo("15.00", cuenta);
+    }
+
+    @Test
+    void registrarMovimientosLote_SuperaElMaximo_LanzaValidationExceptionSinRegistrarNada() {
+        // Arrange
+        CuentaResponseDTO cuenta = crearCuenta("100.00");
+        MovimientoLoteItemDTO deposito = new MovimientoLoteItemDTO(cuenta.getNumeroCuenta(), BigDecimal.ONE);
+
+        // Act
+        assertThrows(ValidationException.class,
+                     () -> movimientoService.registrarMovimientosLote(
+                         new MovimientoLoteRequestDTO(Collections.nCopies(1001, deposito))));
+
+        // Assert
+        assertSaldo("100.00", cuenta);
+    }
+
+    private CuentaResponseDTO crearCuenta(String saldoInicial) {
+        return cuentaService.crearCuenta(new CuentaRequestDTO("AHORROS", new BigDecimal(saldoInicial), 1L));
+    }
+
+    private MovimientoLoteRequestDTO lote(MovimientoLoteItemDTO... items) {
+        return new MovimientoLoteRequestDTO(List.of(items));
+    }
+
+    private void assertSaldo(String esperado, CuentaResponseDTO cuenta) {
+        BigDecimal saldo = movimientoService.calcularSaldoDisponible(cuenta.getCuentaId());
+        assertEquals(0, new BigDecimal(esperado).compareTo(saldo), "Saldo de la cuenta " + cuenta.getNumeroCuenta());
+    }
+}
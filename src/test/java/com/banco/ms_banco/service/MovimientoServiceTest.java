@@ -1,22 +1,39 @@
 package com.banco.ms_banco.service;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.archive.HorizonteArchivo;
+import com.banco.ms_banco.cache.CuentaCache;
+import com.banco.ms_banco.cache.CuentaCache.DatosCuenta;
+import com.banco.ms_banco.cache.SaldoCache;
+import com.banco.ms_banco.concurrency.SecuenciadorCuentas;
+import com.banco.ms_banco.datasource.ConsistenciaLecturas;
+import com.banco.ms_banco.datasource.DirectorioCuentas;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.datasource.PropiedadesShards;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
 import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
 import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
 import com.banco.ms_banco.exception.CuentaInactivaException;
 import com.banco.ms_banco.exception.CuentaNotFoundException;
 import com.banco.ms_banco.exception.MovimientoInvalidoException;
 import com.banco.ms_banco.exception.SaldoInsuficienteException;
+import com.banco.ms_banco.exception.ValidationException;
 import com.banco.ms_banco.mapper.MovimientoMapper;
 import com.banco.ms_banco.model.Cuenta;
 import com.banco.ms_banco.model.Movimiento;
 import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.MovimientoArchivadoRepository;
 import com.banco.ms_banco.repository.MovimientoRepository;
 import com.banco.ms_banco.service.Impl.MovimientoServiceImpl;
 
@@ -26,6 +43,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import javax.sql.DataSource;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -39,9 +58,37 @@ class MovimientoServiceTest {
     @Mock
     private CuentaRepository cuentaRepository;
 
+    @Mock
+    private MovimientoArchivadoRepository movimientoArchivadoRepository;
+
+    @Mock
+    private HorizonteArchivo horizonteArchivo;
+
     @Mock
     private MovimientoMapper movimientoMapper;
 
+    @Mock
+    private CuentaCache cuentaCache;
+
+    @Mock
+    private SaldoCache saldoCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private SecuenciadorCuentas secuenciadorCuentas = new SecuenciadorCuentas(2, 100);
+
+    @Spy
+    private EnrutadorShards enrutadorShards =
+            new EnrutadorShards(new PropiedadesShards(), null, new ConsistenciaLecturas(0, 1));
+
+    @Spy
+    private DirectorioCuentas directorioCuentas = new DirectorioCuentas(enrutadorShards, mock(DataSource.class), 1);
+
     @InjectMocks
     private MovimientoServiceImpl movimientoService;
 
@@ -49,11 +96,16 @@ class MovimientoServiceTest {
     private Cuenta cuentaInactiva;
     private Movimiento movimientoDeposito;
     private Movimiento movimientoRetiro;
+    private MovimientoProyeccion proyeccionDeposito;
+    private MovimientoProyeccion proyeccionRetiro;
     private MovimientoRequestDTO movimientoRequestDeposito;
     private MovimientoRequestDTO movimientoRequestRetiro;
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
         cuentaActiva = new Cuenta();
         cuentaActiva.setCuentaId(1L);
         cuentaActiva.setNumeroCuenta("1234567890");
@@ -86,16 +138,32 @@ class MovimientoServiceTest {
         movimientoRetiro.setCuenta(cuentaActiva);
         movimientoRetiro.setFecha(LocalDateTime.now());
 
+        proyeccionDeposito = new MovimientoProyeccion(
+            1L, movimientoDeposito.getFecha(), "DEPOSITO",
+            new BigDecimal("500.00"), new BigDecimal("500.00"), 1L, "1234567890"
+        );
+        proyeccionRetiro = new MovimientoProyeccion(
+            2L, movimientoRetiro.getFecha(), "RETIRO",
+            new BigDecimal("200.00"), new BigDecimal("300.00"), 1L, "1234567890"
+        );
+
         movimientoRequestDeposito = new MovimientoRequestDTO(new BigDecimal("500.00"));
         movimientoRequestRetiro = new MovimientoRequestDTO(new BigDecimal("-200.00"));
     }
 
+    @AfterEach
+    void tearDown() {
+        secuenciadorCuentas.detener();
+    }
+
     @Test
     void registrarMovimiento_WithPositiveValueAndActiveAccount_ShouldRegisterDeposit() {
         // Arrange
-        when(cuentaRepository.findByNumeroCuenta("1234567890")).thenReturn(Optional.of(cuentaActiva));
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
-                .thenReturn(Optional.empty()); // Sin movimientos previos
+        when(cuentaCache.buscarPorNumero("1234567890")).thenReturn(Optional.of(DatosCuenta.desde(cuentaActiva)));
+        when(cuentaRepository.acreditarSaldo(1L, new BigDecimal("500.00"))).thenReturn(1);
+        when(cuentaRepository.findSaldoActualByCuentaId(1L))
+                .thenReturn(Optional.of(new BigDecimal("500.00")));
+        when(cuentaRepository.getReferenceById(1L)).thenReturn(cuentaActiva);
         when(movimientoRepository.save(any(Movimiento.class))).thenReturn(movimientoDeposito);
                 
         // Act
@@ -107,21 +175,22 @@ class MovimientoServiceTest {
         assertEquals(new BigDecimal("500.00"), result.getValor());
         assertEquals(new BigDecimal("500.00"), result.getSaldo());
         
-        verify(cuentaRepository, times(1)).findByNumeroCuenta("1234567890");
+        verify(cuentaCache, times(1)).buscarPorNumero("1234567890");
+        verify(cuentaRepository, times(1)).acreditarSaldo(1L, new BigDecimal("500.00"));
         verify(movimientoRepository, times(1)).save(any(Movimiento.class));
     }
 
     @Test
     void registrarMovimiento_WithNegativeValueAndSufficientBalance_ShouldRegisterWithdrawal() {
         // Arrange
-        when(cuentaRepository.findByNumeroCuenta("1234567890")).thenReturn(Optional.of(cuentaActiva));
+        when(cuentaCache.buscarPorNumero("1234567890")).thenReturn(Optional.of(DatosCuenta.desde(cuentaActiva)));
         
-        // Configurar saldo actual de 1000.00
-        Movimiento ultimoMovimiento = new Movimiento();
-        ultimoMovimiento.setSaldo(new BigDecimal("1000.00"));
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
-                .thenReturn(Optional.of(ultimoMovimiento));
+        // Saldo actual de 1000.00: el débito condicional afecta la fila y deja 800.00
+        when(cuentaRepository.debitarSaldo(1L, new BigDecimal("200.00"))).thenReturn(1);
+        when(cuentaRepository.findSaldoActualByCuentaId(1L))
+                .thenReturn(Optional.of(new BigDecimal("800.00")));
         
+        when(cuentaRepository.getReferenceById(1L)).thenReturn(cuentaActiva);
         when(movimientoRepository.save(any(Movimiento.class))).thenReturn(movimientoRetiro);
 
         // Act
@@ -132,14 +201,14 @@ class MovimientoServiceTest {
         assertEquals("RETIRO", result.getTipoMovimiento());
         assertEquals(new BigDecimal("-200.00"), result.getValor());
 
-        verify(cuentaRepository, times(1)).findByNumeroCuenta("1234567890");
+        verify(cuentaCache, times(1)).buscarPorNumero("1234567890");
         verify(movimientoRepository, times(1)).save(any(Movimiento.class));
     }
 
     @Test
     void registrarMovimiento_WithNonExistentAccount_ShouldThrowCuentaNotFoundException() {
         // Arrange
-        when(cuentaRepository.findByNumeroCuenta("9999999999")).thenReturn(Optional.empty());
+        when(cuentaCache.buscarPorNumero("9999999999")).thenReturn(Optional.empty());
 
         // Act & Assert
         CuentaNotFoundException exception = assertThrows(
@@ -148,14 +217,14 @@ class MovimientoServiceTest {
         );
 
         assertEquals("Cuenta no encontrada con número: 9999999999", exception.getMessage());
-        verify(cuentaRepository, times(1)).findByNumeroCuenta("9999999999");
+        verify(cuentaCache, times(1)).buscarPorNumero("9999999999");
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
     @Test
     void registrarMovimiento_WithInactiveAccount_ShouldThrowCuentaInactivaException() {
         // Arrange
-        when(cuentaRepository.findByNumeroCuenta("0987654321")).thenReturn(Optional.of(cuentaInactiva));
+        when(cuentaCache.buscarPorNumero("0987654321")).thenReturn(Optional.of(DatosCuenta.desde(cuentaInactiva)));
 
         // Act & Assert
         CuentaInactivaException exception = assertThrows(
@@ -164,7 +233,7 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("no está activa"));
-        verify(cuentaRepository, times(1)).findByNumeroCuenta("0987654321");
+        verify(cuentaCache, times(1)).buscarPorNumero("0987654321");
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
@@ -180,20 +249,19 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("no puede ser cero"));
-        verify(cuentaRepository, never()).findByNumeroCuenta(anyString());
+        verify(cuentaCache, never()).buscarPorNumero(anyString());
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
     @Test
     void registrarMovimiento_WithNegativeValueAndInsufficientBalance_ShouldThrowSaldoInsuficienteException() {
         // Arrange
-        when(cuentaRepository.findByNumeroCuenta("1234567890")).thenReturn(Optional.of(cuentaActiva));
+        when(cuentaCache.buscarPorNumero("1234567890")).thenReturn(Optional.of(DatosCuenta.desde(cuentaActiva)));
         
-        // Configurar saldo actual de 100.00 (insuficiente para retiro de 200.00)
-        Movimiento ultimoMovimiento = new Movimiento();
-        ultimoMovimiento.setSaldo(new BigDecimal("100.00"));
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
-                .thenReturn(Optional.of(ultimoMovimiento));
+        // Saldo actual de 100.00 (insuficiente para retiro de 200.00): el débito condicional no afecta filas
+        when(cuentaRepository.debitarSaldo(1L, new BigDecimal("200.00"))).thenReturn(0);
+        when(cuentaRepository.findSaldoActualByCuentaId(1L))
+                .thenReturn(Optional.of(new BigDecimal("100.00")));
 
         // Act & Assert
         SaldoInsuficienteException exception = assertThrows(
@@ -205,7 +273,7 @@ class MovimientoServiceTest {
         assertTrue(exception.getMessage().contains("100,00"));
         assertTrue(exception.getMessage().contains("200,00"));
         
-        verify(cuentaRepository, times(1)).findByNumeroCuenta("1234567890");
+        verify(cuentaCache, times(1)).buscarPorNumero("1234567890");
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
@@ -221,7 +289,7 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("El valor mínimo del movimiento es 0.01"));
-        verify(cuentaRepository, never()).findByNumeroCuenta(anyString());
+        verify(cuentaCache, never()).buscarPorNumero(anyString());
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
@@ -237,15 +305,15 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("El valor máximo del movimiento es 1,000,000.00"));
-        verify(cuentaRepository, never()).findByNumeroCuenta(anyString());
+        verify(cuentaCache, never()).buscarPorNumero(anyString());
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
     @Test
     void obtenerMovimientosPorCuenta_WithExistingAccount_ShouldReturnMovementsList() {
         // Arrange
-        List<Movimiento> movimientos = Arrays.asList(movimientoDeposito, movimientoRetiro);
-        when(movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(1L)).thenReturn(movimientos);
+        List<MovimientoProyeccion> movimientos = Arrays.asList(proyeccionDeposito, proyeccionRetiro);
+        when(movimientoRepository.findProyeccionesPorCuenta(1L)).thenReturn(movimientos);
         when(cuentaRepository.existsById(1L)).thenReturn(true);
         
         MovimientoResponseDTO response1 = new MovimientoResponseDTO(
@@ -257,8 +325,8 @@ class MovimientoServiceTest {
             new BigDecimal("-200.00"), new BigDecimal("300.00"), 1L, "1234567890"
         );
         
-        when(movimientoMapper.toResponseDTO(movimientoDeposito)).thenReturn(response1);
-        when(movimientoMapper.toResponseDTO(movimientoRetiro)).thenReturn(response2);
+        when(movimientoMapper.toResponseDTO(proyeccionDeposito)).thenReturn(response1);
+        when(movimientoMapper.toResponseDTO(proyeccionRetiro)).thenReturn(response2);
 
         // Act
         List<MovimientoResponseDTO> result = movimientoService.obtenerMovimientosPorCuenta(1L);
@@ -269,7 +337,7 @@ class MovimientoServiceTest {
         assertEquals("DEPOSITO", result.get(0).getTipoMovimiento());
         assertEquals("RETIRO", result.get(1).getTipoMovimiento());
         
-        verify(movimientoRepository, times(1)).findByCuentaCuentaIdOrderByFechaDesc(1L);
+        verify(movimientoRepository, times(1)).findProyeccionesPorCuenta(1L);
         verify(cuentaRepository, times(1)).existsById(1L);
     }
 
@@ -286,14 +354,14 @@ class MovimientoServiceTest {
 
         assertEquals("Cuenta no encontrada con ID: 999", exception.getMessage());
         verify(cuentaRepository, times(1)).existsById(999L);
-        verify(movimientoRepository, never()).findByCuentaCuentaIdOrderByFechaDesc(anyLong());
+        verify(movimientoRepository, never()).findProyeccionesPorCuenta(anyLong());
     }
 
     @Test
     void obtenerMovimientosPorCliente_WithExistingClient_ShouldReturnMovementsList() {
         // Arrange
-        List<Movimiento> movimientos = Arrays.asList(movimientoDeposito, movimientoRetiro);
-        when(movimientoRepository.findByCuentaClienteId(1L)).thenReturn(movimientos);
+        List<MovimientoProyeccion> movimientos = Arrays.asList(proyeccionDeposito, proyeccionRetiro);
+        when(movimientoRepository.findProyeccionesPorCliente(1L)).thenReturn(movimientos);
         
         MovimientoResponseDTO response1 = new MovimientoResponseDTO(
             1L, movimientoDeposito.getFecha(), "DEPOSITO", 
@@ -304,8 +372,8 @@ class MovimientoServiceTest {
             new BigDecimal("-200.00"), new BigDecimal("300.00"), 1L, "1234567890"
         );
         
-        when(movimientoMapper.toResponseDTO(movimientoDeposito)).thenReturn(response1);
-        when(movimientoMapper.toResponseDTO(movimientoRetiro)).thenReturn(response2);
+        when(movimientoMapper.toResponseDTO(proyeccionDeposito)).thenReturn(response1);
+        when(movimientoMapper.toResponseDTO(proyeccionRetiro)).thenReturn(response2);
 
         // Act
         List<MovimientoResponseDTO> result = movimientoService.obtenerMovimientosPorCliente(1L);
@@ -313,16 +381,14 @@ class MovimientoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(movimientoRepository, times(1)).findByCuentaClienteId(1L);
+        verify(movimientoRepository, times(1)).findProyeccionesPorCliente(1L);
     }
 
     @Test
     void calcularSaldoDisponible_WithExistingAccountAndMovements_ShouldReturnCurrentBalance() {
         // Arrange
-        Movimiento ultimoMovimiento = new Movimiento();
-        ultimoMovimiento.setSaldo(new BigDecimal("1500.00"));
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
-                .thenReturn(Optional.of(ultimoMovimiento));
+        when(cuentaRepository.findSaldoActualByCuentaId(1L))
+                .thenReturn(Optional.of(new BigDecimal("1500.00")));
 
         // Act
         BigDecimal result = movimientoService.calcularSaldoDisponible(1L);
@@ -330,13 +396,13 @@ class MovimientoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(new BigDecimal("1500.00"), result);
-        verify(movimientoRepository, times(1)).findTopByCuentaCuentaIdOrderByFechaDesc(1L);
+        verify(cuentaRepository, times(1)).findSaldoActualByCuentaId(1L);
     }
 
     @Test
     void calcularSaldoDisponible_WithExistingAccountAndNoMovements_ShouldReturnZero() {
         // Arrange
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
+        when(cuentaRepository.findSaldoActualByCuentaId(1L))
                 .thenReturn(Optional.empty());
 
         // Act
@@ -345,13 +411,13 @@ class MovimientoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(BigDecimal.ZERO, result);
-        verify(movimientoRepository, times(1)).findTopByCuentaCuentaIdOrderByFechaDesc(1L);
+        verify(cuentaRepository, times(1)).findSaldoActualByCuentaId(1L);
     }
 
     @Test
     void calcularSaldoDisponible_WithException_ShouldThrowRuntimeException() {
         // Arrange
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
+        when(cuentaRepository.findSaldoActualByCuentaId(1L))
                 .thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
@@ -361,7 +427,7 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("Error al calcular el saldo disponible"));
-        verify(movimientoRepository, times(1)).findTopByCuentaCuentaIdOrderByFechaDesc(1L);
+        verify(cuentaRepository, times(1)).findSaldoActualByCuentaId(1L);
     }
 
     @Test
@@ -433,8 +499,8 @@ class MovimientoServiceTest {
     @Test
     void obtenerTodosLosMovimientos_WithMovements_ShouldReturnAllMovements() {
         // Arrange
-        List<Movimiento> movimientos = Arrays.asList(movimientoDeposito, movimientoRetiro);
-        when(movimientoRepository.findAll()).thenReturn(movimientos);
+        List<MovimientoProyeccion> movimientos = Arrays.asList(proyeccionDeposito, proyeccionRetiro);
+        when(movimientoRepository.findProyecciones()).thenReturn(movimientos);
         
         MovimientoResponseDTO response1 = new MovimientoResponseDTO(
             1L, movimientoDeposito.getFecha(), "DEPOSITO", 
@@ -445,8 +511,8 @@ class MovimientoServiceTest {
             new BigDecimal("-200.00"), new BigDecimal("300.00"), 1L, "1234567890"
         );
         
-        when(movimientoMapper.toResponseDTO(movimientoDeposito)).thenReturn(response1);
-        when(movimientoMapper.toResponseDTO(movimientoRetiro)).thenReturn(response2);
+        when(movimientoMapper.toResponseDTO(proyeccionDeposito)).thenReturn(response1);
+        when(movimientoMapper.toResponseDTO(proyeccionRetiro)).thenReturn(response2);
 
         // Act
         List<MovimientoResponseDTO> result = movimientoService.obtenerTodosLosMovimientos();
@@ -454,6 +520,25 @@ class MovimientoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(movimientoRepository, times(1)).findAll();
+        verify(movimientoRepository, times(1)).findProyecciones();
+    }
+
+    @Test
+    void validarSolicitud_WithPaddedKeyOf100Chars_ShouldAcceptTrimmedKey() {
+        // Arrange
+        String clave = "  " + "k".repeat(100) + "  ";
+
+        // Act & Assert
+        assertDoesNotThrow(() -> movimientoService.validarSolicitud("1234567890", movimientoRequestDeposito, clave));
+    }
+
+    @Test
+    void validarSolicitud_WithKeyOver100Chars_ShouldThrowValidationException() {
+        // Arrange
+        String clave = "k".repeat(101);
+
+        // Act & Assert
+        assertThrows(ValidationException.class,
+            () -> movimientoService.validarSolicitud("1234567890", movimientoRequestDeposito, clave));
     }
-}
\ No newline at end of file
+}
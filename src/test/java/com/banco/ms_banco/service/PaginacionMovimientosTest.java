@@ -0,0 +1,126 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.dto.movimientos.PaginaMovimientosDTO;
+import com.banco.ms_banco.exception.ValidationException;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.model.Movimiento;
+import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.MovimientoRepository;
+
+/**
+ * Verifica la paginación por cursor del historial: recorre todas las filas en orden (fecha, id) descendente sin
+ * repetir ni saltar ninguna, también con fechas repetidas y con movimientos nuevos entre una página y otra.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PaginacionMovimientosTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    private Cuenta cuenta;
+
+    @BeforeEach
+    void setUp() {
+        long sufijo = System.nanoTime() % 1_000_000L;
+        cuenta = cuentaRepository.save(new Cuenta(String.format("66%06d00", sufijo), "AHORROS", BigDecimal.ZERO, 1L));
+
+        // Cuatro movimientos comparten fecha: el id desempata dentro de ella
+        guardarMovimiento(BASE);
+        for (int i = 0; i < 4; i++) {
+            guardarMovimiento(BASE.plusMinutes(5));
+        }
+        guardarMovimiento(BASE.plusMinutes(10));
+        guardarMovimiento(BASE.minusDays(1));
+    }
+
+    @Test
+    void obtenerPaginaMovimientosPorCuenta_RecorriendoConElCursor_DevuelveTodasLasFilasEnOrden() {
+        // Arrange
+        List<MovimientoResponseDTO> recorridos = new ArrayList<>();
+        List<Integer> tamanos = new ArrayList<>();
+        String cursor = null;
+
+        // Act
+        PaginaMovimientosDTO pagina;
+        do {
+            pagina = movimientoService.obtenerPaginaMovimientosPorCuenta(cuenta.getCuentaId(), cursor, 3);
+            recorridos.addAll(pagina.getMovimientos());
+            tamanos.add(pagina.getTamano());
+            cursor = pagina.getSiguienteCursor();
+        } while (pagina.isHayMas());
+
+        // Assert
+        assertEquals(List.of(3, 3, 1), tamanos);
+        assertNull(pagina.getSiguienteCursor());
+        List<MovimientoResponseDTO> esperados = new ArrayList<>(recorridos);
+        esperados.sort(Comparator.comparing(MovimientoResponseDTO::getFecha)
+                                 .thenComparing(MovimientoResponseDTO::getMovimientoId)
+                                 .reversed());
+        assertEquals(ids(esperados), ids(recorridos));
+        assertEquals(7, ids(recorridos).stream().distinct().count());
+        assertEquals(BASE.plusMinutes(10), recorridos.get(0).getFecha());
+        assertEquals(BASE.minusDays(1), recorridos.get(6).getFecha());
+    }
+
+    @Test
+    void obtenerPaginaMovimientosPorCuenta_MovimientoNuevoEntrePaginas_NoDesplazaLaSiguiente() {
+        // Arrange
+        PaginaMovimientosDTO primera = movimientoService.obtenerPaginaMovimientosPorCuenta(cuenta.getCuentaId(), null, 2);
+        PaginaMovimientosDTO esperada = movimientoService.obtenerPaginaMovimientosPorCuenta(
+            cuenta.getCuentaId(), primera.getSiguienteCursor(), 2);
+
+        // Act: con OFFSET el movimiento nuevo empujaría una fila ya vista a la segunda página
+        guardarMovimiento(BASE.plusHours(1));
+        PaginaMovimientosDTO segunda = movimientoService.obtenerPaginaMovimientosPorCuenta(
+            cuenta.getCuentaId(), primera.getSiguienteCursor(), 2);
+
+        // Assert
+        assertEquals(ids(esperada.getMovimientos()), ids(segunda.getMovimientos()));
+        assertTrue(segunda.getMovimientos().stream().noneMatch(m -> ids(primera.getMovimientos()).contains(m.getMovimientoId())));
+    }
+
+    @Test
+    void obtenerPaginaMovimientosPorCuenta_CursorOTamanoInvalido_LanzaValidationException() {
+        // Act & Assert
+        assertThrows(ValidationException.class,
+                     () -> movimientoService.obtenerPaginaMovimientosPorCuenta(cuenta.getCuentaId(), "no-es-un-cursor", 3));
+        assertThrows(ValidationException.class,
+                     () -> movimientoService.obtenerPaginaMovimientosPorCuenta(cuenta.getCuentaId(), null, 0));
+        assertThrows(ValidationException.class,
+                     () -> movimientoService.obtenerPaginaMovimientosPorCuenta(cuenta.getCuentaId(), null, 501));
+    }
+
+    private void guardarMovimiento(LocalDateTime fecha) {
+        Movimiento movimiento = new Movimiento("DEPOSITO", BigDecimal.TEN, BigDecimal.TEN, cuenta);
+        movimiento.setFecha(fecha);
+        movimientoRepository.save(movimiento);
+    }
+
+    private static List<Long> ids(List<MovimientoResponseDTO> movimientos) {
+        return movimientos.stream().map(MovimientoResponseDTO::getMovimientoId).toList();
+    }
+}
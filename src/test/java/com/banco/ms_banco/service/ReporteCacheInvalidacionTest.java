@@ -0,0 +1,91 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.banco.ms_banco.cache.ReporteCache;
+import com.banco.ms_banco.dto.cuentas.CuentaRequestDTO;
+import com.banco.ms_banco.dto.cuentas.CuentaResponseDTO;
+import com.banco.ms_banco.dto.reportes.EstadoCuentaReporteDTO;
+import com.banco.ms_banco.model.Cliente;
+import com.banco.ms_banco.model.Persona;
+import com.banco.ms_banco.repository.ClienteRepository;
+
+/**
+ * Cambios de una cuenta que no registran movimientos también descartan los estados de cuenta cacheados.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReporteCacheInvalidacionTest {
+
+    private static final LocalDate INICIO = LocalDate.now().minusDays(1);
+    private static final LocalDate FIN = LocalDate.now();
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private SaldoMensualService saldoMensualService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReporteCache reporteCache;
+
+    private Long clienteId;
+    private CuentaResponseDTO ahorros;
+
+    @BeforeEach
+    void setUp() {
+        long sufijo = System.nanoTime() % 1_000_000L;
+        clienteId = clienteRepository.save(new Cliente("clave",
+            new Persona("19" + sufijo, "Cliente Cache Reportes", "F", 35, "Quito", "0977777777"))).getClienteId();
+        ahorros = cuentaService.crearCuenta(new CuentaRequestDTO("AHORROS", new BigDecimal("100.00"), clienteId));
+        cuentaService.crearCuenta(new CuentaRequestDTO("CORRIENTE", new BigDecimal("50.00"), clienteId));
+    }
+
+    @Test
+    void actualizarEstadoCuenta_DespuesDeCachearElReporte_LoRegeneraSinLaCuenta() {
+        // Arrange
+        assertEquals(2, reporteService.generarReporteEstadoCuenta(clienteId, INICIO, FIN).getCuentas().size());
+        assertTrue(reporteCache.obtenerReporte(clienteId, INICIO, FIN).isPresent());
+
+        // Act
+        cuentaService.actualizarEstadoCuenta(ahorros.getCuentaId(), "BLOQUEADA");
+
+        // Assert
+        assertTrue(reporteCache.obtenerReporte(clienteId, INICIO, FIN).isEmpty());
+        EstadoCuentaReporteDTO reporte = reporteService.generarReporteEstadoCuenta(clienteId, INICIO, FIN);
+        assertEquals(1, reporte.getCuentas().size());
+        assertEquals(0, new BigDecimal("50.00").compareTo(reporte.getSaldoTotal()));
+    }
+
+    @Test
+    void reconstruirYRepararCuenta_DescartanElReporteCacheado() {
+        // Arrange
+        reporteService.generarReporteEstadoCuenta(clienteId, INICIO, FIN);
+        assertTrue(reporteCache.obtenerReporte(clienteId, INICIO, FIN).isPresent());
+
+        // Act
+        saldoMensualService.reconstruirCuenta(ahorros.getCuentaId());
+
+        // Assert
+        assertTrue(reporteCache.obtenerReporte(clienteId, INICIO, FIN).isEmpty());
+
+        reporteService.generarReporteEstadoCuenta(clienteId, INICIO, FIN);
+        saldoMensualService.repararCuenta(ahorros.getCuentaId());
+        assertTrue(reporteCache.obtenerReporte(clienteId, INICIO, FIN).isEmpty());
+    }
+}
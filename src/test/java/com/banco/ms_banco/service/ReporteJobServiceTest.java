@@ -0,0 +1,204 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banco.ms_banco.dto.reportes.ReporteJobDTO;
+import com.banco.ms_banco.dto.reportes.ReporteJobRequestDTO;
+import com.banco.ms_banco.exception.ColaLlenaException;
+import com.banco.ms_banco.exception.TicketNotFoundException;
+import com.banco.ms_banco.service.Impl.ReporteJobServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ReporteJobServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FIN = LocalDate.of(2024, 1, 31);
+
+    @TempDir
+    private Path directorio;
+
+    private final ReporteService reporteService = mock(ReporteService.class);
+    private final CountDownLatch liberarWorker = new CountDownLatch(1);
+    private ReporteJobServiceImpl servicio;
+
+    @AfterEach
+    void tearDown() {
+        liberarWorker.countDown();
+        if (servicio != null) {
+            servicio.detener();
+        }
+    }
+
+    @Test
+    void encolarReporte_ConColaLlena_LanzaColaLlenaException() throws Exception {
+        // Arrange: un worker ocupado y una cola de un solo lugar
+        crearServicio(Duration.ofHours(1));
+        CountDownLatch procesando = bloquearWorker();
+        servicio.encolarReporte(solicitud(1L));
+        assertTrue(procesando.await(5, TimeUnit.SECONDS));
+        servicio.encolarReporte(solicitud(2L));
+
+        // Act & Assert
+        assertThrows(ColaLlenaException.class, () -> servicio.encolarReporte(solicitud(3L)));
+        assertEquals(1, servicio.obtenerMetricas().getRechazados());
+        assertEquals(2, servicio.obtenerMetricas().getAceptados());
+    }
+
+    @Test
+    void encolarReporte_MismaSolicitudEnCurso_ReutilizaElJob() throws Exception {
+        // Arrange
+        crearServicio(Duration.ofHours(1));
+        CountDownLatch procesando = bloquearWorker();
+        ReporteJobDTO primero = servicio.encolarReporte(solicitud(1L));
+        assertTrue(procesando.await(5, TimeUnit.SECONDS));
+
+        // Act
+        ReporteJobDTO repetido = servicio.encolarReporte(solicitud(1L));
+        ReporteJobDTO otroFormato = servicio.encolarReporte(new ReporteJobRequestDTO(1L, INICIO, FIN, "JSON"));
+
+        // Assert
+        assertEquals(primero.getJobId(), repetido.getJobId());
+        assertNotEquals(primero.getJobId(), otroFormato.getJobId());
+        assertEquals(2, servicio.obtenerMetricas().getAceptados());
+
+        // Al terminar, la misma solicitud genera un job nuevo
+        liberarWorker.countDown();
+        esperarFinalizado(primero.getJobId());
+        esperarFinalizado(otroFormato.getJobId());
+        assertNotEquals(primero.getJobId(), servicio.encolarReporte(solicitud(1L)).getJobId());
+    }
+
+    @Test
+    void procesarJob_EscribeEnTemporalYPublicaElArchivoAlTerminar() throws Exception {
+        // Arrange: durante la escritura solo existe el temporal
+        crearServicio(Duration.ofHours(1));
+        doAnswer(invocacion -> {
+            OutputStream salida = invocacion.getArgument(1);
+            salida.write("%PDF-contenido".getBytes());
+            assertEquals(List.of(".tmp"), extensiones());
+            return null;
+        }).when(reporteService).escribirReporteEstadoCuentaPDFEnFlujo(any(), any());
+
+        // Act
+        ReporteJobDTO job = esperarFinalizado(servicio.encolarReporte(solicitud(1L)).getJobId());
+
+        // Assert
+        assertEquals("COMPLETADO", job.getEstado());
+        Path archivo = servicio.obtenerArchivo(job.getJobId());
+        assertEquals(job.getJobId() + ".pdf", archivo.getFileName().toString());
+        assertEquals("%PDF-contenido", Files.readString(archivo));
+        assertEquals(List.of(".pdf"), extensiones());
+    }
+
+    @Test
+    void procesarJob_ConFallo_EliminaElTemporal() throws Exception {
+        // Arrange
+        crearServicio(Duration.ofHours(1));
+        doAnswer(invocacion -> {
+            OutputStream salida = invocacion.getArgument(1);
+            salida.write("%PDF".getBytes());
+            throw new IllegalStateException("Fallo al renderizar");
+        }).when(reporteService).escribirReporteEstadoCuentaPDFEnFlujo(any(), any());
+
+        // Act
+        ReporteJobDTO job = esperarFinalizado(servicio.encolarReporte(solicitud(1L)).getJobId());
+
+        // Assert
+        assertEquals("FALLIDO", job.getEstado());
+        assertEquals("Fallo al renderizar", job.getError());
+        assertEquals(List.of(), extensiones());
+    }
+
+    @Test
+    void purgarJobsVencidos_ConTtlVencido_EliminaJobYArchivo() throws Exception {
+        // Arrange: con TTL cero todo job finalizado ya está vencido
+        crearServicio(Duration.ZERO);
+        ReporteJobDTO job = esperarFinalizado(servicio.encolarReporte(solicitud(1L)).getJobId());
+        Path archivo = servicio.obtenerArchivo(job.getJobId());
+
+        // Act
+        int eliminados = servicio.purgarJobsVencidos();
+
+        // Assert
+        assertEquals(1, eliminados);
+        assertFalse(Files.exists(archivo));
+        assertThrows(TicketNotFoundException.class, () -> servicio.consultarJob(job.getJobId()));
+    }
+
+    @Test
+    void purgarJobsVencidos_DentroDelTtlOEnCurso_LosConserva() throws Exception {
+        // Arrange
+        crearServicio(Duration.ofHours(1));
+        ReporteJobDTO terminado = esperarFinalizado(servicio.encolarReporte(solicitud(1L)).getJobId());
+        CountDownLatch procesando = bloquearWorker();
+        ReporteJobDTO enCurso = servicio.encolarReporte(solicitud(2L));
+        assertTrue(procesando.await(5, TimeUnit.SECONDS));
+
+        // Act
+        int eliminados = servicio.purgarJobsVencidos();
+
+        // Assert
+        assertEquals(0, eliminados);
+        assertEquals("COMPLETADO", servicio.consultarJob(terminado.getJobId()).getEstado());
+        assertEquals("PROCESANDO", servicio.consultarJob(enCurso.getJobId()).getEstado());
+    }
+
+    private void crearServicio(Duration ttl) throws Exception {
+        servicio = new ReporteJobServiceImpl(1, 1, ttl, directorio.toString());
+        ReflectionTestUtils.setField(servicio, "reporteService", reporteService);
+        ReflectionTestUtils.setField(servicio, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        servicio.iniciar();
+    }
+
+    // El worker queda ocupado hasta liberarWorker; el latch devuelto indica que ya empezó
+    private CountDownLatch bloquearWorker() {
+        CountDownLatch procesando = new CountDownLatch(1);
+        doAnswer(invocacion -> {
+            procesando.countDown();
+            liberarWorker.await();
+            return null;
+        }).when(reporteService).escribirReporteEstadoCuentaPDFEnFlujo(any(), any());
+        return procesando;
+    }
+
+    private ReporteJobDTO esperarFinalizado(String jobId) throws InterruptedException {
+        long limite = System.nanoTime() + 5_000_000_000L;
+        ReporteJobDTO job = servicio.consultarJob(jobId);
+        while (job.getFechaFinalizacion() == null && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            job = servicio.consultarJob(jobId);
+        }
+        assertNotNull(job.getFechaFinalizacion(), "El job " + jobId + " no terminó");
+        return job;
+    }
+
+    private List<String> extensiones() throws Exception {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.map(archivo -> {
+                String nombre = archivo.getFileName().toString();
+                return nombre.substring(nombre.lastIndexOf('.'));
+            }).toList();
+        }
+    }
+
+    private static ReporteJobRequestDTO solicitud(Long clienteId) {
+        return new ReporteJobRequestDTO(clienteId, INICIO, FIN, "PDF");
+    }
+}
@@ -0,0 +1,134 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banco.ms_banco.datasource.ConsistenciaLecturas;
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.datasource.PropiedadesShards;
+import com.banco.ms_banco.dto.movimientos.MovimientoProyeccion;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.report.CargadorEstadoCuenta;
+import com.banco.ms_banco.report.DatosEstadoCuenta;
+import com.banco.ms_banco.service.Impl.ReporteServiceImpl;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+
+/**
+ * Verifica el PDF escrito desde el cursor de movimientos: una sección por cuenta en el orden de {@code cuentaId},
+ * también para las cuentas sin movimientos en el rango, y tablas largas repartidas en varias páginas.
+ */
+class ReportePDFEnFlujoTest {
+
+    private static final LocalDate FECHA_INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FECHA_FIN = LocalDate.of(2024, 12, 31);
+
+    @Test
+    void escribirReporteEstadoCuentaPDFEnFlujo_VariasCuentas_EscribeLasSeccionesEnOrdenDeCuenta() throws Exception {
+        // Arrange: las cuentas llegan desordenadas y la tercera no tiene movimientos
+        List<Cuenta> cuentas = List.of(cuenta(4L), cuenta(1L), cuenta(3L), cuenta(2L));
+        List<MovimientoProyeccion> movimientos = new ArrayList<>();
+        movimientos.addAll(crearMovimientos(cuenta(1L), 20));
+        movimientos.addAll(crearMovimientos(cuenta(2L), 20));
+        movimientos.addAll(crearMovimientos(cuenta(4L), 20));
+
+        // Act
+        byte[] pdf = generar(cuentas, movimientos);
+
+        // Assert
+        String texto = extraerTexto(pdf);
+        int posicionAnterior = -1;
+        for (long cuentaId = 1; cuentaId <= 4; cuentaId++) {
+            int posicion = texto.indexOf(numeroCuenta(cuentaId));
+            assertTrue(posicion > posicionAnterior, "La cuenta " + cuentaId + " está fuera de orden o no tiene sección");
+            posicionAnterior = posicion;
+        }
+    }
+
+    @Test
+    void escribirReporteEstadoCuentaPDFEnFlujo_MuchosMovimientos_RepartenLaTablaEnVariasPaginas() throws Exception {
+        // Arrange
+        Cuenta cuenta = cuenta(1L);
+
+        // Act
+        byte[] pdf = generar(List.of(cuenta), crearMovimientos(cuenta, 450));
+
+        // Assert
+        PdfReader reader = new PdfReader(pdf);
+        assertTrue(reader.getNumberOfPages() > 1);
+        String ultimaPagina = new PdfTextExtractor(reader).getTextFromPage(reader.getNumberOfPages());
+        assertTrue(ultimaPagina.contains("Saldo al cierre del periodo"));
+    }
+
+    private byte[] generar(List<Cuenta> cuentas, List<MovimientoProyeccion> movimientos) {
+        ReporteServiceImpl servicio = new ReporteServiceImpl();
+        ReflectionTestUtils.setField(servicio, "enrutadorShards",
+                                     new EnrutadorShards(new PropiedadesShards(), null, new ConsistenciaLecturas(0, 1)));
+        CargadorEstadoCuenta cargador = mock(CargadorEstadoCuenta.class);
+        doAnswer(invocacion -> {
+            Consumer<MovimientoProyeccion> consumidor = invocacion.getArgument(1);
+            movimientos.stream()
+                    .sorted(Comparator.comparing(MovimientoProyeccion::cuentaId)
+                            .thenComparing(MovimientoProyeccion::fecha, Comparator.reverseOrder()))
+                    .forEach(consumidor);
+            return null;
+        }).when(cargador).recorrerMovimientos(any(), any());
+        ReflectionTestUtils.setField(servicio, "cargadorEstadoCuenta", cargador);
+        DatosEstadoCuenta cabecera = new DatosEstadoCuenta(1L, FECHA_INICIO, FECHA_FIN, Optional.empty(), cuentas,
+                                                           Map.of(), Map.of(), Map.of(), Map.of());
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        servicio.escribirReporteEstadoCuentaPDFEnFlujo(cabecera, salida);
+        return salida.toByteArray();
+    }
+
+    private String extraerTexto(byte[] pdf) throws Exception {
+        PdfReader reader = new PdfReader(pdf);
+        PdfTextExtractor extractor = new PdfTextExtractor(reader);
+        StringBuilder texto = new StringBuilder();
+        for (int pagina = 1; pagina <= reader.getNumberOfPages(); pagina++) {
+            texto.append(extractor.getTextFromPage(pagina));
+        }
+        return texto.toString();
+    }
+
+    private List<MovimientoProyeccion> crearMovimientos(Cuenta cuenta, int cantidad) {
+        List<MovimientoProyeccion> movimientos = new ArrayList<>(cantidad);
+        BigDecimal saldo = cuenta.getSaldoInicial();
+        LocalDateTime fecha = FECHA_INICIO.atStartOfDay();
+        for (int j = 0; j < cantidad; j++) {
+            BigDecimal valor = new BigDecimal("10.00");
+            saldo = saldo.add(valor);
+            movimientos.add(new MovimientoProyeccion(cuenta.getCuentaId() * 10_000 + j, fecha.plusMinutes(j * 90L),
+                                                     "DEPOSITO", valor, saldo, cuenta.getCuentaId(),
+                                                     cuenta.getNumeroCuenta()));
+        }
+        return movimientos;
+    }
+
+    private Cuenta cuenta(Long cuentaId) {
+        Cuenta cuenta = new Cuenta(numeroCuenta(cuentaId), "AHORROS", new BigDecimal("1000.00"), 1L);
+        cuenta.setCuentaId(cuentaId);
+        return cuenta;
+    }
+
+    private String numeroCuenta(Long cuentaId) {
+        return String.format("77%08d", cuentaId);
+    }
+}
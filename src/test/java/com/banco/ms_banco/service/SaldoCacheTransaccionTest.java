@@ -0,0 +1,109 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.cache.SaldoCache;
+import com.banco.ms_banco.dto.cuentas.CuentaRequestDTO;
+import com.banco.ms_banco.dto.cuentas.CuentaResponseDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoRequestDTO;
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+import com.banco.ms_banco.model.Cliente;
+import com.banco.ms_banco.model.Persona;
+import com.banco.ms_banco.repository.ClienteRepository;
+
+/**
+ * La cache de saldos solo ve movimientos confirmados: se actualiza después del commit y nunca con un movimiento
+ * revertido.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SaldoCacheTransaccionTest {
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private SaldoCache saldoCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private CuentaResponseDTO cuenta;
+
+    @BeforeEach
+    void setUp() {
+        long sufijo = System.nanoTime() % 1_000_000L;
+        Long clienteId = clienteRepository.save(new Cliente("clave",
+            new Persona("23" + sufijo, "Cliente Cache Saldos", "M", 41, "Quito", "0933333333"))).getClienteId();
+        cuenta = cuentaService.crearCuenta(new CuentaRequestDTO("AHORROS", new BigDecimal("100.00"), clienteId));
+        assertEquals(0, new BigDecimal("100.00").compareTo(movimientoService.calcularSaldoDisponible(cuenta.getCuentaId())));
+    }
+
+    @Test
+    void registrarMovimiento_Confirmado_ActualizaLaCacheConSuSaldo() {
+        // Act
+        movimientoService.registrarMovimiento(cuenta.getNumeroCuenta(), new MovimientoRequestDTO(new BigDecimal("50.00")));
+
+        // Assert
+        assertEquals(0, new BigDecimal("150.00").compareTo(saldoCacheado()));
+    }
+
+    @Test
+    void alRegistrarMovimiento_DentroDeLaTransaccion_EsperaAlCommit() {
+        // Act
+        BigDecimal antesDelCommit = transactionTemplate.execute(status -> {
+            eventPublisher.publishEvent(movimiento("175.00"));
+            return saldoCacheado();
+        });
+
+        // Assert
+        assertEquals(0, new BigDecimal("100.00").compareTo(antesDelCommit));
+        assertEquals(0, new BigDecimal("175.00").compareTo(saldoCacheado()));
+    }
+
+    @Test
+    void alRegistrarMovimiento_TransaccionRevertida_NoCambiaElSaldoCacheado() {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(movimiento("175.00"));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(0, new BigDecimal("100.00").compareTo(saldoCacheado()));
+    }
+
+    private BigDecimal saldoCacheado() {
+        Optional<BigDecimal> saldo = saldoCache.obtener(cuenta.getCuentaId());
+        assertTrue(saldo.isPresent());
+        return saldo.get();
+    }
+
+    // Un id mayor que el de cualquier movimiento ya confirmado de la cuenta
+    private MovimientoRegistradoEvent movimiento(String saldo) {
+        return new MovimientoRegistradoEvent(Long.MAX_VALUE, cuenta.getCuentaId(), cuenta.getNumeroCuenta(),
+                                             cuenta.getClienteId(), "DEPOSITO", new BigDecimal("75.00"),
+                                             new BigDecimal(saldo), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,276 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.ms_banco.dto.cuentas.CuentaResumenDTO;
+import com.banco.ms_banco.dto.saldos.ReconstruccionSaldosDTO;
+import com.banco.ms_banco.event.MovimientoRegistradoEvent;
+import com.banco.ms_banco.model.Cliente;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.model.Movimiento;
+import com.banco.ms_banco.model.MovimientoArchivado;
+import com.banco.ms_banco.model.Persona;
+import com.banco.ms_banco.model.SaldoMensual;
+import com.banco.ms_banco.repository.ClienteRepository;
+import com.banco.ms_banco.repository.CuentaRepository;
+import com.banco.ms_banco.repository.MovimientoArchivadoRepository;
+import com.banco.ms_banco.repository.MovimientoRepository;
+import com.banco.ms_banco.repository.SaldoMensualRepository;
+
+/**
+ * Verifica los resúmenes mensuales: la acumulación de cada movimiento dentro de su transacción, la reconstrucción
+ * desde los movimientos (con y sin archivo) y su uso en los totales del estado de cuenta.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SaldoMensualServiceTest {
+
+    // Cuatro meses dentro del horizonte de archivo: el rango del reporte cubre en parte el primero y el último
+    private static final LocalDate MES_0 = LocalDate.now().withDayOfMonth(1).minusMonths(6);
+    private static final LocalDate MES_1 = MES_0.plusMonths(1);
+    private static final LocalDate MES_2 = MES_0.plusMonths(2);
+    private static final LocalDate MES_3 = MES_0.plusMonths(3);
+    private static final LocalDate INICIO_REPORTE = MES_0.withDayOfMonth(11);
+    private static final LocalDate FIN_REPORTE = MES_3.withDayOfMonth(10);
+
+    @Autowired
+    private SaldoMensualService saldoMensualService;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private MovimientoArchivadoRepository movimientoArchivadoRepository;
+
+    @Autowired
+    private SaldoMensualRepository saldoMensualRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long sufijo;
+    private Cuenta cuenta;
+
+    @BeforeEach
+    void setUp() {
+        sufijo = System.nanoTime() % 1_000_000L;
+        Long clienteId = clienteRepository.save(new Cliente("clave",
+            new Persona("22" + sufijo, "Cliente Saldos Mensuales", "F", 33, "Quito", "0944444444"))).getClienteId();
+        cuenta = cuentaRepository.save(new Cuenta(String.format("55%06d00", sufijo), "AHORROS",
+                                                  new BigDecimal("100.00"), clienteId));
+    }
+
+    @Test
+    void acumularMovimiento_PrimerMovimientoDelMes_InsertaLaAperturaAntesDelMovimiento() {
+        // Act
+        saldoMensualService.acumularMovimiento(evento("DEPOSITO", "50.00", "150.00", MES_0.atTime(9, 0)));
+
+        // Assert
+        List<SaldoMensual> saldos = saldosDeLaCuenta();
+        assertEquals(1, saldos.size());
+        assertSaldo(saldos.get(0), MES_0, "100.00", "150.00", "0.00", "50.00", 1);
+    }
+
+    @Test
+    void acumularMovimiento_MovimientosSiguientesDelMes_SeSumanALaMismaFila() {
+        // Arrange
+        saldoMensualService.acumularMovimiento(evento("DEPOSITO", "50.00", "150.00", MES_0.atTime(9, 0)));
+
+        // Act
+        saldoMensualService.acumularMovimiento(evento("RETIRO", "30.00", "120.00", MES_0.plusDays(3).atTime(9, 0)));
+        saldoMensualService.acumularMovimiento(evento("DEPOSITO", "5.00", "125.00", MES_0.plusDays(9).atTime(9, 0)));
+
+        // Assert
+        List<SaldoMensual> saldos = saldosDeLaCuenta();
+        assertEquals(1, saldos.size());
+        assertSaldo(saldos.get(0), MES_0, "100.00", "125.00", "30.00", "55.00", 3);
+    }
+
+    @Test
+    void acumularMovimiento_TransaccionRevertida_NoDejaResumen() {
+        // Act: el oyente se une a la transacción del movimiento y se revierte con ella
+        transactionTemplate.executeWithoutResult(status -> {
+            saldoMensualService.acumularMovimiento(evento("DEPOSITO", "50.00", "150.00", MES_0.atTime(9, 0)));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertTrue(saldosDeLaCuenta().isEmpty());
+    }
+
+    @Test
+    void reconstruirCuenta_SinArchivo_EncadenaAperturaYCierreEntreMeses() {
+        // Arrange
+        guardarMovimientosDelRango();
+
+        // Act
+        ReconstruccionSaldosDTO resultado = saldoMensualService.reconstruirCuenta(cuenta.getCuentaId());
+
+        // Assert
+        assertEquals(4, resultado.getPeriodosGenerados());
+        assertEquals(0, resultado.getCuentasConDiferencia());
+        List<SaldoMensual> saldos = saldosDeLaCuenta();
+        assertEquals(4, saldos.size());
+        assertSaldo(saldos.get(0), MES_0, "0.00", "150.00", "0.00", "150.00", 2);
+        assertSaldo(saldos.get(1), MES_1, "150.00", "130.00", "30.00", "10.00", 2);
+        assertSaldo(saldos.get(2), MES_2, "130.00", "200.00", "0.00", "70.00", 1);
+        assertSaldo(saldos.get(3), MES_3, "200.00", "185.00", "20.00", "5.00", 2);
+    }
+
+    @Test
+    void reconstruirCuenta_ConMovimientosArchivados_LosIncluyeEnLaCadena() {
+        // Arrange: los dos primeros meses ya se trasladaron al archivo
+        LocalDate archivado0 = LocalDate.now().withDayOfMonth(1).minusMonths(30);
+        LocalDate archivado1 = archivado0.plusMonths(1);
+        guardarMovimientoArchivado(1, "DEPOSITO", "100.00", "100.00", archivado0.plusDays(2).atTime(10, 0));
+        guardarMovimientoArchivado(2, "RETIRO", "40.00", "60.00", archivado1.plusDays(2).atTime(10, 0));
+        guardarMovimiento("DEPOSITO", "15.00", "75.00", MES_0.plusDays(1).atTime(10, 0));
+        cuenta.setSaldoActual(new BigDecimal("75.00"));
+        cuentaRepository.save(cuenta);
+
+        // Act
+        ReconstruccionSaldosDTO resultado = saldoMensualService.reconstruirCuenta(cuenta.getCuentaId());
+
+        // Assert
+        assertEquals(0, resultado.getCuentasConDiferencia());
+        List<SaldoMensual> saldos = saldosDeLaCuenta();
+        assertEquals(3, saldos.size());
+        assertSaldo(saldos.get(0), archivado0, "0.00", "100.00", "0.00", "100.00", 1);
+        assertSaldo(saldos.get(1), archivado1, "100.00", "60.00", "40.00", "0.00", 1);
+        assertSaldo(saldos.get(2), MES_0, "60.00", "75.00", "0.00", "15.00", 1);
+    }
+
+    @Test
+    void repararCuenta_SaldoActualDistinto_LoReemplazaPorElReconstruido() {
+        // Arrange
+        guardarMovimientosDelRango();
+        cuenta.setSaldoActual(new BigDecimal("999.00"));
+        cuentaRepository.save(cuenta);
+
+        // Act
+        ReconstruccionSaldosDTO resultado = saldoMensualService.repararCuenta(cuenta.getCuentaId());
+
+        // Assert
+        assertEquals(1, resultado.getCuentasConDiferencia());
+        BigDecimal saldoActual = cuentaRepository.findById(cuenta.getCuentaId()).orElseThrow().getSaldoActual();
+        assertEquals(0, new BigDecimal("185.00").compareTo(saldoActual));
+        assertEquals(0, saldoMensualService.reconstruirCuenta(cuenta.getCuentaId()).getCuentasConDiferencia());
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_MesesCompletos_TomaSusTotalesDelResumen() {
+        // Arrange: el resumen de MES_2 se altera para distinguirlo de la suma de sus movimientos
+        guardarMovimientosDelRango();
+        saldoMensualService.reconstruirCuenta(cuenta.getCuentaId());
+        SaldoMensual mes2 = saldosDeLaCuenta().get(2);
+        mes2.setTotalCreditos(new BigDecimal("1000.00"));
+        mes2.setCantidadMovimientos(9);
+        saldoMensualRepository.save(mes2);
+
+        // Act
+        CuentaResumenDTO resumen = generarReporte();
+
+        // Assert: los extremos parciales solo suman las filas dentro del rango
+        assertEquals(0, new BigDecimal("100.00").compareTo(resumen.getSaldoAperturaPeriodo()));
+        assertEquals(0, new BigDecimal("1060.00").compareTo(resumen.getTotalCreditosPeriodo()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(resumen.getTotalDebitosPeriodo()));
+        assertEquals(13, resumen.getCantidadMovimientosPeriodo());
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_MesCompletoSinResumen_SumaSusMovimientos() {
+        // Arrange: resúmenes sin reconstruir para MES_1, como antes de la migración que los introdujo
+        guardarMovimientosDelRango();
+        saldoMensualService.reconstruirCuenta(cuenta.getCuentaId());
+        saldoMensualRepository.delete(saldosDeLaCuenta().get(1));
+
+        // Act
+        CuentaResumenDTO resumen = generarReporte();
+
+        // Assert
+        assertEquals(0, new BigDecimal("100.00").compareTo(resumen.getSaldoAperturaPeriodo()));
+        assertEquals(0, new BigDecimal("130.00").compareTo(resumen.getTotalCreditosPeriodo()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(resumen.getTotalDebitosPeriodo()));
+        assertEquals(5, resumen.getCantidadMovimientosPeriodo());
+        assertEquals(0, new BigDecimal("180.00").compareTo(resumen.getSaldoCierrePeriodo()));
+    }
+
+    // Saldo inicial de 100 y movimientos en los cuatro meses; el saldo final es 185
+    private void guardarMovimientosDelRango() {
+        guardarMovimiento("DEPOSITO", "100.00", "100.00", MES_0.plusDays(1).atTime(10, 0));
+        guardarMovimiento("DEPOSITO", "50.00", "150.00", MES_0.plusDays(19).atTime(10, 0));
+        guardarMovimiento("RETIRO", "30.00", "120.00", MES_1.plusDays(9).atTime(10, 0));
+        guardarMovimiento("DEPOSITO", "10.00", "130.00", MES_1.plusDays(14).atTime(10, 0));
+        guardarMovimiento("DEPOSITO", "70.00", "200.00", MES_2.plusDays(4).atTime(10, 0));
+        guardarMovimiento("RETIRO", "20.00", "180.00", MES_3.plusDays(4).atTime(10, 0));
+        guardarMovimiento("DEPOSITO", "5.00", "185.00", MES_3.plusDays(24).atTime(10, 0));
+        cuenta.setSaldoActual(new BigDecimal("185.00"));
+        cuenta = cuentaRepository.save(cuenta);
+    }
+
+    private void guardarMovimiento(String tipo, String valor, String saldo, LocalDateTime fecha) {
+        Movimiento movimiento = new Movimiento(tipo, new BigDecimal(valor), new BigDecimal(saldo), cuenta);
+        movimiento.setFecha(fecha);
+        movimientoRepository.save(movimiento);
+    }
+
+    private void guardarMovimientoArchivado(int secuencia, String tipo, String valor, String saldo,
+                                            LocalDateTime fecha) {
+        MovimientoArchivado movimiento = new MovimientoArchivado();
+        movimiento.setMovimientoId(900_000_000_000L + sufijo * 10 + secuencia);
+        movimiento.setTipoMovimiento(tipo);
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setSaldo(new BigDecimal(saldo));
+        movimiento.setFecha(fecha);
+        movimiento.setCuentaId(cuenta.getCuentaId());
+        movimientoArchivadoRepository.save(movimiento);
+    }
+
+    private MovimientoRegistradoEvent evento(String tipo, String valor, String saldo, LocalDateTime fecha) {
+        return new MovimientoRegistradoEvent(null, cuenta.getCuentaId(), cuenta.getNumeroCuenta(),
+                                             cuenta.getClienteId(), tipo, new BigDecimal(valor),
+                                             new BigDecimal(saldo), fecha);
+    }
+
+    private CuentaResumenDTO generarReporte() {
+        return reporteService.generarReporteEstadoCuenta(cuenta.getClienteId(), INICIO_REPORTE, FIN_REPORTE)
+                .getCuentas()
+                .get(0);
+    }
+
+    private List<SaldoMensual> saldosDeLaCuenta() {
+        return saldoMensualRepository.findByCuentaIdsAndPeriodoBetween(
+            List.of(cuenta.getCuentaId()), LocalDate.of(2000, 1, 1), LocalDate.of(2100, 1, 1));
+    }
+
+    private static void assertSaldo(SaldoMensual saldo, LocalDate periodo, String apertura, String cierre,
+                                    String debitos, String creditos, long cantidad) {
+        assertEquals(periodo, saldo.getPeriodo());
+        assertEquals(0, new BigDecimal(apertura).compareTo(saldo.getSaldoApertura()), "Apertura de " + periodo);
+        assertEquals(0, new BigDecimal(cierre).compareTo(saldo.getSaldoCierre()), "Cierre de " + periodo);
+        assertEquals(0, new BigDecimal(debitos).compareTo(saldo.getTotalDebitos()), "Débitos de " + periodo);
+        assertEquals(0, new BigDecimal(creditos).compareTo(saldo.getTotalCreditos()), "Créditos de " + periodo);
+        assertEquals(cantidad, saldo.getCantidadMovimientos(), "Movimientos de " + periodo);
+    }
+}
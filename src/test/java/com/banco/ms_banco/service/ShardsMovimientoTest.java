@@ -0,0 +1,128 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.banco.ms_banco.datasource.EnrutadorShards;
+import com.banco.ms_banco.dto.cuentas.CuentaRequestDTO;
+import com.banco.ms_banco.dto.cuentas.CuentaResponseDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteItemDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteRequestDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoLoteResponseDTO;
+import com.banco.ms_banco.dto.movimientos.MovimientoResponseDTO;
+import com.banco.ms_banco.dto.transferencias.TransferenciaRequestDTO;
+import com.banco.ms_banco.dto.transferencias.TransferenciaResponseDTO;
+
+// Segundo shard en otra base H2 en memoria, con el mismo esquema que el shard 0
+@SpringBootTest(properties = {
+    "banco.shards.adicionales[0].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL;"
+        + "INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+    "banco.shards.adicionales[0].username=sa"
+})
+@ActiveProfiles("test")
+class ShardsMovimientoTest {
+
+    // Un cliente con id del rango del shard 1: sus cuentas se crean en esa base
+    private static final long CLIENTE_SHARD_1 = EnrutadorShards.primerId(1) + 7;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private EnrutadorShards enrutadorShards;
+
+    @Test
+    void registrarMovimientosLote_EntreDosShards_RegistraCadaParteEnSuShard() {
+        // Arrange
+        CuentaResponseDTO cuenta0 = crearCuenta(1L, "100.00");
+        CuentaResponseDTO cuenta1 = crearCuenta(CLIENTE_SHARD_1, "100.00");
+        assertEquals(0, enrutadorShards.shardDeCuenta(cuenta0.getCuentaId()));
+        assertEquals(1, enrutadorShards.shardDeCuenta(cuenta1.getCuentaId()));
+
+        // Act
+        MovimientoLoteResponseDTO respuesta = movimientoService.registrarMovimientosLote(lote(
+            new MovimientoLoteItemDTO(cuenta0.getNumeroCuenta(), new BigDecimal("25.00")),
+            new MovimientoLoteItemDTO(cuenta1.getNumeroCuenta(), new BigDecimal("-40.00")),
+            new MovimientoLoteItemDTO(cuenta1.getNumeroCuenta(), new BigDecimal("-500.00"))));
+
+        // Assert: el retiro sin saldo se rechaza solo, y cada movimiento queda en el shard de su cuenta
+        assertEquals(2, respuesta.getExitosos());
+        assertEquals(1, respuesta.getFallidos());
+        assertFalse(respuesta.getResultados().get(2).isExitoso());
+        assertSaldo("125.00", cuenta0);
+        assertSaldo("60.00", cuenta1);
+
+        MovimientoResponseDTO retiro = respuesta.getResultados().get(1).getMovimiento();
+        assertEquals(1, enrutadorShards.shardDeMovimiento(retiro.getMovimientoId()));
+        MovimientoResponseDTO leido = movimientoService.obtenerMovimientoPorId(retiro.getMovimientoId());
+        assertEquals(0, new BigDecimal("60.00").compareTo(leido.getSaldo()));
+        MovimientoResponseDTO deposito = respuesta.getResultados().get(0).getMovimiento();
+        assertEquals(0, enrutadorShards.shardDeMovimiento(deposito.getMovimientoId()));
+        assertEquals(deposito.getMovimientoId(),
+                     movimientoService.obtenerMovimientoPorId(deposito.getMovimientoId()).getMovimientoId());
+    }
+
+    @Test
+    void registrarMovimientosLote_FalloEnUnShard_RevierteTambienElOtro() {
+        // Arrange: un depósito más deja el saldo de la cuenta del shard 1 fuera de DECIMAL(15,2)
+        CuentaResponseDTO cuenta0 = crearCuenta(1L, "100.00");
+        CuentaResponseDTO cuenta1 = crearCuenta(CLIENTE_SHARD_1, "9999999999999.00");
+        int movimientosCuenta0 = movimientoService.obtenerMovimientosPorCuenta(cuenta0.getCuentaId()).size();
+
+        // Act
+        assertThrows(RuntimeException.class, () -> movimientoService.registrarMovimientosLote(lote(
+            new MovimientoLoteItemDTO(cuenta0.getNumeroCuenta(), new BigDecimal("-30.00")),
+            new MovimientoLoteItemDTO(cuenta1.getNumeroCuenta(), new BigDecimal("1000.00")))));
+
+        // Assert
+        assertSaldo("100.00", cuenta0);
+        assertSaldo("9999999999999.00", cuenta1);
+        assertEquals(movimientosCuenta0, movimientoService.obtenerMovimientosPorCuenta(cuenta0.getCuentaId()).size());
+    }
+
+    @Test
+    void realizarTransferencia_EntreDosShards_MueveElSaldoEnAmbos() {
+        // Arrange
+        CuentaResponseDTO cuenta0 = crearCuenta(1L, "50.00");
+        CuentaResponseDTO cuenta1 = crearCuenta(CLIENTE_SHARD_1, "200.00");
+
+        // Act
+        TransferenciaResponseDTO respuesta = transferenciaService.realizarTransferencia(TransferenciaRequestDTO.builder()
+                .numeroCuentaOrigen(cuenta1.getNumeroCuenta())
+                .numeroCuentaDestino(cuenta0.getNumeroCuenta())
+                .valor(new BigDecimal("75.00"))
+                .build());
+
+        // Assert
+        assertEquals(1, enrutadorShards.shardDeMovimiento(respuesta.getRetiro().getMovimientoId()));
+        assertEquals(0, enrutadorShards.shardDeMovimiento(respuesta.getDeposito().getMovimientoId()));
+        assertSaldo("125.00", cuenta0);
+        assertSaldo("125.00", cuenta1);
+    }
+
+    private CuentaResponseDTO crearCuenta(long clienteId, String saldoInicial) {
+        return cuentaService.crearCuenta(new CuentaRequestDTO("AHORROS", new BigDecimal(saldoInicial), clienteId));
+    }
+
+    private MovimientoLoteRequestDTO lote(MovimientoLoteItemDTO... items) {
+        return new MovimientoLoteRequestDTO(List.of(items));
+    }
+
+    private void assertSaldo(String esperado, CuentaResponseDTO cuenta) {
+        BigDecimal saldo = movimientoService.calcularSaldoDisponible(cuenta.getCuentaId());
+        assertEquals(0, new BigDecimal(esperado).compareTo(saldo), "Saldo de la cuenta " + cuenta.getNumeroCuenta());
+    }
+}
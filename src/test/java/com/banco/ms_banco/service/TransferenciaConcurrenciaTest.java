@@ -0,0 +1,122 @@
+package com.banco.ms_banco.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.banco.ms_banco.dto.transferencias.TransferenciaRequestDTO;
+import com.banco.ms_banco.model.Cuenta;
+import com.banco.ms_banco.repository.CuentaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferenciaConcurrenciaTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferenciaConcurrenciaTest.class);
+
+    private static final int CUENTAS = 4;
+    private static final int HILOS = 32;
+    private static final int TRANSFERENCIAS_POR_HILO = 25;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("10000.00");
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Test
+    void realizarTransferencia_WithConcurrentCrossTransfers_ShouldNotDeadlockAndConserveBalance() throws Exception {
+        // Arrange
+        List<Cuenta> cuentas = crearCuentas("810000000");
+
+        // Act
+        transferirEnParalelo(cuentas, 8, 10);
+
+        // Assert: ninguna transferencia falló y el dinero total se conserva
+        assertSaldoTotalConservado(cuentas);
+    }
+
+    // Fuera de la suite normal: se ejecuta con ./gradlew benchmark
+    @Test
+    @Tag("benchmark")
+    void realizarTransferencia_Benchmark_ConcurrentCrossTransfers() throws Exception {
+        // Arrange
+        List<Cuenta> cuentas = crearCuentas("800000000");
+
+        // Act
+        double segundos = transferirEnParalelo(cuentas, HILOS, TRANSFERENCIAS_POR_HILO);
+
+        // Assert
+        int total = HILOS * TRANSFERENCIAS_POR_HILO;
+        logger.info("Benchmark transferencias: {} transferencias sobre {} cuentas en {} s ({} transferencias/s)",
+                    total, CUENTAS, String.format("%.2f", segundos), String.format("%.1f", total / segundos));
+        assertSaldoTotalConservado(cuentas);
+    }
+
+    private List<Cuenta> crearCuentas(String prefijo) {
+        List<Cuenta> cuentas = new ArrayList<>();
+        for (int i = 0; i < CUENTAS; i++) {
+            cuentas.add(cuentaRepository.save(new Cuenta(prefijo + i, "AHORROS", SALDO_INICIAL, 1L)));
+        }
+        return cuentas;
+    }
+
+    // Transferencias en ambos sentidos entre pares aleatorios del mismo grupo pequeño de cuentas; devuelve los segundos
+    private double transferirEnParalelo(List<Cuenta> cuentas, int hilos, int transferenciasPorHilo) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int t = 0; t < transferenciasPorHilo; t++) {
+                    int origen = random.nextInt(CUENTAS);
+                    int destino = (origen + 1 + random.nextInt(CUENTAS - 1)) % CUENTAS;
+                    transferenciaService.realizarTransferencia(new TransferenciaRequestDTO(
+                        cuentas.get(origen).getNumeroCuenta(),
+                        cuentas.get(destino).getNumeroCuenta(),
+                        BigDecimal.valueOf(1 + random.nextInt(5))));
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        salida.countDown();
+        try {
+            for (Future<?> tarea : tareas) {
+                tarea.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000_000.0;
+    }
+
+    private void assertSaldoTotalConservado(List<Cuenta> cuentas) {
+        BigDecimal saldoTotal = BigDecimal.ZERO;
+        for (Cuenta cuenta : cuentas) {
+            saldoTotal = saldoTotal.add(cuentaRepository.findSaldoActualByCuentaId(cuenta.getCuentaId()).orElseThrow());
+        }
+        assertEquals(0, SALDO_INICIAL.multiply(BigDecimal.valueOf(CUENTAS)).compareTo(saldoTotal));
+    }
+}
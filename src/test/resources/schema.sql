@@ -1,8 +1,27 @@
+CREATE TABLE IF NOT EXISTS PERSONA (
+    PersonaId BIGINT AUTO_INCREMENT PRIMARY KEY,
+    Identificacion VARCHAR(255) NOT NULL,
+    Nombre VARCHAR(100) NOT NULL,
+    Genero VARCHAR(255),
+    Edad INT,
+    Direccion VARCHAR(200),
+    Telefono VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS CLIENTE (
+    ClienteId BIGINT AUTO_INCREMENT PRIMARY KEY,
+    Contrasena VARCHAR(255) NOT NULL,
+    Estado VARCHAR(255),
+    PersonaId BIGINT NOT NULL UNIQUE,
+    FOREIGN KEY (PersonaId) REFERENCES PERSONA(PersonaId)
+);
+
 CREATE TABLE IF NOT EXISTS CUENTA (
     CuentaId BIGINT AUTO_INCREMENT PRIMARY KEY,
     NumeroCuenta VARCHAR(30) NOT NULL UNIQUE,
     TipoCuenta VARCHAR(30) NOT NULL,
     SaldoInicial DECIMAL(15,2) DEFAULT 0.00,
+    SaldoActual DECIMAL(15,2) NOT NULL DEFAULT 0.00,
     Estado VARCHAR(20),
     ClienteId BIGINT NOT NULL
 );
@@ -15,4 +34,48 @@ CREATE TABLE IF NOT EXISTS MOVIMIENTO (
     Saldo DECIMAL(15,2) NOT NULL,
     CuentaId BIGINT NOT NULL,
     FOREIGN KEY (CuentaId) REFERENCES CUENTA(CuentaId)
-);
\ No newline at end of file
+);
+
+CREATE SEQUENCE IF NOT EXISTS movimiento_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS MOVIMIENTO_ARCHIVO (
+    MovimientoId BIGINT PRIMARY KEY,
+    Fecha TIMESTAMP NOT NULL,
+    TipoMovimiento VARCHAR(30) NOT NULL,
+    Valor DECIMAL(15,2) NOT NULL,
+    Saldo DECIMAL(15,2) NOT NULL,
+    CuentaId BIGINT NOT NULL,
+    FOREIGN KEY (CuentaId) REFERENCES CUENTA(CuentaId)
+);
+
+CREATE TABLE IF NOT EXISTS IDEMPOTENCIA (
+    Clave VARCHAR(100) PRIMARY KEY,
+    NumeroCuenta VARCHAR(30) NOT NULL,
+    Valor DECIMAL(15,2) NOT NULL,
+    Respuesta VARCHAR(2000) NOT NULL,
+    FechaCreacion TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS SALDO_MENSUAL (
+    SaldoMensualId BIGINT AUTO_INCREMENT PRIMARY KEY,
+    CuentaId BIGINT NOT NULL,
+    Periodo DATE NOT NULL,
+    SaldoApertura DECIMAL(15,2) NOT NULL,
+    SaldoCierre DECIMAL(15,2) NOT NULL,
+    TotalDebitos DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    TotalCreditos DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    CantidadMovimientos BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_saldo_mensual_cuenta_periodo UNIQUE (CuentaId, Periodo),
+    FOREIGN KEY (CuentaId) REFERENCES CUENTA(CuentaId)
+);
+
+-- Directorio de shards: no lo mapea JPA y sus columnas se nombran igual que en MySQL
+CREATE TABLE IF NOT EXISTS DIRECTORIO_CLIENTE (
+    identificacion VARCHAR(255) PRIMARY KEY,
+    shard INT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS DIRECTORIO_CUENTA (
+    numero_cuenta VARCHAR(30) PRIMARY KEY,
+    shard INT NOT NULL
+);